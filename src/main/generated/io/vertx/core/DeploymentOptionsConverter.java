@@ -61,6 +61,9 @@ public class DeploymentOptionsConverter {
     if (json.getValue("multiThreaded") instanceof Boolean) {
       obj.setMultiThreaded((Boolean)json.getValue("multiThreaded"));
     }
+    if (json.getValue("virtualThreads") instanceof Boolean) {
+      obj.setVirtualThreads((Boolean)json.getValue("virtualThreads"));
+    }
     if (json.getValue("worker") instanceof Boolean) {
       obj.setWorker((Boolean)json.getValue("worker"));
     }
@@ -70,6 +73,9 @@ public class DeploymentOptionsConverter {
     if (json.getValue("workerPoolSize") instanceof Number) {
       obj.setWorkerPoolSize(((Number)json.getValue("workerPoolSize")).intValue());
     }
+    if (json.getValue("workerPoolType") instanceof String) {
+      obj.setWorkerPoolType(io.vertx.core.WorkerPoolType.valueOf((String)json.getValue("workerPoolType")));
+    }
   }
 
   public static void toJson(DeploymentOptions obj, JsonObject json) {
@@ -97,10 +103,14 @@ public class DeploymentOptionsConverter {
     }
     json.put("maxWorkerExecuteTime", obj.getMaxWorkerExecuteTime());
     json.put("multiThreaded", obj.isMultiThreaded());
+    json.put("virtualThreads", obj.isVirtualThreads());
     json.put("worker", obj.isWorker());
     if (obj.getWorkerPoolName() != null) {
       json.put("workerPoolName", obj.getWorkerPoolName());
     }
     json.put("workerPoolSize", obj.getWorkerPoolSize());
+    if (obj.getWorkerPoolType() != null) {
+      json.put("workerPoolType", obj.getWorkerPoolType().name());
+    }
   }
 }
\ No newline at end of file
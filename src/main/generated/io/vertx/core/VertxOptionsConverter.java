@@ -54,6 +54,9 @@ public class VertxOptionsConverter {
     if (json.getValue("eventBusOptions") instanceof JsonObject) {
       obj.setEventBusOptions(new io.vertx.core.eventbus.EventBusOptions((JsonObject)json.getValue("eventBusOptions")));
     }
+    if (json.getValue("eventLoopChooserType") instanceof String) {
+      obj.setEventLoopChooserType(io.vertx.core.EventLoopChooserType.valueOf((String)json.getValue("eventLoopChooserType")));
+    }
     if (json.getValue("eventLoopPoolSize") instanceof Number) {
       obj.setEventLoopPoolSize(((Number)json.getValue("eventLoopPoolSize")).intValue());
     }
@@ -78,6 +81,9 @@ public class VertxOptionsConverter {
     if (json.getValue("metricsOptions") instanceof JsonObject) {
       obj.setMetricsOptions(new io.vertx.core.metrics.MetricsOptions((JsonObject)json.getValue("metricsOptions")));
     }
+    if (json.getValue("preferNativeTransport") instanceof Boolean) {
+      obj.setPreferNativeTransport((Boolean)json.getValue("preferNativeTransport"));
+    }
     if (json.getValue("quorumSize") instanceof Number) {
       obj.setQuorumSize(((Number)json.getValue("quorumSize")).intValue());
     }
@@ -87,6 +93,9 @@ public class VertxOptionsConverter {
     if (json.getValue("workerPoolSize") instanceof Number) {
       obj.setWorkerPoolSize(((Number)json.getValue("workerPoolSize")).intValue());
     }
+    if (json.getValue("workerPoolType") instanceof String) {
+      obj.setWorkerPoolType(io.vertx.core.WorkerPoolType.valueOf((String)json.getValue("workerPoolType")));
+    }
   }
 
   public static void toJson(VertxOptions obj, JsonObject json) {
@@ -105,6 +114,7 @@ public class VertxOptionsConverter {
     if (obj.getEventBusOptions() != null) {
       json.put("eventBusOptions", obj.getEventBusOptions().toJson());
     }
+    json.put("eventLoopChooserType", obj.getEventLoopChooserType().name());
     json.put("eventLoopPoolSize", obj.getEventLoopPoolSize());
     json.put("haEnabled", obj.isHAEnabled());
     if (obj.getHAGroup() != null) {
@@ -119,8 +129,10 @@ public class VertxOptionsConverter {
     if (obj.getMetricsOptions() != null) {
       json.put("metricsOptions", obj.getMetricsOptions().toJson());
     }
+    json.put("preferNativeTransport", obj.getPreferNativeTransport());
     json.put("quorumSize", obj.getQuorumSize());
     json.put("warningExceptionTime", obj.getWarningExceptionTime());
     json.put("workerPoolSize", obj.getWorkerPoolSize());
+    json.put("workerPoolType", obj.getWorkerPoolType().name());
   }
 }
\ No newline at end of file
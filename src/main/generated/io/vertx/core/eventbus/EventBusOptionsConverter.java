@@ -33,6 +33,15 @@ public class EventBusOptionsConverter {
     if (json.getValue("clientAuth") instanceof String) {
       obj.setClientAuth(io.vertx.core.http.ClientAuth.valueOf((String)json.getValue("clientAuth")));
     }
+    if (json.getValue("clusterBulkMessageSize") instanceof Number) {
+      obj.setClusterBulkMessageSize(((Number)json.getValue("clusterBulkMessageSize")).intValue());
+    }
+    if (json.getValue("clusterConnectionsPerNode") instanceof Number) {
+      obj.setClusterConnectionsPerNode(((Number)json.getValue("clusterConnectionsPerNode")).intValue());
+    }
+    if (json.getValue("clusterLegacyCreditAddresses") instanceof Boolean) {
+      obj.setClusterLegacyCreditAddresses((Boolean)json.getValue("clusterLegacyCreditAddresses"));
+    }
     if (json.getValue("clusterPingInterval") instanceof Number) {
       obj.setClusterPingInterval(((Number)json.getValue("clusterPingInterval")).longValue());
     }
@@ -45,12 +54,30 @@ public class EventBusOptionsConverter {
     if (json.getValue("clusterPublicPort") instanceof Number) {
       obj.setClusterPublicPort(((Number)json.getValue("clusterPublicPort")).intValue());
     }
+    if (json.getValue("clusterSpoolDirectory") instanceof String) {
+      obj.setClusterSpoolDirectory((String)json.getValue("clusterSpoolDirectory"));
+    }
+    if (json.getValue("clusterSpoolMaxSize") instanceof Number) {
+      obj.setClusterSpoolMaxSize(((Number)json.getValue("clusterSpoolMaxSize")).intValue());
+    }
+    if (json.getValue("clusterSpoolOverflowPolicy") instanceof String) {
+      obj.setClusterSpoolOverflowPolicy(io.vertx.core.eventbus.SpoolOverflowPolicy.valueOf((String)json.getValue("clusterSpoolOverflowPolicy")));
+    }
+    if (json.getValue("clusterSubscriptionCacheTimeout") instanceof Number) {
+      obj.setClusterSubscriptionCacheTimeout(((Number)json.getValue("clusterSubscriptionCacheTimeout")).longValue());
+    }
+    if (json.getValue("clusterWriteQueueMaxSize") instanceof Number) {
+      obj.setClusterWriteQueueMaxSize(((Number)json.getValue("clusterWriteQueueMaxSize")).intValue());
+    }
     if (json.getValue("clustered") instanceof Boolean) {
       obj.setClustered((Boolean)json.getValue("clustered"));
     }
     if (json.getValue("connectTimeout") instanceof Number) {
       obj.setConnectTimeout(((Number)json.getValue("connectTimeout")).intValue());
     }
+    if (json.getValue("consumerSelection") instanceof String) {
+      obj.setConsumerSelection(io.vertx.core.eventbus.ConsumerSelection.valueOf((String)json.getValue("consumerSelection")));
+    }
     if (json.getValue("crlPaths") instanceof JsonArray) {
       json.getJsonArray("crlPaths").forEach(item -> {
         if (item instanceof String)
@@ -63,6 +90,12 @@ public class EventBusOptionsConverter {
           obj.addCrlValue(io.vertx.core.buffer.Buffer.buffer(java.util.Base64.getDecoder().decode((String)item)));
       });
     }
+    if (json.getValue("directDelivery") instanceof Boolean) {
+      obj.setDirectDelivery((Boolean)json.getValue("directDelivery"));
+    }
+    if (json.getValue("edgeTriggered") instanceof Boolean) {
+      obj.setEdgeTriggered((Boolean)json.getValue("edgeTriggered"));
+    }
     if (json.getValue("enabledCipherSuites") instanceof JsonArray) {
       json.getJsonArray("enabledCipherSuites").forEach(item -> {
         if (item instanceof String)
@@ -111,6 +144,9 @@ public class EventBusOptionsConverter {
     if (json.getValue("reuseAddress") instanceof Boolean) {
       obj.setReuseAddress((Boolean)json.getValue("reuseAddress"));
     }
+    if (json.getValue("reusePort") instanceof Boolean) {
+      obj.setReusePort((Boolean)json.getValue("reusePort"));
+    }
     if (json.getValue("sendBufferSize") instanceof Number) {
       obj.setSendBufferSize(((Number)json.getValue("sendBufferSize")).intValue());
     }
@@ -123,12 +159,18 @@ public class EventBusOptionsConverter {
     if (json.getValue("sslEngine") instanceof String) {
       obj.setSslEngine(io.vertx.core.net.SSLEngine.valueOf((String)json.getValue("sslEngine")));
     }
+    if (json.getValue("tcpFastOpen") instanceof Boolean) {
+      obj.setTcpFastOpen((Boolean)json.getValue("tcpFastOpen"));
+    }
     if (json.getValue("tcpKeepAlive") instanceof Boolean) {
       obj.setTcpKeepAlive((Boolean)json.getValue("tcpKeepAlive"));
     }
     if (json.getValue("tcpNoDelay") instanceof Boolean) {
       obj.setTcpNoDelay((Boolean)json.getValue("tcpNoDelay"));
     }
+    if (json.getValue("tcpQuickAck") instanceof Boolean) {
+      obj.setTcpQuickAck((Boolean)json.getValue("tcpQuickAck"));
+    }
     if (json.getValue("trafficClass") instanceof Number) {
       obj.setTrafficClass(((Number)json.getValue("trafficClass")).intValue());
     }
@@ -151,14 +193,25 @@ public class EventBusOptionsConverter {
     if (obj.getClientAuth() != null) {
       json.put("clientAuth", obj.getClientAuth().name());
     }
+    json.put("clusterBulkMessageSize", obj.getClusterBulkMessageSize());
+    json.put("clusterConnectionsPerNode", obj.getClusterConnectionsPerNode());
+    json.put("clusterLegacyCreditAddresses", obj.isClusterLegacyCreditAddresses());
     json.put("clusterPingInterval", obj.getClusterPingInterval());
     json.put("clusterPingReplyInterval", obj.getClusterPingReplyInterval());
     if (obj.getClusterPublicHost() != null) {
       json.put("clusterPublicHost", obj.getClusterPublicHost());
     }
     json.put("clusterPublicPort", obj.getClusterPublicPort());
+    if (obj.getClusterSpoolDirectory() != null) {
+      json.put("clusterSpoolDirectory", obj.getClusterSpoolDirectory());
+    }
+    json.put("clusterSpoolMaxSize", obj.getClusterSpoolMaxSize());
+    json.put("clusterSpoolOverflowPolicy", obj.getClusterSpoolOverflowPolicy().name());
+    json.put("clusterSubscriptionCacheTimeout", obj.getClusterSubscriptionCacheTimeout());
+    json.put("clusterWriteQueueMaxSize", obj.getClusterWriteQueueMaxSize());
     json.put("clustered", obj.isClustered());
     json.put("connectTimeout", obj.getConnectTimeout());
+    json.put("consumerSelection", obj.getConsumerSelection().name());
     if (obj.getCrlPaths() != null) {
       json.put("crlPaths", new JsonArray(
           obj.getCrlPaths().
@@ -173,6 +226,8 @@ public class EventBusOptionsConverter {
               map(item -> item.getBytes()).
               collect(java.util.stream.Collectors.toList())));
     }
+    json.put("directDelivery", obj.isDirectDelivery());
+    json.put("edgeTriggered", obj.isEdgeTriggered());
     if (obj.getEnabledCipherSuites() != null) {
       json.put("enabledCipherSuites", new JsonArray(
           obj.getEnabledCipherSuites().
@@ -196,14 +251,17 @@ public class EventBusOptionsConverter {
     json.put("reconnectAttempts", obj.getReconnectAttempts());
     json.put("reconnectInterval", obj.getReconnectInterval());
     json.put("reuseAddress", obj.isReuseAddress());
+    json.put("reusePort", obj.isReusePort());
     json.put("sendBufferSize", obj.getSendBufferSize());
     json.put("soLinger", obj.getSoLinger());
     json.put("ssl", obj.isSsl());
     if (obj.getSslEngine() != null) {
       json.put("sslEngine", obj.getSslEngine().name());
     }
+    json.put("tcpFastOpen", obj.isTcpFastOpen());
     json.put("tcpKeepAlive", obj.isTcpKeepAlive());
     json.put("tcpNoDelay", obj.isTcpNoDelay());
+    json.put("tcpQuickAck", obj.isTcpQuickAck());
     json.put("trafficClass", obj.getTrafficClass());
     json.put("trustAll", obj.isTrustAll());
     json.put("useAlpn", obj.isUseAlpn());
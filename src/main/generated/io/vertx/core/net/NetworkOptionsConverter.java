@@ -27,12 +27,18 @@ import io.vertx.core.json.JsonArray;
 public class NetworkOptionsConverter {
 
   public static void fromJson(JsonObject json, NetworkOptions obj) {
+    if (json.getValue("edgeTriggered") instanceof Boolean) {
+      obj.setEdgeTriggered((Boolean)json.getValue("edgeTriggered"));
+    }
     if (json.getValue("receiveBufferSize") instanceof Number) {
       obj.setReceiveBufferSize(((Number)json.getValue("receiveBufferSize")).intValue());
     }
     if (json.getValue("reuseAddress") instanceof Boolean) {
       obj.setReuseAddress((Boolean)json.getValue("reuseAddress"));
     }
+    if (json.getValue("reusePort") instanceof Boolean) {
+      obj.setReusePort((Boolean)json.getValue("reusePort"));
+    }
     if (json.getValue("sendBufferSize") instanceof Number) {
       obj.setSendBufferSize(((Number)json.getValue("sendBufferSize")).intValue());
     }
@@ -42,8 +48,10 @@ public class NetworkOptionsConverter {
   }
 
   public static void toJson(NetworkOptions obj, JsonObject json) {
+    json.put("edgeTriggered", obj.isEdgeTriggered());
     json.put("receiveBufferSize", obj.getReceiveBufferSize());
     json.put("reuseAddress", obj.isReuseAddress());
+    json.put("reusePort", obj.isReusePort());
     json.put("sendBufferSize", obj.getSendBufferSize());
     json.put("trafficClass", obj.getTrafficClass());
   }
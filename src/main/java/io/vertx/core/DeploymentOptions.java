@@ -35,6 +35,7 @@ public class DeploymentOptions {
 
   public static final boolean DEFAULT_WORKER = false;
   public static final boolean DEFAULT_MULTI_THREADED = false;
+  public static final boolean DEFAULT_VIRTUAL_THREADS = false;
   public static final String DEFAULT_ISOLATION_GROUP = null;
   public static final boolean DEFAULT_HA = false;
   public static final int DEFAULT_INSTANCES = 1;
@@ -42,9 +43,11 @@ public class DeploymentOptions {
   private JsonObject config;
   private boolean worker;
   private boolean multiThreaded;
+  private boolean virtualThreads;
   private String isolationGroup;
   private String workerPoolName;
   private int workerPoolSize;
+  private WorkerPoolType workerPoolType;
   private long maxWorkerExecuteTime;
   private boolean ha;
   private List<String> extraClasspath;
@@ -58,6 +61,7 @@ public class DeploymentOptions {
     this.worker = DEFAULT_WORKER;
     this.config = null;
     this.multiThreaded = DEFAULT_MULTI_THREADED;
+    this.virtualThreads = DEFAULT_VIRTUAL_THREADS;
     this.isolationGroup = DEFAULT_ISOLATION_GROUP;
     this.ha = DEFAULT_HA;
     this.instances = DEFAULT_INSTANCES;
@@ -75,6 +79,7 @@ public class DeploymentOptions {
     this.config = other.getConfig() == null ? null : other.getConfig().copy();
     this.worker = other.isWorker();
     this.multiThreaded = other.isMultiThreaded();
+    this.virtualThreads = other.isVirtualThreads();
     this.isolationGroup = other.getIsolationGroup();
     this.ha = other.isHa();
     this.extraClasspath = other.getExtraClasspath() == null ? null : new ArrayList<>(other.getExtraClasspath());
@@ -82,6 +87,7 @@ public class DeploymentOptions {
     this.isolatedClasses = other.getIsolatedClasses() == null ? null : new ArrayList<>(other.getIsolatedClasses());
     this.workerPoolName = other.workerPoolName;
     setWorkerPoolSize(other.workerPoolSize);
+    this.workerPoolType = other.workerPoolType;
     setMaxWorkerExecuteTime(other.maxWorkerExecuteTime);
   }
 
@@ -104,6 +110,7 @@ public class DeploymentOptions {
     this.config = json.getJsonObject("config");
     this.worker = json.getBoolean("worker", DEFAULT_WORKER);
     this.multiThreaded = json.getBoolean("multiThreaded", DEFAULT_MULTI_THREADED);
+    this.virtualThreads = json.getBoolean("virtualThreads", DEFAULT_VIRTUAL_THREADS);
     this.isolationGroup = json.getString("isolationGroup", DEFAULT_ISOLATION_GROUP);
     this.ha = json.getBoolean("ha", DEFAULT_HA);
     JsonArray arr = json.getJsonArray("extraClasspath", null);
@@ -179,6 +186,33 @@ public class DeploymentOptions {
     return this;
   }
 
+  /**
+   * Should the tasks of the worker verticle(s) run on virtual threads?
+   * <p>
+   * The verticle must be a worker, not multi-threaded and not use a {@link #setWorkerPoolName named worker pool}.
+   * The tasks of the verticle are still executed in order, the blocking code is executed on a virtual thread per
+   * call. When the JVM does not support virtual threads, the tasks run on the worker pool threads.
+   *
+   * @return true if the tasks run on virtual threads, false otherwise
+   */
+  public boolean isVirtualThreads() {
+    return virtualThreads;
+  }
+
+  /**
+   * Set whether the tasks of the worker verticle(s) should run on virtual threads
+   * <p>
+   * Only the unordered {@link Context#executeBlocking} calls run concurrently without the cap of a worker pool size,
+   * the ordered calls are still serialized per context like the other tasks of the verticle.
+   *
+   * @param virtualThreads true to run on virtual threads, false otherwise
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeploymentOptions setVirtualThreads(boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+    return this;
+  }
+
   /**
    * Get the isolation group that will be used when deploying the verticle(s)
    *
@@ -329,6 +363,28 @@ public class DeploymentOptions {
     return this;
   }
 
+  /**
+   * Get the type of the worker pool when the verticle is deployed with a {@link #setWorkerPoolName}, {@code null}
+   * when the named worker pool uses the {@link VertxOptions#getWorkerPoolType()}.
+   *
+   * @return the type of the worker pool
+   */
+  public WorkerPoolType getWorkerPoolType() {
+    return workerPoolType;
+  }
+
+  /**
+   * Set the type of the worker pool when the verticle is deployed with a {@link #setWorkerPoolName}. The type is
+   * used when the named worker pool is created, it has no effect when the named worker pool already exists.
+   *
+   * @param workerPoolType the type of the worker pool, {@code null} to use the {@link VertxOptions#getWorkerPoolType()}
+   * @return a reference to this, so the API can be used fluently
+   */
+  public DeploymentOptions setWorkerPoolType(WorkerPoolType workerPoolType) {
+    this.workerPoolType = workerPoolType;
+    return this;
+  }
+
   /**
    * Get the value of max worker execute time, in ns.
    * <p>
@@ -377,6 +433,7 @@ public class DeploymentOptions {
 
     if (worker != that.worker) return false;
     if (multiThreaded != that.multiThreaded) return false;
+    if (virtualThreads != that.virtualThreads) return false;
     if (ha != that.ha) return false;
     if (instances != that.instances) return false;
     if (config != null ? !config.equals(that.config) : that.config != null) return false;
@@ -393,6 +450,7 @@ public class DeploymentOptions {
     int result = config != null ? config.hashCode() : 0;
     result = 31 * result + (worker ? 1 : 0);
     result = 31 * result + (multiThreaded ? 1 : 0);
+    result = 31 * result + (virtualThreads ? 1 : 0);
     result = 31 * result + (isolationGroup != null ? isolationGroup.hashCode() : 0);
     result = 31 * result + (ha ? 1 : 0);
     result = 31 * result + (extraClasspath != null ? extraClasspath.hashCode() : 0);
@@ -400,6 +458,7 @@ public class DeploymentOptions {
     result = 31 * result + (isolatedClasses != null ? isolatedClasses.hashCode() : 0);
     result = 31 * result + (workerPoolName != null ? workerPoolName.hashCode() : 0);
     result = 31 * result + workerPoolSize;
+    result = 31 * result + (workerPoolType != null ? workerPoolType.hashCode() : 0);
     result = 31 * result + Long.hashCode(maxWorkerExecuteTime);
     return result;
   }
@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * How the event loop of a new context or of an accepted connection is chosen.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public enum EventLoopChooserType {
+
+  /**
+   * The event loops are chosen in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The least loaded of two event loops is chosen, the load of an event loop is its recent busy time and its number
+   * of pending tasks.
+   */
+  LOAD_AWARE
+
+}
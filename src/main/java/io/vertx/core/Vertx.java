@@ -443,6 +443,11 @@ public interface Vertx extends Measured {
    */
   boolean isClustered();
 
+  /**
+   * @return whether the native transport is used
+   */
+  boolean isNativeTransportEnabled();
+
   /**
    * Safely execute some blocking code.
    * <p>
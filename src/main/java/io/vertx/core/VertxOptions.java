@@ -38,6 +38,11 @@ public class VertxOptions {
    */
   public static final int DEFAULT_EVENT_LOOP_POOL_SIZE = 2 * Runtime.getRuntime().availableProcessors();
 
+  /**
+   * The default event loop chooser = {@link EventLoopChooserType#ROUND_ROBIN}
+   */
+  public static final EventLoopChooserType DEFAULT_EVENT_LOOP_CHOOSER_TYPE = EventLoopChooserType.ROUND_ROBIN;
+
   /**
    * The default number of threads in the worker pool = 20
    */
@@ -48,6 +53,11 @@ public class VertxOptions {
    */
   public static final int DEFAULT_INTERNAL_BLOCKING_POOL_SIZE = 20;
 
+  /**
+   * The default type of the worker pools = {@link WorkerPoolType#FIXED}
+   */
+  public static final WorkerPoolType DEFAULT_WORKER_POOL_TYPE = WorkerPoolType.FIXED;
+
   /**
    * The default value of whether Vert.x is clustered = false.
    */
@@ -113,6 +123,11 @@ public class VertxOptions {
    */
   public static final boolean DEFAULT_HA_ENABLED = false;
 
+  /**
+   * The default value for preferring the native transport = false
+   */
+  public static final boolean DEFAULT_PREFER_NATIVE_TRANSPORT = false;
+
   /**
    * The default value of warning exception time 5000000000 ns (5 seconds)
    * If a thread is blocked longer than this threshold, the warning log
@@ -121,8 +136,10 @@ public class VertxOptions {
   private static final long DEFAULT_WARNING_EXCEPTION_TIME = 5L * 1000 * 1000000;
 
   private int eventLoopPoolSize = DEFAULT_EVENT_LOOP_POOL_SIZE;
+  private EventLoopChooserType eventLoopChooserType = DEFAULT_EVENT_LOOP_CHOOSER_TYPE;
   private int workerPoolSize = DEFAULT_WORKER_POOL_SIZE;
   private int internalBlockingPoolSize = DEFAULT_INTERNAL_BLOCKING_POOL_SIZE;
+  private WorkerPoolType workerPoolType = DEFAULT_WORKER_POOL_TYPE;
 
 
   private long blockedThreadCheckInterval = DEFAULT_BLOCKED_THREAD_CHECK_INTERVAL;
@@ -136,6 +153,7 @@ public class VertxOptions {
   private long warningExceptionTime = DEFAULT_WARNING_EXCEPTION_TIME;
   private EventBusOptions eventBusOptions = new EventBusOptions();
   private HostnameResolverOptions hostnameResolverOptions = new HostnameResolverOptions();
+  private boolean preferNativeTransport = DEFAULT_PREFER_NATIVE_TRANSPORT;
 
   /**
    * Default constructor
@@ -150,11 +168,13 @@ public class VertxOptions {
    */
   public VertxOptions(VertxOptions other) {
     this.eventLoopPoolSize = other.getEventLoopPoolSize();
+    this.eventLoopChooserType = other.getEventLoopChooserType();
     this.workerPoolSize = other.getWorkerPoolSize();
     this.blockedThreadCheckInterval = other.getBlockedThreadCheckInterval();
     this.maxEventLoopExecuteTime = other.getMaxEventLoopExecuteTime();
     this.maxWorkerExecuteTime = other.getMaxWorkerExecuteTime();
     this.internalBlockingPoolSize = other.getInternalBlockingPoolSize();
+    this.workerPoolType = other.getWorkerPoolType();
     this.clusterManager = other.getClusterManager();
     this.haEnabled = other.isHAEnabled();
     this.quorumSize = other.getQuorumSize();
@@ -163,6 +183,7 @@ public class VertxOptions {
     this.warningExceptionTime = other.warningExceptionTime;
     this.eventBusOptions = new EventBusOptions(other.eventBusOptions);
     this.hostnameResolverOptions = other.hostnameResolverOptions != null ? new HostnameResolverOptions() : null;
+    this.preferNativeTransport = other.preferNativeTransport;
   }
 
   /**
@@ -198,6 +219,30 @@ public class VertxOptions {
     return this;
   }
 
+  /**
+   * Get how the event loop of a new context or of an accepted connection is chosen.
+   *
+   * @return the event loop chooser
+   */
+  public EventLoopChooserType getEventLoopChooserType() {
+    return eventLoopChooserType;
+  }
+
+  /**
+   * Set how the event loop of a new context or of an accepted connection is chosen. The event loop of an accepted
+   * connection is chosen among the event loops of the contexts handling the connections of the server.
+   *
+   * @param eventLoopChooserType the event loop chooser
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setEventLoopChooserType(EventLoopChooserType eventLoopChooserType) {
+    if (eventLoopChooserType == null) {
+      throw new IllegalArgumentException("eventLoopChooserType must not be null");
+    }
+    this.eventLoopChooserType = eventLoopChooserType;
+    return this;
+  }
+
   /**
    * Get the maximum number of worker threads to be used by the Vert.x instance.
    * <p>
@@ -506,6 +551,30 @@ public class VertxOptions {
     return this;
   }
 
+  /**
+   * Get the type of the worker pools.
+   *
+   * @return the type of the worker pools
+   */
+  public WorkerPoolType getWorkerPoolType() {
+    return workerPoolType;
+  }
+
+  /**
+   * Set the type of the worker pools: the worker pool, the internal blocking pool and the named worker pools
+   * that don't set their type.
+   *
+   * @param workerPoolType the type of the worker pools
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setWorkerPoolType(WorkerPoolType workerPoolType) {
+    if (workerPoolType == null) {
+      throw new IllegalArgumentException("workerPoolType must not be null");
+    }
+    this.workerPoolType = workerPoolType;
+    return this;
+  }
+
   /**
    * Will HA be enabled on the Vert.x instance?
    *
@@ -648,6 +717,28 @@ public class VertxOptions {
     return this;
   }
 
+  /**
+   * @return whether to prefer the native transport to the JDK transport
+   */
+  public boolean getPreferNativeTransport() {
+    return preferNativeTransport;
+  }
+
+  /**
+   * Set whether to prefer the native transport to the JDK transport.
+   * <p/>
+   * When the native transport is preferred and available (Linux epoll with the {@code netty-transport-native-epoll}
+   * jar on the classpath), it is used for the event loops and all the channels, otherwise Vert.x silently
+   * falls back to the JDK transport.
+   *
+   * @param preferNativeTransport {@code true} to prefer the native transport
+   * @return a reference to this, so the API can be used fluently
+   */
+  public VertxOptions setPreferNativeTransport(boolean preferNativeTransport) {
+    this.preferNativeTransport = preferNativeTransport;
+    return this;
+  }
+
   @Override
   public boolean equals(Object o) {
     if (this == o) return true;
@@ -664,6 +755,9 @@ public class VertxOptions {
     if (haEnabled != that.haEnabled) return false;
     if (quorumSize != that.quorumSize) return false;
     if (warningExceptionTime != that.warningExceptionTime) return false;
+    if (preferNativeTransport != that.preferNativeTransport) return false;
+    if (workerPoolType != that.workerPoolType) return false;
+    if (eventLoopChooserType != that.eventLoopChooserType) return false;
     if (clusterManager != null ? !clusterManager.equals(that.clusterManager) : that.clusterManager != null)
       return false;
     if (haGroup != null ? !haGroup.equals(that.haGroup) : that.haGroup != null) return false;
@@ -691,6 +785,9 @@ public class VertxOptions {
     result = 31 * result + (eventBusOptions != null ? eventBusOptions.hashCode() : 0);
     result = 31 * result + (hostnameResolverOptions != null ? hostnameResolverOptions.hashCode() : 0);
     result = 31 * result + (int) (warningExceptionTime ^ (warningExceptionTime >>> 32));
+    result = 31 * result + (preferNativeTransport ? 1 : 0);
+    result = 31 * result + workerPoolType.hashCode();
+    result = 31 * result + eventLoopChooserType.hashCode();
     return result;
   }
 
@@ -711,6 +808,9 @@ public class VertxOptions {
         ", hostnameResolver=" + hostnameResolverOptions.toJson() +
         ", eventbus=" + eventBusOptions.toJson() +
         ", warningExceptionTime=" + warningExceptionTime +
+        ", preferNativeTransport=" + preferNativeTransport +
+        ", workerPoolType=" + workerPoolType +
+        ", eventLoopChooserType=" + eventLoopChooserType +
         '}';
   }
 }
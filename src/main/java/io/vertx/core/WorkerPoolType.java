@@ -0,0 +1,40 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * How the tasks of a worker pool are queued.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public enum WorkerPoolType {
+
+  /**
+   * The threads of the pool take the tasks from a single blocking queue.
+   */
+  FIXED,
+
+  /**
+   * Each thread of the pool has its own lock-free queue and steals the tasks of the other threads when its queue is
+   * empty, the threads submitting tasks concurrently don't contend on a single queue.
+   */
+  WORK_STEALING
+
+}
@@ -146,6 +146,18 @@ public class DatagramSocketOptions extends NetworkOptions {
     return this;
   }
 
+  @Override
+  public DatagramSocketOptions setReusePort(boolean reusePort) {
+    super.setReusePort(reusePort);
+    return this;
+  }
+
+  @Override
+  public DatagramSocketOptions setEdgeTriggered(boolean edgeTriggered) {
+    super.setEdgeTriggered(edgeTriggered);
+    return this;
+  }
+
   /**
    * @return true if the socket receive broadcast packets?
    */
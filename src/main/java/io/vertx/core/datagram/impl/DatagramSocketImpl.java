@@ -21,7 +21,6 @@ import io.netty.channel.FixedRecvByteBufAllocator;
 import io.netty.channel.socket.DatagramChannel;
 import io.netty.channel.socket.DatagramPacket;
 import io.netty.channel.socket.InternetProtocolFamily;
-import io.netty.channel.socket.nio.NioDatagramChannel;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Future;
 import io.vertx.core.Handler;
@@ -36,6 +35,7 @@ import io.vertx.core.net.NetworkOptions;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.core.net.impl.ConnectionBase;
 import io.vertx.core.net.impl.SocketAddressImpl;
+import io.vertx.core.net.impl.transport.Transport;
 import io.vertx.core.spi.metrics.DatagramSocketMetrics;
 import io.vertx.core.spi.metrics.Metrics;
 import io.vertx.core.spi.metrics.MetricsProvider;
@@ -52,7 +52,7 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
   private Handler<io.vertx.core.datagram.DatagramPacket> packetHandler;
 
   public DatagramSocketImpl(VertxInternal vertx, DatagramSocketOptions options) {
-    super(vertx, createChannel(options.isIpV6() ? io.vertx.core.datagram.impl.InternetProtocolFamily.IPv6 : io.vertx.core.datagram.impl.InternetProtocolFamily.IPv4,
+    super(vertx, createChannel(vertx, options.isIpV6() ? io.vertx.core.datagram.impl.InternetProtocolFamily.IPv6 : io.vertx.core.datagram.impl.InternetProtocolFamily.IPv4,
           new DatagramSocketOptions(options)), vertx.getOrCreateContext(), options);
     ContextImpl creatingContext = vertx.getContext();
     if (creatingContext != null && creatingContext.isMultiThreadedWorkerContext()) {
@@ -283,25 +283,26 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
     return metrics;
   }
 
-  protected DatagramChannel channel() {
+  public DatagramChannel channel() {
     return (DatagramChannel) channel;
   }
 
-  private static NioDatagramChannel createChannel(io.vertx.core.datagram.impl.InternetProtocolFamily family,
-                                                  DatagramSocketOptions options) {
-    NioDatagramChannel channel;
+  private static DatagramChannel createChannel(VertxInternal vertx, io.vertx.core.datagram.impl.InternetProtocolFamily family,
+                                               DatagramSocketOptions options) {
+    Transport transport = vertx.transport();
+    DatagramChannel channel;
     if (family == null) {
-      channel = new NioDatagramChannel();
+      channel = transport.datagramChannel();
     } else {
       switch (family) {
         case IPv4:
-          channel = new NioDatagramChannel(InternetProtocolFamily.IPv4);
+          channel = transport.datagramChannel(InternetProtocolFamily.IPv4);
           break;
         case IPv6:
-          channel = new NioDatagramChannel(InternetProtocolFamily.IPv6);
+          channel = transport.datagramChannel(InternetProtocolFamily.IPv6);
           break;
         default:
-          channel = new NioDatagramChannel();
+          channel = transport.datagramChannel();
       }
     }
     if (options.getSendBufferSize() != -1) {
@@ -327,6 +328,7 @@ public class DatagramSocketImpl extends ConnectionBase implements DatagramSocket
         throw new IllegalArgumentException("Could not find network interface with name " + options.getMulticastNetworkInterface());
       }
     }
+    transport.configure(channel, options);
     return channel;
   }
 
@@ -0,0 +1,47 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ * How the consumer of a message sent point to point is chosen among the consumers registered at its address
+ * on the node the message is delivered to.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public enum ConsumerSelection {
+
+  /**
+   * The consumers are chosen in turn.
+   */
+  ROUND_ROBIN,
+
+  /**
+   * The consumer with the fewest messages waiting to be handled is chosen, the messages buffered by a paused consumer
+   * are waiting as well.
+   */
+  LEAST_PENDING,
+
+  /**
+   * A consumer registered on the event loop the message is delivered from is chosen, in turn when there are several
+   * of them, otherwise the consumers are chosen in turn.
+   */
+  SAME_EVENT_LOOP
+
+}
@@ -0,0 +1,29 @@
+package io.vertx.core.eventbus;
+
+import io.vertx.codegen.annotations.VertxGen;
+
+/**
+ *
+ * Encapsulates a message being delivered to a handler by Vert.x. Used with event bus inbound interceptors
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+@VertxGen
+public interface DeliveryContext<T> {
+
+  /**
+   * @return  The message being delivered
+   */
+  Message<T> message();
+
+  /**
+   * Call the next interceptor, the message is delivered to the handler after the last interceptor
+   */
+  void next();
+
+  /**
+   *
+   * @return true if the message has been sent (point to point) or False if the message has been published
+   */
+  boolean send();
+}
@@ -41,9 +41,16 @@ public class DeliveryOptions {
    */
   public static final long DEFAULT_TIMEOUT = 30 * 1000;
 
+  /**
+   * The default value of whether the body is shared with the local consumers = false
+   */
+  public static final boolean DEFAULT_SHARE_BODY = false;
+
   private long timeout = DEFAULT_TIMEOUT;
   private String codecName;
   private MultiMap headers;
+  private ConsumerSelection consumerSelection;
+  private boolean shareBody = DEFAULT_SHARE_BODY;
 
   /**
    * Default constructor
@@ -60,6 +67,8 @@ public class DeliveryOptions {
     this.timeout = other.getSendTimeout();
     this.codecName = other.getCodecName();
     this.headers = other.getHeaders();
+    this.consumerSelection = other.getConsumerSelection();
+    this.shareBody = other.isShareBody();
   }
 
   /**
@@ -70,6 +79,11 @@ public class DeliveryOptions {
   public DeliveryOptions(JsonObject json) {
     this.timeout = json.getLong("timeout", DEFAULT_TIMEOUT);
     this.codecName = json.getString("codecName", null);
+    String consumerSelection = json.getString("consumerSelection", null);
+    if (consumerSelection != null) {
+      this.consumerSelection = ConsumerSelection.valueOf(consumerSelection);
+    }
+    this.shareBody = json.getBoolean("shareBody", DEFAULT_SHARE_BODY);
     JsonObject hdrs = json.getJsonObject("headers", null);
     if (hdrs != null) {
       headers = new CaseInsensitiveHeaders();
@@ -129,6 +143,58 @@ public class DeliveryOptions {
     return this;
   }
 
+  /**
+   * Get the consumer selection.
+   * <p>
+   * When sending a message point to point, the consumer selection chooses the consumer the message is delivered to
+   * among the consumers registered at its address. When it is {@code null} the selection configured by
+   * {@link EventBusOptions#setConsumerSelection} is used. It only applies to the consumers of this node, the consumers
+   * of the other nodes of the cluster use the selection configured on their node.
+   *
+   * @return  the consumer selection
+   */
+  public ConsumerSelection getConsumerSelection() {
+    return consumerSelection;
+  }
+
+  /**
+   * Set the consumer selection.
+   *
+   * @param consumerSelection  the consumer selection, {@code null} for the one of the event bus options
+   * @return  a reference to this, so the API can be used fluently
+   */
+  public DeliveryOptions setConsumerSelection(ConsumerSelection consumerSelection) {
+    this.consumerSelection = consumerSelection;
+    return this;
+  }
+
+  /**
+   * Get whether the body is shared with the local consumers.
+   * <p>
+   * By default the consumers of this node receive a copy of the body of a message, e.g a {@link io.vertx.core.json.JsonObject}
+   * is copied for each consumer it is published to. When the body is shared, the consumers receive the sent instance
+   * and must not modify it, neither must the sender after the message has been sent. It only applies to the bodies
+   * encoded by the default codecs, the consumers of the other nodes of the cluster always receive a decoded copy.
+   * <p>
+   * A body implementing {@link io.vertx.core.shareddata.Shareable} is always shared.
+   *
+   * @return  whether the body is shared
+   */
+  public boolean isShareBody() {
+    return shareBody;
+  }
+
+  /**
+   * Set whether the body is shared with the local consumers.
+   *
+   * @param shareBody  {@code true} to deliver the sent body to the local consumers without copying it
+   * @return  a reference to this, so the API can be used fluently
+   */
+  public DeliveryOptions setShareBody(boolean shareBody) {
+    this.shareBody = shareBody;
+    return this;
+  }
+
   /**
    * Add a message header.
    * <p>
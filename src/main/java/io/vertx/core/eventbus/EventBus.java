@@ -23,6 +23,8 @@ import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.metrics.Measured;
 
+import java.util.List;
+
 /**
  * A Vert.x event-bus is a light-weight distributed messaging system which allows different parts of your application,
  * or different applications and services to communicate with each in a loosely coupled way.
@@ -86,6 +88,37 @@ public interface EventBus extends Measured {
   @Fluent
   <T> EventBus send(String address, Object message, DeliveryOptions options, Handler<AsyncResult<Message<T>>> replyHandler);
 
+  /**
+   * Like {@link #sendBatch(String, List, DeliveryOptions)} but with the default delivery options.
+   *
+   * @param address  the address to send them to
+   * @param messages  the messages
+   * @return a reference to this, so the API can be used fluently
+   */
+  @GenIgnore
+  @Fluent
+  EventBus sendBatch(String address, List<?> messages);
+
+  /**
+   * Send a batch of messages to the same address, point to point.
+   * <p>
+   * The handlers of the address are resolved once for the whole batch and all its messages are delivered to
+   * the same consumer, on its context, in a single task. A consumer with a {@link MessageConsumer#batchHandler}
+   * gets them together. In a cluster, the messages sent to another node are queued together on the connection
+   * to this node.
+   * <p>
+   * When interceptors are registered the messages are sent one by one. The messages of a batch can't be replied to
+   * with a reply handler.
+   *
+   * @param address  the address to send them to
+   * @param messages  the messages
+   * @param options  delivery options
+   * @return a reference to this, so the API can be used fluently
+   */
+  @GenIgnore
+  @Fluent
+  EventBus sendBatch(String address, List<?> messages, DeliveryOptions options);
+
   /**
    * Publish a message.<p>
    * The message will be delivered to all handlers registered to the address.
@@ -115,6 +148,12 @@ public interface EventBus extends Measured {
    * The returned consumer is not yet registered
    * at the address, registration will be effective when {@link MessageConsumer#handler(io.vertx.core.Handler)}
    * is called.
+   * <p>
+   * The address can be a pattern of {@code .} separated segments with wildcard segments: {@code *} matches
+   * exactly one segment and {@code #} matches zero or more segments, e.g {@code devices.*.telemetry} or
+   * {@code devices.#}. A published message is delivered to the consumers of its address and to the consumers of
+   * the matching patterns. A message sent point to point is delivered to a consumer of its address, or when there
+   * is none to a consumer of a matching pattern.
    *
    * @param address  the address that it will register it at
    * @return the event bus message consumer
@@ -272,5 +311,22 @@ public interface EventBus extends Measured {
    */
   EventBus removeInterceptor(Handler<SendContext> interceptor);
 
+  /**
+   * Add an interceptor that will be called whenever a message is delivered to a handler by Vert.x, on the context
+   * of the handler
+   *
+   * @param interceptor  the interceptor
+   * @return a reference to this, so the API can be used fluently
+   */
+  EventBus addInboundInterceptor(Handler<DeliveryContext> interceptor);
+
+  /**
+   * Remove an inbound interceptor
+   *
+   * @param interceptor  the interceptor
+   * @return a reference to this, so the API can be used fluently
+   */
+  EventBus removeInboundInterceptor(Handler<DeliveryContext> interceptor);
+
 }
 
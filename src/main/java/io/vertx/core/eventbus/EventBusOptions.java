@@ -36,6 +36,16 @@ public class EventBusOptions extends TCPSSLOptions {
   private int clusterPublicPort = VertxOptions.DEFAULT_CLUSTER_PUBLIC_PORT;
   private long clusterPingInterval = VertxOptions.DEFAULT_CLUSTER_PING_INTERVAL;
   private long clusterPingReplyInterval = VertxOptions.DEFAULT_CLUSTER_PING_REPLY_INTERVAL;
+  private int clusterWriteQueueMaxSize = DEFAULT_CLUSTER_WRITE_QUEUE_MAX_SIZE;
+  private long clusterSubscriptionCacheTimeout = DEFAULT_CLUSTER_SUBSCRIPTION_CACHE_TIMEOUT;
+  private boolean directDelivery = DEFAULT_DIRECT_DELIVERY;
+  private ConsumerSelection consumerSelection = DEFAULT_CONSUMER_SELECTION;
+  private String clusterSpoolDirectory = DEFAULT_CLUSTER_SPOOL_DIRECTORY;
+  private int clusterSpoolMaxSize = DEFAULT_CLUSTER_SPOOL_MAX_SIZE;
+  private SpoolOverflowPolicy clusterSpoolOverflowPolicy = DEFAULT_CLUSTER_SPOOL_OVERFLOW_POLICY;
+  private int clusterConnectionsPerNode = DEFAULT_CLUSTER_CONNECTIONS_PER_NODE;
+  private int clusterBulkMessageSize = DEFAULT_CLUSTER_BULK_MESSAGE_SIZE;
+  private boolean clusterLegacyCreditAddresses = DEFAULT_CLUSTER_LEGACY_CREDIT_ADDRESSES;
 
   // Attributes used to configure the server of the event bus when the event bus is clustered.
 
@@ -86,6 +96,58 @@ public class EventBusOptions extends TCPSSLOptions {
    */
   public static final boolean DEFAULT_TRUST_ALL = true;
 
+  /**
+   * The default number of messages queued for a node of the cluster above which its write queue is full = 8192
+   */
+  public static final int DEFAULT_CLUSTER_WRITE_QUEUE_MAX_SIZE = 8192;
+
+  /**
+   * The default time the subscriptions of an address are cached by a node of the cluster = 0 (no caching)
+   */
+  public static final long DEFAULT_CLUSTER_SUBSCRIPTION_CACHE_TIMEOUT = 0;
+
+  /**
+   * The default value of whether messages are delivered directly to the consumers of the sending context = false
+   */
+  public static final boolean DEFAULT_DIRECT_DELIVERY = false;
+
+  /**
+   * The default consumer selection of the messages sent point to point = {@link ConsumerSelection#ROUND_ROBIN}
+   */
+  public static final ConsumerSelection DEFAULT_CONSUMER_SELECTION = ConsumerSelection.ROUND_ROBIN;
+
+  /**
+   * The default directory of the spools of the nodes of the cluster = null (no spooling)
+   */
+  public static final String DEFAULT_CLUSTER_SPOOL_DIRECTORY = null;
+
+  /**
+   * The default maximum size of the spool of a node of the cluster = 64 MB
+   */
+  public static final int DEFAULT_CLUSTER_SPOOL_MAX_SIZE = 64 * 1024 * 1024;
+
+  /**
+   * The default policy when the spool of a node of the cluster is full = {@link SpoolOverflowPolicy#DROP_OLDEST}
+   */
+  public static final SpoolOverflowPolicy DEFAULT_CLUSTER_SPOOL_OVERFLOW_POLICY = SpoolOverflowPolicy.DROP_OLDEST;
+
+  /**
+   * The default number of connections to a node of the cluster = 1
+   */
+  public static final int DEFAULT_CLUSTER_CONNECTIONS_PER_NODE = 1;
+
+  /**
+   * The default size of the body from which a message is sent on the bulk connection to a node of the cluster = 0
+   * (no bulk connection)
+   */
+  public static final int DEFAULT_CLUSTER_BULK_MESSAGE_SIZE = 0;
+
+  /**
+   * The default value of whether the flow controlled producers have a credit address for the nodes of an older
+   * version = false
+   */
+  public static final boolean DEFAULT_CLUSTER_LEGACY_CREDIT_ADDRESSES = false;
+
   private int reconnectAttempts;
   private long reconnectInterval;
 
@@ -125,6 +187,16 @@ public class EventBusOptions extends TCPSSLOptions {
     this.clusterPublicPort = other.clusterPublicPort;
     this.clusterPingInterval = other.clusterPingInterval;
     this.clusterPingReplyInterval = other.clusterPingReplyInterval;
+    this.clusterWriteQueueMaxSize = other.clusterWriteQueueMaxSize;
+    this.clusterSubscriptionCacheTimeout = other.clusterSubscriptionCacheTimeout;
+    this.directDelivery = other.directDelivery;
+    this.consumerSelection = other.consumerSelection;
+    this.clusterSpoolDirectory = other.clusterSpoolDirectory;
+    this.clusterSpoolMaxSize = other.clusterSpoolMaxSize;
+    this.clusterSpoolOverflowPolicy = other.clusterSpoolOverflowPolicy;
+    this.clusterConnectionsPerNode = other.clusterConnectionsPerNode;
+    this.clusterBulkMessageSize = other.clusterBulkMessageSize;
+    this.clusterLegacyCreditAddresses = other.clusterLegacyCreditAddresses;
 
     this.port = other.port;
     this.host = other.host;
@@ -361,6 +433,30 @@ public class EventBusOptions extends TCPSSLOptions {
     return this;
   }
 
+  @Override
+  public EventBusOptions setReusePort(boolean reusePort) {
+    super.setReusePort(reusePort);
+    return this;
+  }
+
+  @Override
+  public EventBusOptions setEdgeTriggered(boolean edgeTriggered) {
+    super.setEdgeTriggered(edgeTriggered);
+    return this;
+  }
+
+  @Override
+  public EventBusOptions setTcpFastOpen(boolean tcpFastOpen) {
+    super.setTcpFastOpen(tcpFastOpen);
+    return this;
+  }
+
+  @Override
+  public EventBusOptions setTcpQuickAck(boolean tcpQuickAck) {
+    super.setTcpQuickAck(tcpQuickAck);
+    return this;
+  }
+
   @Override
   public EventBusOptions setTcpNoDelay(boolean tcpNoDelay) {
     super.setTcpNoDelay(tcpNoDelay);
@@ -476,7 +572,8 @@ public class EventBusOptions extends TCPSSLOptions {
   }
 
   /**
-   * Set the value of cluster ping interval, in ms.
+   * Set the value of cluster ping interval, in ms. A connection to a node of the cluster is pinged when no pong has
+   * been received from the node within this interval.
    *
    * @param clusterPingInterval The value of cluster ping interval, in ms.
    * @return a reference to this, so the API can be used fluently
@@ -502,7 +599,8 @@ public class EventBusOptions extends TCPSSLOptions {
   }
 
   /**
-   * Set the value of cluster ping reply interval, in ms.
+   * Set the value of cluster ping reply interval, in ms. A connection to a node of the cluster is closed when the
+   * pong is not received within this interval.
    *
    * @param clusterPingReplyInterval The value of cluster ping reply interval, in ms.
    * @return a reference to this, so the API can be used fluently
@@ -515,6 +613,238 @@ public class EventBusOptions extends TCPSSLOptions {
     return this;
   }
 
+  /**
+   * @return the maximum number of messages queued for a node of the cluster
+   */
+  public int getClusterWriteQueueMaxSize() {
+    return clusterWriteQueueMaxSize;
+  }
+
+  /**
+   * Set the maximum number of messages queued for a node of the cluster. Messages are queued while the connection to
+   * the node is being established or when the node does not read fast enough.
+   * <p>
+   * Once the queue is full, the message producers sending to this node report a full write queue until it has been
+   * drained to half of this size, and the messages sent to this node are rejected: the reply handler of a rejected
+   * message is failed with {@link ReplyFailure#ERROR}.
+   *
+   * @param clusterWriteQueueMaxSize the number of messages
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterWriteQueueMaxSize(int clusterWriteQueueMaxSize) {
+    if (clusterWriteQueueMaxSize < 1) {
+      throw new IllegalArgumentException("clusterWriteQueueMaxSize must be greater than 0");
+    }
+    this.clusterWriteQueueMaxSize = clusterWriteQueueMaxSize;
+    return this;
+  }
+
+  /**
+   * @return the time the subscriptions of an address are cached by a node of the cluster, in ms
+   */
+  public long getClusterSubscriptionCacheTimeout() {
+    return clusterSubscriptionCacheTimeout;
+  }
+
+  /**
+   * Set the time the subscriptions of an address are cached by a node of the cluster, in ms. Within this time
+   * the messages are sent without looking up the subscriptions in the cluster manager. The cache is invalidated when
+   * a consumer of this node is registered or unregistered and when a node crashes, the consumers registered
+   * or unregistered on other nodes are only seen once the cached subscriptions expire. Use {@code 0} to disable
+   * the cache.
+   *
+   * @param clusterSubscriptionCacheTimeout the timeout, in ms
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterSubscriptionCacheTimeout(long clusterSubscriptionCacheTimeout) {
+    if (clusterSubscriptionCacheTimeout < 0) {
+      throw new IllegalArgumentException("clusterSubscriptionCacheTimeout must be >= 0");
+    }
+    this.clusterSubscriptionCacheTimeout = clusterSubscriptionCacheTimeout;
+    return this;
+  }
+
+  /**
+   * @return the directory of the spools of the nodes of the cluster, {@code null} when spooling is disabled
+   */
+  public String getClusterSpoolDirectory() {
+    return clusterSpoolDirectory;
+  }
+
+  /**
+   * Set the directory of the spools of the nodes of the cluster. When the connection to a node is lost or can't be
+   * established, the messages queued for this node are written to its spool, a memory mapped file of this directory,
+   * instead of being lost. They are sent in order before any other message once a connection to the node is
+   * established again, including after a restart of this node. The spool of a node is deleted when the node crashes.
+   * <p>
+   * The messages being written to the connection when it is lost are not spooled.
+   *
+   * @param clusterSpoolDirectory the directory, {@code null} to disable spooling
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterSpoolDirectory(String clusterSpoolDirectory) {
+    this.clusterSpoolDirectory = clusterSpoolDirectory;
+    return this;
+  }
+
+  /**
+   * @return the maximum size of the spool of a node of the cluster, in bytes
+   */
+  public int getClusterSpoolMaxSize() {
+    return clusterSpoolMaxSize;
+  }
+
+  /**
+   * Set the maximum size of the spool of a node of the cluster, in bytes. The spool file is mapped with this size.
+   *
+   * @param clusterSpoolMaxSize the maximum size
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterSpoolMaxSize(int clusterSpoolMaxSize) {
+    if (clusterSpoolMaxSize < 1024) {
+      throw new IllegalArgumentException("clusterSpoolMaxSize must be >= 1024");
+    }
+    this.clusterSpoolMaxSize = clusterSpoolMaxSize;
+    return this;
+  }
+
+  /**
+   * @return what is done with a message when the spool of a node of the cluster is full
+   */
+  public SpoolOverflowPolicy getClusterSpoolOverflowPolicy() {
+    return clusterSpoolOverflowPolicy;
+  }
+
+  /**
+   * Set what is done with a message when the spool of a node of the cluster is full.
+   *
+   * @param clusterSpoolOverflowPolicy the policy
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterSpoolOverflowPolicy(SpoolOverflowPolicy clusterSpoolOverflowPolicy) {
+    if (clusterSpoolOverflowPolicy == null) {
+      throw new IllegalArgumentException("clusterSpoolOverflowPolicy must not be null");
+    }
+    this.clusterSpoolOverflowPolicy = clusterSpoolOverflowPolicy;
+    return this;
+  }
+
+  /**
+   * @return the number of connections to a node of the cluster
+   */
+  public int getClusterConnectionsPerNode() {
+    return clusterConnectionsPerNode;
+  }
+
+  /**
+   * Set the number of connections to a node of the cluster. The messages are spread over the connections by the
+   * hash of their address, so the messages sent to an address are still received in order, and each connection is
+   * handled by its own event loop. All the nodes of the cluster should use the same number of connections for the
+   * spooled messages to be sent on the connection of their address.
+   *
+   * @param clusterConnectionsPerNode the number of connections
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterConnectionsPerNode(int clusterConnectionsPerNode) {
+    if (clusterConnectionsPerNode < 1) {
+      throw new IllegalArgumentException("clusterConnectionsPerNode must be greater than 0");
+    }
+    this.clusterConnectionsPerNode = clusterConnectionsPerNode;
+    return this;
+  }
+
+  /**
+   * @return the size of the body from which a message is sent on the bulk connection to a node of the cluster, in bytes
+   */
+  public int getClusterBulkMessageSize() {
+    return clusterBulkMessageSize;
+  }
+
+  /**
+   * Set the size of the body from which a message is sent on the bulk connection to a node of the cluster, in bytes.
+   * The large messages then don't delay the small messages sent on the other connections, however a large message
+   * can be received after a small message sent later to the same address. Use {@code 0} to send all the messages on
+   * the connections of their address.
+   *
+   * @param clusterBulkMessageSize the size, in bytes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterBulkMessageSize(int clusterBulkMessageSize) {
+    if (clusterBulkMessageSize < 0) {
+      throw new IllegalArgumentException("clusterBulkMessageSize must be >= 0");
+    }
+    this.clusterBulkMessageSize = clusterBulkMessageSize;
+    return this;
+  }
+
+  /**
+   * @return whether the flow controlled producers have a credit address for the nodes of an older version
+   */
+  public boolean isClusterLegacyCreditAddresses() {
+    return clusterLegacyCreditAddresses;
+  }
+
+  /**
+   * Set whether the flow controlled producers have a credit address for the nodes of an older version. The producers
+   * of a context share a single credit consumer, the nodes of an older version send the credits to an address per
+   * producer instead. Enable it while the cluster has nodes of an older version, e.g. during a rolling upgrade,
+   * otherwise the producers don't receive the credits granted by the consumers of these nodes. Each producer then
+   * registers a consumer at its own credit address.
+   *
+   * @param clusterLegacyCreditAddresses whether the producers have a credit address for the older nodes
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setClusterLegacyCreditAddresses(boolean clusterLegacyCreditAddresses) {
+    this.clusterLegacyCreditAddresses = clusterLegacyCreditAddresses;
+    return this;
+  }
+
+  /**
+   * @return whether messages are delivered directly to the consumers of the sending context
+   */
+  public boolean isDirectDelivery() {
+    return directDelivery;
+  }
+
+  /**
+   * Set whether messages are delivered directly to the consumers of the sending context. When a message is sent
+   * from an event loop context to a consumer registered on the same context, the consumer handler is called
+   * before the send returns instead of being scheduled on the context. The delivery falls back to the context when
+   * the direct deliveries are nested too deeply or when a delivery to the consumer is already scheduled, so the
+   * messages of a sender are still received in order.
+   * <p>
+   * The sender must not rely on the consumer being called after the send has returned.
+   *
+   * @param directDelivery whether to deliver directly
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setDirectDelivery(boolean directDelivery) {
+    this.directDelivery = directDelivery;
+    return this;
+  }
+
+  /**
+   * @return how the consumer of a message sent point to point is chosen
+   */
+  public ConsumerSelection getConsumerSelection() {
+    return consumerSelection;
+  }
+
+  /**
+   * Set how the consumer of a message sent point to point is chosen among the consumers registered at its address
+   * on this node. It can be overridden for a message with {@link DeliveryOptions#setConsumerSelection}.
+   *
+   * @param consumerSelection the consumer selection
+   * @return a reference to this, so the API can be used fluently
+   */
+  public EventBusOptions setConsumerSelection(ConsumerSelection consumerSelection) {
+    if (consumerSelection == null) {
+      throw new IllegalArgumentException("consumerSelection must not be null");
+    }
+    this.consumerSelection = consumerSelection;
+    return this;
+  }
+
   /**
    * Get the public facing port to be used when clustering.
    * <p>
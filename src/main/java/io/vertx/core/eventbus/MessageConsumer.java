@@ -16,11 +16,15 @@
 
 package io.vertx.core.eventbus;
 
+import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.streams.ReadStream;
 
+import java.util.List;
+
 /**
  * An event bus consumer object representing a stream of message to an {@link EventBus} address that can
  * be read from.
@@ -52,6 +56,19 @@ public interface MessageConsumer<T> extends ReadStream<Message<T>> {
   @Override
   MessageConsumer<T> endHandler(Handler<Void> endHandler);
 
+  /**
+   * Set a handler called with the messages of a batch sent with {@link EventBus#sendBatch}, instead of the
+   * {@link #handler} being called with each of them. The consumer is still registered by setting its
+   * {@link #handler}, which handles the messages that are not sent in a batch and the messages of a batch
+   * delivered while this consumer is paused.
+   *
+   * @param handler the batch handler, {@code null} to handle the messages of a batch one by one
+   * @return this registration
+   */
+  @GenIgnore
+  @Fluent
+  MessageConsumer<T> batchHandler(Handler<List<Message<T>>> handler);
+
   /**
    * @return a read stream for the body of the message stream.
    */
@@ -82,6 +99,23 @@ public interface MessageConsumer<T> extends ReadStream<Message<T>> {
    */
   int getMaxBufferedMessages();
 
+  /**
+   * Set the maximum number of messages handled by a single task of the context of this consumer. The default
+   * value is <code>1</code>. With a greater value, the messages delivered to this consumer while a task is waiting
+   * to be executed are handled by this task, up to this number, instead of each message being handled by its own task.
+   * The messages are still handled in order and buffered when this consumer is paused.
+   *
+   * @param maxCoalescedMessages the maximum number of messages handled by a task
+   * @return this registration
+   */
+  @Fluent
+  MessageConsumer<T> setMaxCoalescedMessages(int maxCoalescedMessages);
+
+  /**
+   * @return the maximum number of messages handled by a single task of the context of this consumer
+   */
+  int getMaxCoalescedMessages();
+
   /**
    * Optional method which can be called to indicate when the registration has been propagated across the cluster.
    *
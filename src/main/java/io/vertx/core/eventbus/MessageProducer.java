@@ -17,11 +17,14 @@
 package io.vertx.core.eventbus;
 
 import io.vertx.codegen.annotations.Fluent;
+import io.vertx.codegen.annotations.GenIgnore;
 import io.vertx.codegen.annotations.VertxGen;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.streams.WriteStream;
 
+import java.util.List;
+
 /**
  * Represents a stream of message that can be written to.
  * <p>
@@ -49,6 +52,17 @@ public interface MessageProducer<T> extends WriteStream<T> {
   @Override
   MessageProducer<T> write(T data);
 
+  /**
+   * Write a batch of messages, a producer created with {@link EventBus#sender} sends them with
+   * {@link EventBus#sendBatch} as long as it has enough credits, otherwise they are written one by one.
+   *
+   * @param data  the messages to write
+   * @return  reference to this for fluency
+   */
+  @GenIgnore
+  @Fluent
+  MessageProducer<T> writeBatch(List<T> data);
+
   @Override
   MessageProducer<T> setWriteQueueMaxSize(int maxSize);
 
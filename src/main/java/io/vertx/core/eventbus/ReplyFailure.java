@@ -39,13 +39,20 @@ public enum ReplyFailure {
   /**
    * The message send failed because the recipient actively sent back a failure (rejected the message)
    */
-  RECIPIENT_FAILURE;
+  RECIPIENT_FAILURE,
+
+  /**
+   * The message send failed because the message could not be sent to the node of the recipient, e.g. its write
+   * queue is full.
+   */
+  ERROR;
 
   public static ReplyFailure fromInt(int i) {
     switch (i) {
       case 0: return TIMEOUT;
       case 1: return NO_HANDLERS;
       case 2: return RECIPIENT_FAILURE;
+      case 3: return ERROR;
       default: throw new IllegalStateException("Invalid index " + i);
     }
   }
@@ -55,6 +62,7 @@ public enum ReplyFailure {
       case TIMEOUT: return 0;
       case NO_HANDLERS: return 1;
       case RECIPIENT_FAILURE: return 2;
+      case ERROR: return 3;
       default: throw new IllegalStateException("How did we get here?");
     }
   }
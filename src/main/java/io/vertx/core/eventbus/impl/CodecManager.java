@@ -37,6 +37,8 @@ public class CodecManager {
   private final MessageCodec[] systemCodecs;
   private final ConcurrentMap<String, MessageCodec> userCodecMap = new ConcurrentHashMap<>();
   private final ConcurrentMap<Class, MessageCodec> defaultCodecMap = new ConcurrentHashMap<>();
+  // The codecs resolved by body class, replaced when the default codecs change so a stale resolution is never cached
+  private volatile ConcurrentMap<Class, MessageCodec> resolvedCodecMap = new ConcurrentHashMap<>();
 
   public CodecManager() {
     this.systemCodecs = codecs(NULL_MESSAGE_CODEC, PING_MESSAGE_CODEC, STRING_MESSAGE_CODEC, BUFFER_MESSAGE_CODEC, JSON_OBJECT_MESSAGE_CODEC, JSON_ARRAY_MESSAGE_CODEC,
@@ -53,7 +55,21 @@ public class CodecManager {
       }
     } else if (body == null) {
       codec = NULL_MESSAGE_CODEC;
-    } else if (body instanceof String) {
+    } else {
+      ConcurrentMap<Class, MessageCodec> resolved = resolvedCodecMap;
+      codec = resolved.get(body.getClass());
+      if (codec == null) {
+        codec = resolveCodec(body);
+        resolved.put(body.getClass(), codec);
+      }
+    }
+    return codec;
+  }
+
+  // The codec only depends on the class of the body
+  private MessageCodec resolveCodec(Object body) {
+    MessageCodec codec;
+    if (body instanceof String) {
       codec = STRING_MESSAGE_CODEC;
     } else if (body instanceof Buffer) {
       codec = BUFFER_MESSAGE_CODEC;
@@ -125,6 +141,7 @@ public class CodecManager {
     }
     defaultCodecMap.put(clazz, codec);
     userCodecMap.put(codec.name(), codec);
+    resolvedCodecMap = new ConcurrentHashMap<>();
   }
 
   public void unregisterDefaultCodec(Class clazz) {
@@ -133,6 +150,7 @@ public class CodecManager {
     if (codec != null) {
       userCodecMap.remove(codec.name());
     }
+    resolvedCodecMap = new ConcurrentHashMap<>();
   }
 
   public MessageCodec[] systemCodecs() {
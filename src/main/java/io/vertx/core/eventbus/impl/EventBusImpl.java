@@ -18,19 +18,20 @@ package io.vertx.core.eventbus.impl;
 
 import io.vertx.core.*;
 import io.vertx.core.eventbus.*;
+import io.vertx.core.impl.ContextImpl;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.spi.metrics.EventBusMetrics;
 import io.vertx.core.spi.metrics.MetricsProvider;
 
-import java.util.Iterator;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.CopyOnWriteArrayList;
-import java.util.concurrent.atomic.AtomicLong;
 
 /**
  * A local event bus implementation
@@ -41,31 +42,86 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
   private static final Logger log = LoggerFactory.getLogger(EventBusImpl.class);
 
-  private final List<Handler<SendContext>> interceptors = new CopyOnWriteArrayList<>();
-  private final AtomicLong replySequence = new AtomicLong(0);
+  // The maximum nesting of the direct deliveries, e.g. when consumers reply to each other
+  private static final int MAX_DIRECT_DELIVERY_DEPTH = 16;
+
+  @SuppressWarnings("unchecked")
+  private static final Handler<SendContext>[] NO_INTERCEPTORS = new Handler[0];
+  @SuppressWarnings("unchecked")
+  private static final Handler<DeliveryContext>[] NO_INBOUND_INTERCEPTORS = new Handler[0];
+
+  // Immutable snapshots replaced when an interceptor is added or removed
+  private volatile Handler<SendContext>[] interceptors = NO_INTERCEPTORS;
+  private volatile Handler<DeliveryContext>[] inboundInterceptors = NO_INBOUND_INTERCEPTORS;
   protected final VertxInternal vertx;
   protected final EventBusMetrics metrics;
+  protected final ReplyManager replyManager;
   protected final ConcurrentMap<String, Handlers> handlerMap = new ConcurrentHashMap<>();
+  // The consumers registered at an address pattern, they are not in the handler map
+  protected final PatternTrie<Handlers> patternHandlers = new PatternTrie<>();
   protected final CodecManager codecManager = new CodecManager();
+  // The credits of the flow controlled producers, by context
+  final ConcurrentMap<Object, ProducerCredits> producerCredits = new ConcurrentHashMap<>();
   protected volatile boolean started;
+  private final boolean directDelivery;
+  private final ConsumerSelection consumerSelection;
+  // Whether each flow controlled producer has a credit address for the nodes of an older version
+  final boolean legacyCreditAddresses;
 
   public EventBusImpl(VertxInternal vertx) {
+    this(vertx, new EventBusOptions());
+  }
+
+  public EventBusImpl(VertxInternal vertx, EventBusOptions options) {
     this.vertx = vertx;
     this.metrics = vertx.metricsSPI().createMetrics(this);
+    this.replyManager = new ReplyManager(this, metrics);
+    this.directDelivery = options.isDirectDelivery();
+    this.consumerSelection = options.getConsumerSelection();
+    this.legacyCreditAddresses = options.isClusterLegacyCreditAddresses();
   }
 
   @Override
-  public EventBus addInterceptor(Handler<SendContext> interceptor) {
-    interceptors.add(interceptor);
+  public synchronized EventBus addInterceptor(Handler<SendContext> interceptor) {
+    interceptors = addInterceptor(interceptors, interceptor);
     return this;
   }
 
   @Override
-  public EventBus removeInterceptor(Handler<SendContext> interceptor) {
-    interceptors.remove(interceptor);
+  public synchronized EventBus removeInterceptor(Handler<SendContext> interceptor) {
+    interceptors = removeInterceptor(interceptors, interceptor);
     return this;
   }
 
+  @Override
+  public synchronized EventBus addInboundInterceptor(Handler<DeliveryContext> interceptor) {
+    inboundInterceptors = addInterceptor(inboundInterceptors, interceptor);
+    return this;
+  }
+
+  @Override
+  public synchronized EventBus removeInboundInterceptor(Handler<DeliveryContext> interceptor) {
+    inboundInterceptors = removeInterceptor(inboundInterceptors, interceptor);
+    return this;
+  }
+
+  private static <T> T[] addInterceptor(T[] interceptors, T interceptor) {
+    T[] copy = Arrays.copyOf(interceptors, interceptors.length + 1);
+    copy[interceptors.length] = interceptor;
+    return copy;
+  }
+
+  private static <T> T[] removeInterceptor(T[] interceptors, T interceptor) {
+    for (int i = 0; i < interceptors.length; i++) {
+      if (interceptors[i].equals(interceptor)) {
+        T[] copy = Arrays.copyOf(interceptors, interceptors.length - 1);
+        System.arraycopy(interceptors, i + 1, copy, i, interceptors.length - i - 1);
+        return copy;
+      }
+    }
+    return interceptors;
+  }
+
   public synchronized void start(Handler<AsyncResult<Void>> completionHandler) {
     if (started) {
       throw new IllegalStateException("Already started");
@@ -91,7 +147,7 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
   @Override
   public <T> EventBus send(String address, Object message, DeliveryOptions options, Handler<AsyncResult<Message<T>>> replyHandler) {
-    sendOrPubInternal(createMessage(true, address, options.getHeaders(), message, options.getCodecName()), options, replyHandler);
+    sendOrPubInternal(createMessage(true, address, options, message), options, replyHandler);
     return this;
   }
 
@@ -128,7 +184,30 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
   @Override
   public EventBus publish(String address, Object message, DeliveryOptions options) {
-    sendOrPubInternal(createMessage(false, address, options.getHeaders(), message, options.getCodecName()), options, null);
+    sendOrPubInternal(createMessage(false, address, options, message), options, null);
+    return this;
+  }
+
+  @Override
+  public EventBus sendBatch(String address, List<?> messages) {
+    return sendBatch(address, messages, new DeliveryOptions());
+  }
+
+  @Override
+  public EventBus sendBatch(String address, List<?> messages, DeliveryOptions options) {
+    checkStarted();
+    if (interceptors.length > 0) {
+      // The interceptors are called for each message
+      for (Object message : messages) {
+        send(address, message, options);
+      }
+    } else if (!messages.isEmpty()) {
+      List<MessageImpl> batch = new ArrayList<>(messages.size());
+      for (Object message : messages) {
+        batch.add(createMessage(true, address, options, message));
+      }
+      sendBatch(batch, options);
+    }
     return this;
   }
 
@@ -136,7 +215,7 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   public <T> MessageConsumer<T> consumer(String address) {
     checkStarted();
     Objects.requireNonNull(address, "address");
-    return new HandlerRegistration<>(vertx, metrics, this, address, null, false, null, -1);
+    return new HandlerRegistration<>(vertx, metrics, this, address, false);
   }
 
   @Override
@@ -151,7 +230,7 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   public <T> MessageConsumer<T> localConsumer(String address) {
     checkStarted();
     Objects.requireNonNull(address, "address");
-    return new HandlerRegistration<>(vertx, metrics, this, address, null, true, null, -1);
+    return new HandlerRegistration<>(vertx, metrics, this, address, true);
   }
 
   @Override
@@ -190,6 +269,7 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   public void close(Handler<AsyncResult<Void>> completionHandler) {
     checkStarted();
     unregisterAll();
+    replyManager.close();
     if (metrics != null) {
       metrics.close();
     }
@@ -208,6 +288,12 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     return metrics;
   }
 
+  MessageImpl createMessage(boolean send, String address, DeliveryOptions options, Object body) {
+    MessageImpl msg = createMessage(send, address, options.getHeaders(), body, options.getCodecName());
+    msg.setShareBody(options);
+    return msg;
+  }
+
   protected MessageImpl createMessage(boolean send, String address, MultiMap headers, Object body, String codecName) {
     Objects.requireNonNull(address, "no null address accepted");
     MessageCodec codec = codecManager.lookupCodec(body, codecName);
@@ -216,21 +302,18 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     return msg;
   }
 
-  protected <T> void addRegistration(String address, HandlerRegistration<T> registration,
-                                     boolean replyHandler, boolean localOnly) {
+  protected <T> void addRegistration(String address, HandlerRegistration<T> registration, boolean localOnly) {
     Objects.requireNonNull(registration.getHandler(), "handler");
-    boolean newAddress = addLocalRegistration(address, registration, replyHandler, localOnly);
-    addRegistration(newAddress, address, replyHandler, localOnly, registration::setResult);
+    boolean newAddress = addLocalRegistration(address, registration, localOnly);
+    addRegistration(newAddress, address, localOnly, registration::setResult);
   }
 
-  protected <T> void addRegistration(boolean newAddress, String address,
-                                     boolean replyHandler, boolean localOnly,
+  protected <T> void addRegistration(boolean newAddress, String address, boolean localOnly,
                                      Handler<AsyncResult<Void>> completionHandler) {
     completionHandler.handle(Future.succeededFuture());
   }
 
-  protected <T> boolean addLocalRegistration(String address, HandlerRegistration<T> registration,
-                                             boolean replyHandler, boolean localOnly) {
+  protected <T> boolean addLocalRegistration(String address, HandlerRegistration<T> registration, boolean localOnly) {
     Objects.requireNonNull(address, "address");
 
     Context context = Vertx.currentContext();
@@ -242,18 +325,30 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     boolean newAddress = false;
 
-    HandlerHolder holder = new HandlerHolder<>(metrics, registration, replyHandler, localOnly, context);
+    HandlerHolder holder = new HandlerHolder<>(metrics, registration, localOnly, context);
 
-    Handlers handlers = handlerMap.get(address);
-    if (handlers == null) {
-      handlers = new Handlers();
-      Handlers prevHandlers = handlerMap.putIfAbsent(address, handlers);
-      if (prevHandlers != null) {
-        handlers = prevHandlers;
+    if (PatternTrie.isPattern(address)) {
+      synchronized (patternHandlers) {
+        Handlers handlers = patternHandlers.get(address);
+        if (handlers == null) {
+          handlers = new Handlers();
+          patternHandlers.put(address, handlers);
+          newAddress = true;
+        }
+        handlers.add(holder);
+      }
+    } else {
+      Handlers handlers = handlerMap.get(address);
+      if (handlers == null) {
+        handlers = new Handlers();
+        Handlers prevHandlers = handlerMap.putIfAbsent(address, handlers);
+        if (prevHandlers != null) {
+          handlers = prevHandlers;
+        }
+        newAddress = true;
       }
-      newAddress = true;
+      handlers.add(holder);
     }
-    handlers.list.add(holder);
 
     if (hasContext) {
       HandlerEntry entry = new HandlerEntry<>(address, registration);
@@ -274,38 +369,53 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   }
 
   protected <T> HandlerHolder removeLocalRegistration(String address, HandlerRegistration<T> handler) {
+    if (PatternTrie.isPattern(address)) {
+      return removePatternRegistration(address, handler);
+    }
     Handlers handlers = handlerMap.get(address);
     HandlerHolder lastHolder = null;
     if (handlers != null) {
       synchronized (handlers) {
-        int size = handlers.list.size();
-        // Requires a list traversal. This is tricky to optimise since we can't use a set since
-        // we need fast ordered traversal for the round robin
-        for (int i = 0; i < size; i++) {
-          HandlerHolder holder = handlers.list.get(i);
-          if (holder.getHandler() == handler) {
-            handlers.list.remove(i);
-            holder.setRemoved();
-            if (handlers.list.isEmpty()) {
-              handlerMap.remove(address);
-              lastHolder = holder;
-            }
-            holder.getContext().removeCloseHook(new HandlerEntry<>(address, holder.getHandler()));
-            break;
+        HandlerHolder holder = handlers.remove(handler);
+        if (holder != null) {
+          holder.setRemoved();
+          if (handlers.isEmpty()) {
+            handlerMap.remove(address);
+            lastHolder = holder;
           }
+          holder.getContext().removeCloseHook(new HandlerEntry<>(address, holder.getHandler()));
         }
       }
     }
     return lastHolder;
   }
 
+  private <T> HandlerHolder removePatternRegistration(String pattern, HandlerRegistration<T> handler) {
+    HandlerHolder holder;
+    boolean last;
+    synchronized (patternHandlers) {
+      Handlers handlers = patternHandlers.get(pattern);
+      holder = handlers != null ? handlers.remove(handler) : null;
+      if (holder == null) {
+        return null;
+      }
+      last = handlers.isEmpty();
+      if (last) {
+        patternHandlers.remove(pattern);
+      }
+    }
+    holder.setRemoved();
+    holder.getContext().removeCloseHook(new HandlerEntry<>(pattern, holder.getHandler()));
+    return last ? holder : null;
+  }
+
   protected <T> void sendReply(MessageImpl replyMessage, MessageImpl replierMessage, DeliveryOptions options,
                                Handler<AsyncResult<Message<T>>> replyHandler) {
     if (replyMessage.address() == null) {
       throw new IllegalStateException("address not specified");
     } else {
-      HandlerRegistration<T> replyHandlerRegistration = createReplyHandlerRegistration(replyMessage, options, replyHandler);
-      new ReplySendContextImpl<>(replyMessage, options, replyHandlerRegistration, replierMessage).next();
+      ReplyManager.ReplySlot<T> replySlot = registerReplyHandler(replyMessage, options, replyHandler);
+      new ReplySendContextImpl<>(replyMessage, options, replySlot, replierMessage).next();
     }
   }
 
@@ -319,19 +429,60 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     deliverMessageLocally(sendContext);
   }
 
-  protected <T> Handler<Message<T>> convertHandler(Handler<AsyncResult<Message<T>>> handler) {
-    return reply -> {
-      Future<Message<T>> result;
-      if (reply.body() instanceof ReplyException) {
-        // This is kind of clunky - but hey-ho
-        ReplyException exception = (ReplyException) reply.body();
-        metrics.replyFailure(reply.address(), exception.failureType());
-        result = Future.failedFuture(exception);
-      } else {
-        result = Future.succeededFuture(reply);
+  /**
+   * Send the messages of a batch, they are sent point to point to the same address.
+   */
+  protected void sendBatch(List<MessageImpl> batch, DeliveryOptions options) {
+    String address = batch.get(0).address();
+    for (int i = 0; i < batch.size(); i++) {
+      metrics.messageSent(address, false, true, false);
+    }
+    deliverBatchLocally(batch, options);
+  }
+
+  protected void deliverBatchLocally(List<MessageImpl> batch, DeliveryOptions options) {
+    String address = batch.get(0).address();
+    Handlers handlers = handlerMap.get(address);
+    if (handlers == null) {
+      // The address might be the one of a reply handler
+      for (MessageImpl msg : batch) {
+        if (!deliverMessageLocally(msg)) {
+          metrics.replyFailure(address, ReplyFailure.NO_HANDLERS);
+        }
+      }
+      return;
+    }
+    ConsumerSelection selection = options.getConsumerSelection();
+    HandlerHolder holder = handlers.choose(selection != null ? selection : consumerSelection);
+    if (holder == null) {
+      // The consumers have been unregistered meanwhile
+      for (MessageImpl msg : batch) {
+        metrics.messageReceived(address, false, isMessageLocal(msg), 0);
+        metrics.replyFailure(address, ReplyFailure.NO_HANDLERS);
       }
-      handler.handle(result);
-    };
+      return;
+    }
+    for (MessageImpl msg : batch) {
+      msg.setBus(this);
+      metrics.messageReceived(address, false, isMessageLocal(msg), 1);
+    }
+    deliverBatchToHandler(batch, holder);
+  }
+
+  /**
+   * @return whether the messages sent to {@code address} are held back because the outbound path to one of their
+   *         destinations is congested
+   */
+  protected boolean writeQueueFull(String address) {
+    return false;
+  }
+
+  /**
+   * Call the {@code handler} once the outbound path of the messages sent to {@code address} is not congested
+   * anymore, it is called immediately when it is not congested.
+   */
+  protected void writeQueueDrainHandler(String address, Handler<Void> handler) {
+    handler.handle(null);
   }
 
   protected void callCompletionHandlerAsync(Handler<AsyncResult<Void>> completionHandler) {
@@ -341,13 +492,19 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   }
 
   protected <T> void deliverMessageLocally(SendContextImpl<T> sendContext) {
-    if (!deliverMessageLocally(sendContext.message)) {
+    if (!deliverMessageLocally(sendContext.message, sendContext.options.getConsumerSelection())) {
       // no handlers
-      metrics.replyFailure(sendContext.message.address, ReplyFailure.NO_HANDLERS);
-      if (sendContext.handlerRegistration != null) {
-        sendContext.handlerRegistration.sendAsyncResultFailure(ReplyFailure.NO_HANDLERS, "No handlers for address "
-                                                               + sendContext.message.address);
-      }
+      sendFailed(sendContext, ReplyFailure.NO_HANDLERS, "No handlers for address " + sendContext.message.address);
+    }
+  }
+
+  /**
+   * Report a message that could not be sent, the reply handler of the message is failed.
+   */
+  protected <T> void sendFailed(SendContextImpl<T> sendContext, ReplyFailure failure, String msg) {
+    metrics.replyFailure(sendContext.message.address, failure);
+    if (sendContext.replySlot != null) {
+      sendContext.replySlot.fail(failure, msg);
     }
   }
 
@@ -356,21 +513,46 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   }
 
   protected <T> boolean deliverMessageLocally(MessageImpl msg) {
+    return deliverMessageLocally(msg, null);
+  }
+
+  /**
+   * @param selection the consumer selection of a message sent point to point, {@code null} for the one configured
+   *                  by the event bus options
+   */
+  protected <T> boolean deliverMessageLocally(MessageImpl msg, ConsumerSelection selection) {
     msg.setBus(this);
+    ReplyManager.ReplySlot<?> replySlot = replyManager.remove(msg.address());
+    if (replySlot != null) {
+      boolean local = isMessageLocal(msg);
+      metrics.messageReceived(msg.address(), !msg.send(), local, 1);
+      replySlot.deliver(msg, local);
+      return true;
+    }
     Handlers handlers = handlerMap.get(msg.address());
+    if (!patternHandlers.isEmpty() && (handlers == null || !msg.send())) {
+      List<Handlers> matched = patternHandlers.match(msg.address());
+      if (!matched.isEmpty()) {
+        return deliverMessageLocally(msg, selection, handlers, matched);
+      }
+    }
     if (handlers != null) {
       if (msg.send()) {
         //Choose one
-        HandlerHolder holder = handlers.choose();
+        if (selection == null) {
+          selection = consumerSelection;
+        }
+        HandlerHolder holder = handlers.choose(selection);
         if (holder != null) {
           metrics.messageReceived(msg.address(), !msg.send(), isMessageLocal(msg), 1);
-          deliverToHandler(msg, holder);
+          deliverToHandler(msg, holder, selection == ConsumerSelection.LEAST_PENDING);
         }
       } else {
         // Publish
-        metrics.messageReceived(msg.address(), !msg.send(), isMessageLocal(msg), handlers.list.size());
-        for (HandlerHolder holder: handlers.list) {
-          deliverToHandler(msg, holder);
+        HandlerHolder[] holders = handlers.holders();
+        metrics.messageReceived(msg.address(), !msg.send(), isMessageLocal(msg), holders.length);
+        for (HandlerHolder holder: holders) {
+          deliverToHandler(msg, holder, false);
         }
       }
       return true;
@@ -380,28 +562,68 @@ public class EventBusImpl implements EventBus, MetricsProvider {
     }
   }
 
+  // Deliver to the consumers of the address, if any, and of the patterns matching the address
+  private boolean deliverMessageLocally(MessageImpl msg, ConsumerSelection selection, Handlers handlers,
+                                        List<Handlers> matched) {
+    if (msg.send()) {
+      // Only sent to a pattern consumer when the address has no consumer
+      if (selection == null) {
+        selection = consumerSelection;
+      }
+      HandlerHolder holder;
+      if (matched.size() == 1) {
+        holder = matched.get(0).choose(selection);
+      } else {
+        // Chosen among the consumers of all the matching patterns
+        List<HandlerHolder> holders = new ArrayList<>();
+        for (Handlers candidates : matched) {
+          Collections.addAll(holders, candidates.holders());
+        }
+        holder = matched.get(0).choose(holders.toArray(new HandlerHolder[holders.size()]), selection);
+      }
+      if (holder != null) {
+        metrics.messageReceived(msg.address(), false, isMessageLocal(msg), 1);
+        deliverToHandler(msg, holder, selection == ConsumerSelection.LEAST_PENDING);
+      }
+    } else {
+      List<HandlerHolder> holders = new ArrayList<>();
+      if (handlers != null) {
+        Collections.addAll(holders, handlers.holders());
+      }
+      for (Handlers candidates : matched) {
+        Collections.addAll(holders, candidates.holders());
+      }
+      metrics.messageReceived(msg.address(), true, isMessageLocal(msg), holders.size());
+      for (HandlerHolder holder: holders) {
+        deliverToHandler(msg, holder, false);
+      }
+    }
+    return true;
+  }
+
   protected void checkStarted() {
     if (!started) {
       throw new IllegalStateException("Event Bus is not started");
     }
   }
 
-  protected String generateReplyAddress() {
-    return Long.toString(replySequence.incrementAndGet());
+  /**
+   * Generate the id of a reply handler, the reply address is derived from it.
+   *
+   * @param sequence the sequence number of the reply handler within its table
+   * @return the id, only its 59 low bits are used
+   */
+  protected long generateReplyId(long sequence) {
+    return sequence;
   }
 
-  private <T> HandlerRegistration<T> createReplyHandlerRegistration(MessageImpl message,
-                                                                    DeliveryOptions options,
-                                                                    Handler<AsyncResult<Message<T>>> replyHandler) {
+  private <T> ReplyManager.ReplySlot<T> registerReplyHandler(MessageImpl message,
+                                                             DeliveryOptions options,
+                                                             Handler<AsyncResult<Message<T>>> replyHandler) {
     if (replyHandler != null) {
-      long timeout = options.getSendTimeout();
-      String replyAddress = generateReplyAddress();
-      message.setReplyAddress(replyAddress);
-      Handler<Message<T>> simpleReplyHandler = convertHandler(replyHandler);
-      HandlerRegistration<T> registration =
-        new HandlerRegistration<>(vertx, metrics, this, replyAddress, message.address, true, replyHandler, timeout);
-      registration.handler(simpleReplyHandler);
-      return registration;
+      ReplyManager.ReplySlot<T> replySlot = replyManager.register(message.address, options.getSendTimeout(), replyHandler);
+      message.setReplyAddress(replySlot.address);
+      return replySlot;
     } else {
       return null;
     }
@@ -410,8 +632,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   private <T> void sendOrPubInternal(MessageImpl message, DeliveryOptions options,
                                      Handler<AsyncResult<Message<T>>> replyHandler) {
     checkStarted();
-    HandlerRegistration<T> replyHandlerRegistration = createReplyHandlerRegistration(message, options, replyHandler);
-    SendContextImpl<T> sendContext = new SendContextImpl<>(message, options, replyHandlerRegistration);
+    ReplyManager.ReplySlot<T> replySlot = registerReplyHandler(message, options, replyHandler);
+    SendContextImpl<T> sendContext = new SendContextImpl<>(message, options, replySlot);
     sendContext.next();
   }
 
@@ -419,14 +641,15 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     public final MessageImpl message;
     public final DeliveryOptions options;
-    public final HandlerRegistration<T> handlerRegistration;
-    public final Iterator<Handler<SendContext>> iter;
+    public final ReplyManager.ReplySlot<T> replySlot;
+    private final Handler<SendContext>[] interceptors;
+    private int interceptorIdx;
 
-    public SendContextImpl(MessageImpl message, DeliveryOptions options, HandlerRegistration<T> handlerRegistration) {
+    public SendContextImpl(MessageImpl message, DeliveryOptions options, ReplyManager.ReplySlot<T> replySlot) {
       this.message = message;
       this.options = options;
-      this.handlerRegistration = handlerRegistration;
-      this.iter = interceptors.iterator();
+      this.replySlot = replySlot;
+      this.interceptors = EventBusImpl.this.interceptors;
     }
 
     @Override
@@ -436,8 +659,8 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     @Override
     public void next() {
-      if (iter.hasNext()) {
-        Handler<SendContext> handler = iter.next();
+      if (interceptorIdx < interceptors.length) {
+        Handler<SendContext> handler = interceptors[interceptorIdx++];
         try {
           handler.handle(this);
         } catch (Throwable t) {
@@ -458,16 +681,16 @@ public class EventBusImpl implements EventBus, MetricsProvider {
 
     private final MessageImpl replierMessage;
 
-    public ReplySendContextImpl(MessageImpl message, DeliveryOptions options, HandlerRegistration<T> handlerRegistration,
+    public ReplySendContextImpl(MessageImpl message, DeliveryOptions options, ReplyManager.ReplySlot<T> replySlot,
                                 MessageImpl replierMessage) {
-      super(message, options, handlerRegistration);
+      super(message, options, replySlot);
       this.replierMessage = replierMessage;
     }
 
     @Override
     public void next() {
-      if (iter.hasNext()) {
-        Handler<SendContext> handler = iter.next();
+      if (interceptorIdx < interceptors.length) {
+        Handler<SendContext> handler = interceptors[interceptorIdx++];
         handler.handle(this);
       } else {
         sendReply(this, replierMessage);
@@ -479,32 +702,154 @@ public class EventBusImpl implements EventBus, MetricsProvider {
   private void unregisterAll() {
     // Unregister all handlers explicitly - don't rely on context hooks
     for (Handlers handlers: handlerMap.values()) {
-      for (HandlerHolder holder: handlers.list) {
+      for (HandlerHolder holder: handlers.holders()) {
+        holder.getHandler().unregister(true);
+      }
+    }
+    for (Handlers handlers: patternHandlers.values()) {
+      for (HandlerHolder holder: handlers.holders()) {
         holder.getHandler().unregister(true);
       }
     }
   }
 
-  private <T> void deliverToHandler(MessageImpl msg, HandlerHolder<T> holder) {
+  private <T> void deliverToHandler(MessageImpl msg, HandlerHolder<T> holder, boolean countQueued) {
     // Each handler gets a fresh copy
     @SuppressWarnings("unchecked")
     Message<T> copied = msg.copyBeforeReceive();
 
-    holder.getContext().runOnContext((v) -> {
-      // Need to check handler is still there - the handler might have been removed after the message were sent but
-      // before it was received
-      try {
-        if (!holder.isRemoved()) {
-          holder.getHandler().handle(copied);
+    if (directDelivery && holder.queuedDeliveries.get() == 0 && holder.getContext() instanceof ContextImpl &&
+      ((ContextImpl) holder.getContext()).runDirect(v -> handleDelivery(holder, copied), MAX_DIRECT_DELIVERY_DEPTH)) {
+      return;
+    }
+    HandlerHolder.CoalescedDeliveries<T> coalesced = holder.coalescedDeliveries();
+    // Once the max is lowered to 1 the queued deliveries are drained before the messages are delivered one by one
+    if (holder.getHandler().getMaxCoalescedMessages() > 1 || (coalesced != null && !coalesced.queue.isEmpty())) {
+      if (coalesced == null) {
+        coalesced = holder.getOrCreateCoalescedDeliveries();
+      }
+      holder.queuedDeliveries.incrementAndGet();
+      coalesced.queue.add(copied);
+      if (coalesced.scheduled.compareAndSet(false, true)) {
+        holder.getContext().runOnContext(v -> handleCoalescedDeliveries(holder));
+      }
+    } else if (directDelivery || countQueued) {
+      // With the direct delivery the message can't overtake the messages already queued for this handler
+      holder.queuedDeliveries.incrementAndGet();
+      holder.getContext().runOnContext(v -> {
+        holder.queuedDeliveries.decrementAndGet();
+        handleDelivery(holder, copied);
+      });
+    } else {
+      holder.getContext().runOnContext(v -> handleDelivery(holder, copied));
+    }
+  }
+
+  // Handle the deliveries queued until this task is executed, a new task handles the remaining deliveries
+  private <T> void handleCoalescedDeliveries(HandlerHolder<T> holder) {
+    HandlerHolder.CoalescedDeliveries<T> coalesced = holder.coalescedDeliveries();
+    int max = holder.getHandler().getMaxCoalescedMessages();
+    try {
+      for (int i = 0; i < max; i++) {
+        Message<T> copied = coalesced.queue.poll();
+        if (copied == null) {
+          break;
         }
-      } finally {
-        if (holder.isReplyHandler()) {
-          holder.getHandler().unregister();
+        holder.queuedDeliveries.decrementAndGet();
+        handleDelivery(holder, copied);
+      }
+    } finally {
+      coalesced.scheduled.set(false);
+      // A delivery queued after the last poll did not schedule a task
+      if (!coalesced.queue.isEmpty() && coalesced.scheduled.compareAndSet(false, true)) {
+        holder.getContext().runOnContext(v -> handleCoalescedDeliveries(holder));
+      }
+    }
+  }
+
+  private <T> void deliverBatchToHandler(List<MessageImpl> batch, HandlerHolder<T> holder) {
+    // Each handler gets a fresh copy
+    List<Message<T>> copies = new ArrayList<>(batch.size());
+    for (MessageImpl msg : batch) {
+      @SuppressWarnings("unchecked")
+      Message<T> copied = msg.copyBeforeReceive();
+      copies.add(copied);
+    }
+    // Counted for the direct delivery and the least pending consumer selection
+    holder.queuedDeliveries.addAndGet(copies.size());
+    holder.getContext().runOnContext(v -> {
+      holder.queuedDeliveries.addAndGet(-copies.size());
+      if (inboundInterceptors.length > 0) {
+        for (Message<T> copied : copies) {
+          handleDelivery(holder, copied);
         }
+      } else if (!holder.isRemoved()) {
+        holder.getHandler().handleBatch(copies);
       }
     });
   }
 
+  private <T> void handleDelivery(HandlerHolder<T> holder, Message<T> copied) {
+    Handler<DeliveryContext>[] interceptors = inboundInterceptors;
+    if (interceptors.length == 0) {
+      deliver(holder, copied);
+    } else {
+      new DeliveryContextImpl<>(copied, interceptors, msg -> deliver(holder, msg)).next();
+    }
+  }
+
+  /**
+   * @return the snapshot of the inbound interceptors
+   */
+  Handler<DeliveryContext>[] inboundInterceptors() {
+    return inboundInterceptors;
+  }
+
+  private <T> void deliver(HandlerHolder<T> holder, Message<T> copied) {
+    // Need to check handler is still there - the handler might have been removed after the message were sent but
+    // before it was received
+    if (!holder.isRemoved()) {
+      holder.getHandler().handle(copied);
+    }
+  }
+
+  /**
+   * Calls the inbound interceptors then the handler, on the context of the handler.
+   */
+  static class DeliveryContextImpl<T> implements DeliveryContext<T> {
+
+    private final Message<T> message;
+    private final Handler<DeliveryContext>[] interceptors;
+    private final Handler<Message<T>> handler;
+    private int interceptorIdx;
+
+    DeliveryContextImpl(Message<T> message, Handler<DeliveryContext>[] interceptors, Handler<Message<T>> handler) {
+      this.message = message;
+      this.interceptors = interceptors;
+      this.handler = handler;
+    }
+
+    @Override
+    public Message<T> message() {
+      return message;
+    }
+
+    @Override
+    public void next() {
+      if (interceptorIdx < interceptors.length) {
+        Handler<DeliveryContext> interceptor = interceptors[interceptorIdx++];
+        interceptor.handle(this);
+      } else {
+        handler.handle(message);
+      }
+    }
+
+    @Override
+    public boolean send() {
+      return ((MessageImpl) message).send();
+    }
+  }
+
   public class HandlerEntry<T> implements Closeable {
     final String address;
     final HandlerRegistration<T> handler;
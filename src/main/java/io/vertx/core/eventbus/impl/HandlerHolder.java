@@ -1,8 +1,14 @@
 package io.vertx.core.eventbus.impl;
 
+import io.netty.util.internal.PlatformDependent;
 import io.vertx.core.Context;
+import io.vertx.core.eventbus.Message;
 import io.vertx.core.spi.metrics.EventBusMetrics;
 
+import java.util.Queue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
@@ -11,16 +17,18 @@ public class HandlerHolder<T> {
   private final EventBusMetrics metrics;
   private final Context context;
   private final HandlerRegistration<T> handler;
-  private final boolean replyHandler;
   private final boolean localOnly;
   private boolean removed;
+  // The number of deliveries queued on the context, only maintained with the direct delivery and for the messages
+  // sent with the least pending consumer selection
+  final AtomicInteger queuedDeliveries = new AtomicInteger();
+  // The deliveries handled together by a task of the context, created when the consumer first coalesces messages
+  private volatile CoalescedDeliveries<T> coalescedDeliveries;
 
-  public HandlerHolder(EventBusMetrics metrics, HandlerRegistration<T> handler, boolean replyHandler, boolean localOnly,
-                       Context context) {
+  public HandlerHolder(EventBusMetrics metrics, HandlerRegistration<T> handler, boolean localOnly, Context context) {
     this.metrics = metrics;
     this.context = context;
     this.handler = handler;
-    this.replyHandler = replyHandler;
     this.localOnly = localOnly;
   }
 
@@ -66,12 +74,43 @@ public class HandlerHolder<T> {
     return handler;
   }
 
-  public boolean isReplyHandler() {
-    return replyHandler;
-  }
-
   public boolean isLocalOnly() {
     return localOnly;
   }
-;
+
+  /**
+   * @return the number of messages waiting to be handled
+   */
+  public int pendingSize() {
+    return queuedDeliveries.get() + handler.getPendingSize();
+  }
+
+  /**
+   * @return the coalesced deliveries or {@code null} when the consumer never coalesced messages
+   */
+  CoalescedDeliveries<T> coalescedDeliveries() {
+    return coalescedDeliveries;
+  }
+
+  /**
+   * @return the coalesced deliveries, created on the first call
+   */
+  CoalescedDeliveries<T> getOrCreateCoalescedDeliveries() {
+    CoalescedDeliveries<T> deliveries = coalescedDeliveries;
+    if (deliveries == null) {
+      synchronized (this) {
+        deliveries = coalescedDeliveries;
+        if (deliveries == null) {
+          deliveries = new CoalescedDeliveries<>();
+          coalescedDeliveries = deliveries;
+        }
+      }
+    }
+    return deliveries;
+  }
+
+  static final class CoalescedDeliveries<T> {
+    final Queue<Message<T>> queue = PlatformDependent.newMpscQueue();
+    final AtomicBoolean scheduled = new AtomicBoolean();
+  }
 }
@@ -3,8 +3,6 @@ package io.vertx.core.eventbus.impl;
 import io.vertx.core.*;
 import io.vertx.core.eventbus.Message;
 import io.vertx.core.eventbus.MessageConsumer;
-import io.vertx.core.eventbus.ReplyException;
-import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.eventbus.impl.clustered.ClusteredMessage;
 import io.vertx.core.impl.Arguments;
 import io.vertx.core.logging.Logger;
@@ -13,6 +11,7 @@ import io.vertx.core.spi.metrics.EventBusMetrics;
 import io.vertx.core.streams.ReadStream;
 
 import java.util.ArrayDeque;
+import java.util.List;
 import java.util.Objects;
 import java.util.Queue;
 
@@ -28,49 +27,48 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
   private static final Logger log = LoggerFactory.getLogger(HandlerRegistration.class);
 
   public static final int DEFAULT_MAX_BUFFERED_MESSAGES = 1000;
+  public static final int DEFAULT_MAX_COALESCED_MESSAGES = 1;
 
   private final Vertx vertx;
   private final EventBusMetrics metrics;
   private final EventBusImpl eventBus;
   private final String address;
-  private final String repliedAddress;
   private final boolean localOnly;
-  private final Handler<AsyncResult<Message<T>>> asyncResultHandler;
-  private long timeoutID = -1;
   private boolean registered;
   private Handler<Message<T>> handler;
+  private Handler<List<Message<T>>> batchHandler;
   private AsyncResult<Void> result;
   private Handler<AsyncResult<Void>> completionHandler;
   private Handler<Void> endHandler;
   private Handler<Message<T>> discardHandler;
   private int maxBufferedMessages = DEFAULT_MAX_BUFFERED_MESSAGES;
+  // Read by the delivering threads
+  private volatile int maxCoalescedMessages = DEFAULT_MAX_COALESCED_MESSAGES;
   private final Queue<Message<T>> pending = new ArrayDeque<>(8);
   private boolean paused;
   private Object metric;
+  // The credits granted to a producer and not sent yet
+  private String grantedHeader;
+  private int granted;
 
   public HandlerRegistration(Vertx vertx, EventBusMetrics metrics, EventBusImpl eventBus, String address,
-                             String repliedAddress, boolean localOnly,
-                             Handler<AsyncResult<Message<T>>> asyncResultHandler, long timeout) {
+                             boolean localOnly) {
     this.vertx = vertx;
     this.metrics = metrics;
     this.eventBus = eventBus;
     this.address = address;
-    this.repliedAddress = repliedAddress;
     this.localOnly = localOnly;
-    this.asyncResultHandler = asyncResultHandler;
-    if (timeout != -1) {
-      timeoutID = vertx.setTimer(timeout, tid -> {
-        metrics.replyFailure(address, ReplyFailure.TIMEOUT);
-        sendAsyncResultFailure(ReplyFailure.TIMEOUT, "Timed out after waiting " + timeout + "(ms) for a reply. address: " + address);
-      });
-    }
   }
 
   @Override
   public synchronized MessageConsumer<T> setMaxBufferedMessages(int maxBufferedMessages) {
     Arguments.require(maxBufferedMessages >= 0, "Max buffered messages cannot be negative");
     while (pending.size() > maxBufferedMessages) {
-      pending.poll();
+      // The producer of a discarded message must not wait for its credit
+      String creditHeader = creditHeader(pending.poll());
+      if (creditHeader != null) {
+        grantCredits(creditHeader, 1);
+      }
     }
     this.maxBufferedMessages = maxBufferedMessages;
     return this;
@@ -81,6 +79,18 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     return maxBufferedMessages;
   }
 
+  @Override
+  public MessageConsumer<T> setMaxCoalescedMessages(int maxCoalescedMessages) {
+    Arguments.require(maxCoalescedMessages >= 1, "Max coalesced messages must be >= 1");
+    this.maxCoalescedMessages = maxCoalescedMessages;
+    return this;
+  }
+
+  @Override
+  public int getMaxCoalescedMessages() {
+    return maxCoalescedMessages;
+  }
+
   @Override
   public String address() {
     return address;
@@ -112,15 +122,7 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     doUnregister(null, callEndHandler);
   }
 
-  public void sendAsyncResultFailure(ReplyFailure failure, String msg) {
-    unregister();
-    asyncResultHandler.handle(Future.failedFuture(new ReplyException(failure, msg)));
-  }
-
   private void doUnregister(Handler<AsyncResult<Void>> completionHandler, boolean callEndHandler) {
-    if (timeoutID != -1) {
-      vertx.cancelTimer(timeoutID);
-    }
     if (endHandler != null && callEndHandler) {
       Handler<Void> theEndHandler = endHandler;
       Handler<AsyncResult<Void>> handler = completionHandler;
@@ -150,14 +152,14 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     this.result = result;
     if (completionHandler != null) {
       if (result.succeeded()) {
-        metric = metrics.handlerRegistered(address, repliedAddress);
+        metric = metrics.handlerRegistered(address, null);
       }
       Handler<AsyncResult<Void>> callback = completionHandler;
       vertx.runOnContext(v -> callback.handle(result));
     } else if (result.failed()) {
       log.error("Failed to propagate registration for handler " + handler + " and address " + address);
     } else {
-      metric = metrics.handlerRegistered(address, repliedAddress);
+      metric = metrics.handlerRegistered(address, null);
     }
   }
 
@@ -166,7 +168,8 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     Handler<Message<T>> theHandler = null;
     synchronized (this) {
       if (paused) {
-        if (pending.size() < maxBufferedMessages) {
+        // The flow controlled messages are never discarded, their number is bounded by the producer windows
+        if (pending.size() < maxBufferedMessages || creditHeader(message) != null) {
           pending.add(message);
         } else {
           if (discardHandler != null) {
@@ -178,15 +181,7 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
       } else {
         checkNextTick();
         if (metrics.isEnabled()) {
-          boolean local = true;
-          if (message instanceof ClusteredMessage) {
-            // A bit hacky
-            ClusteredMessage cmsg = (ClusteredMessage)message;
-            if (cmsg.isFromWire()) {
-              local = false;
-            }
-          }
-          metrics.beginHandleMessage(metric, local);
+          metrics.beginHandleMessage(metric, isLocal(message));
         }
         theHandler = handler;
       }
@@ -194,14 +189,126 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     // Handle the message outside the sync block
     // https://bugs.eclipse.org/bugs/show_bug.cgi?id=473714
     if (theHandler != null) {
-      String creditsAddress = message.headers().get(MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME);
-      if (creditsAddress != null) {
-        eventBus.send(creditsAddress, 1);
+      String creditHeader = creditHeader(message);
+      if (creditHeader != null) {
+        grantCredits(creditHeader, 1);
       }
       handleMessage(theHandler, message);
     }
   }
 
+  /**
+   * Handle the messages of a batch, they are passed together to the batch handler when there is one and this
+   * consumer has no buffered messages, otherwise they are handled one by one.
+   */
+  public void handleBatch(List<Message<T>> messages) {
+    Handler<List<Message<T>>> theHandler;
+    synchronized (this) {
+      theHandler = paused || !pending.isEmpty() ? null : batchHandler;
+      if (theHandler != null && metrics.isEnabled()) {
+        for (Message<T> message : messages) {
+          metrics.beginHandleMessage(metric, isLocal(message));
+        }
+      }
+    }
+    if (theHandler == null) {
+      for (Message<T> message : messages) {
+        handle(message);
+      }
+      return;
+    }
+    sendCredits(messages);
+    try {
+      theHandler.handle(messages);
+      for (int i = 0; i < messages.size(); i++) {
+        metrics.endHandleMessage(metric, null);
+      }
+    } catch (Exception e) {
+      log.error("Failed to handleMessage", e);
+      for (int i = 0; i < messages.size(); i++) {
+        metrics.endHandleMessage(metric, e);
+      }
+      throw e;
+    }
+  }
+
+  // Grant the credits of the consecutive messages of a producer together
+  private void sendCredits(List<Message<T>> messages) {
+    String creditHeader = null;
+    int credits = 0;
+    for (Message<T> message : messages) {
+      String header = creditHeader(message);
+      if (!Objects.equals(header, creditHeader)) {
+        if (credits > 0) {
+          grantCredits(creditHeader, credits);
+        }
+        creditHeader = header;
+        credits = 0;
+      }
+      if (header != null) {
+        credits++;
+      }
+    }
+    if (credits > 0) {
+      grantCredits(creditHeader, credits);
+    }
+  }
+
+  private static String creditHeader(Message<?> message) {
+    return message.headers().get(MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME);
+  }
+
+  /**
+   * Grant credits to the producer of a credit header. The credits granted to a producer until the next tick
+   * are sent in a single credit message, they are sent right away when the credits of another producer are granted.
+   */
+  private void grantCredits(String creditHeader, int credits) {
+    String sentHeader = null;
+    int sent = 0;
+    boolean schedule;
+    synchronized (this) {
+      if (grantedHeader != null && !grantedHeader.equals(creditHeader)) {
+        sentHeader = grantedHeader;
+        sent = granted;
+        granted = 0;
+      }
+      schedule = grantedHeader == null;
+      grantedHeader = creditHeader;
+      granted += credits;
+    }
+    if (sentHeader != null) {
+      ProducerCredits.send(eventBus, sentHeader, sent);
+    }
+    if (schedule) {
+      vertx.runOnContext(v -> sendGrantedCredits());
+    }
+  }
+
+  private void sendGrantedCredits() {
+    String creditHeader;
+    int credits;
+    synchronized (this) {
+      creditHeader = grantedHeader;
+      credits = granted;
+      grantedHeader = null;
+      granted = 0;
+    }
+    if (creditHeader != null) {
+      ProducerCredits.send(eventBus, creditHeader, credits);
+    }
+  }
+
+  private boolean isLocal(Message<T> message) {
+    if (message instanceof ClusteredMessage) {
+      // A bit hacky
+      ClusteredMessage cmsg = (ClusteredMessage)message;
+      if (cmsg.isFromWire()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
   private void handleMessage(Handler<Message<T>> theHandler, Message<T> message) {
     try {
       theHandler.handle(message);
@@ -225,7 +332,7 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     this.handler = handler;
     if (this.handler != null && !registered) {
       registered = true;
-      eventBus.addRegistration(address, this, repliedAddress != null, localOnly);
+      eventBus.addRegistration(address, this, localOnly);
     } else if (this.handler == null && registered) {
       // This will set registered to false
       this.unregister();
@@ -233,6 +340,12 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     return this;
   }
 
+  @Override
+  public synchronized MessageConsumer<T> batchHandler(Handler<List<Message<T>>> handler) {
+    this.batchHandler = handler;
+    return this;
+  }
+
   @Override
   public ReadStream<T> bodyStream() {
     return new BodyReadStream<>(this);
@@ -295,6 +408,13 @@ public class HandlerRegistration<T> implements MessageConsumer<T>, Handler<Messa
     return handler;
   }
 
+  /**
+   * @return the number of messages buffered while paused
+   */
+  public synchronized int getPendingSize() {
+    return pending.size();
+  }
+
   public Object getMetric() {
     return metric;
   }
@@ -1,34 +1,123 @@
 package io.vertx.core.eventbus.impl;
 
-import java.util.List;
-import java.util.concurrent.CopyOnWriteArrayList;
+import io.vertx.core.Context;
+import io.vertx.core.eventbus.ConsumerSelection;
+import io.vertx.core.impl.ContextImpl;
+
+import java.util.Arrays;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * The handlers registered at an address.
+ * <p>
+ * The handlers are kept in an immutable array replaced when a handler is added or removed, so a handler is
+ * chosen from a consistent snapshot without locking.
+ *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 public class Handlers {
 
+  private static final HandlerHolder[] NO_HOLDERS = new HandlerHolder[0];
+
   private final AtomicInteger pos = new AtomicInteger(0);
-  public final List<HandlerHolder> list = new CopyOnWriteArrayList<>();
+  private volatile HandlerHolder[] holders = NO_HOLDERS;
 
-  public HandlerHolder choose() {
-    while (true) {
-      int size = list.size();
-      if (size == 0) {
-        return null;
+  public synchronized void add(HandlerHolder holder) {
+    HandlerHolder[] copy = Arrays.copyOf(holders, holders.length + 1);
+    copy[holders.length] = holder;
+    holders = copy;
+  }
+
+  /**
+   * Remove the holder of a handler.
+   *
+   * @return the removed holder or {@code null} when the handler is not registered
+   */
+  public synchronized HandlerHolder remove(HandlerRegistration handler) {
+    for (int i = 0; i < holders.length; i++) {
+      HandlerHolder holder = holders[i];
+      if (holder.getHandler() == handler) {
+        HandlerHolder[] copy = Arrays.copyOf(holders, holders.length - 1);
+        System.arraycopy(holders, i + 1, copy, i, holders.length - i - 1);
+        holders = copy;
+        return holder;
       }
-      int p = pos.getAndIncrement();
-      if (p >= size - 1) {
-        pos.set(0);
+    }
+    return null;
+  }
+
+  /**
+   * @return the snapshot of the holders, it must not be modified
+   */
+  public HandlerHolder[] holders() {
+    return holders;
+  }
+
+  public boolean isEmpty() {
+    return holders.length == 0;
+  }
+
+  public HandlerHolder choose(ConsumerSelection selection) {
+    return choose(this.holders, selection);
+  }
+
+  /**
+   * Choose one of the {@code holders}, the position of the round robin of these handlers is used, e.g. to choose
+   * among the consumers of several patterns.
+   */
+  public HandlerHolder choose(HandlerHolder[] holders, ConsumerSelection selection) {
+    switch (holders.length) {
+      case 0:
+        return null;
+      case 1:
+        return holders[0];
+    }
+    switch (selection) {
+      case LEAST_PENDING:
+        return leastPending(holders);
+      case SAME_EVENT_LOOP:
+        HandlerHolder holder = sameEventLoop(holders);
+        if (holder != null) {
+          return holder;
+        }
+        return holders[next(holders.length)];
+      default:
+        return holders[next(holders.length)];
+    }
+  }
+
+  private int next(int size) {
+    return (pos.getAndIncrement() & Integer.MAX_VALUE) % size;
+  }
+
+  private HandlerHolder leastPending(HandlerHolder[] holders) {
+    // Start at the next position so the handlers with the same number of pending messages are chosen in turn
+    int start = next(holders.length);
+    HandlerHolder chosen = null;
+    int min = Integer.MAX_VALUE;
+    for (int i = 0; i < holders.length; i++) {
+      HandlerHolder holder = holders[(start + i) % holders.length];
+      int pending = holder.pendingSize();
+      if (pending < min) {
+        chosen = holder;
+        min = pending;
+        if (pending == 0) {
+          break;
+        }
       }
-      try {
-        return list.get(p);
-      } catch (IndexOutOfBoundsException e) {
-        // Can happen
-        pos.set(0);
+    }
+    return chosen;
+  }
+
+  private HandlerHolder sameEventLoop(HandlerHolder[] holders) {
+    int start = next(holders.length);
+    for (int i = 0; i < holders.length; i++) {
+      HandlerHolder holder = holders[(start + i) % holders.length];
+      Context context = holder.getContext();
+      if (context instanceof ContextImpl && ((ContextImpl) context).nettyEventLoop().inEventLoop()) {
+        return holder;
       }
     }
+    return null;
   }
 }
-
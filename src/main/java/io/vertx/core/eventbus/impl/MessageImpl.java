@@ -23,6 +23,7 @@ import io.vertx.core.eventbus.*;
 import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.shareddata.Shareable;
 
 import java.util.List;
 import java.util.Map;
@@ -42,6 +43,8 @@ public class MessageImpl<U, V> implements Message<V> {
   protected U sentBody;
   protected V receivedBody;
   protected boolean send;
+  // Whether the local consumers receive the sent body instead of a copy
+  protected boolean shareBody;
 
   public MessageImpl() {
   }
@@ -70,9 +73,10 @@ public class MessageImpl<U, V> implements Message<V> {
         this.headers.add(entry.getKey(), entry.getValue());
       }
     }
+    this.shareBody = other.shareBody;
     if (other.sentBody != null) {
       this.sentBody = other.sentBody;
-      this.receivedBody = messageCodec.transform(other.sentBody);
+      this.receivedBody = transform(other.sentBody);
     }
     this.send = other.send;
   }
@@ -98,7 +102,7 @@ public class MessageImpl<U, V> implements Message<V> {
   @Override
   public V body() {
     if (receivedBody == null && sentBody != null) {
-      receivedBody = messageCodec.transform(sentBody);
+      receivedBody = transform(sentBody);
     }
     return receivedBody;
   }
@@ -134,10 +138,24 @@ public class MessageImpl<U, V> implements Message<V> {
   @Override
   public <R> void reply(Object message, DeliveryOptions options, Handler<AsyncResult<Message<R>>> replyHandler) {
     if (replyAddress != null) {
-      sendReply(bus.createMessage(true, replyAddress, options.getHeaders(), message, options.getCodecName()), options, replyHandler);
+      sendReply(bus.createMessage(true, replyAddress, options, message), options, replyHandler);
     }
   }
 
+  @SuppressWarnings("unchecked")
+  private V transform(U body) {
+    // The shared bodies are only the ones of the default codecs, they decode the type they encode
+    return shareBody ? (V) body : messageCodec.transform(body);
+  }
+
+  /**
+   * Share the body with the local consumers when it is allowed by the {@code options} or by the body itself, and its
+   * codec is a default codec.
+   */
+  public void setShareBody(DeliveryOptions options) {
+    shareBody = messageCodec.systemCodecID() != -1 && (options.isShareBody() || sentBody instanceof Shareable);
+  }
+
   public void setReplyAddress(String replyAddress) {
     this.replyAddress = replyAddress;
   }
@@ -17,13 +17,14 @@
 package io.vertx.core.eventbus.impl;
 
 import io.vertx.core.AsyncResult;
+import io.vertx.core.Context;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.eventbus.*;
 
 import java.util.ArrayDeque;
+import java.util.List;
 import java.util.Queue;
-import java.util.UUID;
 
 /**
  * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
@@ -33,34 +34,46 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
   public static final String CREDIT_ADDRESS_HEADER_NAME = "__vertx.credit";
 
   private final Vertx vertx;
-  private final EventBus bus;
+  private final EventBusImpl bus;
   private final boolean send;
   private final String address;
   private final Queue<T> pending = new ArrayDeque<>();
-  private final MessageConsumer<Integer> creditConsumer;
+  private final Context context;
+  private final ProducerCredits producerCredits;
+  private final String creditHeader;
   private DeliveryOptions options;
+  private int maxSize = DEFAULT_WRITE_QUEUE_MAX_SIZE;
   private int credits = DEFAULT_WRITE_QUEUE_MAX_SIZE;
   private Handler<Void> drainHandler;
 
   public MessageProducerImpl(Vertx vertx, String address, boolean send, DeliveryOptions options) {
     this.vertx = vertx;
-    this.bus = vertx.eventBus();
+    this.bus = (EventBusImpl) vertx.eventBus();
     this.address = address;
     this.send = send;
     this.options = options;
+    this.context = vertx.getOrCreateContext();
     if (send) {
-      String creditAddress = UUID.randomUUID().toString() + "-credit";
-      creditConsumer = bus.consumer(creditAddress, msg -> {
-        doReceiveCredit(msg.body());
-      });
-      options.addHeader(CREDIT_ADDRESS_HEADER_NAME, creditAddress);
+      ProducerCredits credits;
+      String header;
+      do {
+        credits = ProducerCredits.get(bus);
+        header = credits.register(this);
+      } while (header == null);
+      producerCredits = credits;
+      creditHeader = header;
+      options.addHeader(CREDIT_ADDRESS_HEADER_NAME, creditHeader);
     } else {
-      creditConsumer = null;
+      producerCredits = null;
+      creditHeader = null;
     }
   }
 
   @Override
   public synchronized MessageProducer<T> deliveryOptions(DeliveryOptions options) {
+    if (send) {
+      options.addHeader(CREDIT_ADDRESS_HEADER_NAME, creditHeader);
+    }
     this.options = options;
     return this;
   }
@@ -84,7 +97,9 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
 
   @Override
   public synchronized MessageProducer<T> setWriteQueueMaxSize(int maxSize) {
-    this.credits = maxSize;
+    // The messages in flight keep consuming credits until the consumers grant them back
+    credits += maxSize - this.maxSize;
+    this.maxSize = maxSize;
     return this;
   }
 
@@ -99,13 +114,30 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
   }
 
   @Override
-  public boolean writeQueueFull() {
-    return pending.size() >= 0;
+  public synchronized MessageProducer<T> writeBatch(List<T> data) {
+    if (send && credits >= data.size()) {
+      credits -= data.size();
+      bus.sendBatch(address, data, options);
+    } else {
+      for (T elt : data) {
+        write(elt);
+      }
+    }
+    return this;
+  }
+
+  @Override
+  public synchronized boolean writeQueueFull() {
+    return credits <= 0 || bus.writeQueueFull(address);
   }
 
   @Override
   public synchronized MessageProducer<T> drainHandler(Handler<Void> handler) {
     this.drainHandler = handler;
+    if (handler != null) {
+      // Wait for the outbound path to be drained, the credits are checked when it is
+      bus.writeQueueDrainHandler(address, v -> context.runOnContext(v2 -> checkDrained()));
+    }
     return this;
   }
 
@@ -121,8 +153,8 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
 
   @Override
   public void close() {
-    if (creditConsumer != null) {
-      creditConsumer.unregister();
+    if (producerCredits != null) {
+      producerCredits.unregister(creditHeader);
     }
   }
 
@@ -146,7 +178,10 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
     }
   }
 
-  private synchronized void doReceiveCredit(int credit) {
+  /**
+   * Called by the credit consumer of the producer context with the credits granted by the consumers.
+   */
+  synchronized void receiveCredits(int credit) {
     credits += credit;
     while (credits > 0) {
       T data = pending.poll();
@@ -158,10 +193,27 @@ public class MessageProducerImpl<T> implements MessageProducer<T> {
       }
     }
     final Handler<Void> theDrainHandler = drainHandler;
-    if (theDrainHandler != null && pending.isEmpty()) {
+    if (theDrainHandler != null && pending.isEmpty() && !bus.writeQueueFull(address)) {
       this.drainHandler = null;
-      vertx.runOnContext(v -> theDrainHandler.handle(null));
+      context.runOnContext(v -> theDrainHandler.handle(null));
+    }
+  }
+
+  private void checkDrained() {
+    Handler<Void> theDrainHandler;
+    synchronized (this) {
+      theDrainHandler = drainHandler;
+      if (theDrainHandler == null || credits <= 0 || !pending.isEmpty()) {
+        return;
+      }
+      if (bus.writeQueueFull(address)) {
+        // Congested again
+        drainHandler(theDrainHandler);
+        return;
+      }
+      drainHandler = null;
     }
+    theDrainHandler.handle(null);
   }
 
 }
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * A trie of address patterns.
+ * <p>
+ * An address is made of segments separated by {@code .}, a pattern is an address with wildcard segments:
+ * {@code *} matches exactly one segment and {@code #} matches zero or more segments, e.g {@code devices.*.telemetry}
+ * matches {@code devices.42.telemetry} and {@code devices.#} matches {@code devices} and {@code devices.42.telemetry}.
+ * <p>
+ * The trie is modified under its monitor and matched without locking.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class PatternTrie<V> {
+
+  private static final String ONE = "*";
+  private static final String ANY = "#";
+
+  private final Node<V> root = new Node<>();
+  private volatile int size;
+
+  /**
+   * @return whether the {@code address} has a wildcard segment
+   */
+  public static boolean isPattern(String address) {
+    int pos = 0;
+    while (true) {
+      int dot = address.indexOf('.', pos);
+      int end = dot == -1 ? address.length() : dot;
+      if (end - pos == 1) {
+        char c = address.charAt(pos);
+        if (c == '*' || c == '#') {
+          return true;
+        }
+      }
+      if (dot == -1) {
+        return false;
+      }
+      pos = dot + 1;
+    }
+  }
+
+  /**
+   * @return whether the trie has no pattern
+   */
+  public boolean isEmpty() {
+    return size == 0;
+  }
+
+  /**
+   * @return the value of a {@code pattern} or {@code null}
+   */
+  public synchronized V get(String pattern) {
+    Node<V> node = root;
+    for (String segment : segments(pattern)) {
+      node = node.children.get(segment);
+      if (node == null) {
+        return null;
+      }
+    }
+    return node.value;
+  }
+
+  /**
+   * Set the value of a {@code pattern}.
+   */
+  public synchronized void put(String pattern, V value) {
+    Node<V> node = root;
+    for (String segment : segments(pattern)) {
+      node = node.children.computeIfAbsent(segment, s -> new Node<>());
+    }
+    if (node.value == null) {
+      size++;
+    }
+    node.value = value;
+  }
+
+  /**
+   * Remove a {@code pattern}, the nodes left without value and children are pruned.
+   *
+   * @return the removed value or {@code null}
+   */
+  public synchronized V remove(String pattern) {
+    List<String> segments = segments(pattern);
+    List<Node<V>> path = new ArrayList<>(segments.size() + 1);
+    Node<V> node = root;
+    path.add(node);
+    for (String segment : segments) {
+      node = node.children.get(segment);
+      if (node == null) {
+        return null;
+      }
+      path.add(node);
+    }
+    V value = node.value;
+    if (value != null) {
+      node.value = null;
+      size--;
+      for (int i = segments.size(); i > 0; i--) {
+        Node<V> n = path.get(i);
+        if (n.value != null || !n.children.isEmpty()) {
+          break;
+        }
+        path.get(i - 1).children.remove(segments.get(i - 1));
+      }
+    }
+    return value;
+  }
+
+  /**
+   * @return the values of all patterns
+   */
+  public synchronized List<V> values() {
+    List<V> values = new ArrayList<>(size);
+    collect(root, values);
+    return values;
+  }
+
+  private void collect(Node<V> node, List<V> values) {
+    if (node.value != null) {
+      values.add(node.value);
+    }
+    for (Node<V> child : node.children.values()) {
+      collect(child, values);
+    }
+  }
+
+  /**
+   * @return the values of the patterns matching an {@code address}, each value is returned once
+   */
+  public List<V> match(String address) {
+    List<V> result = new ArrayList<>(2);
+    if (size > 0) {
+      match(root, address, 0, result);
+    }
+    return result;
+  }
+
+  // pos is the start of the next segment of the address, it is past the end of the address when all segments are consumed
+  private void match(Node<V> node, String address, int pos, List<V> result) {
+    Node<V> any = node.children.get(ANY);
+    if (any != null) {
+      int p = pos;
+      while (true) {
+        match(any, address, p, result);
+        if (p > address.length()) {
+          break;
+        }
+        int dot = address.indexOf('.', p);
+        p = dot == -1 ? address.length() + 1 : dot + 1;
+      }
+    }
+    if (pos > address.length()) {
+      V value = node.value;
+      if (value != null && !result.contains(value)) {
+        result.add(value);
+      }
+      return;
+    }
+    int dot = address.indexOf('.', pos);
+    int end = dot == -1 ? address.length() : dot;
+    Node<V> child = node.children.get(address.substring(pos, end));
+    if (child != null) {
+      match(child, address, end + 1, result);
+    }
+    Node<V> one = node.children.get(ONE);
+    if (one != null && one != child) {
+      match(one, address, end + 1, result);
+    }
+  }
+
+  private static List<String> segments(String pattern) {
+    List<String> segments = new ArrayList<>();
+    int pos = 0;
+    while (true) {
+      int dot = pattern.indexOf('.', pos);
+      if (dot == -1) {
+        segments.add(pattern.substring(pos));
+        return segments;
+      }
+      segments.add(pattern.substring(pos, dot));
+      pos = dot + 1;
+    }
+  }
+
+  private static class Node<V> {
+    private final ConcurrentMap<String, Node<V>> children = new ConcurrentHashMap<>();
+    private volatile V value;
+  }
+}
@@ -0,0 +1,161 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
+import io.vertx.core.Context;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryOptions;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.MessageConsumer;
+import io.vertx.core.impl.ContextImpl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Dispatches the credits granted by the consumers to the flow controlled producers of a context.
+ * <p>
+ * The producers created on a context share a single credit consumer, registered on this context, the producers
+ * created outside of a context share another one. The credit header of a message carries the address of this
+ * consumer and the id of the producer, the credits are sent back to this address with the id as header. In a
+ * cluster the credit consumer is registered as any consumer, so the credits granted on other nodes come back to
+ * the producer. The credit consumer is unregistered when the last of its producers is closed or when the context is
+ * closed.
+ * <p>
+ * The nodes of a cluster running an older version send the credits to the value of the credit header, with
+ * {@link io.vertx.core.eventbus.EventBusOptions#setClusterLegacyCreditAddresses} each producer also has a consumer
+ * registered at its credit header for them.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class ProducerCredits implements Closeable {
+
+  private static final String PRODUCER_ID_HEADER_NAME = "__vertx.credit.producer";
+  // The key of the credits of the producers created outside of a context
+  private static final Object NO_CONTEXT = new Object();
+
+  private final EventBusImpl bus;
+  private final Object key;
+  private final String address;
+  private final MessageConsumer<Integer> consumer;
+  private final ConcurrentMap<String, MessageProducerImpl<?>> producers = new ConcurrentHashMap<>();
+  // The consumers registered at the credit headers of the producers, by producer id
+  private final Map<String, MessageConsumer<Integer>> headerConsumers = new HashMap<>();
+  private long nextId;
+  private boolean closed;
+
+  private ProducerCredits(EventBusImpl bus, Object key) {
+    this.bus = bus;
+    this.key = key;
+    address = UUID.randomUUID().toString() + "-credit";
+    consumer = bus.<Integer>consumer(address, this::handleCredits);
+    if (key instanceof ContextImpl) {
+      ((ContextImpl) key).addCloseHook(this);
+    }
+  }
+
+  /**
+   * @return the credits of the producers of the current context
+   */
+  static ProducerCredits get(EventBusImpl bus) {
+    Context context = bus.vertx.getContext();
+    return bus.producerCredits.computeIfAbsent(context != null ? context : NO_CONTEXT, key -> new ProducerCredits(bus, key));
+  }
+
+  /**
+   * Register a producer.
+   *
+   * @return the value of the credit header of the messages sent by the producer, {@code null} when the last
+   *         producer has been unregistered meanwhile, the credits of the context must be obtained again
+   */
+  synchronized String register(MessageProducerImpl<?> producer) {
+    if (closed) {
+      return null;
+    }
+    String id = Long.toString(nextId++);
+    String creditHeader = address + '/' + id;
+    producers.put(id, producer);
+    if (bus.legacyCreditAddresses && bus.vertx.isClustered()) {
+      headerConsumers.put(id, bus.<Integer>consumer(creditHeader, msg -> producer.receiveCredits(msg.body())));
+    }
+    return creditHeader;
+  }
+
+  /**
+   * Unregister a producer, the credit consumer is unregistered with the last producer.
+   */
+  synchronized void unregister(String creditHeader) {
+    String id = creditHeader.substring(creditHeader.lastIndexOf('/') + 1);
+    MessageConsumer<Integer> headerConsumer = headerConsumers.remove(id);
+    if (headerConsumer != null) {
+      headerConsumer.unregister();
+    }
+    if (producers.remove(id) != null && producers.isEmpty()) {
+      doClose();
+      if (key instanceof ContextImpl) {
+        ((ContextImpl) key).removeCloseHook(this);
+      }
+    }
+  }
+
+  /**
+   * Called when the context is closed, the producers still open don't receive credits anymore.
+   */
+  @Override
+  public synchronized void close(Handler<AsyncResult<Void>> completionHandler) {
+    if (!closed) {
+      producers.clear();
+      headerConsumers.values().forEach(MessageConsumer::unregister);
+      headerConsumers.clear();
+      doClose();
+    }
+    completionHandler.handle(Future.succeededFuture());
+  }
+
+  private void doClose() {
+    closed = true;
+    bus.producerCredits.remove(key, this);
+    consumer.unregister();
+  }
+
+  /**
+   * Send credits to the producer of a credit header.
+   */
+  static void send(EventBusImpl bus, String creditHeader, int credits) {
+    int idx = creditHeader.lastIndexOf('/');
+    if (idx == -1) {
+      // Sent by a producer with its own credit address
+      bus.send(creditHeader, credits);
+    } else {
+      DeliveryOptions options = new DeliveryOptions().addHeader(PRODUCER_ID_HEADER_NAME, creditHeader.substring(idx + 1));
+      bus.send(creditHeader.substring(0, idx), credits, options);
+    }
+  }
+
+  private void handleCredits(Message<Integer> msg) {
+    MessageProducerImpl<?> producer = producers.get(msg.headers().get(PRODUCER_ID_HEADER_NAME));
+    if (producer != null) {
+      producer.receiveCredits(msg.body());
+    }
+  }
+}
@@ -0,0 +1,342 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl;
+
+import io.netty.util.collection.LongObjectHashMap;
+import io.netty.util.collection.LongObjectMap;
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Closeable;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.Vertx;
+import io.vertx.core.eventbus.DeliveryContext;
+import io.vertx.core.eventbus.Message;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.impl.ContextImpl;
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+import io.vertx.core.spi.metrics.EventBusMetrics;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * The reply handlers of the requests sent by an event bus.
+ * <p>
+ * A reply handler is not registered at its reply address like a consumer: it is stored in a table keyed by a long
+ * correlation id, the reply address being {@link #REPLY_ADDRESS_PREFIX} followed by the hexadecimal form of this id.
+ * The prefix reserves the reply addresses, a consumer address can't be taken for a reply address. The tables are
+ * striped by sending thread, the low bits of an id being the index of its table, so the table of a reply handler is
+ * almost always used by the same event loop and its monitor benefits from biased locking. The reply timeouts are
+ * Vert.x timers, they are scheduled on the timer wheel of the event loop of the request.
+ * <p>
+ * The reply handlers of the requests sent from a context are removed when the context is closed, e.g. when the verticle
+ * is undeployed, by a single close hook per context.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ReplyManager {
+
+  private static final Logger log = LoggerFactory.getLogger(ReplyManager.class);
+
+  /**
+   * The prefix of the reply addresses.
+   */
+  public static final String REPLY_ADDRESS_PREFIX = "__vertx.reply.";
+
+  // The number of low bits of an id used by the table index
+  private static final int TABLE_BITS = 5;
+  private static final int TABLE_MASK = (1 << TABLE_BITS) - 1;
+
+  private final EventBusImpl bus;
+  private final EventBusMetrics metrics;
+  private final Table[] tables = new Table[1 << TABLE_BITS];
+  private final ConcurrentMap<ContextImpl, ContextSlots> contextSlots = new ConcurrentHashMap<>();
+
+  ReplyManager(EventBusImpl bus, EventBusMetrics metrics) {
+    this.bus = bus;
+    this.metrics = metrics;
+    for (int i = 0; i < tables.length; i++) {
+      tables[i] = new Table();
+    }
+  }
+
+  /**
+   * @return whether the {@code address} is {@link #REPLY_ADDRESS_PREFIX} followed by the hexadecimal form of a long as
+   *         returned by {@link Long#toHexString(long)}, the reply addresses have this form
+   */
+  public static boolean isReplyAddress(String address) {
+    if (!address.startsWith(REPLY_ADDRESS_PREFIX)) {
+      return false;
+    }
+    int start = REPLY_ADDRESS_PREFIX.length();
+    int len = address.length() - start;
+    if (len == 0 || len > 16 || (len > 1 && address.charAt(start) == '0')) {
+      return false;
+    }
+    for (int i = start; i < address.length(); i++) {
+      char c = address.charAt(i);
+      if ((c < '0' || c > '9') && (c < 'a' || c > 'f')) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * @return the reply address of a correlation id
+   */
+  public static String replyAddress(long id) {
+    return REPLY_ADDRESS_PREFIX + Long.toHexString(id);
+  }
+
+  /**
+   * @return the correlation id of a reply address, the address must be a reply address
+   */
+  public static long replyId(String address) {
+    return Long.parseUnsignedLong(address.substring(REPLY_ADDRESS_PREFIX.length()), 16);
+  }
+
+  /**
+   * Register a reply handler.
+   *
+   * @param repliedAddress the address of the request
+   * @param timeout the reply timeout in ms, {@code -1} for no timeout
+   * @param handler the reply handler
+   * @return the reply slot, its address is the reply address of the request
+   */
+  <T> ReplySlot<T> register(String repliedAddress, long timeout, Handler<AsyncResult<Message<T>>> handler) {
+    // Like a consumer, the reply handler is removed when the current context is closed
+    ContextImpl current = (ContextImpl) Vertx.currentContext();
+    ContextImpl context = current != null ? current : bus.vertx.getOrCreateContext();
+    ContextSlots owner = current != null ? contextSlots(current) : null;
+    int index = (int) (Thread.currentThread().getId() & TABLE_MASK);
+    Table table = tables[index];
+    ReplySlot<T> slot;
+    synchronized (table) {
+      long id;
+      do {
+        id = (bus.generateReplyId(table.sequence++) << TABLE_BITS) | index;
+      } while (table.slots.get(id) != null);
+      slot = new ReplySlot<>(table, id, timeout, context, owner, handler);
+      // Before the slot is published, the reply can be handled by another thread
+      slot.metric = metrics.handlerRegistered(slot.address, repliedAddress);
+      if (timeout != -1) {
+        // The timeout can't remove the slot before it is published since it needs the monitor of the table
+        slot.timeoutID = bus.vertx.setTimer(context, timeout, slot::timedOut);
+      }
+      if (owner != null) {
+        owner.slots.add(slot);
+      }
+      table.slots.put(id, slot);
+    }
+    return slot;
+  }
+
+  private ContextSlots contextSlots(ContextImpl context) {
+    ContextSlots slots = contextSlots.get(context);
+    if (slots == null) {
+      slots = new ContextSlots(context);
+      ContextSlots prev = contextSlots.putIfAbsent(context, slots);
+      if (prev != null) {
+        slots = prev;
+      } else {
+        context.addCloseHook(slots);
+      }
+    }
+    return slots;
+  }
+
+  /**
+   * Remove the reply handler of a reply address.
+   *
+   * @return the removed reply handler or {@code null} when the address is not the one of a registered reply handler
+   */
+  ReplySlot<?> remove(String address) {
+    if (!isReplyAddress(address)) {
+      return null;
+    }
+    long id = replyId(address);
+    Table table = tables[(int) (id & TABLE_MASK)];
+    ReplySlot<?> slot;
+    synchronized (table) {
+      slot = table.slots.remove(id);
+    }
+    if (slot != null && slot.owner != null) {
+      slot.owner.slots.remove(slot);
+    }
+    return slot;
+  }
+
+  /**
+   * Remove all reply handlers without calling them.
+   */
+  void close() {
+    for (Table table : tables) {
+      synchronized (table) {
+        for (ReplySlot<?> slot : table.slots.values()) {
+          slot.cancelTimeout();
+          metrics.handlerUnregistered(slot.metric);
+        }
+        table.slots.clear();
+      }
+    }
+    contextSlots.clear();
+  }
+
+  /**
+   * The reply handlers of the requests sent from a context, the close hook of the context removes them without calling
+   * them.
+   */
+  private class ContextSlots implements Closeable {
+
+    private final ContextImpl context;
+    private final Set<ReplySlot<?>> slots = ConcurrentHashMap.newKeySet();
+
+    private ContextSlots(ContextImpl context) {
+      this.context = context;
+    }
+
+    @Override
+    public void close(Handler<AsyncResult<Void>> completionHandler) {
+      contextSlots.remove(context, this);
+      for (ReplySlot<?> slot : slots) {
+        if (slot.removeSelf()) {
+          slot.cancelTimeout();
+          metrics.handlerUnregistered(slot.metric);
+        }
+      }
+      completionHandler.handle(Future.succeededFuture());
+    }
+  }
+
+  private static class Table {
+    private final LongObjectMap<ReplySlot<?>> slots = new LongObjectHashMap<>();
+    private long sequence;
+  }
+
+  /**
+   * The reply handler of a request.
+   */
+  class ReplySlot<T> {
+
+    private final Table table;
+    private final long id;
+    final String address;
+    private final long timeoutDelay;
+    private final ContextImpl context;
+    private final ContextSlots owner;
+    private final Handler<AsyncResult<Message<T>>> handler;
+    private Object metric;
+    private long timeoutID = -1;
+
+    private ReplySlot(Table table, long id, long timeoutDelay, ContextImpl context, ContextSlots owner,
+                      Handler<AsyncResult<Message<T>>> handler) {
+      this.table = table;
+      this.id = id;
+      this.address = replyAddress(id);
+      this.timeoutDelay = timeoutDelay;
+      this.context = context;
+      this.owner = owner;
+      this.handler = handler;
+    }
+
+    /**
+     * Fail the request unless it has already been replied.
+     */
+    void fail(ReplyFailure failure, String msg) {
+      if (removeSelf()) {
+        cancelTimeout();
+        doFail(failure, msg);
+      }
+    }
+
+    /**
+     * Handle the reply on the context of the request, the slot must have been removed.
+     */
+    void deliver(MessageImpl reply, boolean local) {
+      cancelTimeout();
+      @SuppressWarnings("unchecked")
+      Message<T> copied = reply.copyBeforeReceive();
+      context.runOnContext(v -> {
+        Handler<DeliveryContext>[] interceptors = bus.inboundInterceptors();
+        if (interceptors.length == 0) {
+          handleReply(copied, local);
+        } else {
+          new EventBusImpl.DeliveryContextImpl<>(copied, interceptors, msg -> handleReply(msg, local)).next();
+        }
+      });
+    }
+
+    private void handleReply(Message<T> reply, boolean local) {
+      if (metrics.isEnabled()) {
+        metrics.beginHandleMessage(metric, local);
+      }
+      try {
+        AsyncResult<Message<T>> result;
+        if (reply.body() instanceof ReplyException) {
+          ReplyException exception = (ReplyException) reply.body();
+          metrics.replyFailure(reply.address(), exception.failureType());
+          result = Future.failedFuture(exception);
+        } else {
+          result = Future.succeededFuture(reply);
+        }
+        handler.handle(result);
+        metrics.endHandleMessage(metric, null);
+      } catch (Exception e) {
+        log.error("Failed to handleMessage", e);
+        metrics.endHandleMessage(metric, e);
+        throw e;
+      } finally {
+        metrics.handlerUnregistered(metric);
+      }
+    }
+
+    // Called on the context of the request
+    private void timedOut(long id) {
+      if (removeSelf()) {
+        metrics.replyFailure(address, ReplyFailure.TIMEOUT);
+        doFail(ReplyFailure.TIMEOUT, "Timed out after waiting " + timeoutDelay + "(ms) for a reply. address: " + address);
+      }
+    }
+
+    private void doFail(ReplyFailure failure, String msg) {
+      metrics.handlerUnregistered(metric);
+      handler.handle(Future.failedFuture(new ReplyException(failure, msg)));
+    }
+
+    private boolean removeSelf() {
+      boolean removed;
+      synchronized (table) {
+        removed = table.slots.remove(id) != null;
+      }
+      if (removed && owner != null) {
+        owner.slots.remove(this);
+      }
+      return removed;
+    }
+
+    private void cancelTimeout() {
+      long id = timeoutID;
+      if (id != -1) {
+        bus.vertx.cancelTimer(id);
+      }
+    }
+  }
+}
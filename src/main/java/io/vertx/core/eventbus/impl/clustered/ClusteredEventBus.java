@@ -16,11 +16,15 @@
 
 package io.vertx.core.eventbus.impl.clustered;
 
+import io.netty.channel.EventLoop;
 import io.vertx.core.*;
 import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBusOptions;
 import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.eventbus.impl.*;
+import io.vertx.core.impl.ContextImpl;
 import io.vertx.core.impl.HAManager;
 import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.json.JsonObject;
@@ -28,15 +32,21 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.net.*;
 import io.vertx.core.net.impl.ServerID;
-import io.vertx.core.parsetools.RecordParser;
 import io.vertx.core.spi.cluster.AsyncMultiMap;
 import io.vertx.core.spi.cluster.ChoosableIterable;
 import io.vertx.core.spi.cluster.ClusterManager;
 
+import java.io.File;
+import java.io.IOException;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Objects;
-import java.util.UUID;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
 
 /**
  * An event bus implementation that clusters with other Vert.x nodes
@@ -51,28 +61,44 @@ public class ClusteredEventBus extends EventBusImpl {
   public static final String CLUSTER_PUBLIC_PORT_PROP_NAME = "vertx.cluster.public.port";
 
   private static final Buffer PONG = Buffer.buffer(new byte[] { (byte)1 });
+  private static final Buffer PONG_V2 = Buffer.buffer(new byte[] { ClusteredMessage.WIRE_PROTOCOL_VERSION_2 });
   private static final String SERVER_ID_HA_KEY = "server_id";
   private static final String SUBS_MAP_NAME = "__vertx.subs";
 
   private final ClusterManager clusterManager;
   private final HAManager haManager;
-  private final ConcurrentMap<ServerID, ConnectionHolder> connections = new ConcurrentHashMap<>();
+  private final ConcurrentMap<ConnectionKey, ConnectionHolder> connections = new ConcurrentHashMap<>();
+  private final ConcurrentMap<String, ConnectionHolder> congestedAddresses = new ConcurrentHashMap<>();
   private final Context sendNoContext;
+  private final SecureRandom replyAddressRandom = new SecureRandom();
+  private final SubscriptionCache subsCache;
+  private final ConcurrentMap<ConnectionKey, OutboundSpool> spools = new ConcurrentHashMap<>();
+  // The nodes that left the cluster, no spool is created for them, updated with the spools lock held
+  private final Set<ServerID> departedNodes = ConcurrentHashMap.newKeySet();
+  private final ConcurrentMap<EventLoop, LivenessSweeper> sweepers = new ConcurrentHashMap<>();
+  // The contexts on which the connections of the lanes are established, created with the first connection of a lane
+  private final AtomicReferenceArray<ContextImpl> laneContexts;
 
   private EventBusOptions options;
   private AsyncMultiMap<String, ServerID> subs;
+  private PatternSubscriptions patternSubs;
   private ServerID serverID;
   private NetServer server;
+  private long subsCachePurgeTimerID = -1;
 
   public ClusteredEventBus(VertxInternal vertx,
                            VertxOptions options,
                            ClusterManager clusterManager,
                            HAManager haManager) {
-    super(vertx);
+    super(vertx, options.getEventBusOptions());
     this.options = options.getEventBusOptions();
     this.clusterManager = clusterManager;
     this.haManager = haManager;
     this.sendNoContext = vertx.getOrCreateContext();
+    long subsCacheTimeout = this.options.getClusterSubscriptionCacheTimeout();
+    this.subsCache = subsCacheTimeout > 0 ? new SubscriptionCache(subsCacheTimeout) : null;
+    // The address lanes and the bulk lane
+    this.laneContexts = new AtomicReferenceArray<>(this.options.getClusterConnectionsPerNode() + 1);
     setNodeCrashedHandler(haManager);
   }
 
@@ -113,42 +139,61 @@ public class ClusteredEventBus extends EventBusImpl {
 
   @Override
   public void start(Handler<AsyncResult<Void>> resultHandler) {
-    clusterManager.<String, ServerID>getAsyncMultiMap(SUBS_MAP_NAME, ar2 -> {
-      if (ar2.succeeded()) {
-        subs = ar2.result();
-        server = vertx.createNetServer(getServerOptions());
-
-        server.connectHandler(getServerHandler());
-        server.listen(asyncResult -> {
-          if (asyncResult.succeeded()) {
-            int serverPort = getClusterPublicPort(options, server.actualPort());
-            String serverHost = getClusterPublicHost(options);
-            serverID = new ServerID(serverPort, serverHost);
-            haManager.addDataToAHAInfo(SERVER_ID_HA_KEY, new JsonObject().put("host", serverID.host).put("port", serverID.port));
-            if (resultHandler != null) {
-              started = true;
-              resultHandler.handle(Future.succeededFuture());
-            }
+    clusterManager.<String, ServerID>getAsyncMultiMap(SUBS_MAP_NAME, ar1 -> {
+      if (ar1.succeeded()) {
+        clusterManager.<String, String>getAsyncMultiMap(PatternSubscriptions.MAP_NAME, ar2 -> {
+          if (ar2.succeeded()) {
+            subs = ar1.result();
+            patternSubs = new PatternSubscriptions(ar2.result(), options.getClusterSubscriptionCacheTimeout());
+            startServer(resultHandler);
           } else {
-            if (resultHandler != null) {
-              resultHandler.handle(Future.failedFuture(asyncResult.cause()));
-            } else {
-              log.error(asyncResult.cause());
-            }
+            startFailed(resultHandler, ar2.cause());
           }
         });
       } else {
+        startFailed(resultHandler, ar1.cause());
+      }
+    });
+  }
+
+  private void startFailed(Handler<AsyncResult<Void>> resultHandler, Throwable cause) {
+    if (resultHandler != null) {
+      resultHandler.handle(Future.failedFuture(cause));
+    } else {
+      log.error(cause);
+    }
+  }
+
+  private void startServer(Handler<AsyncResult<Void>> resultHandler) {
+    server = vertx.createNetServer(getServerOptions());
+
+    server.connectHandler(getServerHandler());
+    server.listen(asyncResult -> {
+      if (asyncResult.succeeded()) {
+        int serverPort = getClusterPublicPort(options, server.actualPort());
+        String serverHost = getClusterPublicHost(options);
+        serverID = new ServerID(serverPort, serverHost);
+        haManager.addDataToAHAInfo(SERVER_ID_HA_KEY, new JsonObject().put("host", serverID.host).put("port", serverID.port));
+        if (subsCache != null) {
+          // Purge the expired subscriptions at most every second
+          long purgeInterval = Math.max(options.getClusterSubscriptionCacheTimeout(), 1000);
+          subsCachePurgeTimerID = vertx.setPeriodic(purgeInterval, id -> subsCache.purge());
+        }
         if (resultHandler != null) {
-          resultHandler.handle(Future.failedFuture(ar2.cause()));
-        } else {
-          log.error(ar2.cause());
+          started = true;
+          resultHandler.handle(Future.succeededFuture());
         }
+      } else {
+        startFailed(resultHandler, asyncResult.cause());
       }
     });
   }
 
   @Override
   public void close(Handler<AsyncResult<Void>> completionHandler) {
+    if (subsCachePurgeTimerID != -1) {
+      vertx.cancelTimer(subsCachePurgeTimerID);
+    }
     super.close(ar1 -> {
       if (server != null) {
         server.close(ar -> {
@@ -182,12 +227,22 @@ public class ClusteredEventBus extends EventBusImpl {
   }
 
   @Override
-  protected <T> void addRegistration(boolean newAddress, String address,
-                                     boolean replyHandler, boolean localOnly,
+  protected <T> void addRegistration(boolean newAddress, String address, boolean localOnly,
                                      Handler<AsyncResult<Void>> completionHandler) {
-    if (newAddress && subs != null && !replyHandler && !localOnly) {
+    if (newAddress && subs != null && !localOnly) {
+      if (PatternTrie.isPattern(address)) {
+        // Propagate the pattern, the cached subscriptions of any address might match it
+        patternSubs.add(address, serverID, ar -> {
+          invalidateAllSubs();
+          completionHandler.handle(ar);
+        });
+        return;
+      }
       // Propagate the information
-      subs.add(address, serverID, completionHandler);
+      subs.add(address, serverID, ar -> {
+        invalidateSubs(address);
+        completionHandler.handle(ar);
+      });
     } else {
       completionHandler.handle(Future.succeededFuture());
     }
@@ -197,6 +252,13 @@ public class ClusteredEventBus extends EventBusImpl {
   protected <T> void removeRegistration(HandlerHolder lastHolder, String address,
                                         Handler<AsyncResult<Void>> completionHandler) {
     if (lastHolder != null && subs != null && !lastHolder.isLocalOnly()) {
+      if (PatternTrie.isPattern(address)) {
+        patternSubs.remove(address, serverID, ar -> {
+          invalidateAllSubs();
+          subRemoved(ar, completionHandler);
+        });
+        return;
+      }
       removeSub(address, serverID, completionHandler);
     } else {
       callCompletionHandlerAsync(completionHandler);
@@ -224,6 +286,50 @@ public class ClusteredEventBus extends EventBusImpl {
         log.error("Failed to send message", asyncResult.cause());
       }
     };
+    resolveSubs(address, resultHandler);
+  }
+
+  @Override
+  protected void sendBatch(List<MessageImpl> batch, DeliveryOptions options) {
+    String address = batch.get(0).address();
+    resolveSubs(address, asyncResult -> {
+      if (asyncResult.succeeded()) {
+        ChoosableIterable<ServerID> serverIDs = asyncResult.result();
+        ServerID sid = serverIDs != null && !serverIDs.isEmpty() ? serverIDs.choose() : null;
+        if (sid != null && !sid.equals(serverID)) {  //We don't send to this node
+          for (int i = 0; i < batch.size(); i++) {
+            metrics.messageSent(address, false, false, true);
+          }
+          sendRemote(sid, batch);
+        } else {
+          for (int i = 0; i < batch.size(); i++) {
+            metrics.messageSent(address, false, true, false);
+          }
+          deliverBatchLocally(batch, options);
+        }
+      } else {
+        log.error("Failed to send messages", asyncResult.cause());
+      }
+    });
+  }
+
+  private void resolveSubs(String address, Handler<AsyncResult<ChoosableIterable<ServerID>>> resultHandler) {
+    if (subsCache != null) {
+      subsCache.get(address, this::lookupSubs, resultHandler);
+    } else {
+      lookupSubs(address, resultHandler);
+    }
+  }
+
+  private void lookupSubs(String address, Handler<AsyncResult<ChoosableIterable<ServerID>>> handler) {
+    // Add the nodes subscribing to a matching pattern
+    Handler<AsyncResult<ChoosableIterable<ServerID>>> resultHandler = ar -> {
+      if (ar.succeeded()) {
+        patternSubs.merge(address, ar.result(), handler);
+      } else {
+        handler.handle(ar);
+      }
+    };
     if (Vertx.currentContext() == null) {
       // Guarantees the order when there is no current context
       sendNoContext.runOnContext(v -> {
@@ -234,10 +340,23 @@ public class ClusteredEventBus extends EventBusImpl {
     }
   }
 
+  private void invalidateSubs(String address) {
+    if (subsCache != null) {
+      subsCache.invalidate(address);
+    }
+  }
+
+  private void invalidateAllSubs() {
+    if (subsCache != null) {
+      subsCache.invalidateAll();
+    }
+  }
+
   @Override
-  protected String generateReplyAddress() {
-    // The address is a cryptographically secure id that can't be guessed
-    return UUID.randomUUID().toString();
+  protected long generateReplyId(long sequence) {
+    // The reply address is derived from a cryptographically secure id that can't be guessed, it is scoped to this
+    // node since replies are sent directly to the sender node, the id is sent as 8 bytes by the wire protocol
+    return replyAddressRandom.nextLong();
   }
 
   @Override
@@ -253,8 +372,13 @@ public class ClusteredEventBus extends EventBusImpl {
         ServerID sid = new ServerID(jsid.getInteger("port"), jsid.getString("host"));
         if (subs != null) {
           subs.removeAllForValue(sid, res -> {
+            if (subsCache != null) {
+              subsCache.invalidateAll();
+            }
           });
+          patternSubs.removeAll(sid);
         }
+        deleteSpool(sid);
       }
     });
   }
@@ -280,30 +404,28 @@ public class ClusteredEventBus extends EventBusImpl {
 
   private Handler<NetSocket> getServerHandler() {
     return socket -> {
-      RecordParser parser = RecordParser.newFixed(4, null);
-      Handler<Buffer> handler = new Handler<Buffer>() {
-        int size = -1;
-        public void handle(Buffer buff) {
-          if (size == -1) {
-            size = buff.getInt(0);
-            parser.fixedSizeMode(size);
+      WireDictionary dictionary = new WireDictionary();
+      socket.handler(new FrameParser(frame -> {
+        ClusteredMessage received = new ClusteredMessage();
+        try {
+          received.readFromWire(frame, codecManager, dictionary);
+        } catch (Exception e) {
+          // The next frames are still read, e.g. a message with a codec not registered on this node
+          log.error("Failed to read message", e);
+          return;
+        }
+        metrics.messageRead(received.address(), frame.length() + 4);
+        if (received.codec() == CodecManager.PING_MESSAGE_CODEC) {
+          // Just send back pong directly on connection, the handshake gets the wire protocol version to use
+          if (received.headers().contains(ClusteredMessage.WIRE_PROTOCOL_VERSION_HEADER)) {
+            socket.write(PONG_V2);
           } else {
-            ClusteredMessage received = new ClusteredMessage();
-            received.readFromWire(buff, codecManager);
-            metrics.messageRead(received.address(), buff.length());
-            parser.fixedSizeMode(4);
-            size = -1;
-            if (received.codec() == CodecManager.PING_MESSAGE_CODEC) {
-              // Just send back pong directly on connection
-              socket.write(PONG);
-            } else {
-              deliverMessageLocally(received);
-            }
+            socket.write(PONG);
           }
+        } else {
+          deliverMessageLocally(received);
         }
-      };
-      parser.setOutput(handler);
-      socket.handler(parser);
+      }));
     };
   }
 
@@ -314,7 +436,7 @@ public class ClusteredEventBus extends EventBusImpl {
       ServerID sid = subs.choose();
       if (!sid.equals(serverID)) {  //We don't send to this node
         metrics.messageSent(address, false, false, true);
-        sendRemote(sid, sendContext.message);
+        sendRemote(sid, sendContext);
       } else {
         metrics.messageSent(address, false, true, false);
         deliverMessageLocally(sendContext);
@@ -322,16 +444,22 @@ public class ClusteredEventBus extends EventBusImpl {
     } else {
       // Publish
       boolean local = false;
-      boolean remote = false;
+      List<ServerID> remotes = new ArrayList<>();
       for (ServerID sid : subs) {
         if (!sid.equals(serverID)) {  //We don't send to this node
-          remote = true;
-          sendRemote(sid, sendContext.message);
+          remotes.add(sid);
         } else {
           local = true;
         }
       }
-      metrics.messageSent(address, true, local, remote);
+      if (remotes.size() > 1) {
+        // Encode the body once for all the nodes
+        ((ClusteredMessage) sendContext.message).encodeBody();
+      }
+      for (ServerID sid : remotes) {
+        sendRemote(sid, sendContext);
+      }
+      metrics.messageSent(address, true, local, !remotes.isEmpty());
       if (local) {
         deliverMessageLocally(sendContext);
       }
@@ -343,25 +471,65 @@ public class ClusteredEventBus extends EventBusImpl {
     String address = message.address();
     if (!replyDest.equals(serverID)) {
       metrics.messageSent(address, false, false, true);
-      sendRemote(replyDest, message);
+      sendRemote(replyDest, sendContext);
     } else {
       metrics.messageSent(address, false, true, false);
       deliverMessageLocally(sendContext);
     }
   }
 
-  private void sendRemote(ServerID theServerID, MessageImpl message) {
+  private <T> void sendRemote(ServerID theServerID, SendContextImpl<T> sendContext) {
+    MessageImpl message = sendContext.message;
+    ClusteredMessage clusteredMessage = (ClusteredMessage) message;
+    int lane;
+    int bulkMessageSize = options.getClusterBulkMessageSize();
+    if (bulkMessageSize > 0 && clusteredMessage.encodedBodyLength() >= bulkMessageSize) {
+      lane = options.getClusterConnectionsPerNode();
+    } else {
+      lane = lane(message.address());
+    }
+    ConnectionHolder holder = connectionHolder(new ConnectionKey(theServerID, lane));
+    if (!holder.writeMessage(clusteredMessage)) {
+      // The write queue of the node is full, the message is dropped
+      sendFailed(sendContext, ReplyFailure.ERROR, "Write queue of node " + theServerID + " is full");
+    }
+    if (holder.writeQueueFull()) {
+      congestedAddresses.put(message.address(), holder);
+    }
+  }
+
+  private void sendRemote(ServerID theServerID, List<MessageImpl> batch) {
+    // The messages of a batch are written together on the connection of their address
+    ConnectionHolder holder = connectionHolder(new ConnectionKey(theServerID, lane(batch.get(0).address())));
+    int rejected = batch.size() - holder.writeMessages(batch);
+    if (rejected > 0) {
+      log.warn("Write queue of node " + theServerID + " is full, " + rejected + " messages rejected");
+      for (int i = 0; i < rejected; i++) {
+        metrics.replyFailure(batch.get(0).address(), ReplyFailure.ERROR);
+      }
+    }
+    if (holder.writeQueueFull()) {
+      congestedAddresses.put(batch.get(0).address(), holder);
+    }
+  }
+
+  private int lane(String address) {
+    int connectionsPerNode = options.getClusterConnectionsPerNode();
+    return connectionsPerNode == 1 ? 0 : (address.hashCode() & Integer.MAX_VALUE) % connectionsPerNode;
+  }
+
+  ConnectionHolder connectionHolder(ConnectionKey key) {
     // We need to deal with the fact that connecting can take some time and is async, and we cannot
     // block to wait for it. So we add any sends to a pending list if not connected yet.
     // Once we connect we send them.
     // This can also be invoked concurrently from different threads, so it gets a little
     // tricky
-    ConnectionHolder holder = connections.get(theServerID);
+    ConnectionHolder holder = connections.get(key);
     if (holder == null) {
       // When process is creating a lot of connections this can take some time
       // so increase the timeout
-      holder = new ConnectionHolder(this, theServerID, options);
-      ConnectionHolder prevHolder = connections.putIfAbsent(theServerID, holder);
+      holder = new ConnectionHolder(this, key, options);
+      ConnectionHolder prevHolder = connections.putIfAbsent(key, holder);
       if (prevHolder != null) {
         // Another one sneaked in
         holder = prevHolder;
@@ -369,29 +537,151 @@ public class ClusteredEventBus extends EventBusImpl {
         holder.connect();
       }
     }
-    holder.writeMessage((ClusteredMessage)message);
+    return holder;
+  }
+
+  @Override
+  protected boolean writeQueueFull(String address) {
+    ConnectionHolder holder = congestedAddresses.get(address);
+    if (holder != null) {
+      if (holder.writeQueueFull()) {
+        return true;
+      }
+      congestedAddresses.remove(address, holder);
+    }
+    return false;
+  }
+
+  @Override
+  protected void writeQueueDrainHandler(String address, Handler<Void> handler) {
+    ConnectionHolder holder = congestedAddresses.get(address);
+    if (holder != null) {
+      holder.drainHandler(() -> handler.handle(null));
+    } else {
+      handler.handle(null);
+    }
   }
 
   private void removeSub(String subName, ServerID theServerID, Handler<AsyncResult<Void>> completionHandler) {
     subs.remove(subName, theServerID, ar -> {
-      if (!ar.succeeded()) {
-        log.error("Failed to remove sub", ar.cause());
+      invalidateSubs(subName);
+      subRemoved(ar, completionHandler);
+    });
+  }
+
+  private void subRemoved(AsyncResult<Boolean> ar, Handler<AsyncResult<Void>> completionHandler) {
+    if (!ar.succeeded()) {
+      log.error("Failed to remove sub", ar.cause());
+    } else {
+      if (ar.result()) {
+        if (completionHandler != null) {
+          completionHandler.handle(Future.succeededFuture());
+        }
       } else {
-        if (ar.result()) {
-          if (completionHandler != null) {
-            completionHandler.handle(Future.succeededFuture());
+        if (completionHandler != null) {
+          completionHandler.handle(Future.failedFuture("sub not found"));
+        }
+      }
+    }
+  }
+
+  /**
+   * Get the spool of a connection to a node.
+   *
+   * @param create whether to create the spool when it does not exist
+   * @return the spool or {@code null} when spooling is disabled, when it does not exist, when the node left the
+   *         cluster or can't be opened
+   */
+  OutboundSpool spool(ConnectionKey key, boolean create) {
+    String directory = options.getClusterSpoolDirectory();
+    if (directory == null) {
+      return null;
+    }
+    OutboundSpool spool = spools.get(key);
+    if (spool == null) {
+      File file = OutboundSpool.file(directory, serverID, key);
+      if (!create && !file.exists()) {
+        return null;
+      }
+      synchronized (spools) {
+        if (departedNodes.contains(key.serverID)) {
+          // The messages sent to a crashed node or through a stale subscription are not kept
+          return null;
+        }
+        spool = spools.get(key);
+        if (spool == null) {
+          try {
+            spool = new OutboundSpool(file, options.getClusterSpoolMaxSize(), options.getClusterSpoolOverflowPolicy());
+          } catch (IOException e) {
+            log.error("Failed to open spool " + file, e);
+            return null;
           }
-        } else {
-          if (completionHandler != null) {
-            completionHandler.handle(Future.failedFuture("sub not found"));
+          spools.put(key, spool);
+        }
+      }
+    }
+    return spool;
+  }
+
+  private void deleteSpool(ServerID theServerID) {
+    String directory = options.getClusterSpoolDirectory();
+    if (directory != null) {
+      synchronized (spools) {
+        departedNodes.add(theServerID);
+        // The address lanes and the bulk lane
+        for (int lane = 0; lane <= options.getClusterConnectionsPerNode(); lane++) {
+          ConnectionKey key = new ConnectionKey(theServerID, lane);
+          // Removed first so it is not used anymore
+          OutboundSpool spool = spools.remove(key);
+          if (spool != null) {
+            spool.delete();
+          } else {
+            OutboundSpool.file(directory, serverID, key).delete();
           }
         }
+      }
+    }
+  }
 
+  /**
+   * Called when a node replies to the handshake of a connection, a node restarted with the same server id is spooled
+   * again.
+   */
+  void nodeReachable(ServerID theServerID) {
+    if (departedNodes.contains(theServerID)) {
+      synchronized (spools) {
+        departedNodes.remove(theServerID);
       }
+    }
+  }
+
+  /**
+   * @return the sweeper checking the liveness of the connections of an {@code eventLoop}
+   */
+  LivenessSweeper livenessSweeper(EventLoop eventLoop) {
+    return sweepers.computeIfAbsent(eventLoop, el -> {
+      // The ping is sent and the pong is checked at most half of the interval late
+      long period = Math.min(options.getClusterPingInterval(), options.getClusterPingReplyInterval()) / 2;
+      return new LivenessSweeper(el, TimeUnit.MILLISECONDS.toNanos(Math.max(period, 1)));
     });
   }
 
-  ConcurrentMap<ServerID, ConnectionHolder> connections() {
+  /**
+   * @return the context on which the connections of a {@code lane} are established, the connections of a lane to the
+   *         nodes of the cluster share its event loop
+   */
+  ContextImpl laneContext(int lane) {
+    ContextImpl context = laneContexts.get(lane);
+    if (context == null) {
+      context = vertx.createEventLoopContext(null, null, new JsonObject(), ClusteredEventBus.class.getClassLoader());
+      if (!laneContexts.compareAndSet(lane, null, context)) {
+        context = laneContexts.get(lane);
+      }
+    }
+    return context;
+  }
+
+  ConcurrentMap<ConnectionKey, ConnectionHolder> connections() {
     return connections;
   }
 
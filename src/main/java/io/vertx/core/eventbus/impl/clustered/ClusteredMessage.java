@@ -16,6 +16,8 @@
 
 package io.vertx.core.eventbus.impl.clustered;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
 import io.netty.util.CharsetUtil;
 import io.vertx.core.MultiMap;
 import io.vertx.core.buffer.Buffer;
@@ -38,13 +40,26 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
 
   private static final Logger log = LoggerFactory.getLogger(ClusteredMessage.class);
 
-  private static final byte WIRE_PROTOCOL_VERSION = 1;
+  static final byte WIRE_PROTOCOL_VERSION = 1;
+  static final byte WIRE_PROTOCOL_VERSION_2 = 2;
+
+  /**
+   * The header of the handshake ping carrying the highest wire protocol version supported by the sender
+   */
+  static final String WIRE_PROTOCOL_VERSION_HEADER = "__vertx.wire.version";
+
+  private static final int PUBLISH_FLAG = 0x01;
+  private static final int REPLY_ADDRESS_FLAG = 0x02;
+  private static final int HEADERS_FLAG = 0x04;
 
   private ServerID sender;
   private Buffer wireBuffer;
   private int bodyPos;
   private int headersPos;
   private boolean fromWire;
+  private byte wireVersion;
+  // The body encoded once when the message is published to several nodes
+  private volatile Buffer encodedBody;
 
   public ClusteredMessage() {
   }
@@ -64,6 +79,7 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
       this.headersPos = other.headersPos;
     }
     this.fromWire = other.fromWire;
+    this.wireVersion = other.wireVersion;
   }
 
   public ClusteredMessage<U, V> copyBeforeReceive() {
@@ -103,6 +119,40 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
   public Buffer encodeToWire() {
     int length = 1024; // TODO make this configurable
     Buffer buffer = Buffer.buffer(length);
+    encodeToWire(buffer);
+    return buffer;
+  }
+
+  /**
+   * Encode the message in a direct buffer obtained from the {@code allocator}, the caller is responsible for
+   * releasing the returned buffer, usually by writing it to a channel. The entries added to the dictionary are
+   * removed when the encoding fails, so the dictionary stays in sync with the dictionary of the other side.
+   *
+   * @param allocator the allocator
+   * @param dictionary the dictionary of the connection when the wire protocol version 2 is used, {@code null}
+   *                   for the version 1
+   * @return the encoded message
+   */
+  ByteBuf encodeToWire(ByteBufAllocator allocator, WireDictionary dictionary) {
+    ByteBuf buf = allocator.directBuffer(dictionary != null ? 256 : 1024);
+    int mark = dictionary != null ? dictionary.mark() : 0;
+    try {
+      if (dictionary != null) {
+        encodeToWireV2(Buffer.buffer(buf), dictionary);
+      } else {
+        encodeToWire(Buffer.buffer(buf));
+      }
+    } catch (RuntimeException e) {
+      buf.release();
+      if (dictionary != null) {
+        dictionary.rollback(mark);
+      }
+      throw e;
+    }
+    return buf;
+  }
+
+  private void encodeToWire(Buffer buffer) {
     buffer.appendInt(0);
     buffer.appendByte(WIRE_PROTOCOL_VERSION);
     byte systemCodecID = messageCodec.systemCodecID();
@@ -123,26 +173,86 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     encodeHeaders(buffer);
     writeBody(buffer);
     buffer.setInt(0, buffer.length() - 4);
-    return buffer;
+  }
+
+  private void encodeToWireV2(Buffer buffer, WireDictionary dictionary) {
+    buffer.appendInt(0);
+    buffer.appendByte(WIRE_PROTOCOL_VERSION_2);
+    byte systemCodecID = messageCodec.systemCodecID();
+    buffer.appendByte(systemCodecID);
+    if (systemCodecID == -1) {
+      // User codec
+      dictionary.write(buffer, messageCodec.name());
+    }
+    boolean hasHeaders = headers != null && !headers.isEmpty();
+    int flags = 0;
+    if (!send) {
+      flags |= PUBLISH_FLAG;
+    }
+    if (replyAddress != null) {
+      flags |= REPLY_ADDRESS_FLAG;
+    }
+    if (hasHeaders) {
+      flags |= HEADERS_FLAG;
+    }
+    buffer.appendByte((byte) flags);
+    dictionary.write(buffer, address);
+    if (replyAddress != null) {
+      dictionary.write(buffer, replyAddress, false);
+    }
+    WireDictionary.writeVarInt(buffer, sender.port);
+    dictionary.write(buffer, sender.host);
+    if (hasHeaders) {
+      int headersLengthPos = buffer.length();
+      buffer.appendInt(0);
+      List<Map.Entry<String, String>> entries = headers.entries();
+      WireDictionary.writeVarInt(buffer, entries.size());
+      for (Map.Entry<String, String> entry: entries) {
+        WireDictionary.writeString(buffer, entry.getKey());
+        WireDictionary.writeString(buffer, entry.getValue());
+      }
+      buffer.setInt(headersLengthPos, buffer.length() - headersLengthPos - 4);
+    }
+    writeBody(buffer);
+    buffer.setInt(0, buffer.length() - 4);
   }
 
   public void readFromWire(Buffer buffer, CodecManager codecManager) {
+    readFromWire(buffer, codecManager, null);
+  }
+
+  /**
+   * Read the message from a frame, the strings are decoded in place and the frame is retained for decoding
+   * the headers and the body lazily.
+   *
+   * @param buffer the frame, without the overall length
+   * @param codecManager the codec manager
+   * @param dictionary the dictionary of the connection, can be {@code null} for the wire protocol version 1
+   */
+  void readFromWire(Buffer buffer, CodecManager codecManager, WireDictionary dictionary) {
+    ByteBuf buf = buffer.getByteBuf();
     int pos = 0;
     // Overall Length already read when passed in here
-    byte protocolVersion = buffer.getByte(pos);
-    if (protocolVersion > WIRE_PROTOCOL_VERSION) {
+    byte protocolVersion = buf.getByte(pos);
+    if (protocolVersion == WIRE_PROTOCOL_VERSION_2) {
+      if (dictionary == null) {
+        throw new IllegalStateException("The wire protocol version 2 requires a connection dictionary");
+      }
+      readFromWireV2(buffer, buf, codecManager, dictionary);
+      return;
+    }
+    if (protocolVersion > WIRE_PROTOCOL_VERSION_2) {
       throw new IllegalStateException("Invalid wire protocol version " + protocolVersion +
-                                      " should be <= " + WIRE_PROTOCOL_VERSION);
+                                      " should be <= " + WIRE_PROTOCOL_VERSION_2);
     }
     pos++;
-    byte systemCodecCode = buffer.getByte(pos);
+    byte systemCodecCode = buf.getByte(pos);
     pos++;
     if (systemCodecCode == -1) {
       // User codec
-      int length = buffer.getInt(pos);
+      int length = buf.getInt(pos);
       pos += 4;
-      byte[] bytes = buffer.getBytes(pos, pos + length);
-      String codecName = new String(bytes, CharsetUtil.UTF_8);
+      String codecName = readString(buf, pos, length, dictionary);
       messageCodec = codecManager.getCodec(codecName);
       if (messageCodec == null) {
         throw new IllegalStateException("No message codec registered with name " + codecName);
@@ -151,35 +261,75 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     } else {
       messageCodec = codecManager.systemCodecs()[systemCodecCode];
     }
-    byte bsend = buffer.getByte(pos);
+    byte bsend = buf.getByte(pos);
     send = bsend == 0;
     pos++;
-    int length = buffer.getInt(pos);
+    int length = buf.getInt(pos);
     pos += 4;
-    byte[] bytes = buffer.getBytes(pos, pos + length);
-    address = new String(bytes, CharsetUtil.UTF_8);
+    address = readString(buf, pos, length, dictionary);
     pos += length;
-    length = buffer.getInt(pos);
+    length = buf.getInt(pos);
     pos += 4;
     if (length != 0) {
-      bytes = buffer.getBytes(pos, pos + length);
-      replyAddress = new String(bytes, CharsetUtil.UTF_8);
+      // Reply addresses are unique, don't cache them
+      replyAddress = readString(buf, pos, length, null);
       pos += length;
     }
-    int senderPort = buffer.getInt(pos);
+    int senderPort = buf.getInt(pos);
     pos += 4;
-    length = buffer.getInt(pos);
+    length = buf.getInt(pos);
     pos += 4;
-    bytes = buffer.getBytes(pos, pos + length);
-    String senderHost = new String(bytes, CharsetUtil.UTF_8);
+    String senderHost = readString(buf, pos, length, dictionary);
     pos += length;
     headersPos = pos;
-    int headersLength = buffer.getInt(pos);
+    int headersLength = buf.getInt(pos);
     pos += headersLength;
     bodyPos = pos;
     sender = new ServerID(senderPort, senderHost);
     wireBuffer = buffer;
     fromWire = true;
+    wireVersion = WIRE_PROTOCOL_VERSION;
+  }
+
+  private void readFromWireV2(Buffer buffer, ByteBuf buf, CodecManager codecManager, WireDictionary dictionary) {
+    // Skip the protocol version
+    buf.readerIndex(1);
+    byte systemCodecCode = buf.readByte();
+    String codecName = systemCodecCode == -1 ? dictionary.read(buf) : null;
+    byte flags = buf.readByte();
+    send = (flags & PUBLISH_FLAG) == 0;
+    address = dictionary.read(buf);
+    if ((flags & REPLY_ADDRESS_FLAG) != 0) {
+      replyAddress = dictionary.read(buf);
+    }
+    int senderPort = WireDictionary.readVarInt(buf);
+    String senderHost = dictionary.read(buf);
+    // The codec is checked once all the strings are read, so the dictionary has the entries of a message that fails
+    if (codecName != null) {
+      // User codec
+      messageCodec = codecManager.getCodec(codecName);
+      if (messageCodec == null) {
+        throw new IllegalStateException("No message codec registered with name " + codecName);
+      }
+    } else {
+      messageCodec = codecManager.systemCodecs()[systemCodecCode];
+    }
+    if ((flags & HEADERS_FLAG) != 0) {
+      headersPos = buf.readerIndex();
+      buf.skipBytes(buf.readInt());
+    }
+    bodyPos = buf.readerIndex();
+    sender = new ServerID(senderPort, senderHost);
+    wireBuffer = buffer;
+    fromWire = true;
+    wireVersion = WIRE_PROTOCOL_VERSION_2;
+  }
+
+  private static String readString(ByteBuf buf, int pos, int length, WireDictionary dictionary) {
+    if (dictionary == null) {
+      return buf.toString(pos, length, CharsetUtil.UTF_8);
+    }
+    return dictionary.readCached(buf, pos, length);
   }
 
   private void decodeBody() {
@@ -205,22 +355,34 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
   }
 
   private void decodeHeaders() {
+    if (wireVersion == WIRE_PROTOCOL_VERSION_2) {
+      ByteBuf buf = wireBuffer.getByteBuf();
+      buf.readerIndex(headersPos + 4);
+      int numHeaders = WireDictionary.readVarInt(buf);
+      headers = new CaseInsensitiveHeaders();
+      for (int i = 0; i < numHeaders; i++) {
+        String key = WireDictionary.readString(buf);
+        String val = WireDictionary.readString(buf);
+        headers.add(key, val);
+      }
+      headersPos = 0;
+      return;
+    }
     int length = wireBuffer.getInt(headersPos);
     if (length != 4) {
       headersPos += 4;
       int numHeaders = wireBuffer.getInt(headersPos);
       headersPos += 4;
       headers = new CaseInsensitiveHeaders();
+      ByteBuf buf = wireBuffer.getByteBuf();
       for (int i = 0; i < numHeaders; i++) {
         int keyLength = wireBuffer.getInt(headersPos);
         headersPos += 4;
-        byte[] bytes = wireBuffer.getBytes(headersPos, headersPos + keyLength);
-        String key = new String(bytes, CharsetUtil.UTF_8);
+        String key = buf.toString(headersPos, keyLength, CharsetUtil.UTF_8);
         headersPos += keyLength;
         int valLength = wireBuffer.getInt(headersPos);
         headersPos += 4;
-        bytes = wireBuffer.getBytes(headersPos, headersPos + valLength);
-        String val = new String(bytes, CharsetUtil.UTF_8);
+        String val = buf.toString(headersPos, valLength, CharsetUtil.UTF_8);
         headersPos += valLength;
         headers.add(key, val);
       }
@@ -228,8 +390,35 @@ public class ClusteredMessage<U, V> extends MessageImpl<U, V> {
     headersPos = 0;
   }
 
+  /**
+   * Encode the body once, the frames of this message then share the encoded body instead of encoding it again.
+   * It must be called before the message is written to the connections.
+   */
+  void encodeBody() {
+    Buffer body = Buffer.buffer();
+    messageCodec.encodeToWire(body, sentBody);
+    encodedBody = body;
+  }
+
+  /**
+   * @return the length of the encoded body, the body is encoded once when it has not been encoded yet
+   */
+  int encodedBodyLength() {
+    Buffer body = encodedBody;
+    if (body == null) {
+      encodeBody();
+      body = encodedBody;
+    }
+    return body.length();
+  }
+
   private void writeBody(Buffer buff) {
-    messageCodec.encodeToWire(buff, sentBody);
+    Buffer body = encodedBody;
+    if (body != null) {
+      buff.appendBuffer(body);
+    } else {
+      messageCodec.encodeToWire(buff, sentBody);
+    }
   }
 
   private void writeString(Buffer buff, String str) {
@@ -1,23 +1,56 @@
 package io.vertx.core.eventbus.impl.clustered;
 
-import io.vertx.core.Vertx;
+import io.netty.buffer.ByteBuf;
+import io.netty.channel.Channel;
+import io.netty.util.internal.PlatformDependent;
+import io.vertx.core.MultiMap;
 import io.vertx.core.VertxOptions;
 import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.EventBusOptions;
+import io.vertx.core.eventbus.impl.MessageImpl;
 import io.vertx.core.eventbus.impl.codecs.PingMessageCodec;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.impl.VertxInternal;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.net.impl.NetClientImpl;
+import io.vertx.core.net.impl.NetSocketImpl;
 import io.vertx.core.net.impl.ServerID;
 import io.vertx.core.spi.metrics.EventBusMetrics;
 
-import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Queue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
+ * The outbound connection to a node of the cluster.
+ * <p>
+ * Messages are added to a lock-free queue by the sending threads, the queue is drained on the event loop of
+ * the connection: the messages are encoded into pooled direct buffers and flushed together. The wire protocol
+ * version is negotiated with a handshake ping when the connection is established, the messages are queued until
+ * the server replies. The queue is bounded by {@link EventBusOptions#getClusterWriteQueueMaxSize()}: once it is
+ * reached the holder reports a full write queue and rejects the messages written to it, the drain handlers are called
+ * once the queue has been drained to half of this size.
+ * <p>
+ * Once the holder is closed, the messages written to it are re-routed to the holder replacing it.
+ * <p>
+ * When spooling is enabled, the messages still queued when the connection is closed are written to the spool of the
+ * connection and the spooled messages are written before the queued messages once a connection is established.
+ * <p>
+ * There is a holder per lane of a node, see {@link ConnectionKey}. The connections of a lane are established on the
+ * event loop of the lane, see {@link ClusteredEventBus#laneContext(int)}, instead of the context of the sender.
+ * <p>
+ * The liveness of the connection is checked by the {@link LivenessSweeper} of its event loop instead of a timer per
+ * connection: a ping is sent when no pong has been read for the cluster ping interval, also while messages are
+ * written since a write does not prove that the node is alive, and the connection is closed when the pong is not
+ * received within the cluster ping reply interval.
+ *
  * @author <a href="http://tfox.org">Tim Fox</a>
  */
 class ConnectionHolder {
@@ -26,23 +59,45 @@ class ConnectionHolder {
 
   private static final String PING_ADDRESS = "__vertx_ping";
 
+  // The maximum number of messages written before yielding the event loop
+  private static final int MAX_WRITES_PER_DRAIN = 1024;
+
   private final ClusteredEventBus eventBus;
   private final NetClient client;
+  private final ConnectionKey key;
   private final ServerID serverID;
-  private final Vertx vertx;
+  private final VertxInternal vertx;
   private final EventBusMetrics metrics;
+  private final int maxSize;
+  private final int lowWaterMark;
+  private final Queue<ClusteredMessage> pending = PlatformDependent.newMpscQueue();
+  private final AtomicInteger pendingSize = new AtomicInteger();
+  private final AtomicBoolean drainScheduled = new AtomicBoolean();
+  private final AtomicBoolean spooling = new AtomicBoolean();
+  private final Runnable drainTask = this::drain;
+  private final List<Runnable> drainHandlers = new ArrayList<>();
 
-  private Queue<ClusteredMessage> pending;
   private NetSocket socket;
+  // Only used on the event loop of the channel once the channel is set, null for the wire protocol version 1
+  private WireDictionary dictionary;
+  // Only used on the event loop of the channel, null once the spooled messages have been written
+  private OutboundSpool spool;
+  private volatile Channel channel;
+  private volatile boolean closed;
   private boolean connected;
   private long timeoutID = -1;
-  private long pingTimeoutID = -1;
+  // The liveness state, only used on the event loop of the channel once the channel is set
+  private long lastPong;
+  private long pingSentAt = -1;
 
-  ConnectionHolder(ClusteredEventBus eventBus, ServerID serverID, EventBusOptions options) {
+  ConnectionHolder(ClusteredEventBus eventBus, ConnectionKey key, EventBusOptions options) {
     this.eventBus = eventBus;
-    this.serverID = serverID;
+    this.key = key;
+    this.serverID = key.serverID;
     this.vertx = eventBus.vertx();
     this.metrics = eventBus.getMetrics();
+    this.maxSize = options.getClusterWriteQueueMaxSize();
+    this.lowWaterMark = maxSize / 2;
     NetClientOptions clientOptions = new NetClientOptions(options.toJson());
     ClusteredEventBus.setCertOptions(clientOptions, options.getKeyCertOptions());
     ClusteredEventBus.setTrustOptions(clientOptions, options.getTrustOptions());
@@ -53,6 +108,12 @@ class ConnectionHolder {
     if (connected) {
       throw new IllegalStateException("Already connected");
     }
+    // The client connects on the event loop of the lane instead of the context of the sender that can be a worker,
+    // so the socket handlers, the handshake and the liveness bookkeeping run on the event loop of the channel
+    eventBus.laneContext(key.lane).runOnContext(v -> doConnect());
+  }
+
+  private void doConnect() {
     client.connect(serverID.port, serverID.host, res -> {
       if (res.succeeded()) {
         connected(res.result());
@@ -62,52 +123,258 @@ class ConnectionHolder {
     });
   }
 
-  // TODO optimise this (contention on monitor)
-  synchronized void writeMessage(ClusteredMessage message) {
-    if (connected) {
-      Buffer data = message.encodeToWire();
-      metrics.messageWritten(message.address(), data.length());
-      socket.write(data);
-    } else {
-      if (pending == null) {
-        pending = new ArrayDeque<>();
+  /**
+   * Queue a message for this node, it can be called concurrently from any thread.
+   *
+   * @return {@code false} when the message is rejected because the write queue is full
+   */
+  boolean writeMessage(ClusteredMessage message) {
+    if (closed) {
+      return eventBus.connectionHolder(key).writeMessage(message);
+    }
+    // The room is reserved before the message is queued, so concurrent writers cannot exceed the limit
+    if (pendingSize.incrementAndGet() > maxSize) {
+      pendingSize.decrementAndGet();
+      return false;
+    }
+    pending.add(message);
+    if (closed) {
+      // Closed meanwhile, the message may have been queued after the pending messages have been spooled
+      spoolPending();
+      return true;
+    }
+    scheduleDrain();
+    return true;
+  }
+
+  /**
+   * Queue the messages of a batch for this node, they are written by the same drain when possible. The messages
+   * exceeding the room left in the write queue are rejected.
+   *
+   * @return the number of messages queued, the first messages of the batch are queued
+   */
+  int writeMessages(List<MessageImpl> messages) {
+    if (closed) {
+      return eventBus.connectionHolder(key).writeMessages(messages);
+    }
+    int size = pendingSize.addAndGet(messages.size());
+    int accepted = messages.size();
+    if (size > maxSize) {
+      int excess = Math.min(size - maxSize, accepted);
+      pendingSize.addAndGet(-excess);
+      accepted -= excess;
+    }
+    for (int i = 0; i < accepted; i++) {
+      pending.add((ClusteredMessage) messages.get(i));
+    }
+    if (closed) {
+      spoolPending();
+      return accepted;
+    }
+    if (accepted > 0) {
+      scheduleDrain();
+    }
+    return accepted;
+  }
+
+  /**
+   * @return whether the write queue is full
+   */
+  boolean writeQueueFull() {
+    return !closed && pendingSize.get() >= maxSize;
+  }
+
+  /**
+   * Call the {@code handler} once the write queue is not full anymore, it is called immediately when
+   * the queue is not full.
+   */
+  void drainHandler(Runnable handler) {
+    synchronized (drainHandlers) {
+      if (writeQueueFull()) {
+        drainHandlers.add(handler);
+        return;
       }
-      pending.add(message);
     }
+    handler.run();
   }
 
   void close() {
+    // The holder can be null or different if the target server is restarted with same serverid
+    // before the cleanup for the previous one has been processed
+    if (eventBus.connections().remove(key, this)) {
+      log.debug("Cluster connection closed: " + key + " holder " + this);
+    }
+    // Removed before being closed, so the messages written once closed are re-routed to another holder
+    closed = true;
     if (timeoutID != -1) {
       vertx.cancelTimer(timeoutID);
     }
-    if (pingTimeoutID != -1) {
-      vertx.cancelTimer(pingTimeoutID);
-    }
     try {
       client.close();
     } catch (Exception ignore) {
     }
-    // The holder can be null or different if the target server is restarted with same serverid
-    // before the cleanup for the previous one has been processed
-    if (eventBus.connections().remove(serverID, this)) {
-      log.debug("Cluster connection closed: " + serverID + " holder " + this);
+    spoolPending();
+  }
+
+  // Once closed, the queue is consumed on the event loop of the channel when there is one
+  private void spoolPending() {
+    Channel ch;
+    synchronized (this) {
+      ch = channel;
+    }
+    if (ch != null && !ch.eventLoop().inEventLoop()) {
+      ch.eventLoop().execute(this::doSpoolPending);
+    } else {
+      doSpoolPending();
+    }
+  }
+
+  private void doSpoolPending() {
+    do {
+      // Without a channel, the messages queued concurrently by late writers are consumed by a single thread
+      if (!spooling.compareAndSet(false, true)) {
+        return;
+      }
+      try {
+        OutboundSpool theSpool = pending.isEmpty() ? null : eventBus.spool(key, true);
+        int rejected = 0;
+        ClusteredMessage message;
+        while ((message = pending.poll()) != null) {
+          pendingSize.decrementAndGet();
+          if (theSpool == null) {
+            // The queued messages are lost
+            continue;
+          }
+          try {
+            if (!theSpool.append(message.encodeToWire())) {
+              rejected++;
+            }
+          } catch (Exception e) {
+            log.error("Failed to encode message sent to " + message.address(), e);
+          }
+        }
+        if (rejected > 0) {
+          log.warn("Spool of " + key + " is full, " + rejected + " messages rejected");
+        }
+      } finally {
+        spooling.set(false);
+      }
+    } while (!pending.isEmpty());
+    // Don't keep the producers waiting
+    callDrainHandlers();
+  }
+
+  private void scheduleDrain() {
+    Channel ch = channel;
+    if (ch != null && drainScheduled.compareAndSet(false, true)) {
+      ch.eventLoop().execute(drainTask);
     }
   }
 
-  private void schedulePing() {
+  // Always called on the event loop of the channel
+  private void drain() {
+    drainScheduled.set(false);
+    Channel ch = channel;
+    if (closed || !ch.isActive()) {
+      return;
+    }
+    if (spool != null && !replaySpool(ch)) {
+      return;
+    }
+    int written = 0;
+    while (written < MAX_WRITES_PER_DRAIN && ch.isWritable()) {
+      ClusteredMessage message = pending.poll();
+      if (message == null) {
+        break;
+      }
+      written++;
+      ByteBuf data;
+      try {
+        data = message.encodeToWire(ch.alloc(), dictionary);
+      } catch (Exception e) {
+        log.error("Failed to encode message sent to " + message.address(), e);
+        continue;
+      }
+      metrics.messageWritten(message.address(), data.readableBytes());
+      ch.write(data, ch.voidPromise());
+    }
+    if (written > 0) {
+      ch.flush();
+      int size = pendingSize.addAndGet(-written);
+      if (size <= lowWaterMark) {
+        callDrainHandlers();
+      }
+    }
+    if (!pending.isEmpty() && ch.isWritable()) {
+      // Yield to the other channels of the event loop, messages sent after the poll reschedule by themselves
+      scheduleDrain();
+    }
+  }
+
+  /**
+   * Write the spooled messages before the queued messages.
+   *
+   * @return whether all the spooled messages have been written
+   */
+  private boolean replaySpool(Channel ch) {
+    int written = 0;
+    while (written < MAX_WRITES_PER_DRAIN && ch.isWritable()) {
+      ByteBuf frame = spool.poll(ch.alloc());
+      if (frame == null) {
+        spool = null;
+        break;
+      }
+      written++;
+      ch.write(frame, ch.voidPromise());
+    }
+    if (written > 0) {
+      ch.flush();
+    }
+    if (spool != null && ch.isWritable()) {
+      // Yield to the other channels of the event loop
+      scheduleDrain();
+    }
+    return spool == null;
+  }
+
+  private void callDrainHandlers() {
+    List<Runnable> handlers;
+    synchronized (drainHandlers) {
+      if (drainHandlers.isEmpty()) {
+        return;
+      }
+      handlers = new ArrayList<>(drainHandlers);
+      drainHandlers.clear();
+    }
+    handlers.forEach(Runnable::run);
+  }
+
+  /**
+   * Check the liveness of the connection, called by the sweeper of the event loop of the channel.
+   *
+   * @param now the current time, in ns
+   * @return whether the connection must still be checked
+   */
+  boolean checkLiveness(long now) {
+    if (closed) {
+      return false;
+    }
     EventBusOptions options = eventBus.options();
-    pingTimeoutID = vertx.setTimer(options.getClusterPingInterval(), id1 -> {
-      // If we don't get a pong back in time we close the connection
-      timeoutID = vertx.setTimer(options.getClusterPingReplyInterval(), id2 -> {
+    if (pingSentAt != -1) {
+      if (now - pingSentAt >= TimeUnit.MILLISECONDS.toNanos(options.getClusterPingReplyInterval())) {
         // Didn't get pong in time - consider connection dead
         log.warn("No pong from server " + serverID + " - will consider it dead");
         close();
-      });
+        return false;
+      }
+    } else if (now - lastPong >= TimeUnit.MILLISECONDS.toNanos(options.getClusterPingInterval())) {
       ClusteredMessage pingMessage =
         new ClusteredMessage<>(serverID, PING_ADDRESS, null, null, null, new PingMessageCodec(), true, eventBus);
       Buffer data = pingMessage.encodeToWire();
       socket.write(data);
-    });
+      pingSentAt = now;
+    }
+    return true;
   }
 
   private synchronized void connected(NetSocket socket) {
@@ -116,18 +383,57 @@ class ConnectionHolder {
     socket.exceptionHandler(t -> close());
     socket.closeHandler(v -> close());
     socket.handler(data -> {
-      // Got a pong back
-      vertx.cancelTimer(timeoutID);
-      schedulePing();
+      if (channel == null) {
+        vertx.cancelTimer(timeoutID);
+        timeoutID = -1;
+        handshakeReply(data.getByte(0));
+      } else {
+        // Got a pong back
+        lastPong = System.nanoTime();
+        pingSentAt = -1;
+      }
     });
-    // Start a pinger
-    schedulePing();
-    for (ClusteredMessage message : pending) {
-      Buffer data = message.encodeToWire();
-      metrics.messageWritten(message.address(), data.length());
-      socket.write(data);
+    // Resume writing the queued messages when the channel becomes writable again
+    socket.drainHandler(v -> scheduleDrain());
+    // Negotiate the wire protocol, the liveness is checked from the reply
+    sendHandshake();
+  }
+
+  private void sendHandshake() {
+    timeoutID = vertx.setTimer(eventBus.options().getClusterPingReplyInterval(), id -> {
+      log.warn("No handshake reply from server " + serverID + " - will consider it dead");
+      close();
+    });
+    // A server on the wire protocol version 1 ignores the header and replies with a regular pong
+    MultiMap headers = new CaseInsensitiveHeaders()
+      .add(ClusteredMessage.WIRE_PROTOCOL_VERSION_HEADER, String.valueOf(ClusteredMessage.WIRE_PROTOCOL_VERSION_2));
+    ClusteredMessage handshakeMessage =
+      new ClusteredMessage<>(serverID, PING_ADDRESS, null, headers, null, new PingMessageCodec(), true, eventBus);
+    socket.write(handshakeMessage.encodeToWire());
+  }
+
+  private void handshakeReply(byte version) {
+    if (version >= ClusteredMessage.WIRE_PROTOCOL_VERSION_2) {
+      dictionary = new WireDictionary();
+    }
+    eventBus.nodeReachable(serverID);
+    // Send the spooled messages and the messages queued while connecting
+    OutboundSpool theSpool = eventBus.spool(key, false);
+    if (theSpool != null && !theSpool.isEmpty()) {
+      spool = theSpool;
+    }
+    Channel ch = ((NetSocketImpl) socket).channel();
+    synchronized (this) {
+      // Once closed, the channel is not set anymore so the queue is consumed by a single thread
+      if (closed) {
+        return;
+      }
+      channel = ch;
     }
-    pending.clear();
+    // The handshake reply is the first pong
+    lastPong = System.nanoTime();
+    eventBus.livenessSweeper(ch.eventLoop()).add(this);
+    scheduleDrain();
   }
 
 }
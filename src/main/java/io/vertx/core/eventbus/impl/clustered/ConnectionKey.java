@@ -0,0 +1,56 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.vertx.core.net.impl.ServerID;
+
+/**
+ * A connection to a node of the cluster: the server id of the node and the lane of the connection.
+ * <p>
+ * The lanes {@code 0} to {@code clusterConnectionsPerNode - 1} carry the messages by the hash of their address,
+ * the lane {@code clusterConnectionsPerNode} is the bulk lane that carries the large messages.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class ConnectionKey {
+
+  final ServerID serverID;
+  final int lane;
+
+  ConnectionKey(ServerID serverID, int lane) {
+    this.serverID = serverID;
+    this.lane = lane;
+  }
+
+  @Override
+  public boolean equals(Object o) {
+    if (this == o) return true;
+    if (!(o instanceof ConnectionKey)) return false;
+    ConnectionKey that = (ConnectionKey) o;
+    return lane == that.lane && serverID.equals(that.serverID);
+  }
+
+  @Override
+  public int hashCode() {
+    return 31 * serverID.hashCode() + lane;
+  }
+
+  @Override
+  public String toString() {
+    return lane == 0 ? serverID.toString() : serverID + "#" + lane;
+  }
+}
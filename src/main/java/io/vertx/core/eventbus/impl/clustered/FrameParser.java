@@ -0,0 +1,77 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.vertx.core.Handler;
+import io.vertx.core.buffer.Buffer;
+
+/**
+ * Splits the inbound data of a cluster connection into length prefixed frames.
+ * <p>
+ * The frames are slices of the received buffers, the data is only copied when a frame spans several buffers.
+ * The received buffers are heap buffers owned by the connection, so the slices can be kept by the messages
+ * for decoding their headers and body lazily.
+ * <p>
+ * The data following a frame is kept when the output throws, so a frame that can't be handled does not break the
+ * parsing of the next frames.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class FrameParser implements Handler<Buffer> {
+
+  private final Handler<Buffer> output;
+  private ByteBuf pending;
+
+  FrameParser(Handler<Buffer> output) {
+    this.output = output;
+  }
+
+  @Override
+  public void handle(Buffer buffer) {
+    ByteBuf buf = buffer.getByteBuf();
+    if (pending != null) {
+      pending.writeBytes(buf, buf.readableBytes());
+      buf = pending;
+      pending = null;
+    }
+    try {
+      while (buf.readableBytes() >= 4) {
+        int size = buf.getInt(buf.readerIndex());
+        if (buf.readableBytes() < 4 + size) {
+          break;
+        }
+        ByteBuf frame = buf.slice(buf.readerIndex() + 4, size);
+        buf.skipBytes(4 + size);
+        output.handle(Buffer.buffer(frame));
+      }
+    } finally {
+      keepRemaining(buf);
+    }
+  }
+
+  private void keepRemaining(ByteBuf buf) {
+    int remaining = buf.readableBytes();
+    if (remaining > 0) {
+      // Copy the partial frame in a buffer large enough for the whole frame when its size is known
+      int capacity = remaining >= 4 ? 4 + buf.getInt(buf.readerIndex()) : remaining;
+      pending = Unpooled.buffer(capacity);
+      pending.writeBytes(buf, remaining);
+    }
+  }
+}
@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.channel.EventLoop;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks the liveness of the connections of an event loop with a single timer.
+ * <p>
+ * The sweeper is only used on its event loop, it is scheduled while it has connections to check.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class LivenessSweeper implements Runnable {
+
+  private final EventLoop eventLoop;
+  private final long period;
+  private final List<ConnectionHolder> holders = new ArrayList<>();
+  private boolean scheduled;
+
+  /**
+   * @param period the time between two checks, in ns
+   */
+  LivenessSweeper(EventLoop eventLoop, long period) {
+    this.eventLoop = eventLoop;
+    this.period = period;
+  }
+
+  /**
+   * Add a connection, it is checked until it is closed.
+   */
+  void add(ConnectionHolder holder) {
+    holders.add(holder);
+    if (!scheduled) {
+      scheduled = true;
+      eventLoop.schedule(this, period, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  @Override
+  public void run() {
+    long now = System.nanoTime();
+    holders.removeIf(holder -> !holder.checkLiveness(now));
+    if (holders.isEmpty()) {
+      scheduled = false;
+    } else {
+      eventLoop.schedule(this, period, TimeUnit.NANOSECONDS);
+    }
+  }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.SpoolOverflowPolicy;
+import io.vertx.core.net.impl.ServerID;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * The spool of the messages for a connection to a node of the cluster that could not be written to the connection.
+ * <p>
+ * The spool is a memory mapped file of a fixed size: a header with the read and write positions followed by the
+ * spooled frames, as they are written on the wire with the protocol version 1 that does not depend on the state of
+ * a connection. The frames are appended at the write position and read from the read position, the unread frames are
+ * moved to the start of the file when there is no room left at the end. Since the positions are stored in the file,
+ * the frames not sent before a restart are sent after it.
+ * <p>
+ * The name of the file is made of the server ids of the node and of the node it sends to, so the nodes sharing a
+ * spool directory don't share their spools. The frames are only sent after a restart when the node keeps its server
+ * id, i.e. with a fixed cluster port.
+ * <p>
+ * A mapping can't be released explicitly, the mapping of a spool is released when it is garbage collected.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class OutboundSpool {
+
+  private static final int HEADER_SIZE = 8;
+  private static final int COPY_CHUNK_SIZE = 64 * 1024;
+
+  private final File file;
+  private final int capacity;
+  private final SpoolOverflowPolicy overflowPolicy;
+  private final MappedByteBuffer buffer;
+  private int readPos;
+  private int writePos;
+  private boolean deleted;
+
+  /**
+   * @param localServerID the server id of this node
+   * @return the spool file of a connection to a node in the {@code directory}
+   */
+  static File file(String directory, ServerID localServerID, ConnectionKey key) {
+    String name = name(localServerID) + "-" + name(key.serverID);
+    if (key.lane > 0) {
+      name += "_" + key.lane;
+    }
+    return new File(directory, name + ".spool");
+  }
+
+  private static String name(ServerID serverID) {
+    return serverID.host.replaceAll("[^A-Za-z0-9.-]", "_") + "_" + serverID.port;
+  }
+
+  /**
+   * Open the spool file, it is created when it does not exist.
+   */
+  OutboundSpool(File file, int capacity, SpoolOverflowPolicy overflowPolicy) throws IOException {
+    File parent = file.getParentFile();
+    if (parent != null && !parent.exists() && !parent.mkdirs() && !parent.exists()) {
+      throw new IOException("Cannot create spool directory " + parent);
+    }
+    this.file = file;
+    this.capacity = capacity;
+    this.overflowPolicy = overflowPolicy;
+    try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+      // The mapping remains valid when the channel is closed
+      buffer = raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, capacity);
+    }
+    readPos = buffer.getInt(0);
+    writePos = buffer.getInt(4);
+    if (readPos < HEADER_SIZE || writePos < readPos || writePos > capacity) {
+      // New or not written by a spool of this size
+      reset();
+    }
+  }
+
+  synchronized boolean isEmpty() {
+    return readPos == writePos;
+  }
+
+  /**
+   * Append a frame.
+   *
+   * @return whether the frame has been appended, a frame is rejected when the spool is full and the overflow policy is
+   *         {@link SpoolOverflowPolicy#REJECT}, when it is larger than the spool or when the spool is deleted
+   */
+  synchronized boolean append(Buffer frame) {
+    int size = frame.length();
+    if (deleted || size > capacity - HEADER_SIZE) {
+      return false;
+    }
+    if (writePos + size > capacity) {
+      compact();
+      if (writePos + size > capacity) {
+        if (overflowPolicy == SpoolOverflowPolicy.REJECT) {
+          return false;
+        }
+        while (writePos - readPos + size > capacity - HEADER_SIZE) {
+          readPos += 4 + buffer.getInt(readPos);
+        }
+        compact();
+      }
+    }
+    ByteBuffer dst = buffer.duplicate();
+    dst.position(writePos);
+    dst.put(frame.getByteBuf().nioBuffer());
+    writePos += size;
+    writePositions();
+    return true;
+  }
+
+  /**
+   * Remove the next frame.
+   *
+   * @return the frame in a buffer obtained from the {@code allocator} or {@code null} when the spool is empty
+   */
+  synchronized ByteBuf poll(ByteBufAllocator allocator) {
+    if (readPos == writePos) {
+      return null;
+    }
+    int size = 4 + buffer.getInt(readPos);
+    ByteBuffer src = buffer.duplicate();
+    src.position(readPos).limit(readPos + size);
+    ByteBuf frame = allocator.directBuffer(size);
+    frame.writeBytes(src);
+    readPos += size;
+    if (readPos == writePos) {
+      reset();
+    } else {
+      writePositions();
+    }
+    return frame;
+  }
+
+  /**
+   * Delete the spool file, the spool must have been removed from the spools of the event bus so it is not opened
+   * again meanwhile. The spool is empty and rejects the frames once deleted.
+   */
+  synchronized void delete() {
+    deleted = true;
+    reset();
+    file.delete();
+  }
+
+  // Move the unread frames to the start, the destination is before the source so chunks can be copied in order
+  private void compact() {
+    if (readPos == HEADER_SIZE) {
+      return;
+    }
+    int length = writePos - readPos;
+    byte[] chunk = new byte[Math.min(length, COPY_CHUNK_SIZE)];
+    for (int copied = 0; copied < length; copied += chunk.length) {
+      int n = Math.min(chunk.length, length - copied);
+      ByteBuffer src = buffer.duplicate();
+      src.position(readPos + copied);
+      src.get(chunk, 0, n);
+      ByteBuffer dst = buffer.duplicate();
+      dst.position(HEADER_SIZE + copied);
+      dst.put(chunk, 0, n);
+    }
+    readPos = HEADER_SIZE;
+    writePos = HEADER_SIZE + length;
+    writePositions();
+  }
+
+  private void reset() {
+    readPos = HEADER_SIZE;
+    writePos = HEADER_SIZE;
+    writePositions();
+  }
+
+  private void writePositions() {
+    buffer.putInt(0, readPos);
+    buffer.putInt(4, writePos);
+  }
+}
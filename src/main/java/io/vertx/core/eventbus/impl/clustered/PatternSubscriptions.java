@@ -0,0 +1,297 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.eventbus.impl.PatternTrie;
+import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.spi.cluster.AsyncMultiMap;
+import io.vertx.core.spi.cluster.ChoosableIterable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The pattern subscriptions of the cluster.
+ * <p>
+ * The pattern subscriptions are stored in a multimap of the cluster manager under a single key, a value being the
+ * server id of a node and a pattern it subscribes to, so a node gets all the pattern subscriptions of the cluster
+ * with a single lookup instead of registering an entry per matched address. The patterns are cached in a trie for
+ * the subscription cache timeout, and at least for {@link #MIN_CACHE_TIMEOUT} so the nodes that don't use patterns
+ * don't pay an extra lookup per message when the subscriptions are not cached.
+ * <p>
+ * A single lookup of the patterns is performed at a time, the merges requested meanwhile are queued and completed in
+ * order with its result, like the resolutions of the {@link SubscriptionCache}, so a message never overtakes a
+ * message sent before.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class PatternSubscriptions {
+
+  static final String MAP_NAME = "__vertx.subs.patterns";
+
+  private static final String KEY = "patterns";
+
+  // The minimum time the pattern subscriptions are cached, in ms
+  static final long MIN_CACHE_TIMEOUT = 1000;
+
+  private final AsyncMultiMap<String, String> map;
+  private final long timeout;
+  // Incremented by the invalidations, a lookup started before an invalidation does not update the cache
+  private final AtomicLong generation = new AtomicLong();
+  private volatile Snapshot snapshot;
+  // Whether a lookup is in progress, the merges requested meanwhile are queued in the waiters
+  private volatile boolean refreshing;
+  private final Queue<Waiter> waiters = new ArrayDeque<>();
+
+  /**
+   * @param map the multimap of the pattern subscriptions
+   * @param timeout the subscription cache timeout, in ms
+   */
+  PatternSubscriptions(AsyncMultiMap<String, String> map, long timeout) {
+    this.map = map;
+    this.timeout = TimeUnit.MILLISECONDS.toNanos(Math.max(timeout, MIN_CACHE_TIMEOUT));
+  }
+
+  void add(String pattern, ServerID serverID, Handler<AsyncResult<Void>> completionHandler) {
+    map.add(KEY, encode(pattern, serverID), ar -> {
+      invalidate();
+      completionHandler.handle(ar);
+    });
+  }
+
+  void remove(String pattern, ServerID serverID, Handler<AsyncResult<Boolean>> completionHandler) {
+    map.remove(KEY, encode(pattern, serverID), ar -> {
+      invalidate();
+      completionHandler.handle(ar);
+    });
+  }
+
+  /**
+   * Remove the pattern subscriptions of a node.
+   */
+  void removeAll(ServerID serverID) {
+    map.get(KEY, ar -> {
+      if (ar.succeeded()) {
+        String prefix = encode("", serverID);
+        for (String value : ar.result()) {
+          if (value.startsWith(prefix)) {
+            map.remove(KEY, value, ar2 -> invalidate());
+          }
+        }
+      }
+    });
+  }
+
+  void invalidate() {
+    generation.incrementAndGet();
+    snapshot = null;
+  }
+
+  /**
+   * Add the nodes subscribing to a pattern matching an {@code address} to the nodes subscribing to the address: all
+   * of them are iterated, but a node is chosen among the nodes subscribing to the address when there are some, like
+   * a consumer is chosen locally. The {@code handler} is called synchronously when the patterns are cached and no
+   * lookup is in progress.
+   *
+   * @param subs the nodes subscribing to the address
+   */
+  void merge(String address, ChoosableIterable<ServerID> subs, Handler<AsyncResult<ChoosableIterable<ServerID>>> handler) {
+    if (!refreshing) {
+      Snapshot s = snapshot;
+      if (s != null && System.nanoTime() - s.expiration < 0) {
+        handler.handle(Future.succeededFuture(s.merge(address, subs)));
+        return;
+      }
+    }
+    Snapshot s;
+    synchronized (this) {
+      s = snapshot;
+      if (refreshing || s == null || System.nanoTime() - s.expiration >= 0) {
+        waiters.add(new Waiter(address, subs, handler));
+        if (refreshing) {
+          return;
+        }
+        refreshing = true;
+        s = null;
+      }
+    }
+    if (s != null) {
+      handler.handle(Future.succeededFuture(s.merge(address, subs)));
+    } else {
+      refresh();
+    }
+  }
+
+  private void refresh() {
+    long gen = generation.get();
+    map.get(KEY, ar -> {
+      Snapshot fresh = null;
+      if (ar.succeeded()) {
+        fresh = new Snapshot(ar.result(), System.nanoTime() + timeout);
+        if (generation.get() == gen) {
+          snapshot = fresh;
+        }
+      }
+      // The merges requested while the waiters are called are queued as well to preserve the order
+      while (true) {
+        List<Waiter> ready;
+        synchronized (this) {
+          if (waiters.isEmpty()) {
+            refreshing = false;
+            return;
+          }
+          ready = new ArrayList<>(waiters);
+          waiters.clear();
+        }
+        for (Waiter waiter : ready) {
+          if (fresh != null) {
+            waiter.handler.handle(Future.succeededFuture(fresh.merge(waiter.address, waiter.subs)));
+          } else {
+            waiter.handler.handle(Future.failedFuture(ar.cause()));
+          }
+        }
+      }
+    });
+  }
+
+  // The server id is first since it has no '/'
+  private static String encode(String pattern, ServerID serverID) {
+    return serverID.port + ":" + serverID.host + "/" + pattern;
+  }
+
+  private static class Snapshot {
+
+    private final PatternTrie<Set<ServerID>> trie = new PatternTrie<>();
+    // The round robin positions of the addresses only subscribed by patterns
+    private final ConcurrentMap<String, AtomicInteger> positions = new ConcurrentHashMap<>();
+    private final long expiration;
+
+    Snapshot(ChoosableIterable<String> values, long expiration) {
+      this.expiration = expiration;
+      if (values != null) {
+        for (String value : values) {
+          int colon = value.indexOf(':');
+          int slash = value.indexOf('/', colon);
+          if (colon == -1 || slash == -1) {
+            continue;
+          }
+          ServerID serverID = new ServerID(Integer.parseInt(value.substring(0, colon)), value.substring(colon + 1, slash));
+          String pattern = value.substring(slash + 1);
+          Set<ServerID> serverIDs = trie.get(pattern);
+          if (serverIDs == null) {
+            serverIDs = new LinkedHashSet<>();
+            trie.put(pattern, serverIDs);
+          }
+          serverIDs.add(serverID);
+        }
+      }
+    }
+
+    ChoosableIterable<ServerID> merge(String address, ChoosableIterable<ServerID> subs) {
+      Set<ServerID> matched = match(address);
+      if (matched.isEmpty()) {
+        return subs;
+      }
+      Set<ServerID> all = new LinkedHashSet<>();
+      if (subs != null && !subs.isEmpty()) {
+        for (ServerID sid : subs) {
+          all.add(sid);
+        }
+        all.addAll(matched);
+        return new ServerIDs(new ArrayList<>(all), subs, null);
+      }
+      all.addAll(matched);
+      // Starts at a random position since the positions are reset with the snapshot
+      AtomicInteger pos = positions.computeIfAbsent(address, a -> new AtomicInteger(ThreadLocalRandom.current().nextInt()));
+      return new ServerIDs(new ArrayList<>(all), null, pos);
+    }
+
+    Set<ServerID> match(String address) {
+      List<Set<ServerID>> matched = trie.match(address);
+      switch (matched.size()) {
+        case 0:
+          return Collections.emptySet();
+        case 1:
+          return matched.get(0);
+        default:
+          Set<ServerID> all = new LinkedHashSet<>();
+          matched.forEach(all::addAll);
+          return all;
+      }
+    }
+  }
+
+  private static class Waiter {
+
+    private final String address;
+    private final ChoosableIterable<ServerID> subs;
+    private final Handler<AsyncResult<ChoosableIterable<ServerID>>> handler;
+
+    Waiter(String address, ChoosableIterable<ServerID> subs, Handler<AsyncResult<ChoosableIterable<ServerID>>> handler) {
+      this.address = address;
+      this.subs = subs;
+      this.handler = handler;
+    }
+  }
+
+  private static class ServerIDs implements ChoosableIterable<ServerID> {
+
+    private final List<ServerID> list;
+    // The nodes subscribing to the address, they are chosen when there are some
+    private final ChoosableIterable<ServerID> subs;
+    private final AtomicInteger pos;
+
+    ServerIDs(List<ServerID> list, ChoosableIterable<ServerID> subs, AtomicInteger pos) {
+      this.list = list;
+      this.subs = subs;
+      this.pos = pos;
+    }
+
+    @Override
+    public boolean isEmpty() {
+      return list.isEmpty();
+    }
+
+    @Override
+    public ServerID choose() {
+      if (subs != null) {
+        return subs.choose();
+      }
+      return list.get((pos.getAndIncrement() & Integer.MAX_VALUE) % list.size());
+    }
+
+    @Override
+    public Iterator<ServerID> iterator() {
+      return list.iterator();
+    }
+  }
+}
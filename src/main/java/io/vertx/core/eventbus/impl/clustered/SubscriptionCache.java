@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.spi.cluster.ChoosableIterable;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiConsumer;
+
+/**
+ * A node local cache of the subscriptions of the cluster.
+ * <p>
+ * The subscriptions of an address are cached for a limited time after they have been looked up in the cluster
+ * manager. A single lookup is performed at a time for an address, the resolutions requested meanwhile are queued
+ * and completed in order with its result, so a message never overtakes a message sent before to the same address.
+ * The resolutions queued after an invalidation are completed with a new lookup.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class SubscriptionCache {
+
+  private final long timeout;
+  private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+
+  /**
+   * @param timeout the time the subscriptions are cached, in ms
+   */
+  SubscriptionCache(long timeout) {
+    this.timeout = TimeUnit.MILLISECONDS.toNanos(timeout);
+  }
+
+  /**
+   * Resolve the subscriptions of an address, the {@code handler} is called synchronously when they are cached.
+   *
+   * @param address the address
+   * @param lookup looks up the subscriptions of an address in the cluster manager
+   * @param handler the handler called with the subscriptions
+   */
+  void get(String address,
+           BiConsumer<String, Handler<AsyncResult<ChoosableIterable<ServerID>>>> lookup,
+           Handler<AsyncResult<ChoosableIterable<ServerID>>> handler) {
+    while (true) {
+      Entry entry = entries.computeIfAbsent(address, a -> new Entry());
+      ChoosableIterable<ServerID> serverIDs;
+      long generation;
+      synchronized (entry) {
+        if (entry.removed) {
+          // Purged concurrently
+          continue;
+        }
+        if (entry.waiters != null) {
+          // A lookup is in progress
+          entry.waiters.add(new Waiter(handler, entry.generation));
+          return;
+        }
+        if (entry.cached && System.nanoTime() - entry.expiration < 0) {
+          serverIDs = entry.serverIDs;
+          generation = -1;
+        } else {
+          serverIDs = null;
+          generation = entry.generation;
+          entry.waiters = new ArrayDeque<>();
+          entry.waiters.add(new Waiter(handler, generation));
+        }
+      }
+      if (generation == -1) {
+        handler.handle(Future.succeededFuture(serverIDs));
+      } else {
+        lookup.accept(address, ar -> lookupDone(address, lookup, entry, generation, ar));
+      }
+      return;
+    }
+  }
+
+  private void lookupDone(String address,
+                          BiConsumer<String, Handler<AsyncResult<ChoosableIterable<ServerID>>>> lookup,
+                          Entry entry, long generation, AsyncResult<ChoosableIterable<ServerID>> ar) {
+    synchronized (entry) {
+      if (ar.succeeded() && entry.generation == generation) {
+        entry.cached = true;
+        entry.serverIDs = ar.result();
+        entry.expiration = System.nanoTime() + timeout;
+      }
+    }
+    // The resolutions requested while the waiters are called are queued as well to preserve the order
+    while (true) {
+      List<Waiter> ready = new ArrayList<>();
+      long nextGeneration = -1;
+      synchronized (entry) {
+        Waiter waiter;
+        while ((waiter = entry.waiters.peek()) != null) {
+          if (waiter.generation > generation) {
+            // Queued after an invalidation, the result might be stale
+            nextGeneration = entry.generation;
+            break;
+          }
+          ready.add(entry.waiters.poll());
+        }
+        if (ready.isEmpty() && nextGeneration == -1) {
+          entry.waiters = null;
+          return;
+        }
+      }
+      if (ready.isEmpty()) {
+        long lookupGeneration = nextGeneration;
+        lookup.accept(address, ar2 -> lookupDone(address, lookup, entry, lookupGeneration, ar2));
+        return;
+      }
+      for (Waiter waiter : ready) {
+        waiter.handler.handle(ar);
+      }
+    }
+  }
+
+  /**
+   * Invalidate the subscriptions of an address, a lookup in progress does not update the cache.
+   */
+  void invalidate(String address) {
+    Entry entry = entries.get(address);
+    if (entry != null) {
+      entry.invalidate();
+    }
+  }
+
+  /**
+   * Invalidate the subscriptions of all addresses.
+   */
+  void invalidateAll() {
+    entries.values().forEach(Entry::invalidate);
+  }
+
+  /**
+   * Remove the expired entries.
+   */
+  void purge() {
+    long now = System.nanoTime();
+    entries.forEach((address, entry) -> {
+      synchronized (entry) {
+        if (entry.waiters == null && (!entry.cached || now - entry.expiration >= 0)) {
+          entry.removed = true;
+          entries.remove(address, entry);
+        }
+      }
+    });
+  }
+
+  private static class Entry {
+
+    private ChoosableIterable<ServerID> serverIDs;
+    private boolean cached;
+    private long expiration;
+    private long generation;
+    private Queue<Waiter> waiters;
+    private boolean removed;
+
+    synchronized void invalidate() {
+      cached = false;
+      serverIDs = null;
+      generation++;
+    }
+  }
+
+  private static class Waiter {
+
+    private final Handler<AsyncResult<ChoosableIterable<ServerID>>> handler;
+    private final long generation;
+
+    Waiter(Handler<AsyncResult<ChoosableIterable<ServerID>>> handler, long generation) {
+      this.handler = handler;
+      this.generation = generation;
+    }
+  }
+}
@@ -0,0 +1,184 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.util.CharsetUtil;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.impl.ReplyManager;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The strings shared by the frames of a cluster connection, a dictionary is used by a single side of the
+ * connection and is never accessed concurrently.
+ * <p>
+ * With the wire protocol version 2 a string is written as a varint tag:
+ * <ul>
+ *   <li>{@code 0}: a new entry of the dictionary follows as a varint length and the UTF-8 bytes</li>
+ *   <li>{@code 1}: a literal string that is not added to the dictionary follows, as for a new entry</li>
+ *   <li>{@code 2}: a reply id follows as 8 bytes, its string form is the reply address of the id, see
+ *   {@link ReplyManager#replyAddress(long)}</li>
+ *   <li>{@code n >= 3}: the entry {@code n - 3} of the dictionary</li>
+ * </ul>
+ * Entries are never evicted, when the dictionary is full the new strings are written as literals.
+ * <p>
+ * With the wire protocol version 1 the dictionary only caches the decoded strings.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class WireDictionary {
+
+  // The maximum number of entries of a dictionary
+  static final int MAX_SIZE = 4096;
+
+  private static final int NEW_ENTRY = 0;
+  private static final int LITERAL = 1;
+  private static final int REPLY_ID = 2;
+  private static final int FIRST_ENTRY = 3;
+
+  // Encoder side
+  private final Map<String, Integer> ids = new HashMap<>();
+
+  // Decoder side
+  private final List<String> entries = new ArrayList<>();
+  private final Map<ByteBuf, String> cache = new HashMap<>();
+
+  /**
+   * Write a string, adding it to the dictionary when possible.
+   */
+  void write(Buffer buffer, String str) {
+    write(buffer, str, true);
+  }
+
+  /**
+   * Write a string.
+   *
+   * @param addEntry whether the string can be added to the dictionary, unique strings should not
+   */
+  void write(Buffer buffer, String str, boolean addEntry) {
+    if (ReplyManager.isReplyAddress(str)) {
+      buffer.appendByte((byte) REPLY_ID);
+      buffer.appendLong(ReplyManager.replyId(str));
+      return;
+    }
+    Integer id = ids.get(str);
+    if (id != null) {
+      writeVarInt(buffer, FIRST_ENTRY + id);
+    } else if (addEntry && ids.size() < MAX_SIZE) {
+      ids.put(str, ids.size());
+      buffer.appendByte((byte) NEW_ENTRY);
+      writeString(buffer, str);
+    } else {
+      buffer.appendByte((byte) LITERAL);
+      writeString(buffer, str);
+    }
+  }
+
+  /**
+   * @return the number of entries added by the encoder side, to {@link #rollback} the entries of a frame that failed
+   */
+  int mark() {
+    return ids.size();
+  }
+
+  /**
+   * Remove the entries added by the encoder side after the {@code mark}, the frame that added them is not sent.
+   */
+  void rollback(int mark) {
+    if (ids.size() > mark) {
+      ids.values().removeIf(id -> id >= mark);
+    }
+  }
+
+  /**
+   * Read a string written by {@link #write}, from the reader index of the {@code buf}.
+   */
+  String read(ByteBuf buf) {
+    int tag = readVarInt(buf);
+    switch (tag) {
+      case NEW_ENTRY:
+        String str = readString(buf);
+        entries.add(str);
+        return str;
+      case LITERAL:
+        return readString(buf);
+      case REPLY_ID:
+        return ReplyManager.replyAddress(buf.readLong());
+      default:
+        int id = tag - FIRST_ENTRY;
+        if (id >= entries.size()) {
+          throw new IllegalStateException("Invalid dictionary entry " + id);
+        }
+        return entries.get(id);
+    }
+  }
+
+  /**
+   * Read a string of the wire protocol version 1 and cache it.
+   */
+  String readCached(ByteBuf buf, int pos, int length) {
+    // ByteBuf equality is based on the readable bytes, the slice does not copy them
+    ByteBuf key = buf.slice(pos, length);
+    String str = cache.get(key);
+    if (str == null) {
+      str = key.toString(CharsetUtil.UTF_8);
+      if (cache.size() >= MAX_SIZE) {
+        cache.clear();
+      }
+      cache.put(Unpooled.copiedBuffer(key), str);
+    }
+    return str;
+  }
+
+  static void writeString(Buffer buffer, String str) {
+    byte[] bytes = str.getBytes(CharsetUtil.UTF_8);
+    writeVarInt(buffer, bytes.length);
+    buffer.appendBytes(bytes);
+  }
+
+  static String readString(ByteBuf buf) {
+    int length = readVarInt(buf);
+    String str = buf.toString(buf.readerIndex(), length, CharsetUtil.UTF_8);
+    buf.skipBytes(length);
+    return str;
+  }
+
+  static void writeVarInt(Buffer buffer, int value) {
+    while ((value & ~0x7F) != 0) {
+      buffer.appendByte((byte) ((value & 0x7F) | 0x80));
+      value >>>= 7;
+    }
+    buffer.appendByte((byte) value);
+  }
+
+  static int readVarInt(ByteBuf buf) {
+    int value = 0;
+    for (int shift = 0; shift < 32; shift += 7) {
+      byte b = buf.readByte();
+      value |= (b & 0x7F) << shift;
+      if (b >= 0) {
+        return value;
+      }
+    }
+    throw new IllegalStateException("Malformed varint");
+  }
+}
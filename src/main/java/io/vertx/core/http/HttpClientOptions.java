@@ -227,6 +227,30 @@ public class HttpClientOptions extends ClientOptionsBase {
     return this;
   }
 
+  @Override
+  public HttpClientOptions setReusePort(boolean reusePort) {
+    super.setReusePort(reusePort);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setEdgeTriggered(boolean edgeTriggered) {
+    super.setEdgeTriggered(edgeTriggered);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setTcpFastOpen(boolean tcpFastOpen) {
+    super.setTcpFastOpen(tcpFastOpen);
+    return this;
+  }
+
+  @Override
+  public HttpClientOptions setTcpQuickAck(boolean tcpQuickAck) {
+    super.setTcpQuickAck(tcpQuickAck);
+    return this;
+  }
+
   @Override
   public HttpClientOptions setSoLinger(int soLinger) {
     super.setSoLinger(soLinger);
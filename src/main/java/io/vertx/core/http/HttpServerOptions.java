@@ -170,6 +170,30 @@ public class HttpServerOptions extends NetServerOptions {
     return this;
   }
 
+  @Override
+  public HttpServerOptions setReusePort(boolean reusePort) {
+    super.setReusePort(reusePort);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setEdgeTriggered(boolean edgeTriggered) {
+    super.setEdgeTriggered(edgeTriggered);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setTcpFastOpen(boolean tcpFastOpen) {
+    super.setTcpFastOpen(tcpFastOpen);
+    return this;
+  }
+
+  @Override
+  public HttpServerOptions setTcpQuickAck(boolean tcpQuickAck) {
+    super.setTcpQuickAck(tcpQuickAck);
+    return this;
+  }
+
   @Override
   public HttpServerOptions setSoLinger(int soLinger) {
     super.setSoLinger(soLinger);
@@ -24,7 +24,6 @@ import io.netty.channel.ChannelInitializer;
 import io.netty.channel.ChannelOption;
 import io.netty.channel.ChannelPipeline;
 import io.netty.channel.FixedRecvByteBufAllocator;
-import io.netty.channel.socket.nio.NioSocketChannel;
 import io.netty.handler.codec.http.DefaultFullHttpRequest;
 import io.netty.handler.codec.http.FullHttpResponse;
 import io.netty.handler.codec.http.HttpClientCodec;
@@ -261,7 +260,7 @@ public class ConnectionManager {
 
       Bootstrap bootstrap = new Bootstrap();
       bootstrap.group(context.nettyEventLoop());
-      bootstrap.channel(NioSocketChannel.class);
+      bootstrap.channel(vertx.transport().channelType());
       applyConnectionOptions(options, bootstrap);
 
       //
@@ -469,6 +468,7 @@ public class ConnectionManager {
       bootstrap.option(ChannelOption.ALLOCATOR, PartialPooledByteBufAllocator.INSTANCE);
       bootstrap.option(ChannelOption.SO_KEEPALIVE, options.isTcpKeepAlive());
       bootstrap.option(ChannelOption.SO_REUSEADDR, options.isReuseAddress());
+      vertx.transport().configure(options, bootstrap);
     }
 
     void applyH2ConnectionOptions(ChannelPipeline pipeline) {
@@ -23,7 +23,6 @@ import io.netty.channel.*;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.codec.http.*;
 import io.netty.handler.codec.http.HttpHeaders;
 import io.netty.handler.codec.http.HttpMethod;
@@ -90,9 +89,9 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
   private final ContextImpl creatingContext;
   private final Map<Channel, ServerConnection> connectionMap = new ConcurrentHashMap<>();
   private final Map<Channel, Http2ServerConnection> connectionMap2 = new ConcurrentHashMap<>();
-  private final VertxEventLoopGroup availableWorkers = new VertxEventLoopGroup();
-  private final HandlerManager<HttpHandler> reqHandlerManager = new HandlerManager<>(availableWorkers);
-  private final HandlerManager<Handler<ServerWebSocket>> wsHandlerManager = new HandlerManager<>(availableWorkers);
+  private final VertxEventLoopGroup availableWorkers;
+  private final HandlerManager<HttpHandler> reqHandlerManager;
+  private final HandlerManager<Handler<ServerWebSocket>> wsHandlerManager;
   private final ServerWebSocketStreamImpl wsStream = new ServerWebSocketStreamImpl();
   private final HttpServerRequestStreamImpl requestStream = new HttpServerRequestStreamImpl();
   private Handler<HttpConnection> connectionHandler;
@@ -102,6 +101,7 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
   private ChannelGroup serverChannelGroup;
   private volatile boolean listening;
   private AsyncResolveBindConnectHelper bindFuture;
+  private ReusePortAcceptors acceptors;
   private ServerID id;
   private HttpServerImpl actualServer;
   private volatile int actualPort;
@@ -111,6 +111,9 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
   public HttpServerImpl(VertxInternal vertx, HttpServerOptions options) {
     this.options = new HttpServerOptions(options);
     this.vertx = vertx;
+    this.availableWorkers = new VertxEventLoopGroup(vertx::getEventLoopLoad);
+    this.reqHandlerManager = new HandlerManager<>(availableWorkers);
+    this.wsHandlerManager = new HandlerManager<>(availableWorkers);
     this.creatingContext = vertx.getContext();
     if (creatingContext != null) {
       if (creatingContext.isMultiThreadedWorkerContext()) {
@@ -207,11 +210,16 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
       this.actualPort = port; // Will be updated on bind for a wildcard port
       id = new ServerID(port, host);
       HttpServerImpl shared = vertx.sharedHttpServers().get(id);
+      AsyncResolveBindConnectHelper listenFuture;
       if (shared == null) {
         serverChannelGroup = new DefaultChannelGroup("vertx-acceptor-channels", GlobalEventExecutor.INSTANCE);
+        // With SO_REUSEPORT each event loop binds its own server channel instead of using the acceptor event loop
+        boolean reusePort = port != 0 && options.isReusePort() && vertx.isNativeTransportEnabled();
         ServerBootstrap bootstrap = new ServerBootstrap();
-        bootstrap.group(vertx.getAcceptorEventLoopGroup(), availableWorkers);
-        bootstrap.channel(NioServerSocketChannel.class);
+        if (!reusePort) {
+          bootstrap.group(vertx.getAcceptorEventLoopGroup(), availableWorkers);
+        }
+        bootstrap.channel(vertx.transport().serverChannelType());
         applyConnectionOptions(bootstrap);
         sslHelper.validate(vertx);
         bootstrap.childHandler(new ChannelInitializer<Channel>() {
@@ -250,7 +258,12 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
 
         addHandlers(this, listenContext);
         try {
-          bindFuture = AsyncResolveBindConnectHelper.doBind(vertx, port, host, bootstrap);
+          if (reusePort) {
+            acceptors = new ReusePortAcceptors(vertx, bootstrap, serverChannelGroup);
+            bindFuture = acceptors.bind(listenContext.nettyEventLoop(), port, host);
+          } else {
+            bindFuture = AsyncResolveBindConnectHelper.doBind(vertx, port, host, bootstrap);
+          }
           bindFuture.addListener(res -> {
             if (res.failed()) {
               vertx.sharedHttpServers().remove(id);
@@ -274,14 +287,21 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         }
         vertx.sharedHttpServers().put(id, this);
         actualServer = this;
+        listenFuture = bindFuture;
       } else {
         // Server already exists with that host/port - we will use that
         actualServer = shared;
         this.actualPort = shared.actualPort;
         addHandlers(actualServer, listenContext);
         metrics = vertx.metricsSPI().createMetrics(this, new SocketAddressImpl(port, host), options);
+        if (actualServer.acceptors != null) {
+          // Bind the server channel of this event loop
+          listenFuture = actualServer.acceptors.bind(listenContext.nettyEventLoop(), port, host);
+        } else {
+          listenFuture = actualServer.bindFuture;
+        }
       }
-      actualServer.bindFuture.addListener(future -> {
+      listenFuture.addListener(future -> {
         if (listenHandler != null) {
           final AsyncResult<HttpServer> res;
           if (future.succeeded()) {
@@ -397,6 +417,9 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
         if (wsStream.handler() != null) {
           actualServer.wsHandlerManager.removeHandler(wsStream.handler(), listenContext);
         }
+        if (actualServer.acceptors != null) {
+          actualServer.acceptors.release(listenContext.nettyEventLoop());
+        }
 
         if (actualServer.reqHandlerManager.hasHandlers() || actualServer.wsHandlerManager.hasHandlers()) {
           // The actual server still has handlers so we don't actually close it
@@ -458,6 +481,7 @@ public class HttpServerImpl implements HttpServer, Closeable, MetricsProvider {
     if (options.getAcceptBacklog() != -1) {
       bootstrap.option(ChannelOption.SO_BACKLOG, options.getAcceptBacklog());
     }
+    vertx.transport().configure(options, bootstrap);
   }
 
 
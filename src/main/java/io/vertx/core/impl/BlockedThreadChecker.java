@@ -21,9 +21,11 @@ import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
 import java.util.Map;
+import java.util.Set;
 import java.util.Timer;
 import java.util.TimerTask;
 import java.util.WeakHashMap;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -34,6 +36,8 @@ public class BlockedThreadChecker {
 
   private static final Object O = new Object();
   private final Map<VertxThread, Object> threads = new WeakHashMap<>();
+  // The tasks running on virtual threads, they are removed when their thread ends
+  private final Set<VirtualThreadExecutorService.Task> tasks = ConcurrentHashMap.newKeySet();
   private final Timer timer; // Need to use our own timer - can't use event loop for this
 
   BlockedThreadChecker(long interval, long warningExceptionTime) {
@@ -41,32 +45,45 @@ public class BlockedThreadChecker {
     timer.schedule(new TimerTask() {
       @Override
       public void run() {
+        long now = System.nanoTime();
         synchronized (BlockedThreadChecker.this) {
-          long now = System.nanoTime();
           for (VertxThread thread : threads.keySet()) {
-            long execStart = thread.startTime();
-            long dur = now - execStart;
-            final long timeLimit = thread.getMaxExecTime();
-            if (execStart != 0 && dur > timeLimit) {
-              final String message = "Thread " + thread + " has been blocked for " + (dur / 1000000) + " ms, time limit is " + (timeLimit / 1000000);
-              if (dur <= warningExceptionTime) {
-                log.warn(message);
-              } else {
-                VertxException stackTrace = new VertxException("Thread blocked");
-                stackTrace.setStackTrace(thread.getStackTrace());
-                log.warn(message, stackTrace);
-              }
-            }
+            check(thread, thread.startTime(), thread.getMaxExecTime(), now, warningExceptionTime);
           }
         }
+        for (VirtualThreadExecutorService.Task task : tasks) {
+          check(task.thread(), task.startTime(), task.getMaxExecTime(), now, warningExceptionTime);
+        }
       }
     }, interval, interval);
   }
 
+  private static void check(Thread thread, long execStart, long timeLimit, long now, long warningExceptionTime) {
+    long dur = now - execStart;
+    if (execStart != 0 && dur > timeLimit) {
+      final String message = "Thread " + thread + " has been blocked for " + (dur / 1000000) + " ms, time limit is " + (timeLimit / 1000000);
+      if (dur <= warningExceptionTime) {
+        log.warn(message);
+      } else {
+        VertxException stackTrace = new VertxException("Thread blocked");
+        stackTrace.setStackTrace(thread.getStackTrace());
+        log.warn(message, stackTrace);
+      }
+    }
+  }
+
   public synchronized void registerThread(VertxThread thread) {
     threads.put(thread, O);
   }
 
+  void registerTask(VirtualThreadExecutorService.Task task) {
+    tasks.add(task);
+  }
+
+  void unregisterTask(VirtualThreadExecutorService.Task task) {
+    tasks.remove(task);
+  }
+
   public void close() {
     timer.cancel();
   }
@@ -17,7 +17,6 @@
 package io.vertx.core.impl;
 
 import io.netty.channel.EventLoop;
-import io.netty.channel.EventLoopGroup;
 import io.vertx.core.*;
 import io.vertx.core.impl.launcher.VertxCommandLauncher;
 import io.vertx.core.json.JsonObject;
@@ -43,7 +42,7 @@ public abstract class ContextImpl implements ContextInternal {
   private static final String DISABLE_TIMINGS_PROP_NAME = "vertx.disableContextTimings";
   private static final String DISABLE_TCCL_PROP_NAME = "vertx.disableTCCL";
   private static final boolean THREAD_CHECKS = Boolean.getBoolean(THREAD_CHECKS_PROP_NAME);
-  private static final boolean DISABLE_TIMINGS = Boolean.getBoolean(DISABLE_TIMINGS_PROP_NAME);
+  static final boolean DISABLE_TIMINGS = Boolean.getBoolean(DISABLE_TIMINGS_PROP_NAME);
   private static final boolean DISABLE_TCCL = Boolean.getBoolean(DISABLE_TCCL_PROP_NAME);
 
   protected final VertxInternal owner;
@@ -57,10 +56,18 @@ public abstract class ContextImpl implements ContextInternal {
   private volatile boolean closeHooksRun;
   private Map<String, Object> contextData;
   private volatile Handler<Throwable> exceptionHandler;
+  // The nesting depth of the tasks run by runDirect, only used by the event loop thread
+  private int directDepth;
   protected final WorkerPool workerPool;
   protected final WorkerPool internalBlockingPool;
   protected final Executor orderedInternalPoolExec;
   protected final Executor workerExec;
+  // The timer wheel of the event loop of this context, set by the first timer
+  volatile TimerWheel timerWheel;
+  // Whether the close hook cancelling the timers of this context has been added
+  final AtomicBoolean timersCloseHook = new AtomicBoolean();
+  // The ids of the pending timers of this context, cancelled by the close hook
+  final Set<Long> timers = ConcurrentHashMap.newKeySet();
 
   protected ContextImpl(VertxInternal vertx, WorkerPool internalBlockingPool, WorkerPool workerPool, String deploymentID, JsonObject config,
                         ClassLoader tccl) {
@@ -69,12 +76,7 @@ public abstract class ContextImpl implements ContextInternal {
     }
     this.deploymentID = deploymentID;
     this.config = config;
-    EventLoopGroup group = vertx.getEventLoopGroup();
-    if (group != null) {
-      this.eventLoop = group.next();
-    } else {
-      this.eventLoop = null;
-    }
+    this.eventLoop = vertx.nextEventLoop();
     this.tccl = tccl;
     this.owner = vertx;
     this.workerPool = workerPool;
@@ -88,7 +90,14 @@ public abstract class ContextImpl implements ContextInternal {
     if (current instanceof VertxThread) {
       setContext((VertxThread) current, context);
     } else {
-      throw new IllegalStateException("Attempt to setContext on non Vert.x thread " + Thread.currentThread());
+      VirtualThreadExecutorService.Task task = VirtualThreadExecutorService.currentTask();
+      if (task == null) {
+        throw new IllegalStateException("Attempt to setContext on non Vert.x thread " + Thread.currentThread());
+      }
+      task.setContext(context);
+      if (!DISABLE_TCCL && context != null) {
+        context.setTCCL();
+      }
     }
   }
 
@@ -217,7 +226,7 @@ public abstract class ContextImpl implements ContextInternal {
 
   public static boolean isOnVertxThread() {
     Thread t = Thread.currentThread();
-    return (t instanceof VertxThread);
+    return (t instanceof VertxThread) || VirtualThreadExecutorService.currentTask() != null;
   }
 
   private static boolean isOnVertxThread(boolean worker) {
@@ -226,7 +235,8 @@ public abstract class ContextImpl implements ContextInternal {
       VertxThread vt = (VertxThread) t;
       return vt.isWorker() == worker;
     }
-    return false;
+    // The virtual threads are worker threads
+    return worker && VirtualThreadExecutorService.currentTask() != null;
   }
 
   // This is called to execute code where the origin is IO (from Netty probably).
@@ -242,6 +252,31 @@ public abstract class ContextImpl implements ContextInternal {
 
   protected abstract void checkCorrectThread();
 
+  /**
+   * Run the task synchronously when called from this event loop context, unless {@code maxDepth} tasks run this way
+   * are already nested. A failure of the task is reported to the exception handler, as for an asynchronous task.
+   *
+   * @return whether the task has been run, otherwise the caller should run it asynchronously
+   */
+  public boolean runDirect(Handler<Void> task, int maxDepth) {
+    if (!isEventLoopContext() || !nettyEventLoop().inEventLoop()) {
+      return false;
+    }
+    Thread th = Thread.currentThread();
+    if (!(th instanceof VertxThread) || ((VertxThread) th).getContext() != this || directDepth >= maxDepth) {
+      return false;
+    }
+    directDepth++;
+    try {
+      task.handle(null);
+    } catch (Throwable t) {
+      reportException(t);
+    } finally {
+      directDepth--;
+    }
+    return true;
+  }
+
   // Run the task asynchronously on this same context
   @Override
   public void runOnContext(Handler<Void> task) {
@@ -350,44 +385,58 @@ public abstract class ContextImpl implements ContextInternal {
           throw new IllegalStateException("Uh oh! Event loop context executing with wrong thread! Expected " + contextThread + " got " + current);
         }
       }
-      if (metrics != null) {
-        metrics.taskBegin(metric);
-      }
       if (!DISABLE_TIMINGS) {
         current.executeStart();
       }
       try {
         setContext(current, ContextImpl.this);
-        if (cTask != null) {
-          cTask.run();
-        } else {
-          hTask.handle(null);
-        }
-        if (metrics != null) {
-          metrics.taskEnd(metric, true);
-        }
-      } catch (Throwable t) {
-        log.error("Unhandled exception", t);
-        Handler<Throwable> handler = this.exceptionHandler;
-        if (handler == null) {
-          handler = owner.exceptionHandler();
-        }
-        if (handler != null) {
-          handler.handle(t);
-        }
-        if (metrics != null) {
-          metrics.taskEnd(metric, false);
-        }
+        runTask(cTask, hTask, metrics, metric);
       } finally {
         // We don't unset the context after execution - this is done later when the context is closed via
         // VertxThreadFactory
         if (!DISABLE_TIMINGS) {
+          EventLoopProbe probe = current.probe();
+          if (probe != null) {
+            probe.taskExecuted(current.startTime(), cTask != null);
+          }
           current.executeEnd();
         }
       }
     };
   }
 
+  void runTask(ContextTask cTask, Handler<Void> hTask, PoolMetrics metrics, Object metric) {
+    if (metrics != null) {
+      metrics.taskBegin(metric);
+    }
+    try {
+      if (cTask != null) {
+        cTask.run();
+      } else {
+        hTask.handle(null);
+      }
+      if (metrics != null) {
+        metrics.taskEnd(metric, true);
+      }
+    } catch (Throwable t) {
+      reportException(t);
+      if (metrics != null) {
+        metrics.taskEnd(metric, false);
+      }
+    }
+  }
+
+  private void reportException(Throwable t) {
+    log.error("Unhandled exception", t);
+    Handler<Throwable> handler = this.exceptionHandler;
+    if (handler == null) {
+      handler = owner.exceptionHandler();
+    }
+    if (handler != null) {
+      handler.handle(t);
+    }
+  }
+
   private void setTCCL() {
     Thread.currentThread().setContextClassLoader(tccl);
   }
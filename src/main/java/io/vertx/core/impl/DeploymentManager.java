@@ -411,6 +411,12 @@ public class DeploymentManager {
     if (options.isMultiThreaded() && !options.isWorker()) {
       throw new IllegalArgumentException("If multi-threaded then must be worker too");
     }
+    if (options.isVirtualThreads() && (!options.isWorker() || options.isMultiThreaded())) {
+      throw new IllegalArgumentException("If virtual threads then must be worker too and not multi-threaded");
+    }
+    if (options.isVirtualThreads() && options.getWorkerPoolName() != null) {
+      throw new IllegalArgumentException("If virtual threads then can't use a named worker pool");
+    }
     JsonObject conf = options.getConfig() == null ? new JsonObject() : options.getConfig().copy(); // Copy it
     String poolName = options.getWorkerPoolName();
 
@@ -420,10 +426,17 @@ public class DeploymentManager {
     AtomicInteger deployCount = new AtomicInteger();
     AtomicBoolean failureReported = new AtomicBoolean();
     for (Verticle verticle: verticles) {
-      NamedWorkerExecutor workerExec = poolName != null ? vertx.createWorkerExecutor(poolName, options.getWorkerPoolSize()) : null;
+      NamedWorkerExecutor workerExec = poolName != null ? vertx.createWorkerExecutor(poolName, options.getWorkerPoolSize(),
+        options.getWorkerPoolType()) : null;
       WorkerPool pool = workerExec != null ? workerExec.getPool() : null;
-      ContextImpl context = options.isWorker() ? vertx.createWorkerContext(options.isMultiThreaded(), deploymentID, pool, conf, tccl) :
-        vertx.createEventLoopContext(deploymentID, pool, conf, tccl);
+      ContextImpl context;
+      if (options.isVirtualThreads()) {
+        context = vertx.createVirtualThreadContext(deploymentID, pool, conf, tccl);
+      } else if (options.isWorker()) {
+        context = vertx.createWorkerContext(options.isMultiThreaded(), deploymentID, pool, conf, tccl);
+      } else {
+        context = vertx.createEventLoopContext(deploymentID, pool, conf, tccl);
+      }
       if (workerExec != null) {
         context.addCloseHook(workerExec);
       }
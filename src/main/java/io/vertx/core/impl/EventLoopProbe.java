@@ -0,0 +1,144 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.impl;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.concurrent.SingleThreadEventExecutor;
+import io.vertx.core.spi.metrics.EventLoopMetrics;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Samples an event loop for its {@link EventLoopMetrics} and its {@link #load()}.
+ * <p>
+ * Every {@link #PERIOD} ns, the probe samples the number of pending tasks and submits a task to the event loop to
+ * measure its scheduling delay. The execution time is measured for one in {@link #SAMPLING} tasks executed by the
+ * contexts of the event loop, the start time is already taken for the blocked thread checker so only the sampled
+ * tasks take the end time. The sampled execution times give the busy time of the event loop.
+ * <p>
+ * The probe is only used on its event loop, except {@link #load()} and {@link #close()} which closes the metrics on
+ * the event loop.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class EventLoopProbe implements Runnable {
+
+  static final int SAMPLING = 16;
+  static final long PERIOD = TimeUnit.MILLISECONDS.toNanos(100);
+
+  private static final int SAMPLING_MASK = SAMPLING - 1;
+
+  private final EventLoop eventLoop;
+  private final EventLoopMetrics metrics;
+  private final Runnable measureTask = this::measure;
+  private int tasks;
+  private long submitted;
+  private long busyTime;
+  private long lastRun;
+  // The busy time of the event loop in the recent periods, in per mille
+  private volatile int busy;
+  private boolean closed;
+
+  /**
+   * @param metrics the metrics of the event loop, {@code null} when the probe only measures the load
+   */
+  EventLoopProbe(EventLoop eventLoop, EventLoopMetrics metrics) {
+    this.eventLoop = eventLoop;
+    this.metrics = metrics;
+  }
+
+  void start() {
+    eventLoop.execute(() -> {
+      Thread thread = Thread.currentThread();
+      if (thread instanceof VertxThread) {
+        ((VertxThread) thread).setProbe(this);
+      }
+      lastRun = System.nanoTime();
+      eventLoop.schedule(this, PERIOD, TimeUnit.NANOSECONDS);
+    });
+  }
+
+  EventLoop eventLoop() {
+    return eventLoop;
+  }
+
+  /**
+   * The load of the event loop: its recent busy time in per mille plus its number of pending tasks, it can be called
+   * from any thread.
+   */
+  int load() {
+    return busy + pendingTasks();
+  }
+
+  private int pendingTasks() {
+    return eventLoop instanceof SingleThreadEventExecutor ? ((SingleThreadEventExecutor) eventLoop).pendingTasks() : 0;
+  }
+
+  void close() {
+    eventLoop.execute(() -> {
+      closed = true;
+      if (metrics != null) {
+        metrics.close();
+      }
+    });
+  }
+
+  /**
+   * Called by the event loop thread when a task of a context has been executed.
+   *
+   * @param start the start time of the task, {@code 0} when it is unknown
+   * @param io whether the task handled I/O
+   */
+  void taskExecuted(long start, boolean io) {
+    if ((++tasks & SAMPLING_MASK) == 0 && start != 0) {
+      long duration = System.nanoTime() - start;
+      busyTime += duration;
+      if (metrics != null && !closed) {
+        metrics.taskExecuted(duration, io);
+      }
+    }
+  }
+
+  @Override
+  public void run() {
+    if (closed) {
+      return;
+    }
+    long now = System.nanoTime();
+    long ratio = Math.min(busyTime * SAMPLING * 1000 / Math.max(now - lastRun, 1), 1000);
+    // Smooth the busy time over the recent periods
+    busy = (busy + (int) ratio) / 2;
+    busyTime = 0;
+    lastRun = now;
+    if (metrics != null) {
+      metrics.pendingTasks(pendingTasks());
+      submitted = now;
+      eventLoop.execute(measureTask);
+    } else {
+      eventLoop.schedule(this, PERIOD, TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Executed after the tasks pending when it was submitted
+  private void measure() {
+    if (closed) {
+      return;
+    }
+    metrics.taskScheduled(System.nanoTime() - submitted);
+    eventLoop.schedule(this, PERIOD, TimeUnit.NANOSECONDS);
+  }
+}
@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.impl;
+
+import io.netty.channel.EventLoop;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Chooses the least loaded of two event loops: the next event loop in turn and another event loop at random.
+ * <p>
+ * The load of an event loop is only refreshed periodically, comparing two event loops instead of choosing the least
+ * loaded of all the event loops avoids to choose the same event loop for all the contexts created meanwhile.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public final class LoadAwareEventLoopChooser {
+
+  private final EventLoopProbe[] probes;
+  private final AtomicInteger index = new AtomicInteger();
+
+  LoadAwareEventLoopChooser(EventLoopProbe[] probes) {
+    this.probes = probes;
+  }
+
+  EventLoop next() {
+    int size = probes.length;
+    int first = Math.abs(index.getAndIncrement() % size);
+    return probes[choose(first, size, i -> probes[i].load())].eventLoop();
+  }
+
+  /**
+   * Choose the least loaded of the event loop in turn and of another event loop at random.
+   *
+   * @param first the index of the event loop in turn
+   * @param size the number of event loops
+   * @param load the load of the event loop at an index, the event loop in turn is chosen when its load is negative
+   * @return the index of the chosen event loop
+   */
+  public static int choose(int first, int size, IntUnaryOperator load) {
+    if (size == 1) {
+      return first;
+    }
+    int firstLoad = load.applyAsInt(first);
+    if (firstLoad < 0) {
+      return first;
+    }
+    int second = (first + 1 + ThreadLocalRandom.current().nextInt(size - 1)) % size;
+    return load.applyAsInt(second) < firstLoad ? second : first;
+  }
+}
@@ -17,11 +17,13 @@
 
 package io.vertx.core.impl;
 
+import io.netty.util.internal.PlatformDependent;
 import io.vertx.core.logging.Logger;
 import io.vertx.core.logging.LoggerFactory;
 
-import java.util.LinkedList;
+import java.util.Queue;
 import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
 
 /**
  * A factory for producing executors that run all tasks in order, which delegate to a single common executor instance.
@@ -52,7 +54,7 @@ public class OrderedExecutorFactory {
    *
    * @return an ordered executor
    */
-  public OrderedExecutor getExecutor() {
+  public Executor getExecutor() {
     return new OrderedExecutor(parent);
   }
 
@@ -61,13 +63,22 @@ public class OrderedExecutorFactory {
    * <p/>
    * More specifically, any call B to the {@link #execute(Runnable)} method that happens-after another call A to the
    * same method, will result in B's task running after A's.
+   * <p/>
+   * The tasks are added to a lock-free multi producer single consumer queue. The runner is submitted to the parent
+   * executor by the call that moves the executor from idle to running, it drains the queue and goes idle when the
+   * queue is empty.
    */
   private static final class OrderedExecutor implements Executor {
-    // @protectedby tasks
-    private final LinkedList<Runnable> tasks = new LinkedList<>();
 
-    // @protectedby tasks
-    private boolean running;
+    private static final AtomicIntegerFieldUpdater<OrderedExecutor> STATE_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(OrderedExecutor.class, "state");
+
+    private static final int IDLE = 0;
+    private static final int RUNNING = 1;
+
+    private final Queue<Runnable> tasks = PlatformDependent.newMpscQueue();
+
+    private volatile int state;
 
     private final Executor parent;
 
@@ -82,18 +93,18 @@ public class OrderedExecutorFactory {
       this.parent = parent;
       runner = () -> {
         for (; ; ) {
-          final Runnable task;
-          synchronized (tasks) {
-            task = tasks.poll();
-            if (task == null) {
-              running = false;
-              return;
+          Runnable task;
+          while ((task = tasks.poll()) != null) {
+            try {
+              task.run();
+            } catch (Throwable t) {
+              log.error("Caught unexpected Throwable", t);
             }
           }
-          try {
-            task.run();
-          } catch (Throwable t) {
-            log.error("Caught unexpected Throwable", t);
+          state = IDLE;
+          // A task added before the executor went idle did not submit the runner
+          if (tasks.isEmpty() || !STATE_UPDATER.compareAndSet(this, IDLE, RUNNING)) {
+            return;
           }
         }
       };
@@ -105,12 +116,9 @@ public class OrderedExecutorFactory {
      * @param command the task to run.
      */
     public void execute(Runnable command) {
-      synchronized (tasks) {
-        tasks.add(command);
-        if (!running) {
-          running = true;
-          parent.execute(runner);
-        }
+      tasks.add(command);
+      if (state == IDLE && STATE_UPDATER.compareAndSet(this, IDLE, RUNNING)) {
+        parent.execute(runner);
       }
     }
   }
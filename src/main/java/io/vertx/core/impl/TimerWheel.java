@@ -0,0 +1,266 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.impl;
+
+import io.netty.channel.EventLoop;
+import io.netty.util.internal.PlatformDependent;
+
+import java.util.Queue;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * A hashed timing wheel of the timers of an event loop.
+ * <p>
+ * The wheel has {@link #WHEEL_SIZE} buckets of one millisecond, a timeout is linked in the bucket of its deadline
+ * and unlinked when it is cancelled, both in constant time. The wheel is driven by a single task of the event loop
+ * scheduled for the next non empty bucket, instead of a task per timer in the queue of the event loop. Adding a
+ * timeout only reschedules the driver when the timeout expires before it, the next non empty bucket is searched
+ * when the driver runs.
+ * <p>
+ * The buckets are only used on the event loop, the timeouts added or cancelled from other threads are queued and
+ * handled by a task of the event loop.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class TimerWheel implements Runnable {
+
+  static final int WHEEL_SIZE = 512;
+
+  private static final int MASK = WHEEL_SIZE - 1;
+  private static final long TICK = TimeUnit.MILLISECONDS.toNanos(1);
+
+  private final EventLoop eventLoop;
+  private final long startTime = System.nanoTime();
+  private final Timeout[] buckets = new Timeout[WHEEL_SIZE];
+  private final Queue<Timeout> changes = PlatformDependent.newMpscQueue();
+  private final AtomicBoolean changesScheduled = new AtomicBoolean();
+  private final Runnable changesTask = this::applyChanges;
+  private int size;
+  // The next tick to expire
+  private long tick;
+  private ScheduledFuture<?> driver;
+  private long driverTick = Long.MAX_VALUE;
+
+  TimerWheel(EventLoop eventLoop) {
+    this.eventLoop = eventLoop;
+    this.tick = currentTick();
+  }
+
+  /**
+   * Add a timeout expiring after {@code delay} ms, it can be called from any thread.
+   */
+  void add(Timeout timeout, long delay) {
+    timeout.wheel = this;
+    timeout.delay = delay;
+    // A timeout expires at the earliest after its delay, like a task scheduled with the same delay
+    timeout.deadline = currentTick() + delay + 1;
+    if (eventLoop.inEventLoop()) {
+      link(timeout);
+      scheduleDriver(timeout.deadline);
+    } else {
+      change(timeout);
+    }
+  }
+
+  private void change(Timeout timeout) {
+    changes.add(timeout);
+    if (changesScheduled.compareAndSet(false, true)) {
+      eventLoop.execute(changesTask);
+    }
+  }
+
+  // The queued timeouts are linked when they are pending and unlinked when they are cancelled
+  private void applyChanges() {
+    changesScheduled.set(false);
+    long next = Long.MAX_VALUE;
+    Timeout timeout;
+    while ((timeout = changes.poll()) != null) {
+      if (timeout.state == Timeout.PENDING) {
+        if (!timeout.linked) {
+          link(timeout);
+          next = Math.min(next, timeout.deadline);
+        }
+      } else if (timeout.linked) {
+        unlink(timeout);
+      }
+    }
+    scheduleDriver(next);
+  }
+
+  private long currentTick() {
+    return (System.nanoTime() - startTime) / TICK;
+  }
+
+  private void link(Timeout timeout) {
+    if (timeout.deadline < tick) {
+      // Added from another thread after its deadline has been expired, it expires with the next tick
+      timeout.deadline = tick;
+    }
+    int idx = (int) (timeout.deadline & MASK);
+    Timeout head = buckets[idx];
+    timeout.prev = null;
+    timeout.next = head;
+    if (head != null) {
+      head.prev = timeout;
+    }
+    buckets[idx] = timeout;
+    timeout.linked = true;
+    size++;
+  }
+
+  private void unlink(Timeout timeout) {
+    int idx = (int) (timeout.deadline & MASK);
+    if (timeout.prev != null) {
+      timeout.prev.next = timeout.next;
+    } else {
+      buckets[idx] = timeout.next;
+    }
+    if (timeout.next != null) {
+      timeout.next.prev = timeout.prev;
+    }
+    timeout.prev = null;
+    timeout.next = null;
+    timeout.linked = false;
+    size--;
+  }
+
+  // Called when a timeout is cancelled, from any thread
+  private void cancelled(Timeout timeout) {
+    if (eventLoop.inEventLoop()) {
+      if (timeout.linked) {
+        unlink(timeout);
+      }
+    } else {
+      change(timeout);
+    }
+  }
+
+  // Schedule the driver for the next non empty bucket after the driver has run
+  private void scheduleNextDriver() {
+    if (size == 0) {
+      return;
+    }
+    for (int i = 0; i < WHEEL_SIZE; i++) {
+      if (buckets[(int) ((tick + i) & MASK)] != null) {
+        scheduleDriver(tick + i);
+        break;
+      }
+    }
+  }
+
+  // Schedule the driver for the tick of a linked timeout when it is before the tick of the driver, the driver is not
+  // cancelled when the timeouts of its bucket are cancelled
+  private void scheduleDriver(long next) {
+    if (next < driverTick) {
+      if (driver != null) {
+        driver.cancel(false);
+      }
+      driverTick = next;
+      long delay = startTime + next * TICK - System.nanoTime();
+      driver = eventLoop.schedule(this, Math.max(delay, 0), TimeUnit.NANOSECONDS);
+    }
+  }
+
+  // Expire the timeouts of the past ticks
+  @Override
+  public void run() {
+    driver = null;
+    driverTick = Long.MAX_VALUE;
+    long now = currentTick();
+    // A bucket holds the timeouts of the following rounds too, the buckets are visited at most once
+    long end = Math.min(now, tick + WHEEL_SIZE - 1);
+    for (; tick <= end; tick++) {
+      Timeout timeout = buckets[(int) (tick & MASK)];
+      while (timeout != null) {
+        Timeout next = timeout.next;
+        if (timeout.deadline <= now) {
+          unlink(timeout);
+          if (timeout.expire()) {
+            // Periodic timeout
+            timeout.deadline += timeout.delay;
+            link(timeout);
+          }
+        }
+        timeout = next;
+      }
+    }
+    tick = now + 1;
+    scheduleNextDriver();
+  }
+
+  /**
+   * A timeout of the wheel.
+   */
+  static abstract class Timeout {
+
+    private static final AtomicIntegerFieldUpdater<Timeout> STATE_UPDATER =
+      AtomicIntegerFieldUpdater.newUpdater(Timeout.class, "state");
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    private volatile int state;
+    private TimerWheel wheel;
+    private long delay;
+    private long deadline;
+    private boolean linked;
+    private Timeout prev;
+    private Timeout next;
+
+    /**
+     * Cancel this timeout, it can be called from any thread.
+     *
+     * @return whether the timeout was pending
+     */
+    boolean cancel() {
+      if (STATE_UPDATER.compareAndSet(this, PENDING, CANCELLED)) {
+        wheel.cancelled(this);
+        return true;
+      }
+      return false;
+    }
+
+    /**
+     * Expire this timeout, a periodic timeout stays pending until it is cancelled.
+     *
+     * @return whether the timeout must be linked again for its next period
+     */
+    private boolean expire() {
+      if (isPeriodic()) {
+        if (state == PENDING) {
+          onExpire();
+          return state == PENDING;
+        }
+        return false;
+      } else if (STATE_UPDATER.compareAndSet(this, PENDING, EXPIRED)) {
+        onExpire();
+      }
+      return false;
+    }
+
+    protected abstract boolean isPeriodic();
+
+    /**
+     * Called on the event loop of the wheel when this timeout expires.
+     */
+    protected abstract void onExpire();
+  }
+}
@@ -18,8 +18,8 @@ package io.vertx.core.impl;
 
 import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
-import io.netty.channel.nio.NioEventLoopGroup;
 import io.netty.util.ResourceLeakDetector;
+import io.netty.util.concurrent.EventExecutor;
 import io.netty.util.concurrent.GenericFutureListener;
 import io.vertx.core.*;
 import io.vertx.core.Future;
@@ -51,11 +51,13 @@ import io.vertx.core.net.NetServerOptions;
 import io.vertx.core.net.impl.NetClientImpl;
 import io.vertx.core.net.impl.NetServerImpl;
 import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.net.impl.transport.Transport;
 import io.vertx.core.shareddata.SharedData;
 import io.vertx.core.shareddata.impl.SharedDataImpl;
 import io.vertx.core.spi.VerticleFactory;
 import io.vertx.core.spi.VertxMetricsFactory;
 import io.vertx.core.spi.cluster.ClusterManager;
+import io.vertx.core.spi.metrics.EventLoopMetrics;
 import io.vertx.core.spi.metrics.Metrics;
 import io.vertx.core.spi.metrics.MetricsProvider;
 import io.vertx.core.spi.metrics.PoolMetrics;
@@ -89,6 +91,7 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   private final SharedData sharedData;
   private final VertxMetrics metrics;
   private final ConcurrentMap<Long, InternalTimerHandler> timeouts = new ConcurrentHashMap<>();
+  private final ConcurrentMap<EventLoop, TimerWheel> timerWheels = new ConcurrentHashMap<>();
   private final AtomicLong timeoutCounter = new AtomicLong(0);
   private final ClusterManager clusterManager;
   private final DeploymentManager deploymentManager;
@@ -97,9 +100,12 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   private final Map<ServerID, NetServerImpl> sharedNetServers = new HashMap<>();
   private final WorkerPool workerPool;
   private final WorkerPool internalBlockingPool;
+  private final WorkerPool virtualThreadPool;
+  private final Map<EventLoop, EventLoopProbe> eventLoopProbes = new LinkedHashMap<>();
+  private final LoadAwareEventLoopChooser eventLoopChooser;
   private final ThreadFactory eventLoopThreadFactory;
-  private final NioEventLoopGroup eventLoopGroup;
-  private final NioEventLoopGroup acceptorEventLoopGroup;
+  private final EventLoopGroup eventLoopGroup;
+  private final EventLoopGroup acceptorEventLoopGroup;
   private final BlockedThreadChecker checker;
   private final boolean haEnabled;
   private final HostnameResolver hostnameResolver;
@@ -110,6 +116,8 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   private final Map<String, SharedWorkerPool> namedWorkerPools;
   private final int defaultWorkerPoolSize;
   private final long defaultWorkerMaxExecTime;
+  private final WorkerPoolType defaultWorkerPoolType;
+  private final Transport transport;
 
   VertxImpl() {
     this(new VertxOptions());
@@ -125,28 +133,45 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
       log.warn("You're already on a Vert.x context, are you sure you want to create a new Vertx instance?");
     }
     checker = new BlockedThreadChecker(options.getBlockedThreadCheckInterval(), options.getWarningExceptionTime());
+    transport = transport(options);
     eventLoopThreadFactory = new VertxThreadFactory("vert.x-eventloop-thread-", checker, false, options.getMaxEventLoopExecuteTime());
-    eventLoopGroup = new NioEventLoopGroup(options.getEventLoopPoolSize(), eventLoopThreadFactory);
-    eventLoopGroup.setIoRatio(NETTY_IO_RATIO);
+    eventLoopGroup = transport.eventLoopGroup(options.getEventLoopPoolSize(), eventLoopThreadFactory, NETTY_IO_RATIO);
     ThreadFactory acceptorEventLoopThreadFactory = new VertxThreadFactory("vert.x-acceptor-thread-", checker, false, options.getMaxEventLoopExecuteTime());
     // The acceptor event loop thread needs to be from a different pool otherwise can get lags in accepted connections
     // under a lot of load
-    acceptorEventLoopGroup = new NioEventLoopGroup(1, acceptorEventLoopThreadFactory);
-    acceptorEventLoopGroup.setIoRatio(100);
+    acceptorEventLoopGroup = transport.eventLoopGroup(1, acceptorEventLoopThreadFactory, 100);
 
     metrics = initialiseMetrics(options);
+    // The event loops are probed for their metrics or for their load
+    boolean loadAware = options.getEventLoopChooserType() == EventLoopChooserType.LOAD_AWARE;
+    int index = 0;
+    for (EventExecutor executor : eventLoopGroup) {
+      EventLoop eventLoop = (EventLoop) executor;
+      EventLoopMetrics eventLoopMetrics = isMetricsEnabled() ? metrics.createEventLoopMetrics("vert.x-eventloop-" + index) : null;
+      index++;
+      if (eventLoopMetrics != null || loadAware) {
+        EventLoopProbe probe = new EventLoopProbe(eventLoop, eventLoopMetrics);
+        eventLoopProbes.put(eventLoop, probe);
+        probe.start();
+      }
+    }
+    eventLoopChooser = loadAware ? new LoadAwareEventLoopChooser(eventLoopProbes.values().toArray(new EventLoopProbe[0])) : null;
 
-    ExecutorService workerExec = Executors.newFixedThreadPool(options.getWorkerPoolSize(),
+    ExecutorService workerExec = createWorkerExecutorService(options.getWorkerPoolType(), options.getWorkerPoolSize(),
         new VertxThreadFactory("vert.x-worker-thread-", checker, true, options.getMaxWorkerExecuteTime()));
     PoolMetrics workerPoolMetrics = isMetricsEnabled() ? metrics.createMetrics(workerExec, "vert.x-worker-thread", options.getWorkerPoolSize()) : null;
-    ExecutorService internalBlockingExec = Executors.newFixedThreadPool(options.getInternalBlockingPoolSize(),
+    ExecutorService internalBlockingExec = createWorkerExecutorService(options.getWorkerPoolType(), options.getInternalBlockingPoolSize(),
         new VertxThreadFactory("vert.x-internal-blocking-", checker, true, options.getMaxWorkerExecuteTime()));
     PoolMetrics internalBlockingPoolMetrics = isMetricsEnabled() ? metrics.createMetrics(internalBlockingExec, "vert.x-internal-blocking", options.getInternalBlockingPoolSize()) : null;
     internalBlockingPool = new WorkerPool(internalBlockingExec, internalBlockingPoolMetrics);
     namedWorkerPools = new HashMap<>();
     workerPool = new WorkerPool(workerExec, workerPoolMetrics);
+    // The virtual threads are not pooled, the executor has no pool metrics
+    virtualThreadPool = VirtualThreadExecutorService.isSupported() ? new WorkerPool(
+        new VirtualThreadExecutorService("vert.x-virtual-thread-", checker, options.getMaxWorkerExecuteTime()), null) : null;
     defaultWorkerPoolSize = options.getWorkerPoolSize();
     defaultWorkerMaxExecTime = options.getMaxWorkerExecuteTime();
+    defaultWorkerPoolType = options.getWorkerPoolType();
 
     this.hostnameResolver = new HostnameResolver(this, options.getHostnameResolverOptions());
     this.fileResolver = new FileResolver(this);
@@ -174,11 +199,26 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     this.sharedData = new SharedDataImpl(this, clusterManager);
   }
 
+  private static Transport transport(VertxOptions options) {
+    if (options.getPreferNativeTransport()) {
+      Transport nativeTransport = Transport.nativeTransport();
+      if (nativeTransport != null && nativeTransport.isAvailable()) {
+        return nativeTransport;
+      }
+      if (nativeTransport != null) {
+        log.debug("Native transport not available, falling back to the JDK transport", nativeTransport.unavailabilityCause());
+      } else {
+        log.debug("Native transport not on the classpath, falling back to the JDK transport");
+      }
+    }
+    return Transport.JDK;
+  }
+
   private void createAndStartEventBus(VertxOptions options, Handler<AsyncResult<Vertx>> resultHandler) {
     if (options.isClustered()) {
       eventBus = new ClusteredEventBus(this, options, clusterManager, haManager);
     } else {
-      eventBus = new EventBusImpl(this);
+      eventBus = new EventBusImpl(this, options.getEventBusOptions());
     }
     eventBus.start(ar2 -> {
       if (ar2.succeeded()) {
@@ -280,6 +320,11 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     return scheduleTimeout(getOrCreateContext(), handler, delay, false);
   }
 
+  @Override
+  public long setTimer(ContextImpl context, long delay, Handler<Long> handler) {
+    return scheduleTimeout(context, handler, delay, false);
+  }
+
   @Override
   public TimeoutStream timerStream(long delay) {
     return new TimeoutStreamImpl(delay, false);
@@ -303,6 +348,16 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     return acceptorEventLoopGroup;
   }
 
+  @Override
+  public Transport transport() {
+    return transport;
+  }
+
+  @Override
+  public boolean isNativeTransportEnabled() {
+    return transport != Transport.JDK;
+  }
+
   public ContextImpl getOrCreateContext() {
     ContextImpl ctx = getContext();
     if (ctx == null) {
@@ -333,7 +388,7 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   public boolean cancelTimer(long id) {
     InternalTimerHandler handler = timeouts.remove(id);
     if (handler != null) {
-      handler.context.removeCloseHook(handler);
+      handler.context.timers.remove(id);
       return handler.cancel();
     } else {
       return false;
@@ -356,6 +411,28 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     }
   }
 
+  @Override
+  public EventLoop nextEventLoop() {
+    return eventLoopChooser != null ? eventLoopChooser.next() : eventLoopGroup.next();
+  }
+
+  @Override
+  public int getEventLoopLoad(EventLoop eventLoop) {
+    EventLoopProbe probe = eventLoopChooser != null ? eventLoopProbes.get(eventLoop) : null;
+    return probe != null ? probe.load() : -1;
+  }
+
+  @Override
+  public VirtualThreadContext createVirtualThreadContext(String deploymentID, WorkerPool workerPool, JsonObject config,
+                                                         ClassLoader tccl) {
+    if (virtualThreadPool != null) {
+      workerPool = virtualThreadPool;
+    } else if (workerPool == null) {
+      workerPool = this.workerPool;
+    }
+    return new VirtualThreadContext(this, internalBlockingPool, workerPool, deploymentID, config, tccl);
+  }
+
   @Override
   public DnsClient createDnsClient(int port, String host) {
     return new DnsClientImpl(this, port, host);
@@ -412,16 +489,44 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     long timerId = timeoutCounter.getAndIncrement();
     InternalTimerHandler task = new InternalTimerHandler(timerId, handler, periodic, delay, context);
     timeouts.put(timerId, task);
-    context.addCloseHook(task);
+    context.timers.add(timerId);
+    if (context.timersCloseHook.compareAndSet(false, true)) {
+      // A single close hook cancels the timers of the context instead of a close hook per timer
+      context.addCloseHook(completionHandler -> {
+        cancelTimers(context);
+        completionHandler.handle(Future.succeededFuture());
+      });
+    }
     return timerId;
   }
 
+  // Called when the context is closed, e.g. when the verticle is undeployed
+  private void cancelTimers(ContextImpl context) {
+    for (Long timerID : context.timers) {
+      context.timers.remove(timerID);
+      InternalTimerHandler handler = timeouts.remove(timerID);
+      if (handler != null) {
+        handler.cancel();
+      }
+    }
+  }
+
+  private TimerWheel timerWheel(ContextImpl context) {
+    TimerWheel wheel = context.timerWheel;
+    if (wheel == null) {
+      wheel = timerWheels.computeIfAbsent(context.nettyEventLoop(), TimerWheel::new);
+      context.timerWheel = wheel;
+    }
+    return wheel;
+  }
+
   public static Context context() {
     Thread current = Thread.currentThread();
     if (current instanceof VertxThread) {
       return ((VertxThread)current).getContext();
     }
-    return null;
+    VirtualThreadExecutorService.Task task = VirtualThreadExecutorService.currentTask();
+    return task != null ? task.getContext() : null;
   }
 
   public ContextImpl getContext() {
@@ -685,6 +790,10 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
 
       workerPool.close();
       internalBlockingPool.close();
+      eventLoopProbes.values().forEach(EventLoopProbe::close);
+      if (virtualThreadPool != null) {
+        virtualThreadPool.close();
+      }
 
       acceptorEventLoopGroup.shutdownGracefully(0, 10, TimeUnit.SECONDS).addListener(new GenericFutureListener() {
         @Override
@@ -728,16 +837,16 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     }
   }
 
-  private class InternalTimerHandler implements Handler<Void>, Closeable {
+  private class InternalTimerHandler extends TimerWheel.Timeout implements Handler<Void> {
     final Handler<Long> handler;
     final boolean periodic;
     final long timerID;
     final ContextImpl context;
-    final java.util.concurrent.Future<?> future;
 
+    @Override
     boolean cancel() {
       metrics.timerEnded(timerID, true);
-      return future.cancel(false);
+      return super.cancel();
     }
 
     InternalTimerHandler(long timerID, Handler<Long> runnable, boolean periodic, long delay, ContextImpl context) {
@@ -745,16 +854,20 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
       this.timerID = timerID;
       this.handler = runnable;
       this.periodic = periodic;
-      EventLoop el = context.nettyEventLoop();
-      Runnable toRun = () -> context.runOnContext(this);
-      if (periodic) {
-        future = el.scheduleAtFixedRate(toRun, delay, delay, TimeUnit.MILLISECONDS);
-      } else {
-        future = el.schedule(toRun, delay, TimeUnit.MILLISECONDS);
-      }
+      timerWheel(context).add(this, delay);
       metrics.timerCreated(timerID);
     }
 
+    @Override
+    protected boolean isPeriodic() {
+      return periodic;
+    }
+
+    @Override
+    protected void onExpire() {
+      context.runOnContext(this);
+    }
+
     public void handle(Void v) {
       try {
         handler.handle(timerID);
@@ -768,20 +881,9 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
 
     private void cleanupNonPeriodic() {
       VertxImpl.this.timeouts.remove(timerID);
+      context.timers.remove(timerID);
       metrics.timerEnded(timerID, false);
-      ContextImpl context = getContext();
-      if (context != null) {
-        context.removeCloseHook(this);
-      }
-    }
-
-    // Called via Context close hook when Verticle is undeployed
-    public void close(Handler<AsyncResult<Void>> completionHandler) {
-      VertxImpl.this.timeouts.remove(timerID);
-      cancel();
-      completionHandler.handle(Future.succeededFuture());
     }
-
   }
 
   /*
@@ -902,7 +1004,16 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
   }
 
   @Override
-  public synchronized NamedWorkerExecutor createWorkerExecutor(String name, int poolSize, long maxExecuteTime) {
+  public NamedWorkerExecutor createWorkerExecutor(String name, int poolSize, WorkerPoolType poolType) {
+    return createWorkerExecutor(name, poolSize, defaultWorkerMaxExecTime, poolType);
+  }
+
+  @Override
+  public NamedWorkerExecutor createWorkerExecutor(String name, int poolSize, long maxExecuteTime) {
+    return createWorkerExecutor(name, poolSize, maxExecuteTime, null);
+  }
+
+  private synchronized NamedWorkerExecutor createWorkerExecutor(String name, int poolSize, long maxExecuteTime, WorkerPoolType poolType) {
     if (maxExecuteTime < 1) {
       throw new IllegalArgumentException("poolSize must be > 0");
     }
@@ -911,7 +1022,8 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     }
     SharedWorkerPool sharedWorkerPool = namedWorkerPools.get(name);
     if (sharedWorkerPool == null) {
-      ExecutorService workerExec = Executors.newFixedThreadPool(poolSize, new VertxThreadFactory(name + "-", checker, true, maxExecuteTime));
+      ExecutorService workerExec = createWorkerExecutorService(poolType != null ? poolType : defaultWorkerPoolType, poolSize,
+        new VertxThreadFactory(name + "-", checker, true, maxExecuteTime));
       PoolMetrics workerMetrics = isMetricsEnabled() ? metrics.createMetrics(workerExec, name, poolSize) : null;
       namedWorkerPools.put(name, sharedWorkerPool = new SharedWorkerPool(name, workerExec, workerMetrics));
     } else {
@@ -923,6 +1035,15 @@ public class VertxImpl implements VertxInternal, MetricsProvider {
     return namedExec;
   }
 
+  private static ExecutorService createWorkerExecutorService(WorkerPoolType type, int poolSize, ThreadFactory threadFactory) {
+    switch (type) {
+      case WORK_STEALING:
+        return new WorkStealingExecutorService(poolSize, threadFactory);
+      default:
+        return Executors.newFixedThreadPool(poolSize, threadFactory);
+    }
+  }
+
   synchronized void releaseWorkerExecutor(String name) {
     namedWorkerPools.remove(name);
   }
@@ -17,15 +17,18 @@
 package io.vertx.core.impl;
 
 
+import io.netty.channel.EventLoop;
 import io.netty.channel.EventLoopGroup;
 import io.vertx.core.AsyncResult;
 import io.vertx.core.Handler;
 import io.vertx.core.Vertx;
 import io.vertx.core.WorkerExecutor;
+import io.vertx.core.WorkerPoolType;
 import io.vertx.core.http.impl.HttpServerImpl;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.net.impl.NetServerImpl;
 import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.net.impl.transport.Transport;
 import io.vertx.core.spi.cluster.ClusterManager;
 import io.vertx.core.spi.metrics.VertxMetrics;
 
@@ -50,6 +53,11 @@ public interface VertxInternal extends Vertx {
 
   EventLoopGroup getAcceptorEventLoopGroup();
 
+  /**
+   * @return the transport used by this instance
+   */
+  Transport transport();
+
   ExecutorService getWorkerPool();
 
   Map<ServerID, HttpServerImpl> sharedHttpServers();
@@ -64,6 +72,21 @@ public interface VertxInternal extends Vertx {
 	 */
 	ContextImpl getContext();
 
+  /**
+   * Like {@link #setTimer(long, Handler)} but the timer fires on the {@code context} instead of the current context.
+   */
+  long setTimer(ContextImpl context, long delay, Handler<Long> handler);
+
+  /**
+   * @return the event loop of a new context
+   */
+  EventLoop nextEventLoop();
+
+  /**
+   * @return the load of the {@code eventLoop} when the event loops are chosen by their load, otherwise {@code -1}
+   */
+  int getEventLoopLoad(EventLoop eventLoop);
+
   /**
    * @return event loop context
    */
@@ -74,6 +97,11 @@ public interface VertxInternal extends Vertx {
    */
   ContextImpl createWorkerContext(boolean multiThreaded, String deploymentID, WorkerPool pool, JsonObject config, ClassLoader tccl);
 
+  /**
+   * @return virtual thread context, it uses the {@code pool} when the JVM does not support virtual threads
+   */
+  VirtualThreadContext createVirtualThreadContext(String deploymentID, WorkerPool pool, JsonObject config, ClassLoader tccl);
+
   @Override
   NamedWorkerExecutor createWorkerExecutor(String name);
 
@@ -83,6 +111,12 @@ public interface VertxInternal extends Vertx {
   @Override
   NamedWorkerExecutor createWorkerExecutor(String name, int poolSize, long maxExecuteTime);
 
+  /**
+   * Like {@link #createWorkerExecutor(String, int)} but with the {@code poolType} of the pool when it is created,
+   * {@code null} for the {@link io.vertx.core.VertxOptions#getWorkerPoolType()}.
+   */
+  NamedWorkerExecutor createWorkerExecutor(String name, int poolSize, WorkerPoolType poolType);
+
   void simulateKill();
 
   Deployment getDeployment(String deploymentID);
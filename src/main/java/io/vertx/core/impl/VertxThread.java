@@ -27,6 +27,8 @@ final class VertxThread extends FastThreadLocalThread {
   private final long maxExecTime;
   private long execStart;
   private ContextImpl context;
+  // The probe of the event loop of this thread when the event loop is measured
+  private EventLoopProbe probe;
 
   public VertxThread(Runnable target, String name, boolean worker, long maxExecTime) {
     super(target, name);
@@ -42,6 +44,14 @@ final class VertxThread extends FastThreadLocalThread {
     this.context = context;
   }
 
+  EventLoopProbe probe() {
+    return probe;
+  }
+
+  void setProbe(EventLoopProbe probe) {
+    this.probe = probe;
+  }
+
   public final void executeStart() {
     execStart = System.nanoTime();
   }
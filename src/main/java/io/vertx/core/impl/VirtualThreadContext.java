@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.Handler;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.metrics.PoolMetrics;
+
+/**
+ * A worker context executing its tasks on virtual threads.
+ * <p>
+ * The tasks are executed in order like a {@link WorkerContext}, the blocking code is executed on a virtual thread
+ * per call so it is not limited by the size of a worker pool. When the JVM does not support virtual threads, the
+ * context is created with a worker pool of platform threads and behaves as a {@link WorkerContext}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class VirtualThreadContext extends WorkerContext {
+
+  private final boolean virtualThreads;
+
+  public VirtualThreadContext(VertxInternal vertx, WorkerPool internalBlockingPool, WorkerPool workerPool,
+                              String deploymentID, JsonObject config, ClassLoader tccl) {
+    super(vertx, internalBlockingPool, workerPool, deploymentID, config, tccl);
+    this.virtualThreads = workerPool.executor() instanceof VirtualThreadExecutorService;
+  }
+
+  @Override
+  protected Runnable wrapTask(ContextTask cTask, Handler<Void> hTask, boolean checkThread, PoolMetrics metrics) {
+    if (!virtualThreads) {
+      return super.wrapTask(cTask, hTask, checkThread, metrics);
+    }
+    Object metric = metrics != null ? metrics.taskSubmitted() : null;
+    return () -> {
+      VirtualThreadExecutorService.Task task = VirtualThreadExecutorService.currentTask();
+      if (task == null) {
+        throw new IllegalStateException("Uh oh! Virtual thread context executing with wrong thread! Got " + Thread.currentThread());
+      }
+      if (!DISABLE_TIMINGS) {
+        task.executeStart();
+      }
+      try {
+        setContext(this);
+        runTask(cTask, hTask, metrics, metric);
+      } finally {
+        if (!DISABLE_TIMINGS) {
+          task.executeEnd();
+        }
+      }
+    };
+  }
+}
@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.impl;
+
+import io.vertx.core.logging.Logger;
+import io.vertx.core.logging.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An executor running each task on a new virtual thread.
+ * <p>
+ * A virtual thread can't be a {@link VertxThread}, the task running on the current virtual thread holds the
+ * context and the execution start time instead, it is checked by the {@link BlockedThreadChecker}.
+ * <p>
+ * The virtual threads are created by reflection so this class can be loaded by any JVM, {@link #isSupported()} is
+ * {@code false} when the JVM does not support them.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class VirtualThreadExecutorService extends AbstractExecutorService {
+
+  private static final Logger log = LoggerFactory.getLogger(VirtualThreadExecutorService.class);
+
+  private static final ThreadLocal<Task> current = new ThreadLocal<>();
+  private static final boolean supported = virtualThreadFactory("vert.x-virtual-thread-") != null;
+
+  /**
+   * @return whether the JVM supports virtual threads
+   */
+  static boolean isSupported() {
+    return supported;
+  }
+
+  /**
+   * @return the task running on the current virtual thread or {@code null}
+   */
+  static Task currentTask() {
+    return current.get();
+  }
+
+  private static ThreadFactory virtualThreadFactory(String prefix) {
+    try {
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefix, 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (Exception e) {
+      // Not supported or not enabled (preview feature)
+      return null;
+    }
+  }
+
+  private final ThreadFactory threadFactory;
+  private final BlockedThreadChecker checker;
+  private final long maxExecTime;
+  private final Set<Task> tasks = ConcurrentHashMap.newKeySet();
+  private volatile boolean shutdown;
+
+  VirtualThreadExecutorService(String prefix, BlockedThreadChecker checker, long maxExecTime) {
+    this.threadFactory = virtualThreadFactory(prefix);
+    if (threadFactory == null) {
+      throw new IllegalStateException("Virtual threads are not supported");
+    }
+    this.checker = checker;
+    this.maxExecTime = maxExecTime;
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Objects.requireNonNull(command);
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    Task task = new Task(command);
+    task.thread = threadFactory.newThread(task);
+    tasks.add(task);
+    task.thread.start();
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    for (Task task : tasks) {
+      task.thread.interrupt();
+    }
+    // The tasks are never queued
+    return new ArrayList<>();
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return shutdown && tasks.isEmpty();
+  }
+
+  @Override
+  public synchronized boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    long deadline = System.nanoTime() + unit.toNanos(timeout);
+    while (!isTerminated()) {
+      long remaining = deadline - System.nanoTime();
+      if (remaining <= 0) {
+        return false;
+      }
+      TimeUnit.NANOSECONDS.timedWait(this, remaining);
+    }
+    return true;
+  }
+
+  private synchronized void terminated() {
+    notifyAll();
+  }
+
+  /**
+   * A task running on its own virtual thread, it plays the role of the {@link VertxThread} for the context of the
+   * virtual thread.
+   */
+  class Task implements Runnable {
+
+    private final Runnable command;
+    private Thread thread;
+    private ContextImpl context;
+    private volatile long execStart;
+
+    private Task(Runnable command) {
+      this.command = command;
+    }
+
+    @Override
+    public void run() {
+      current.set(this);
+      checker.registerTask(this);
+      try {
+        command.run();
+      } catch (Throwable t) {
+        log.error("Unhandled exception", t);
+      } finally {
+        checker.unregisterTask(this);
+        current.remove();
+        tasks.remove(this);
+        if (shutdown && tasks.isEmpty()) {
+          terminated();
+        }
+      }
+    }
+
+    Thread thread() {
+      return thread;
+    }
+
+    ContextImpl getContext() {
+      return context;
+    }
+
+    void setContext(ContextImpl context) {
+      this.context = context;
+    }
+
+    void executeStart() {
+      execStart = System.nanoTime();
+    }
+
+    void executeEnd() {
+      execStart = 0;
+    }
+
+    long startTime() {
+      return execStart;
+    }
+
+    long getMaxExecTime() {
+      return maxExecTime;
+    }
+  }
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A fixed size executor with a lock-free queue per thread.
+ * <p>
+ * A task is added to the queue of the thread chosen by the id of the submitting thread, so the threads submitting
+ * concurrently don't contend on a single queue. A thread executes the tasks of its queue and steals the tasks of the
+ * other queues when its queue is empty, it parks when all the queues are empty. The threads are created with the
+ * thread factory so they are {@link VertxThread}s, unlike the threads of a {@code ForkJoinPool}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class WorkStealingExecutorService extends AbstractExecutorService {
+
+  private final Worker[] workers;
+  private final Queue<Worker> idleWorkers = new ConcurrentLinkedQueue<>();
+  private final CountDownLatch terminated;
+  private volatile boolean shutdown;
+  private volatile boolean stopped;
+
+  WorkStealingExecutorService(int size, ThreadFactory threadFactory) {
+    workers = new Worker[size];
+    terminated = new CountDownLatch(size);
+    for (int i = 0; i < size; i++) {
+      workers[i] = new Worker(i);
+      workers[i].thread = threadFactory.newThread(workers[i]);
+    }
+    for (Worker worker : workers) {
+      worker.thread.start();
+    }
+  }
+
+  @Override
+  public void execute(Runnable command) {
+    Objects.requireNonNull(command);
+    if (shutdown) {
+      throw new RejectedExecutionException("Executor has been shut down");
+    }
+    workers[(int) (Thread.currentThread().getId() % workers.length)].tasks.add(command);
+    signal();
+  }
+
+  // Wake up an idle worker, if any
+  private void signal() {
+    Worker idle = idleWorkers.poll();
+    if (idle != null) {
+      LockSupport.unpark(idle.thread);
+    }
+  }
+
+  @Override
+  public void shutdown() {
+    shutdown = true;
+    for (Worker worker : workers) {
+      LockSupport.unpark(worker.thread);
+    }
+  }
+
+  @Override
+  public List<Runnable> shutdownNow() {
+    shutdown = true;
+    stopped = true;
+    for (Worker worker : workers) {
+      worker.thread.interrupt();
+    }
+    List<Runnable> tasks = new ArrayList<>();
+    for (Worker worker : workers) {
+      Runnable task;
+      while ((task = worker.tasks.poll()) != null) {
+        tasks.add(task);
+      }
+    }
+    return tasks;
+  }
+
+  @Override
+  public boolean isShutdown() {
+    return shutdown;
+  }
+
+  @Override
+  public boolean isTerminated() {
+    return terminated.getCount() == 0;
+  }
+
+  @Override
+  public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+    return terminated.await(timeout, unit);
+  }
+
+  private class Worker implements Runnable {
+
+    private final int index;
+    private final Queue<Runnable> tasks = new ConcurrentLinkedQueue<>();
+    private Thread thread;
+
+    Worker(int index) {
+      this.index = index;
+    }
+
+    @Override
+    public void run() {
+      try {
+        while (!stopped) {
+          Runnable task = next();
+          if (task == null) {
+            idleWorkers.add(this);
+            // A task added before this worker became idle did not wake it up
+            task = next();
+            if (task == null) {
+              if (shutdown) {
+                break;
+              }
+              LockSupport.park(this);
+              idleWorkers.remove(this);
+              continue;
+            }
+            if (!idleWorkers.remove(this)) {
+              // This worker has been woken up for another task
+              signal();
+            }
+          }
+          execute(task);
+        }
+      } finally {
+        idleWorkers.remove(this);
+        terminated.countDown();
+      }
+    }
+
+    // The next task of this worker queue or stolen from another queue
+    private Runnable next() {
+      Runnable task = tasks.poll();
+      for (int i = 1; task == null && i < workers.length; i++) {
+        task = workers[(index + i) % workers.length].tasks.poll();
+      }
+      return task;
+    }
+
+    private void execute(Runnable task) {
+      if (!stopped) {
+        // Like a thread pool executor, the interrupt of a task does not leak to the next task
+        Thread.interrupted();
+      }
+      try {
+        task.run();
+      } catch (Throwable t) {
+        Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+        if (handler != null) {
+          handler.uncaughtException(thread, t);
+        }
+      }
+    }
+  }
+}
@@ -0,0 +1,148 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.metrics.impl;
+
+import io.vertx.core.json.JsonArray;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.spi.metrics.EventLoopMetrics;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A lightweight {@link EventLoopMetrics} that a metrics implementation can return for its event loops.
+ * <p>
+ * The durations are counted in histograms of {@link #BUCKETS} power of two buckets: the bucket {@code i} counts the
+ * durations between {@code 2^i} and {@code 2^(i+1)} ns. The metrics are only updated by the event loop thread, they
+ * can be read from any thread.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class DefaultEventLoopMetrics implements EventLoopMetrics {
+
+  public static final int BUCKETS = 64;
+
+  private final String name;
+  private final AtomicLongArray schedulingDelays = new AtomicLongArray(BUCKETS);
+  private final AtomicLongArray executionTimes = new AtomicLongArray(BUCKETS);
+  private final AtomicLong ioTime = new AtomicLong();
+  private final AtomicLong taskTime = new AtomicLong();
+  private volatile int pendingTasks;
+  private volatile boolean closed;
+
+  public DefaultEventLoopMetrics(String name) {
+    this.name = name;
+  }
+
+  private static void record(AtomicLongArray histogram, long duration) {
+    int bucket = 63 - Long.numberOfLeadingZeros(Math.max(duration, 1));
+    // Single writer
+    histogram.lazySet(bucket, histogram.get(bucket) + 1);
+  }
+
+  private static long[] snapshot(AtomicLongArray histogram) {
+    long[] counts = new long[BUCKETS];
+    for (int i = 0; i < BUCKETS; i++) {
+      counts[i] = histogram.get(i);
+    }
+    return counts;
+  }
+
+  @Override
+  public void pendingTasks(int count) {
+    pendingTasks = count;
+  }
+
+  @Override
+  public void taskScheduled(long delay) {
+    record(schedulingDelays, delay);
+  }
+
+  @Override
+  public void taskExecuted(long duration, boolean io) {
+    record(executionTimes, duration);
+    AtomicLong time = io ? ioTime : taskTime;
+    time.lazySet(time.get() + duration);
+  }
+
+  /**
+   * @return the name of the event loop
+   */
+  public String getName() {
+    return name;
+  }
+
+  /**
+   * @return the last sampled number of pending tasks
+   */
+  public int getPendingTasks() {
+    return pendingTasks;
+  }
+
+  /**
+   * @return the histogram of the scheduling delays
+   */
+  public long[] getSchedulingDelays() {
+    return snapshot(schedulingDelays);
+  }
+
+  /**
+   * @return the histogram of the execution times of the sampled tasks
+   */
+  public long[] getExecutionTimes() {
+    return snapshot(executionTimes);
+  }
+
+  /**
+   * @return the ratio of the execution time of the sampled tasks spent handling I/O, between {@code 0} and {@code 1}
+   */
+  public double getIoRatio() {
+    long io = ioTime.get();
+    long total = io + taskTime.get();
+    return total == 0 ? 0 : (double) io / total;
+  }
+
+  /**
+   * @return a snapshot of the metrics as JSON
+   */
+  public JsonObject toJson() {
+    return new JsonObject()
+      .put("name", name)
+      .put("pendingTasks", getPendingTasks())
+      .put("schedulingDelays", toJson(getSchedulingDelays()))
+      .put("executionTimes", toJson(getExecutionTimes()))
+      .put("ioRatio", getIoRatio());
+  }
+
+  private static JsonArray toJson(long[] histogram) {
+    JsonArray array = new JsonArray();
+    for (long count : histogram) {
+      array.add(count);
+    }
+    return array;
+  }
+
+  @Override
+  public boolean isEnabled() {
+    return !closed;
+  }
+
+  @Override
+  public void close() {
+    closed = true;
+  }
+}
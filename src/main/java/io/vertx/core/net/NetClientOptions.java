@@ -124,6 +124,30 @@ public class NetClientOptions extends ClientOptionsBase {
     return this;
   }
 
+  @Override
+  public NetClientOptions setReusePort(boolean reusePort) {
+    super.setReusePort(reusePort);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setEdgeTriggered(boolean edgeTriggered) {
+    super.setEdgeTriggered(edgeTriggered);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setTcpFastOpen(boolean tcpFastOpen) {
+    super.setTcpFastOpen(tcpFastOpen);
+    return this;
+  }
+
+  @Override
+  public NetClientOptions setTcpQuickAck(boolean tcpQuickAck) {
+    super.setTcpQuickAck(tcpQuickAck);
+    return this;
+  }
+
   @Override
   public NetClientOptions setSoLinger(int soLinger) {
     super.setSoLinger(soLinger);
@@ -47,10 +47,22 @@ public abstract class NetworkOptions {
    */
   public static final boolean DEFAULT_REUSE_ADDRESS = true;
 
+  /**
+   * The default value of reuse port = false
+   */
+  public static final boolean DEFAULT_REUSE_PORT = false;
+
+  /**
+   * The default value of edge triggered = true
+   */
+  public static final boolean DEFAULT_EDGE_TRIGGERED = true;
+
   private int sendBufferSize;
   private int receiveBufferSize;
   private int trafficClass;
   private boolean reuseAddress;
+  private boolean reusePort;
+  private boolean edgeTriggered;
 
   /**
    * Default constructor
@@ -60,6 +72,8 @@ public abstract class NetworkOptions {
     receiveBufferSize = DEFAULT_RECEIVE_BUFFER_SIZE;
     reuseAddress = DEFAULT_REUSE_ADDRESS;
     trafficClass = DEFAULT_TRAFFIC_CLASS;
+    reusePort = DEFAULT_REUSE_PORT;
+    edgeTriggered = DEFAULT_EDGE_TRIGGERED;
   }
 
   /**
@@ -72,6 +86,8 @@ public abstract class NetworkOptions {
     this.receiveBufferSize = other.getReceiveBufferSize();
     this.reuseAddress = other.isReuseAddress();
     this.trafficClass = other.getTrafficClass();
+    this.reusePort = other.isReusePort();
+    this.edgeTriggered = other.isEdgeTriggered();
   }
 
   /**
@@ -143,6 +159,49 @@ public abstract class NetworkOptions {
     return this;
   }
 
+  /**
+   * @return  the value of reuse port
+   */
+  public boolean isReusePort() {
+    return reusePort;
+  }
+
+  /**
+   * Set the value of reuse port.
+   * <p/>
+   * This is only supported by the native transport, it is ignored by the JDK transport.
+   * <p/>
+   * When set on a server listening on a fixed port, each event loop with a listening instance of the server
+   * binds its own server socket instead of sharing a single acceptor, the kernel spreads the connections across them.
+   *
+   * @param reusePort  the value of reuse port
+   * @return a reference to this, so the API can be used fluently
+   */
+  public NetworkOptions setReusePort(boolean reusePort) {
+    this.reusePort = reusePort;
+    return this;
+  }
+
+  /**
+   * @return  whether the native transport uses edge triggered mode
+   */
+  public boolean isEdgeTriggered() {
+    return edgeTriggered;
+  }
+
+  /**
+   * Set whether the native transport uses edge triggered or level triggered mode.
+   * <p/>
+   * This is only supported by the native transport, it is ignored by the JDK transport.
+   *
+   * @param edgeTriggered  true for edge triggered mode, false for level triggered mode
+   * @return a reference to this, so the API can be used fluently
+   */
+  public NetworkOptions setEdgeTriggered(boolean edgeTriggered) {
+    this.edgeTriggered = edgeTriggered;
+    return this;
+  }
+
   /**
    * @return  the value of traffic class
    */
@@ -171,6 +230,8 @@ public abstract class NetworkOptions {
 
     if (receiveBufferSize != that.receiveBufferSize) return false;
     if (reuseAddress != that.reuseAddress) return false;
+    if (reusePort != that.reusePort) return false;
+    if (edgeTriggered != that.edgeTriggered) return false;
     if (sendBufferSize != that.sendBufferSize) return false;
     if (trafficClass != that.trafficClass) return false;
 
@@ -183,6 +244,8 @@ public abstract class NetworkOptions {
     result = 31 * result + receiveBufferSize;
     result = 31 * result + trafficClass;
     result = 31 * result + (reuseAddress ? 1 : 0);
+    result = 31 * result + (reusePort ? 1 : 0);
+    result = 31 * result + (edgeTriggered ? 1 : 0);
     return result;
   }
 }
@@ -65,6 +65,16 @@ public abstract class TCPSSLOptions extends NetworkOptions {
    */
   public static final boolean DEFAULT_USE_ALPN = false;
 
+  /**
+   * The default value of TCP fast open = false
+   */
+  public static final boolean DEFAULT_TCP_FAST_OPEN = false;
+
+  /**
+   * The default value of TCP quick ack = false
+   */
+  public static final boolean DEFAULT_TCP_QUICKACK = false;
+
    /**
     * Default SSL engine = JDK
     */
@@ -85,6 +95,8 @@ public abstract class TCPSSLOptions extends NetworkOptions {
   private boolean useAlpn;
   private SSLEngine sslEngine;
   private Set<String> enabledSecureTransportProtocols = new HashSet<>();
+  private boolean tcpFastOpen;
+  private boolean tcpQuickAck;
 
   /**
    * Default constructor
@@ -115,6 +127,8 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     this.useAlpn = other.useAlpn;
     this.sslEngine = other.sslEngine;
     this.enabledSecureTransportProtocols = other.getEnabledSecureTransportProtocols() == null ? new HashSet<>() : new HashSet<>(other.getEnabledSecureTransportProtocols());
+    this.tcpFastOpen = other.isTcpFastOpen();
+    this.tcpQuickAck = other.isTcpQuickAck();
   }
 
   /**
@@ -139,6 +153,8 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     crlValues = new ArrayList<>();
     useAlpn = DEFAULT_USE_ALPN;
     sslEngine = DEFAULT_SSL_ENGINE;
+    tcpFastOpen = DEFAULT_TCP_FAST_OPEN;
+    tcpQuickAck = DEFAULT_TCP_QUICKACK;
   }
 
   /**
@@ -177,6 +193,42 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     return this;
   }
 
+  /**
+   * @return is TCP fast open enabled?
+   */
+  public boolean isTcpFastOpen() {
+    return tcpFastOpen;
+  }
+
+  /**
+   * Set whether TCP fast open is enabled, it is only supported by the native transport and by servers.
+   *
+   * @param tcpFastOpen true if TCP fast open is enabled
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TCPSSLOptions setTcpFastOpen(boolean tcpFastOpen) {
+    this.tcpFastOpen = tcpFastOpen;
+    return this;
+  }
+
+  /**
+   * @return is TCP quick ack enabled?
+   */
+  public boolean isTcpQuickAck() {
+    return tcpQuickAck;
+  }
+
+  /**
+   * Set whether TCP quick ack is enabled, it is only supported by the native transport.
+   *
+   * @param tcpQuickAck true if TCP quick ack is enabled
+   * @return a reference to this, so the API can be used fluently
+   */
+  public TCPSSLOptions setTcpQuickAck(boolean tcpQuickAck) {
+    this.tcpQuickAck = tcpQuickAck;
+    return this;
+  }
+
   /**
    *
    * @return is SO_linger enabled
@@ -461,6 +513,8 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     if (ssl != that.ssl) return false;
     if (tcpKeepAlive != that.tcpKeepAlive) return false;
     if (tcpNoDelay != that.tcpNoDelay) return false;
+    if (tcpFastOpen != that.tcpFastOpen) return false;
+    if (tcpQuickAck != that.tcpQuickAck) return false;
     if (usePooledBuffers != that.usePooledBuffers) return false;
     if (crlPaths != null ? !crlPaths.equals(that.crlPaths) : that.crlPaths != null) return false;
     if (crlValues != null ? !crlValues.equals(that.crlValues) : that.crlValues != null) return false;
@@ -480,6 +534,8 @@ public abstract class TCPSSLOptions extends NetworkOptions {
     int result = super.hashCode();
     result = 31 * result + (tcpNoDelay ? 1 : 0);
     result = 31 * result + (tcpKeepAlive ? 1 : 0);
+    result = 31 * result + (tcpFastOpen ? 1 : 0);
+    result = 31 * result + (tcpQuickAck ? 1 : 0);
     result = 31 * result + soLinger;
     result = 31 * result + (usePooledBuffers ? 1 : 0);
     result = 31 * result + idleTimeout;
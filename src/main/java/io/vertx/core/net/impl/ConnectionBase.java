@@ -125,6 +125,13 @@ public abstract class ConnectionBase {
     return !channel.isWritable();
   }
 
+  /**
+   * @return the Netty channel of this connection, writing to it bypasses the connection write batching
+   */
+  public Channel channel() {
+    return channel;
+  }
+
   /**
    * Close the connection
    */
@@ -21,7 +21,6 @@ import io.netty.channel.*;
 import io.netty.channel.group.ChannelGroup;
 import io.netty.channel.group.ChannelGroupFuture;
 import io.netty.channel.group.DefaultChannelGroup;
-import io.netty.channel.socket.nio.NioServerSocketChannel;
 import io.netty.handler.ssl.SslHandler;
 import io.netty.handler.stream.ChunkedWriteHandler;
 import io.netty.handler.timeout.IdleStateHandler;
@@ -64,8 +63,8 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
   private final ContextImpl creatingContext;
   private final SSLHelper sslHelper;
   private final Map<Channel, NetSocketImpl> socketMap = new ConcurrentHashMap<>();
-  private final VertxEventLoopGroup availableWorkers = new VertxEventLoopGroup();
-  private final HandlerManager<Handler<NetSocket>> handlerManager = new HandlerManager<>(availableWorkers);
+  private final VertxEventLoopGroup availableWorkers;
+  private final HandlerManager<Handler<NetSocket>> handlerManager;
   private final Queue<Runnable> bindListeners = new LinkedList<>();
   private final NetSocketStreamImpl connectStream = new NetSocketStreamImpl();
   private ChannelGroup serverChannelGroup;
@@ -73,6 +72,7 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
   private volatile ServerID id;
   private NetServerImpl actualServer;
   private AsyncResolveBindConnectHelper bindFuture;
+  private ReusePortAcceptors acceptors;
   private volatile int actualPort;
   private ContextImpl listenContext;
   private TCPMetrics metrics;
@@ -80,6 +80,8 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
   public NetServerImpl(VertxInternal vertx, NetServerOptions options) {
     this.vertx = vertx;
     this.options = new NetServerOptions(options);
+    this.availableWorkers = new VertxEventLoopGroup(vertx::getEventLoopLoad);
+    this.handlerManager = new HandlerManager<>(availableWorkers);
     this.sslHelper = new SSLHelper(options, KeyStoreHelper.create(vertx, options.getKeyCertOptions()), KeyStoreHelper.create(vertx, options.getTrustOptions()));
     this.creatingContext = vertx.getContext();
     if (creatingContext != null) {
@@ -148,12 +150,17 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
       this.actualPort = port; // Will be updated on bind for a wildcard port
       id = new ServerID(port, host);
       NetServerImpl shared = vertx.sharedNetServers().get(id);
+      AsyncResolveBindConnectHelper listenFuture;
       if (shared == null || port == 0) { // Wildcard port will imply a new actual server each time
         serverChannelGroup = new DefaultChannelGroup("vertx-acceptor-channels", GlobalEventExecutor.INSTANCE);
 
+        // With SO_REUSEPORT each event loop binds its own server channel instead of sharing a single acceptor
+        boolean reusePort = port != 0 && options.isReusePort() && vertx.isNativeTransportEnabled();
         ServerBootstrap bootstrap = new ServerBootstrap();
-        bootstrap.group(availableWorkers);
-        bootstrap.channel(NioServerSocketChannel.class);
+        if (!reusePort) {
+          bootstrap.group(availableWorkers);
+        }
+        bootstrap.channel(vertx.transport().serverChannelType());
         sslHelper.validate(vertx);
 
         bootstrap.childHandler(new ChannelInitializer<Channel>() {
@@ -186,7 +193,12 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
         }
 
         try {
-          bindFuture = AsyncResolveBindConnectHelper.doBind(vertx, port, host, bootstrap);
+          if (reusePort) {
+            acceptors = new ReusePortAcceptors(vertx, bootstrap, serverChannelGroup);
+            bindFuture = acceptors.bind(listenContext.nettyEventLoop(), port, host);
+          } else {
+            bindFuture = AsyncResolveBindConnectHelper.doBind(vertx, port, host, bootstrap);
+          }
           bindFuture.addListener(res -> {
             if (res.succeeded()) {
               Channel ch = res.result();
@@ -217,6 +229,7 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
           vertx.sharedNetServers().put(id, this);
         }
         actualServer = this;
+        listenFuture = bindFuture;
       } else {
         // Server already exists with that host/port - we will use that
         actualServer = shared;
@@ -225,10 +238,16 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
         if (connectStream.handler() != null) {
           actualServer.handlerManager.addHandler(connectStream.handler(), listenContext);
         }
+        if (actualServer.acceptors != null) {
+          // Bind the server channel of this event loop
+          listenFuture = actualServer.acceptors.bind(listenContext.nettyEventLoop(), port, host);
+        } else {
+          listenFuture = actualServer.bindFuture;
+        }
       }
 
       // just add it to the future so it gets notified once the bind is complete
-      actualServer.bindFuture.addListener(res -> {
+      listenFuture.addListener(res -> {
         if (listenHandler != null) {
           AsyncResult<NetServer> ares;
           if (res.succeeded()) {
@@ -286,6 +305,9 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
 
       if (actualServer != null) {
         actualServer.handlerManager.removeHandler(connectStream.handler(), listenContext);
+        if (actualServer.acceptors != null) {
+          actualServer.acceptors.release(listenContext.nettyEventLoop());
+        }
 
         if (actualServer.handlerManager.hasHandlers()) {
           // The actual server still has handlers so we don't actually close it
@@ -342,6 +364,7 @@ public class NetServerImpl implements NetServer, Closeable, MetricsProvider {
     if (options.getAcceptBacklog() != -1) {
       bootstrap.option(ChannelOption.SO_BACKLOG, options.getAcceptBacklog());
     }
+    vertx.transport().configure(options, bootstrap);
   }
 
   private void actualClose(ContextImpl closeContext, Handler<AsyncResult<Void>> done) {
@@ -0,0 +1,113 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl;
+
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.EventLoop;
+import io.netty.channel.group.ChannelGroup;
+import io.vertx.core.impl.VertxInternal;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The server channels of a shared server listening with {@code SO_REUSEPORT}.
+ * <p>
+ * Instead of a single acceptor handing out the accepted channels to the workers, each event loop having handlers
+ * binds its own server channel on the same port and handles the channels it accepts, the kernel balances the
+ * connections between the server channels.
+ * <p>
+ * This class is thread-safe.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ReusePortAcceptors {
+
+  private final VertxInternal vertx;
+  private final ServerBootstrap bootstrap;
+  private final ChannelGroup serverChannelGroup;
+  private final Map<EventLoop, Acceptor> acceptors = new HashMap<>();
+
+  /**
+   * @param vertx the vertx instance
+   * @param bootstrap the configured bootstrap without event loop group, it is cloned for each event loop
+   * @param serverChannelGroup the group the bound server channels are added to
+   */
+  public ReusePortAcceptors(VertxInternal vertx, ServerBootstrap bootstrap, ChannelGroup serverChannelGroup) {
+    this.vertx = vertx;
+    this.bootstrap = bootstrap;
+    this.serverChannelGroup = serverChannelGroup;
+  }
+
+  /**
+   * Bind the server channel of an event loop, when the event loop has already bound its channel it is reused.
+   *
+   * @param eventLoop the event loop accepting and handling the connections
+   * @return the bind result
+   */
+  public synchronized AsyncResolveBindConnectHelper bind(EventLoop eventLoop, int port, String host) {
+    Acceptor acceptor = acceptors.get(eventLoop);
+    if (acceptor == null) {
+      AsyncResolveBindConnectHelper future = AsyncResolveBindConnectHelper.doBind(vertx, port, host, bootstrap.clone().group(eventLoop));
+      Acceptor created = acceptor = new Acceptor(future);
+      acceptors.put(eventLoop, acceptor);
+      future.addListener(res -> {
+        if (res.succeeded()) {
+          serverChannelGroup.add(res.result());
+        } else {
+          synchronized (ReusePortAcceptors.this) {
+            acceptors.remove(eventLoop, created);
+          }
+        }
+      });
+    }
+    acceptor.count++;
+    return acceptor.future;
+  }
+
+  /**
+   * Release the server channel of an event loop, it is closed when it is not used anymore.
+   *
+   * @param eventLoop the event loop
+   */
+  public synchronized void release(EventLoop eventLoop) {
+    Acceptor acceptor = acceptors.get(eventLoop);
+    if (acceptor != null && --acceptor.count == 0) {
+      acceptors.remove(eventLoop);
+      acceptor.future.addListener(res -> {
+        if (res.succeeded()) {
+          res.result().close();
+        }
+      });
+    }
+  }
+
+  /**
+   * @return the number of bound or binding server channels
+   */
+  public synchronized int size() {
+    return acceptors.size();
+  }
+
+  private static class Acceptor {
+    final AsyncResolveBindConnectHelper future;
+    int count;
+    Acceptor(AsyncResolveBindConnectHelper future) {
+      this.future = future;
+    }
+  }
+}
@@ -18,6 +18,7 @@ package io.vertx.core.net.impl;
 
 import io.netty.channel.*;
 import io.netty.util.concurrent.*;
+import io.vertx.core.impl.LoadAwareEventLoopChooser;
 
 import java.util.AbstractSet;
 import java.util.ArrayList;
@@ -29,6 +30,7 @@ import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToIntFunction;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -41,16 +43,35 @@ public final class VertxEventLoopGroup extends AbstractEventExecutorGroup implem
   private final CountDownLatch latch = new CountDownLatch(1);
   private final AtomicBoolean gracefulShutdown = new AtomicBoolean();
   private final Promise<?> terminationFuture = new DefaultPromise<Void>(GlobalEventExecutor.INSTANCE);
+  private final ToIntFunction<EventLoop> load;
+
+  public VertxEventLoopGroup() {
+    this(null);
+  }
+
+  /**
+   * Create a group choosing the least loaded of the next worker and of another worker at random, see
+   * {@link LoadAwareEventLoopChooser#choose}. The workers are chosen in turn when the load of an event loop is negative.
+   *
+   * @param load the load of an event loop, {@code null} to choose the workers in turn
+   */
+  public VertxEventLoopGroup(ToIntFunction<EventLoop> load) {
+    this.load = load;
+  }
 
   @Override
   public synchronized EventLoop next() {
     if (workers.isEmpty()) {
       throw new IllegalStateException();
     } else {
-      EventLoop worker = workers.get(pos).worker;
+      int first = pos;
       pos++;
       checkPos();
-      return worker;
+      int chosen = first;
+      if (load != null) {
+        chosen = LoadAwareEventLoopChooser.choose(first, workers.size(), i -> load.applyAsInt(workers.get(i).worker));
+      }
+      return workers.get(chosen).worker;
     }
   }
 
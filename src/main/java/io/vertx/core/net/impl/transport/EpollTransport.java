@@ -0,0 +1,131 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.epoll.Epoll;
+import io.netty.channel.epoll.EpollChannelOption;
+import io.netty.channel.epoll.EpollDatagramChannel;
+import io.netty.channel.epoll.EpollEventLoopGroup;
+import io.netty.channel.epoll.EpollMode;
+import io.netty.channel.epoll.EpollServerSocketChannel;
+import io.netty.channel.epoll.EpollSocketChannel;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.net.ClientOptionsBase;
+import io.vertx.core.net.NetServerOptions;
+import io.vertx.core.net.NetworkOptions;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The Linux epoll native transport.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+class EpollTransport extends Transport {
+
+  /**
+   * The queue length of pending TCP fast open requests used when {@link NetServerOptions#isTcpFastOpen()} is set.
+   */
+  private static final int PENDING_FAST_OPEN_REQUESTS_THRESHOLD = Integer.getInteger("vertx.tcpFastOpenPendingRequests", 256);
+
+  EpollTransport() {
+  }
+
+  @Override
+  public boolean isAvailable() {
+    return Epoll.isAvailable();
+  }
+
+  @Override
+  public Throwable unavailabilityCause() {
+    return Epoll.unavailabilityCause();
+  }
+
+  @Override
+  public EventLoopGroup eventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio) {
+    EpollEventLoopGroup eventLoopGroup = new EpollEventLoopGroup(nThreads, threadFactory);
+    eventLoopGroup.setIoRatio(ioRatio);
+    return eventLoopGroup;
+  }
+
+  @Override
+  public DatagramChannel datagramChannel() {
+    return new EpollDatagramChannel();
+  }
+
+  @Override
+  public DatagramChannel datagramChannel(InternetProtocolFamily family) {
+    // Epoll datagram sockets are dual stack
+    return new EpollDatagramChannel();
+  }
+
+  @Override
+  public Class<? extends DatagramChannel> datagramChannelType() {
+    return EpollDatagramChannel.class;
+  }
+
+  @Override
+  public Class<? extends Channel> channelType() {
+    return EpollSocketChannel.class;
+  }
+
+  @Override
+  public Class<? extends ServerChannel> serverChannelType() {
+    return EpollServerSocketChannel.class;
+  }
+
+  @Override
+  public void configure(DatagramChannel channel, DatagramSocketOptions options) {
+    channel.config().setOption(EpollChannelOption.SO_REUSEPORT, options.isReusePort());
+    channel.config().setOption(EpollChannelOption.EPOLL_MODE, epollMode(options));
+  }
+
+  @Override
+  public void configure(ClientOptionsBase options, Bootstrap bootstrap) {
+    bootstrap.option(EpollChannelOption.EPOLL_MODE, epollMode(options));
+    if (options.isReusePort()) {
+      bootstrap.option(EpollChannelOption.SO_REUSEPORT, true);
+    }
+    if (options.isTcpQuickAck()) {
+      bootstrap.option(EpollChannelOption.TCP_QUICKACK, true);
+    }
+  }
+
+  @Override
+  public void configure(NetServerOptions options, ServerBootstrap bootstrap) {
+    bootstrap.option(EpollChannelOption.EPOLL_MODE, epollMode(options));
+    bootstrap.childOption(EpollChannelOption.EPOLL_MODE, epollMode(options));
+    bootstrap.option(EpollChannelOption.SO_REUSEPORT, options.isReusePort());
+    if (options.isTcpFastOpen()) {
+      bootstrap.option(EpollChannelOption.TCP_FASTOPEN, PENDING_FAST_OPEN_REQUESTS_THRESHOLD);
+    }
+    if (options.isTcpQuickAck()) {
+      bootstrap.childOption(EpollChannelOption.TCP_QUICKACK, true);
+    }
+  }
+
+  private static EpollMode epollMode(NetworkOptions options) {
+    return options.isEdgeTriggered() ? EpollMode.EDGE_TRIGGERED : EpollMode.LEVEL_TRIGGERED;
+  }
+}
@@ -0,0 +1,157 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.net.impl.transport;
+
+import io.netty.bootstrap.Bootstrap;
+import io.netty.bootstrap.ServerBootstrap;
+import io.netty.channel.Channel;
+import io.netty.channel.ChannelFactory;
+import io.netty.channel.EventLoopGroup;
+import io.netty.channel.ServerChannel;
+import io.netty.channel.nio.NioEventLoopGroup;
+import io.netty.channel.socket.DatagramChannel;
+import io.netty.channel.socket.InternetProtocolFamily;
+import io.netty.channel.socket.nio.NioDatagramChannel;
+import io.netty.channel.socket.nio.NioServerSocketChannel;
+import io.netty.channel.socket.nio.NioSocketChannel;
+import io.vertx.core.datagram.DatagramSocketOptions;
+import io.vertx.core.net.ClientOptionsBase;
+import io.vertx.core.net.NetServerOptions;
+
+import java.util.concurrent.ThreadFactory;
+
+/**
+ * The transport used by a {@link io.vertx.core.Vertx} instance: it creates the event loop groups and provides the
+ * channel types of the whole networking stack.
+ * <p>
+ * This class is the JDK (NIO) transport, it is always available. A native transport can be obtained with
+ * {@link #nativeTransport()}.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class Transport {
+
+  /**
+   * The JDK transport, always there.
+   */
+  public static final Transport JDK = new Transport();
+
+  /**
+   * The native transport, it may be {@code null} or failed.
+   */
+  public static Transport nativeTransport() {
+    try {
+      EpollTransport transport = new EpollTransport();
+      // Force the loading of the native transport classes
+      transport.isAvailable();
+      return transport;
+    } catch (Throwable ignore) {
+      // Jar not here
+      return null;
+    }
+  }
+
+  protected Transport() {
+  }
+
+  /**
+   * @return true when the transport is available.
+   */
+  public boolean isAvailable() {
+    return true;
+  }
+
+  /**
+   * @return the error that caused the unavailability when {@link #isAvailable()} returns {@code false}.
+   */
+  public Throwable unavailabilityCause() {
+    return null;
+  }
+
+  /**
+   * @param nThreads the number of threads that will be used by this instance
+   * @param threadFactory the ThreadFactory to use
+   * @param ioRatio the IO ratio
+   * @return a new event loop group
+   */
+  public EventLoopGroup eventLoopGroup(int nThreads, ThreadFactory threadFactory, int ioRatio) {
+    NioEventLoopGroup eventLoopGroup = new NioEventLoopGroup(nThreads, threadFactory);
+    eventLoopGroup.setIoRatio(ioRatio);
+    return eventLoopGroup;
+  }
+
+  /**
+   * @return a new datagram channel
+   */
+  public DatagramChannel datagramChannel() {
+    return new NioDatagramChannel();
+  }
+
+  /**
+   * @param family the protocol family, native transports may ignore it
+   * @return a new datagram channel
+   */
+  public DatagramChannel datagramChannel(InternetProtocolFamily family) {
+    return new NioDatagramChannel(family);
+  }
+
+  /**
+   * @return the type for datagram channels
+   */
+  public Class<? extends DatagramChannel> datagramChannelType() {
+    return NioDatagramChannel.class;
+  }
+
+  /**
+   * @return the factory for datagram channels
+   */
+  public ChannelFactory<? extends DatagramChannel> datagramChannelFactory() {
+    return this::datagramChannel;
+  }
+
+  /**
+   * @return the type for channels
+   */
+  public Class<? extends Channel> channelType() {
+    return NioSocketChannel.class;
+  }
+
+  /**
+   * @return the type for server channels
+   */
+  public Class<? extends ServerChannel> serverChannelType() {
+    return NioServerSocketChannel.class;
+  }
+
+  /**
+   * Apply the transport specific datagram options, the JDK transport does not have any.
+   */
+  public void configure(DatagramChannel channel, DatagramSocketOptions options) {
+  }
+
+  /**
+   * Apply the transport specific client options, the JDK transport does not have any.
+   */
+  public void configure(ClientOptionsBase options, Bootstrap bootstrap) {
+  }
+
+  /**
+   * Apply the transport specific server options, the JDK transport does not have any.
+   */
+  public void configure(NetServerOptions options, ServerBootstrap bootstrap) {
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.spi.metrics;
+
+/**
+ * An SPI used internally by Vert.x to gather metrics on an event loop.
+ * <p>
+ * The event loop is sampled to keep the overhead low: the pending tasks and the scheduling delay are measured
+ * periodically, the execution time is measured for a fraction of the tasks executed by the contexts of the event loop.
+ * <p>
+ * The methods are called on the event loop thread.
+ *
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public interface EventLoopMetrics extends Metrics {
+
+  /**
+   * The number of tasks waiting in the queue of the event loop has been sampled.
+   *
+   * @param count the number of pending tasks
+   */
+  void pendingTasks(int count);
+
+  /**
+   * A task has been executed by the event loop after waiting in its queue.
+   *
+   * @param delay the time between the submission and the execution of the task, in ns
+   */
+  void taskScheduled(long delay);
+
+  /**
+   * A task of a context has been executed by the event loop.
+   *
+   * @param duration the execution time of the task, in ns
+   * @param io whether the task handled I/O, otherwise it was submitted to the context
+   */
+  void taskExecuted(long duration, boolean io);
+
+}
@@ -175,4 +175,17 @@ public interface VertxMetrics extends Metrics, Measured {
    * @return the thread pool metrics SPI
    */
   <P> PoolMetrics<?> createMetrics(P pool, String poolName, int maxPoolSize);
+
+  /**
+   * Provides the event loop metrics SPI when Vert.x is created, once for each event loop.<p/>
+   * <p>
+   * The event loop is not measured when this method returns {@code null}, this is the default.
+   *
+   * @param name the name of the event loop, {@code vert.x-eventloop-<index>} where the index is the position of the
+   *             event loop among the event loops of the Vert.x instance
+   * @return the event loop metrics SPI or {@code null}
+   */
+  default EventLoopMetrics createEventLoopMetrics(String name) {
+    return null;
+  }
 }
\ No newline at end of file
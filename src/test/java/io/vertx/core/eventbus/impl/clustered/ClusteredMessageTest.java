@@ -0,0 +1,274 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.vertx.core.MultiMap;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.MessageCodec;
+import io.vertx.core.eventbus.impl.CodecManager;
+import io.vertx.core.eventbus.impl.ReplyManager;
+import io.vertx.core.eventbus.impl.codecs.StringMessageCodec;
+import io.vertx.core.http.CaseInsensitiveHeaders;
+import io.vertx.core.net.impl.ServerID;
+import io.vertx.test.core.EventBusTestBase;
+import org.junit.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class ClusteredMessageTest {
+
+  private static final ServerID SENDER = new ServerID(1234, "localhost");
+
+  private final CodecManager codecManager = new CodecManager();
+
+  private static <U, V> ClusteredMessage<U, V> message(String address, String replyAddress, MultiMap headers, U body,
+                                                       MessageCodec<U, V> codec, boolean send) {
+    return new ClusteredMessage<>(SENDER, address, replyAddress, headers, body, codec, send, null);
+  }
+
+  /**
+   * Encode the message and return its frame, without the overall length as the frame parser does.
+   */
+  private static Buffer frame(ClusteredMessage<?, ?> msg, WireDictionary dictionary) {
+    ByteBuf buf = msg.encodeToWire(UnpooledByteBufAllocator.DEFAULT, dictionary);
+    try {
+      assertEquals(buf.readableBytes() - 4, buf.getInt(0));
+      return Buffer.buffer(buf.copy(4, buf.readableBytes() - 4));
+    } finally {
+      buf.release();
+    }
+  }
+
+  private <U, V> ClusteredMessage<U, V> read(Buffer frame, WireDictionary dictionary) {
+    ClusteredMessage<U, V> msg = new ClusteredMessage<>();
+    msg.readFromWire(frame, codecManager, dictionary);
+    return msg;
+  }
+
+  private static MultiMap headers() {
+    MultiMap headers = new CaseInsensitiveHeaders();
+    headers.add("foo", "bar");
+    headers.add("foo", "juu");
+    headers.add("\u00e9t\u00e9", "\u4e2d");
+    return headers;
+  }
+
+  private static void assertHeaders(MultiMap headers) {
+    assertEquals(3, headers.entries().size());
+    assertEquals(2, headers.getAll("foo").size());
+    assertEquals("bar", headers.getAll("foo").get(0));
+    assertEquals("juu", headers.getAll("foo").get(1));
+    assertEquals("\u4e2d", headers.get("\u00e9t\u00e9"));
+  }
+
+  @Test
+  public void testRoundTripV1() {
+    ClusteredMessage<String, String> msg = message("the-address", "the-reply-address", headers(), "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true);
+    Buffer frame = frame(msg, null);
+    assertEquals(ClusteredMessage.WIRE_PROTOCOL_VERSION, frame.getByte(0));
+    // Same encoding as the buffer of the wire protocol version 1
+    Buffer buffer = msg.encodeToWire();
+    assertEquals(frame, buffer.getBuffer(4, buffer.length()));
+    ClusteredMessage<String, String> received = read(frame, null);
+    assertTrue(received.isFromWire());
+    assertEquals("the-address", received.address());
+    assertEquals("the-reply-address", received.replyAddress());
+    assertTrue(received.send());
+    assertEquals(SENDER, received.getSender());
+    assertHeaders(received.headers());
+    assertEquals("the-body", received.body());
+  }
+
+  @Test
+  public void testRoundTripV2() {
+    WireDictionary encoder = new WireDictionary();
+    WireDictionary decoder = new WireDictionary();
+    int previousLength = -1;
+    for (int i = 0; i < 3; i++) {
+      ClusteredMessage<String, String> msg = message("the-address", null, headers(), "the-body-" + i,
+        CodecManager.STRING_MESSAGE_CODEC, true);
+      Buffer frame = frame(msg, encoder);
+      assertEquals(ClusteredMessage.WIRE_PROTOCOL_VERSION_2, frame.getByte(0));
+      if (previousLength != -1) {
+        // The address and the host are references to the dictionary
+        assertTrue(frame.length() <= previousLength);
+      }
+      previousLength = frame.length();
+      ClusteredMessage<String, String> received = read(frame, decoder);
+      assertTrue(received.isFromWire());
+      assertEquals("the-address", received.address());
+      assertNull(received.replyAddress());
+      assertTrue(received.send());
+      assertEquals(SENDER, received.getSender());
+      assertHeaders(received.headers());
+      assertEquals("the-body-" + i, received.body());
+    }
+  }
+
+  @Test
+  public void testV2IsSmallerThanV1() {
+    WireDictionary encoder = new WireDictionary();
+    ClusteredMessage<String, String> msg = message("the-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true);
+    frame(msg, encoder);
+    assertTrue(frame(msg, encoder).length() < frame(msg, null).length());
+  }
+
+  @Test
+  public void testPublishWithUserCodecV2() {
+    MessageCodec<EventBusTestBase.MyPOJO, EventBusTestBase.MyPOJO> codec = new EventBusTestBase.MyPOJOEncoder2();
+    codecManager.registerCodec(codec);
+    WireDictionary encoder = new WireDictionary();
+    WireDictionary decoder = new WireDictionary();
+    for (int i = 0; i < 2; i++) {
+      ClusteredMessage<EventBusTestBase.MyPOJO, EventBusTestBase.MyPOJO> msg = message("the-address", null, null,
+        new EventBusTestBase.MyPOJO("the-body"), codec, false);
+      ClusteredMessage<EventBusTestBase.MyPOJO, EventBusTestBase.MyPOJO> received = read(frame(msg, encoder), decoder);
+      assertEquals("the-address", received.address());
+      assertFalse(received.send());
+      assertNull(received.replyAddress());
+      assertTrue(received.headers().isEmpty());
+      assertEquals(new EventBusTestBase.MyPOJO("the-body"), received.body());
+    }
+  }
+
+  @Test
+  public void testReplyAddressV2() {
+    String replyAddress = ReplyManager.replyAddress(-42L);
+    WireDictionary encoder = new WireDictionary();
+    WireDictionary decoder = new WireDictionary();
+    ClusteredMessage<String, String> msg = message("the-address", replyAddress, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true);
+    ClusteredMessage<String, String> received = read(frame(msg, encoder), decoder);
+    assertEquals(replyAddress, received.replyAddress());
+    // The reply is sent to the reply address of the request
+    ClusteredMessage<String, String> reply = message(replyAddress, null, null, "the-reply",
+      CodecManager.STRING_MESSAGE_CODEC, true);
+    received = read(frame(reply, encoder), decoder);
+    assertEquals(replyAddress, received.address());
+    assertEquals("the-reply", received.body());
+  }
+
+  @Test
+  public void testV2RequiresDictionary() {
+    ClusteredMessage<String, String> msg = message("the-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true);
+    Buffer frame = frame(msg, new WireDictionary());
+    try {
+      read(frame, null);
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test
+  public void testEncodeBodyOnce() {
+    AtomicInteger encodings = new AtomicInteger();
+    MessageCodec<String, String> codec = new StringMessageCodec() {
+      @Override
+      public void encodeToWire(Buffer buffer, String s) {
+        encodings.incrementAndGet();
+        super.encodeToWire(buffer, s);
+      }
+    };
+    ClusteredMessage<String, String> msg = message("the-address", null, headers(), "the-body", codec, false);
+    Buffer v1 = frame(msg, null);
+    Buffer v2 = frame(msg, new WireDictionary());
+    assertEquals(2, encodings.get());
+    // The frames of a message published to several nodes share the body
+    msg.encodeBody();
+    assertEquals(3, encodings.get());
+    assertEquals(v1, frame(msg, null));
+    assertEquals(v2, frame(msg, new WireDictionary()));
+    assertEquals(v1, frame(msg, null));
+    assertEquals(3, encodings.get());
+    ClusteredMessage<String, String> received = read(v2, new WireDictionary());
+    assertFalse(received.send());
+    assertHeaders(received.headers());
+    assertEquals("the-body", received.body());
+  }
+
+  @Test
+  public void testEncodeFailureV2() {
+    MessageCodec<String, String> codec = new StringMessageCodec() {
+      @Override
+      public void encodeToWire(Buffer buffer, String s) {
+        throw new IllegalStateException();
+      }
+    };
+    WireDictionary encoder = new WireDictionary();
+    WireDictionary decoder = new WireDictionary();
+    try {
+      frame(message("the-address", null, null, "the-body", codec, true), encoder);
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+    // The entries of the message that failed are not referenced by the next messages
+    ClusteredMessage<String, String> received = read(frame(message("another-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true), encoder), decoder);
+    assertEquals("another-address", received.address());
+    received = read(frame(message("the-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true), encoder), decoder);
+    assertEquals("the-address", received.address());
+  }
+
+  @Test
+  public void testUnknownCodecV2() {
+    MessageCodec<EventBusTestBase.MyPOJO, EventBusTestBase.MyPOJO> codec = new EventBusTestBase.MyPOJOEncoder2();
+    WireDictionary encoder = new WireDictionary();
+    WireDictionary decoder = new WireDictionary();
+    Buffer frame = frame(message("the-address", null, null, new EventBusTestBase.MyPOJO("the-body"), codec, true),
+      encoder);
+    try {
+      read(frame, decoder);
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+    // The decoder has the entries of the message that failed
+    ClusteredMessage<String, String> received = read(frame(message("another-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true), encoder), decoder);
+    assertEquals("another-address", received.address());
+    received = read(frame(message("the-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true), encoder), decoder);
+    assertEquals("the-address", received.address());
+  }
+
+  @Test
+  public void testInvalidVersion() {
+    ClusteredMessage<String, String> msg = message("the-address", null, null, "the-body",
+      CodecManager.STRING_MESSAGE_CODEC, true);
+    Buffer frame = frame(msg, null);
+    frame.setByte(0, (byte) 3);
+    try {
+      read(frame, new WireDictionary());
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+}
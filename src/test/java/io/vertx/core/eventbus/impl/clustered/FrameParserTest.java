@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.Unpooled;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.test.core.TestUtils;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class FrameParserTest {
+
+  private final List<Buffer> frames = new ArrayList<>();
+  private final FrameParser parser = new FrameParser(frames::add);
+
+  private static Buffer frame(Buffer payload) {
+    return Buffer.buffer().appendInt(payload.length()).appendBuffer(payload);
+  }
+
+  @Test
+  public void testSingleFrame() {
+    Buffer payload = TestUtils.randomBuffer(100);
+    parser.handle(frame(payload));
+    assertEquals(1, frames.size());
+    assertEquals(payload, frames.get(0));
+  }
+
+  @Test
+  public void testSeveralFramesInOneBuffer() {
+    List<Buffer> payloads = new ArrayList<>();
+    Buffer data = Buffer.buffer();
+    for (int i = 0; i < 10; i++) {
+      Buffer payload = TestUtils.randomBuffer(i * 10);
+      payloads.add(payload);
+      data.appendBuffer(frame(payload));
+    }
+    parser.handle(data);
+    assertEquals(payloads, frames);
+  }
+
+  @Test
+  public void testFrameSplitAtEveryPosition() {
+    Buffer payload = TestUtils.randomBuffer(20);
+    Buffer data = frame(payload);
+    for (int split = 1; split < data.length(); split++) {
+      frames.clear();
+      parser.handle(data.getBuffer(0, split));
+      assertEquals(0, frames.size());
+      parser.handle(data.getBuffer(split, data.length()));
+      assertEquals(1, frames.size());
+      assertEquals(payload, frames.get(0));
+    }
+  }
+
+  @Test
+  public void testFrameSplitInManyBuffers() {
+    Buffer payload1 = TestUtils.randomBuffer(50);
+    Buffer payload2 = TestUtils.randomBuffer(30);
+    Buffer data = frame(payload1).appendBuffer(frame(payload2));
+    // One byte at a time, the length prefixes are split too
+    for (int i = 0; i < data.length(); i++) {
+      parser.handle(data.getBuffer(i, i + 1));
+    }
+    assertEquals(2, frames.size());
+    assertEquals(payload1, frames.get(0));
+    assertEquals(payload2, frames.get(1));
+  }
+
+  @Test
+  public void testPartialFrameFollowedByFrames() {
+    Buffer payload1 = TestUtils.randomBuffer(40);
+    Buffer payload2 = TestUtils.randomBuffer(40);
+    Buffer payload3 = TestUtils.randomBuffer(40);
+    Buffer data = frame(payload1).appendBuffer(frame(payload2)).appendBuffer(frame(payload3));
+    // The second buffer ends the first frame and holds the other frames entirely
+    parser.handle(data.getBuffer(0, 10));
+    parser.handle(data.getBuffer(10, data.length()));
+    assertEquals(3, frames.size());
+    assertEquals(payload1, frames.get(0));
+    assertEquals(payload2, frames.get(1));
+    assertEquals(payload3, frames.get(2));
+  }
+
+  @Test
+  public void testEmptyFrame() {
+    parser.handle(frame(Buffer.buffer()).appendBuffer(frame(Buffer.buffer("foo"))));
+    assertEquals(2, frames.size());
+    assertEquals(0, frames.get(0).length());
+    assertEquals(Buffer.buffer("foo"), frames.get(1));
+  }
+
+  @Test
+  public void testOutputFailure() {
+    Buffer payload1 = TestUtils.randomBuffer(20);
+    Buffer payload2 = TestUtils.randomBuffer(20);
+    Buffer payload3 = TestUtils.randomBuffer(20);
+    Buffer data = frame(payload1).appendBuffer(frame(payload2)).appendBuffer(frame(payload3));
+    FrameParser failing = new FrameParser(frame -> {
+      if (frame.equals(payload1)) {
+        throw new IllegalStateException();
+      }
+      frames.add(frame);
+    });
+    // The first frame fails, the second frame and the start of the third frame are kept
+    try {
+      failing.handle(data.getBuffer(0, data.length() - 10));
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+    failing.handle(data.getBuffer(data.length() - 10, data.length()));
+    assertEquals(2, frames.size());
+    assertEquals(payload2, frames.get(0));
+    assertEquals(payload3, frames.get(1));
+  }
+
+  @Test
+  public void testFrameIsSliceOfReceivedBuffer() {
+    byte[] bytes = frame(Buffer.buffer("foo")).getBytes();
+    parser.handle(Buffer.buffer(Unpooled.wrappedBuffer(bytes)));
+    assertEquals(1, frames.size());
+    // The frame is not copied
+    bytes[4] = 'g';
+    assertEquals(Buffer.buffer("goo"), frames.get(0));
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.UnpooledByteBufAllocator;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.SpoolOverflowPolicy;
+import io.vertx.core.net.impl.ServerID;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class OutboundSpoolTest {
+
+  @Rule
+  public TemporaryFolder testFolder = new TemporaryFolder();
+
+  private static Buffer frame(String payload) {
+    Buffer buffer = Buffer.buffer(payload);
+    return Buffer.buffer().appendInt(buffer.length()).appendBuffer(buffer);
+  }
+
+  @Test
+  public void testFilePerNode() {
+    String directory = testFolder.getRoot().getAbsolutePath();
+    ConnectionKey key = new ConnectionKey(new ServerID(1234, "localhost"), 0);
+    File file1 = OutboundSpool.file(directory, new ServerID(5678, "localhost"), key);
+    File file2 = OutboundSpool.file(directory, new ServerID(5679, "localhost"), key);
+    // The nodes sending to the same node from a shared directory don't share a spool
+    assertNotEquals(file1, file2);
+    assertEquals(file1, OutboundSpool.file(directory, new ServerID(5678, "localhost"), key));
+    assertNotEquals(file1, OutboundSpool.file(directory, new ServerID(5678, "localhost"), new ConnectionKey(key.serverID, 1)));
+  }
+
+  @Test
+  public void testReopen() throws Exception {
+    File file = new File(testFolder.getRoot(), "test.spool");
+    OutboundSpool spool = new OutboundSpool(file, 1024, SpoolOverflowPolicy.REJECT);
+    assertTrue(spool.append(frame("foo")));
+    assertTrue(spool.append(frame("bar")));
+    // The frames not sent are read after a restart
+    spool = new OutboundSpool(file, 1024, SpoolOverflowPolicy.REJECT);
+    ByteBuf buf = spool.poll(UnpooledByteBufAllocator.DEFAULT);
+    assertEquals(frame("foo"), Buffer.buffer(buf));
+    buf = spool.poll(UnpooledByteBufAllocator.DEFAULT);
+    assertEquals(frame("bar"), Buffer.buffer(buf));
+    assertTrue(spool.isEmpty());
+    assertNull(spool.poll(UnpooledByteBufAllocator.DEFAULT));
+  }
+
+  @Test
+  public void testDelete() throws Exception {
+    File file = new File(testFolder.getRoot(), "test.spool");
+    OutboundSpool spool = new OutboundSpool(file, 1024, SpoolOverflowPolicy.REJECT);
+    assertTrue(spool.append(frame("foo")));
+    spool.delete();
+    assertTrue(spool.isEmpty());
+    assertFalse(spool.append(frame("bar")));
+    assertNull(spool.poll(UnpooledByteBufAllocator.DEFAULT));
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.vertx.core.AsyncResult;
+import io.vertx.core.Future;
+import io.vertx.core.Handler;
+import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.spi.cluster.AsyncMultiMap;
+import io.vertx.core.spi.cluster.ChoosableIterable;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class PatternSubscriptionsTest {
+
+  private static final ServerID NODE = new ServerID(1234, "localhost");
+
+  // The lookups are completed by the test
+  private final List<Handler<AsyncResult<ChoosableIterable<String>>>> lookups = new ArrayList<>();
+  private final List<String> values = new ArrayList<>();
+  private final PatternSubscriptions subscriptions = new PatternSubscriptions(new AsyncMultiMap<String, String>() {
+    @Override
+    public void add(String k, String v, Handler<AsyncResult<Void>> completionHandler) {
+      values.add(v);
+      completionHandler.handle(Future.succeededFuture());
+    }
+    @Override
+    public void get(String k, Handler<AsyncResult<ChoosableIterable<String>>> resultHandler) {
+      lookups.add(resultHandler);
+    }
+    @Override
+    public void remove(String k, String v, Handler<AsyncResult<Boolean>> completionHandler) {
+      completionHandler.handle(Future.succeededFuture(values.remove(v)));
+    }
+    @Override
+    public void removeAllForValue(String v, Handler<AsyncResult<Void>> completionHandler) {
+      completionHandler.handle(Future.succeededFuture());
+    }
+  }, 0);
+
+  private void completeLookup(int index) {
+    List<String> snapshot = new ArrayList<>(values);
+    lookups.get(index).handle(Future.succeededFuture(new ChoosableIterable<String>() {
+      @Override
+      public boolean isEmpty() {
+        return snapshot.isEmpty();
+      }
+      @Override
+      public String choose() {
+        return snapshot.get(0);
+      }
+      @Override
+      public Iterator<String> iterator() {
+        return snapshot.iterator();
+      }
+    }));
+  }
+
+  @Test
+  public void testMergeQueuedBehindLookup() {
+    subscriptions.add("devices.*", NODE, ar -> {});
+    List<String> merged = new ArrayList<>();
+    subscriptions.merge("devices.1", null, ar -> merged.add("first"));
+    subscriptions.merge("devices.1", null, ar -> merged.add("second"));
+    // A single lookup is in progress
+    assertEquals(1, lookups.size());
+    assertTrue(merged.isEmpty());
+    completeLookup(0);
+    assertEquals(2, merged.size());
+    assertEquals("first", merged.get(0));
+    assertEquals("second", merged.get(1));
+    // The patterns are now cached
+    subscriptions.merge("devices.1", null, ar -> {
+      assertEquals(Collections.singletonList(NODE), toList(ar.result()));
+      merged.add("third");
+    });
+    assertEquals(3, merged.size());
+    assertEquals(1, lookups.size());
+  }
+
+  @Test
+  public void testMergeRequestedByWaiterIsQueued() {
+    subscriptions.add("devices.*", NODE, ar -> {});
+    List<String> merged = new ArrayList<>();
+    subscriptions.merge("devices.1", null, ar1 -> {
+      // Requested while the waiters are called, it is completed after the waiters queued before
+      subscriptions.merge("devices.1", null, ar2 -> merged.add("third"));
+      merged.add("first");
+    });
+    subscriptions.merge("devices.1", null, ar -> merged.add("second"));
+    completeLookup(0);
+    assertEquals(3, merged.size());
+    assertEquals("first", merged.get(0));
+    assertEquals("second", merged.get(1));
+    assertEquals("third", merged.get(2));
+  }
+
+  private static List<ServerID> toList(ChoosableIterable<ServerID> serverIDs) {
+    List<ServerID> list = new ArrayList<>();
+    serverIDs.forEach(list::add);
+    return list;
+  }
+}
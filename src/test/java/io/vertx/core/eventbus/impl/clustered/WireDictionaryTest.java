@@ -0,0 +1,197 @@
+/*
+ * Copyright (c) 2011-2016 The original author or authors
+ * ------------------------------------------------------
+ * All rights reserved. This program and the accompanying materials
+ * are made available under the terms of the Eclipse Public License v1.0
+ * and Apache License v2.0 which accompanies this distribution.
+ *
+ *     The Eclipse Public License is available at
+ *     http://www.eclipse.org/legal/epl-v10.html
+ *
+ *     The Apache License v2.0 is available at
+ *     http://www.opensource.org/licenses/apache2.0.php
+ *
+ * You may elect to redistribute this code under either of these licenses.
+ */
+
+package io.vertx.core.eventbus.impl.clustered;
+
+import io.netty.buffer.ByteBuf;
+import io.vertx.core.buffer.Buffer;
+import io.vertx.core.eventbus.impl.ReplyManager;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+/**
+ * @author <a href="mailto:julien@julienviet.com">Julien Viet</a>
+ */
+public class WireDictionaryTest {
+
+  // Each side of a connection has its own dictionary
+  private final WireDictionary encoder = new WireDictionary();
+  private final WireDictionary decoder = new WireDictionary();
+
+  private String roundTrip(String str, boolean addEntry) {
+    Buffer buffer = Buffer.buffer();
+    encoder.write(buffer, str, addEntry);
+    ByteBuf buf = buffer.getByteBuf();
+    String read = decoder.read(buf);
+    assertEquals(0, buf.readableBytes());
+    return read;
+  }
+
+  private static int encodedLength(WireDictionary dictionary, String str) {
+    Buffer buffer = Buffer.buffer();
+    dictionary.write(buffer, str);
+    return buffer.length();
+  }
+
+  @Test
+  public void testVarIntRoundTrip() {
+    int[] values = { 0, 1, 127, 128, 255, 16383, 16384, 2097151, 2097152, Integer.MAX_VALUE, -1, Integer.MIN_VALUE };
+    for (int value : values) {
+      Buffer buffer = Buffer.buffer();
+      WireDictionary.writeVarInt(buffer, value);
+      ByteBuf buf = buffer.getByteBuf();
+      assertEquals(value, WireDictionary.readVarInt(buf));
+      assertEquals(0, buf.readableBytes());
+    }
+  }
+
+  @Test
+  public void testVarIntLength() {
+    Buffer buffer = Buffer.buffer();
+    WireDictionary.writeVarInt(buffer, 127);
+    assertEquals(1, buffer.length());
+    buffer = Buffer.buffer();
+    WireDictionary.writeVarInt(buffer, 128);
+    assertEquals(2, buffer.length());
+  }
+
+  @Test
+  public void testMalformedVarInt() {
+    Buffer buffer = Buffer.buffer(new byte[] { (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80, (byte) 0x80 });
+    try {
+      WireDictionary.readVarInt(buffer.getByteBuf());
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test
+  public void testStringRoundTrip() {
+    assertEquals("", roundTrip("", true));
+    assertEquals("foo", roundTrip("foo", true));
+    assertEquals("\u00e9\u4e2d\ud83d\ude00", roundTrip("\u00e9\u4e2d\ud83d\ude00", true));
+  }
+
+  @Test
+  public void testEntryIsReferenced() {
+    String address = "some-long-address-of-the-event-bus";
+    int first = encodedLength(encoder, address);
+    int second = encodedLength(encoder, address);
+    assertTrue(second < first);
+    assertEquals(1, second);
+    // The decoder learns the entry from the first frame
+    WireDictionary other = new WireDictionary();
+    Buffer buffer = Buffer.buffer();
+    other.write(buffer, address);
+    other.write(buffer, address);
+    other.write(buffer, "bar");
+    other.write(buffer, address);
+    ByteBuf buf = buffer.getByteBuf();
+    assertEquals(address, decoder.read(buf));
+    assertEquals(address, decoder.read(buf));
+    assertEquals("bar", decoder.read(buf));
+    assertEquals(address, decoder.read(buf));
+  }
+
+  @Test
+  public void testLiteralIsNotAdded() {
+    assertEquals("foo", roundTrip("foo", false));
+    assertEquals("foo", roundTrip("foo", false));
+    Buffer buffer = Buffer.buffer();
+    encoder.write(buffer, "foo", false);
+    assertEquals(5, buffer.length());
+  }
+
+  @Test
+  public void testFullDictionary() {
+    for (int i = 0; i < WireDictionary.MAX_SIZE; i++) {
+      assertEquals("address-" + i, roundTrip("address-" + i, true));
+    }
+    // Written as literals once full
+    assertEquals("extra", roundTrip("extra", true));
+    assertEquals("extra", roundTrip("extra", true));
+    assertTrue(encodedLength(encoder, "extra") > 1);
+    // The entries are still referenced, including the ones needing a varint of two bytes
+    assertEquals("address-0", roundTrip("address-0", true));
+    assertEquals("address-" + (WireDictionary.MAX_SIZE - 1), roundTrip("address-" + (WireDictionary.MAX_SIZE - 1), true));
+  }
+
+  @Test
+  public void testRollback() {
+    assertEquals("foo", roundTrip("foo", true));
+    int mark = encoder.mark();
+    Buffer buffer = Buffer.buffer();
+    // A frame that failed, the decoder never reads it
+    encoder.write(buffer, "bar");
+    encoder.write(buffer, "juu");
+    encoder.rollback(mark);
+    assertEquals(mark, encoder.mark());
+    assertEquals("juu", roundTrip("juu", true));
+    assertEquals("foo", roundTrip("foo", true));
+    assertEquals("juu", roundTrip("juu", true));
+  }
+
+  @Test
+  public void testReplyIdRoundTrip() {
+    long[] ids = { 0, 1, 0x21, 0xcafe, Long.MAX_VALUE, Long.MIN_VALUE, -1 };
+    for (long id : ids) {
+      String address = ReplyManager.replyAddress(id);
+      Buffer buffer = Buffer.buffer();
+      encoder.write(buffer, address, false);
+      // The tag and the id
+      assertEquals(9, buffer.length());
+      ByteBuf buf = buffer.getByteBuf();
+      assertEquals(address, decoder.read(buf));
+      assertEquals(0, buf.readableBytes());
+    }
+  }
+
+  @Test
+  public void testReplyPrefixWithoutIdIsString() {
+    String[] addresses = {
+      ReplyManager.REPLY_ADDRESS_PREFIX,
+      ReplyManager.REPLY_ADDRESS_PREFIX + "0cafe",
+      ReplyManager.REPLY_ADDRESS_PREFIX + "CAFE",
+      ReplyManager.REPLY_ADDRESS_PREFIX + "10000000000000000",
+      "cafe"
+    };
+    for (String address : addresses) {
+      assertEquals(address, roundTrip(address, false));
+    }
+  }
+
+  @Test
+  public void testInvalidEntry() {
+    Buffer buffer = Buffer.buffer();
+    WireDictionary.writeVarInt(buffer, 10);
+    try {
+      decoder.read(buffer.getByteBuf());
+      fail();
+    } catch (IllegalStateException ignore) {
+    }
+  }
+
+  @Test
+  public void testReadCached() {
+    Buffer buffer = Buffer.buffer("__foo__");
+    String str = decoder.readCached(buffer.getByteBuf(), 2, 3);
+    assertEquals("foo", str);
+    assertTrue(str == decoder.readCached(Buffer.buffer("foo").getByteBuf(), 0, 3));
+  }
+}
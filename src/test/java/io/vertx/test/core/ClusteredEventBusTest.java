@@ -16,22 +16,39 @@
 
 package io.vertx.test.core;
 
+import io.vertx.core.AbstractVerticle;
 import io.vertx.core.AsyncResult;
+import io.vertx.core.DeploymentOptions;
 import io.vertx.core.Handler;
+import io.vertx.core.MultiMap;
 import io.vertx.core.Vertx;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.buffer.Buffer;
 import io.vertx.core.eventbus.*;
+import io.vertx.core.eventbus.impl.CodecManager;
+import io.vertx.core.eventbus.impl.clustered.ClusteredMessage;
+import io.vertx.core.eventbus.impl.codecs.PingMessageCodec;
+import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.impl.VertxInternal;
+import io.vertx.core.net.NetClient;
+import io.vertx.core.net.NetServer;
+import io.vertx.core.net.impl.ServerID;
+import io.vertx.core.parsetools.RecordParser;
+import io.vertx.core.spi.cluster.AsyncMultiMap;
 import io.vertx.core.spi.cluster.ClusterManager;
 import io.vertx.test.fakecluster.FakeClusterManager;
 import org.junit.Test;
 
+import java.io.File;
+import java.nio.file.Files;
 import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentLinkedDeque;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
 
 
@@ -268,6 +285,570 @@ public class ClusteredEventBusTest extends ClusteredEventBusTestBase {
 
   }
 
+  @Test
+  public void testPublisherCongestedNode() throws Exception {
+    int num = 5000;
+    VertxOptions options = getOptions();
+    // The cached subscriptions are resolved synchronously, so a message written while the write queue is not full
+    // is not rejected
+    options.getEventBusOptions().setClusterWriteQueueMaxSize(1).setClusterSubscriptionCacheTimeout(60000);
+    startNodes(2, options);
+    AtomicInteger received = new AtomicInteger();
+    AtomicBoolean drained = new AtomicBoolean();
+    MessageProducer<Integer> producer = vertices[0].eventBus().publisher(ADDRESS1);
+    vertices[1].eventBus().<Integer>consumer(ADDRESS1, msg -> {
+      int count = received.getAndIncrement();
+      assertEquals(count, (int) msg.body());
+      if (count == 0) {
+        // The subscriptions are cached now
+        vertices[0].runOnContext(v -> publishBatch(producer, 1, num, drained));
+      } else if (count == num - 1) {
+        assertTrue(drained.get());
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> {
+      vertices[0].runOnContext(v2 -> producer.write(0));
+    }));
+    await();
+  }
+
+  private void publishBatch(MessageProducer<Integer> producer, int from, int num, AtomicBoolean drained) {
+    int to = Math.min(num, from + 100);
+    int next = from;
+    // The messages written once the write queue is full are rejected
+    while (next < to && !producer.writeQueueFull()) {
+      producer.write(next++);
+    }
+    if (next < num) {
+      int resume = next;
+      if (producer.writeQueueFull()) {
+        producer.drainHandler(v -> {
+          drained.set(true);
+          publishBatch(producer, resume, num, drained);
+        });
+      } else {
+        vertices[0].runOnContext(v -> publishBatch(producer, resume, num, drained));
+      }
+    }
+  }
+
+  @Test
+  public void testSendToCongestedNodeFails() throws Exception {
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterWriteQueueMaxSize(2);
+    startNodes(1, options);
+    // The node never replies to the handshake, the messages stay queued
+    NetServer server = vertices[0].createNetServer();
+    server.connectHandler(socket -> socket.handler(buff -> {}));
+    server.listen(0, "localhost", onSuccess(s -> {
+      ClusterManager clusterManager = ((VertxInternal) vertices[0]).getClusterManager();
+      clusterManager.<String, ServerID>getAsyncMultiMap("__vertx.subs", onSuccess(subs -> {
+        subs.add(ADDRESS1, new ServerID(s.actualPort(), "localhost"), onSuccess(v -> {
+          AtomicInteger failures = new AtomicInteger();
+          for (int i = 0; i < 3; i++) {
+            vertices[0].eventBus().send(ADDRESS1, "foo", ar -> {
+              assertTrue(ar.failed());
+              assertEquals(ReplyFailure.ERROR, ((ReplyException) ar.cause()).failureType());
+              assertEquals(1, failures.incrementAndGet());
+              testComplete();
+            });
+          }
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testSubscriptionCacheOrdering() throws Exception {
+    int num = 1000;
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterSubscriptionCacheTimeout(60000);
+    startNodes(2, options);
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().<Integer>consumer(ADDRESS1, msg -> {
+      assertEquals(received.getAndIncrement(), (int) msg.body());
+      if (received.get() == num) {
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> {
+      for (int i = 0; i < num; i++) {
+        vertices[0].eventBus().send(ADDRESS1, i);
+      }
+    }));
+    await();
+  }
+
+  @Test
+  public void testSendBatch() throws Exception {
+    int num = 100;
+    startNodes(2);
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().<Integer>consumer(ADDRESS1, msg -> {
+      assertEquals(received.getAndIncrement(), (int) msg.body());
+      if (received.get() == num) {
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> {
+      List<Integer> batch = new ArrayList<>();
+      for (int i = 0; i < num; i++) {
+        batch.add(i);
+      }
+      vertices[0].eventBus().sendBatch(ADDRESS1, batch);
+    }));
+    await();
+  }
+
+  @Test
+  public void testSendOnIdleConnection() {
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterPingInterval(50).setClusterPingReplyInterval(200);
+    startNodes(2, options);
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().<String>consumer(ADDRESS1, msg -> {
+      if (received.incrementAndGet() == 1) {
+        // Several pings are sent before the next message
+        vertices[0].setTimer(500, id -> vertices[0].eventBus().send(ADDRESS1, "bar"));
+      } else {
+        assertEquals("bar", msg.body());
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> vertices[0].eventBus().send(ADDRESS1, "foo")));
+    await();
+  }
+
+  @Test
+  public void testSendFromWorkerOnIdleConnection() {
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterPingInterval(50).setClusterPingReplyInterval(200);
+    startNodes(2, options);
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().<String>consumer(ADDRESS1, msg -> {
+      if (received.incrementAndGet() == 2) {
+        assertEquals("bar", msg.body());
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> {
+      vertices[0].deployVerticle(new AbstractVerticle() {
+        @Override
+        public void start() {
+          // The connection is created by a worker
+          vertx.eventBus().send(ADDRESS1, "foo");
+          // Several pings are sent before the next message
+          vertx.setTimer(500, id -> vertx.eventBus().send(ADDRESS1, "bar"));
+        }
+      }, new DeploymentOptions().setWorker(true));
+    }));
+    await();
+  }
+
+  @Test
+  public void testSendWithConnectionsPerNode() {
+    int num = 100;
+    int numAddresses = 10;
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterConnectionsPerNode(4).setClusterBulkMessageSize(1024);
+    startNodes(2, options);
+    AtomicInteger received = new AtomicInteger();
+    AtomicInteger registered = new AtomicInteger();
+    for (int i = 0; i < numAddresses; i++) {
+      String address = ADDRESS1 + "." + i;
+      AtomicInteger expected = new AtomicInteger();
+      vertices[1].eventBus().<Integer>consumer(address, msg -> {
+        assertEquals(expected.getAndIncrement(), (int) msg.body());
+        if (received.incrementAndGet() == num * numAddresses + 1) {
+          testComplete();
+        }
+      }).completionHandler(onSuccess(v -> {
+        if (registered.incrementAndGet() == numAddresses) {
+          for (int j = 0; j < num; j++) {
+            for (int k = 0; k < numAddresses; k++) {
+              vertices[0].eventBus().send(ADDRESS1 + "." + k, j);
+            }
+          }
+        }
+      }));
+    }
+    vertices[1].eventBus().<Buffer>consumer(ADDRESS2, msg -> {
+      assertEquals(4096, msg.body().length());
+      if (received.incrementAndGet() == num * numAddresses + 1) {
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> vertices[0].eventBus().send(ADDRESS2, Buffer.buffer(new byte[4096]))));
+    await();
+  }
+
+  @Test
+  public void testSendWithSpool() throws Exception {
+    int num = 100;
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterSpoolDirectory(Files.createTempDirectory("spool").toString());
+    startNodes(2, options);
+    AtomicInteger received = new AtomicInteger();
+    vertices[1].eventBus().<Integer>consumer(ADDRESS1, msg -> {
+      assertEquals(received.getAndIncrement(), (int) msg.body());
+      if (received.get() == num) {
+        testComplete();
+      }
+    }).completionHandler(onSuccess(v -> {
+      for (int i = 0; i < num; i++) {
+        vertices[0].eventBus().send(ADDRESS1, i);
+      }
+    }));
+    await();
+  }
+
+  @Test
+  public void testNoSpoolForCrashedNode() throws Exception {
+    File directory = Files.createTempDirectory("spool").toFile();
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterSpoolDirectory(directory.getAbsolutePath());
+    startNodes(2, options);
+    CountDownLatch regLatch = new CountDownLatch(1);
+    vertices[1].eventBus().consumer(ADDRESS1, msg -> {
+    }).completionHandler(onSuccess(v -> regLatch.countDown()));
+    awaitLatch(regLatch);
+    ClusterManager clusterManager = ((VertxInternal) vertices[0]).getClusterManager();
+    AtomicReference<AsyncMultiMap<String, ServerID>> subs = new AtomicReference<>();
+    AtomicReference<ServerID> crashed = new AtomicReference<>();
+    CountDownLatch subsLatch = new CountDownLatch(1);
+    clusterManager.<String, ServerID>getAsyncMultiMap("__vertx.subs", onSuccess(map -> {
+      subs.set(map);
+      map.get(ADDRESS1, onSuccess(serverIDs -> {
+        crashed.set(serverIDs.choose());
+        subsLatch.countDown();
+      }));
+    }));
+    awaitLatch(subsLatch);
+    CountDownLatch killLatch = new CountDownLatch(1);
+    ((VertxInternal) vertices[1]).getClusterManager().leave(onSuccess(v -> killLatch.countDown()));
+    awaitLatch(killLatch);
+    // Allow time for kill to be propagate
+    Thread.sleep(2000);
+    CountDownLatch closeLatch = new CountDownLatch(1);
+    vertices[1].close(ar -> closeLatch.countDown());
+    awaitLatch(closeLatch);
+    // The message is sent through a stale subscription of the crashed node
+    subs.get().add(ADDRESS1, crashed.get(), onSuccess(v -> vertices[0].eventBus().send(ADDRESS1, "foo")));
+    Thread.sleep(1000);
+    assertEquals(0, directory.list().length);
+  }
+
+  @Test
+  public void testSubscriptionCacheInvalidatedByLocalRegistration() throws Exception {
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterSubscriptionCacheTimeout(60000);
+    startNodes(2, options);
+    MessageConsumer<String> consumer = vertices[0].eventBus().consumer(ADDRESS1);
+    consumer.handler(msg -> {
+      assertEquals("first", msg.body());
+      // The second node has cached the subscription of the first node
+      consumer.unregister(onSuccess(v1 -> {
+        vertices[1].eventBus().<String>consumer(ADDRESS1, msg2 -> {
+          assertEquals("second", msg2.body());
+          testComplete();
+        }).completionHandler(onSuccess(v2 -> {
+          vertices[1].eventBus().send(ADDRESS1, "second");
+        }));
+      }));
+    });
+    consumer.completionHandler(onSuccess(v -> {
+      vertices[1].eventBus().send(ADDRESS1, "first");
+    }));
+    await();
+  }
+
+  @Test
+  public void testSendToPatternConsumer() throws Exception {
+    startNodes(2);
+    MessageConsumer<String> consumer = vertices[1].eventBus().consumer("devices.*.telemetry", msg -> {
+      assertEquals("devices.42.telemetry", msg.address());
+      assertEquals("foo", msg.body());
+      testComplete();
+    });
+    consumer.completionHandler(onSuccess(v -> {
+      vertices[0].eventBus().send("devices.42.telemetry", "foo");
+    }));
+    await();
+  }
+
+  @Test
+  public void testPublishToPatternConsumers() throws Exception {
+    startNodes(2);
+    AtomicInteger count = new AtomicInteger();
+    CountDownLatch latch = new CountDownLatch(2);
+    for (Vertx vertx : vertices) {
+      vertx.eventBus().<String>consumer("devices.#", msg -> {
+        assertEquals("foo", msg.body());
+        if (count.incrementAndGet() == 2) {
+          testComplete();
+        }
+      }).completionHandler(onSuccess(v -> latch.countDown()));
+    }
+    awaitLatch(latch);
+    vertices[0].eventBus().publish("devices.42.telemetry", "foo");
+    await();
+  }
+
+  @Test
+  public void testSendToWireProtocolVersion1Node() throws Exception {
+    startNodes(1);
+    // A node of the wire protocol version 1 replies to the handshake with a regular pong
+    NetServer server = vertices[0].createNetServer();
+    server.connectHandler(socket -> {
+      RecordParser parser = RecordParser.newFixed(4, null);
+      parser.setOutput(new Handler<Buffer>() {
+        int size = -1;
+        @Override
+        public void handle(Buffer buff) {
+          if (size == -1) {
+            size = buff.getInt(0);
+            parser.fixedSizeMode(size);
+          } else {
+            // The messages are sent with the wire protocol version 1
+            assertEquals(1, buff.getByte(0));
+            ClusteredMessage received = new ClusteredMessage();
+            received.readFromWire(buff, new CodecManager());
+            if (received.codec() == CodecManager.PING_MESSAGE_CODEC) {
+              assertEquals("2", received.headers().get("__vertx.wire.version"));
+              socket.write(Buffer.buffer(new byte[] { 1 }));
+            } else {
+              assertEquals(ADDRESS1, received.address());
+              assertEquals("foo", received.body());
+              testComplete();
+            }
+            parser.fixedSizeMode(4);
+            size = -1;
+          }
+        }
+      });
+      socket.handler(parser);
+    });
+    server.listen(0, "localhost", onSuccess(s -> {
+      ClusterManager clusterManager = ((VertxInternal) vertices[0]).getClusterManager();
+      clusterManager.<String, ServerID>getAsyncMultiMap("__vertx.subs", onSuccess(subs -> {
+        subs.add(ADDRESS1, new ServerID(s.actualPort(), "localhost"), onSuccess(v -> {
+          vertices[0].eventBus().send(ADDRESS1, "foo");
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testBusyConnectionToSilentNodeIsClosed() throws Exception {
+    VertxOptions options = getOptions();
+    options.getEventBusOptions().setClusterPingInterval(100).setClusterPingReplyInterval(100);
+    startNodes(1, options);
+    // The node replies to the handshake and then never replies to the pings
+    AtomicBoolean closed = new AtomicBoolean();
+    NetServer server = vertices[0].createNetServer();
+    server.connectHandler(socket -> {
+      AtomicBoolean handshake = new AtomicBoolean();
+      socket.handler(buff -> {
+        if (handshake.compareAndSet(false, true)) {
+          socket.write(Buffer.buffer(new byte[] { 1 }));
+        }
+      });
+      socket.closeHandler(v -> {
+        // The messages sent after the close reconnect
+        if (closed.compareAndSet(false, true)) {
+          testComplete();
+        }
+      });
+    });
+    server.listen(0, "localhost", onSuccess(s -> {
+      ClusterManager clusterManager = ((VertxInternal) vertices[0]).getClusterManager();
+      clusterManager.<String, ServerID>getAsyncMultiMap("__vertx.subs", onSuccess(subs -> {
+        subs.add(ADDRESS1, new ServerID(s.actualPort(), "localhost"), onSuccess(v -> {
+          // The messages written to the connection don't prevent the pings
+          vertices[0].setPeriodic(10, id -> vertices[0].eventBus().send(ADDRESS1, "foo"));
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testWireProtocolVersionNegotiation() throws Exception {
+    startNodes(1);
+    CountDownLatch latch = new CountDownLatch(1);
+    vertices[0].eventBus().consumer(ADDRESS1, msg -> {
+    }).completionHandler(onSuccess(v -> latch.countDown()));
+    awaitLatch(latch);
+    waitFor(2);
+    ClusterManager clusterManager = ((VertxInternal) vertices[0]).getClusterManager();
+    clusterManager.<String, ServerID>getAsyncMultiMap("__vertx.subs", onSuccess(subs -> {
+      subs.get(ADDRESS1, onSuccess(serverIDs -> {
+        ServerID serverID = serverIDs.choose();
+        NetClient client = vertices[0].createNetClient();
+        // A node of the wire protocol version 1 does not send the header
+        assertPong(client, serverID, null, 1);
+        assertPong(client, serverID, new CaseInsensitiveHeaders().add("__vertx.wire.version", "2"), 2);
+      }));
+    }));
+    await();
+  }
+
+  private void assertPong(NetClient client, ServerID serverID, MultiMap headers, int expected) {
+    client.connect(serverID.port, serverID.host, onSuccess(socket -> {
+      socket.handler(buff -> {
+        assertEquals(1, buff.length());
+        assertEquals(expected, buff.getByte(0));
+        socket.close();
+        complete();
+      });
+      ClusteredMessage<String, String> ping = new ClusteredMessage<>(serverID, "__vertx_ping", null, headers, null,
+        new PingMessageCodec(), true, null);
+      socket.write(ping.encodeToWire());
+    }));
+  }
+
+  @Test
+  public void testMessageWithUnknownCodecFollowedByMessage() throws Exception {
+    startNodes(1);
+    CountDownLatch latch = new CountDownLatch(1);
+    vertices[0].eventBus().<String>consumer(ADDRESS1, msg -> {
+      assertEquals("foo", msg.body());
+      testComplete();
+    }).completionHandler(onSuccess(v -> latch.countDown()));
+    awaitLatch(latch);
+    ClusterManager clusterManager = ((VertxInternal) vertices[0]).getClusterManager();
+    clusterManager.<String, ServerID>getAsyncMultiMap("__vertx.subs", onSuccess(subs -> {
+      subs.get(ADDRESS1, onSuccess(serverIDs -> {
+        ServerID serverID = serverIDs.choose();
+        vertices[0].createNetClient().connect(serverID.port, serverID.host, onSuccess(socket -> {
+          // The codec is not registered on the node
+          ClusteredMessage<MyPOJO, String> unknown = new ClusteredMessage<>(serverID, ADDRESS1, null, null,
+            new MyPOJO("bar"), new MyPOJOEncoder1(), true, null);
+          ClusteredMessage<String, String> msg = new ClusteredMessage<>(serverID, ADDRESS1, null, null, "foo",
+            CodecManager.STRING_MESSAGE_CODEC, true, null);
+          // Both messages in a single buffer
+          socket.write(unknown.encodeToWire().appendBuffer(msg.encodeToWire()));
+        }));
+      }));
+    }));
+    await();
+  }
+
+  @Test
+  public void testPublishEncodesBodyOnce() throws Exception {
+    startNodes(4);
+    AtomicInteger encodings = new AtomicInteger();
+    MessageCodec<MyPOJO, MyPOJO> codec = new MyPOJOEncoder2() {
+      @Override
+      public void encodeToWire(Buffer buffer, MyPOJO myPOJO) {
+        encodings.incrementAndGet();
+        super.encodeToWire(buffer, myPOJO);
+      }
+    };
+    CountDownLatch latch = new CountDownLatch(3);
+    waitFor(3);
+    for (int i = 0; i < vertices.length; i++) {
+      vertices[i].eventBus().registerCodec(codec);
+      if (i > 0) {
+        vertices[i].eventBus().<MyPOJO>consumer(ADDRESS1, msg -> {
+          assertEquals(new MyPOJO("foo"), msg.body());
+          complete();
+        }).completionHandler(onSuccess(v -> latch.countDown()));
+      }
+    }
+    awaitLatch(latch);
+    vertices[0].eventBus().publish(ADDRESS1, new MyPOJO("foo"), new DeliveryOptions().setCodecName(codec.name()));
+    await();
+    // Encoded once for the three nodes
+    assertEquals(1, encodings.get());
+  }
+
+  @Test
+  public void testCreditsFromOlderNode() throws Exception {
+    VertxOptions vertxOptions = new VertxOptions();
+    vertxOptions.getEventBusOptions().setClusterLegacyCreditAddresses(true);
+    startNodes(2, vertxOptions);
+    vertices[0].runOnContext(v -> {
+      DeliveryOptions options = new DeliveryOptions();
+      MessageProducer<String> prod = vertices[0].eventBus().sender(ADDRESS1, options);
+      prod.setWriteQueueMaxSize(1);
+      // Sent to no consumer, the credit is never granted back
+      prod.send("foo");
+      assertTrue(prod.writeQueueFull());
+      // An older node sends the credits to the value of the credit header
+      String creditHeader = options.getHeaders().get("__vertx.credit");
+      long timerID = vertices[1].setPeriodic(10, id -> vertices[1].eventBus().send(creditHeader, 1));
+      prod.drainHandler(v2 -> {
+        vertices[1].cancelTimer(timerID);
+        testComplete();
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testSendToPatternConsumersRoundRobin() throws Exception {
+    VertxOptions options = new VertxOptions();
+    // The subscriptions are looked up for each message
+    options.getEventBusOptions().setClusterSubscriptionCacheTimeout(0);
+    startNodes(3, options);
+    int num = 10;
+    AtomicInteger[] counts = { new AtomicInteger(), new AtomicInteger() };
+    CountDownLatch latch = new CountDownLatch(2);
+    CountDownLatch warmUp = new CountDownLatch(1);
+    waitFor(num);
+    for (int i = 0; i < 2; i++) {
+      AtomicInteger count = counts[i];
+      vertices[i + 1].eventBus().<String>consumer("devices.*.telemetry", msg -> {
+        if ("warm-up".equals(msg.body())) {
+          warmUp.countDown();
+        } else {
+          count.incrementAndGet();
+          complete();
+        }
+      }).completionHandler(onSuccess(v -> latch.countDown()));
+    }
+    awaitLatch(latch);
+    // Get the pattern subscriptions cached
+    vertices[0].eventBus().send("devices.42.telemetry", "warm-up");
+    awaitLatch(warmUp);
+    vertices[0].runOnContext(v -> {
+      for (int i = 0; i < num; i++) {
+        vertices[0].eventBus().send("devices.42.telemetry", "foo");
+      }
+    });
+    await();
+    assertEquals(num / 2, counts[0].get());
+    assertEquals(num / 2, counts[1].get());
+  }
+
+  @Test
+  public void testSendToAddressConsumersBeforePatternConsumers() throws Exception {
+    VertxOptions options = new VertxOptions();
+    options.getEventBusOptions().setClusterSubscriptionCacheTimeout(0);
+    startNodes(4, options);
+    int num = 10;
+    AtomicInteger[] counts = { new AtomicInteger(), new AtomicInteger() };
+    CountDownLatch latch = new CountDownLatch(3);
+    waitFor(num);
+    for (int i = 0; i < 2; i++) {
+      AtomicInteger count = counts[i];
+      vertices[i + 1].eventBus().<String>consumer("devices.42.telemetry", msg -> {
+        count.incrementAndGet();
+        complete();
+      }).completionHandler(onSuccess(v -> latch.countDown()));
+    }
+    vertices[3].eventBus().<String>consumer("devices.*.telemetry", msg -> {
+      fail("Should not be chosen");
+    }).completionHandler(onSuccess(v -> latch.countDown()));
+    awaitLatch(latch);
+    vertices[0].runOnContext(v -> {
+      for (int i = 0; i < num; i++) {
+        vertices[0].eventBus().send("devices.42.telemetry", "foo");
+      }
+    });
+    await();
+    assertEquals(num / 2, counts[0].get());
+    assertEquals(num / 2, counts[1].get());
+  }
+
   @Test
   public void sendNoContext() throws Exception {
     int size = 1000;
@@ -16,11 +16,14 @@
 
 package io.vertx.test.core;
 
+import io.netty.channel.EventLoop;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.EventLoopChooserType;
 import io.vertx.core.Future;
 import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.WorkerExecutor;
 import io.vertx.core.impl.ContextInternal;
 import org.junit.Test;
@@ -115,6 +118,33 @@ public class ContextTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testExecuteOrderedBlockingFromManyThreads() throws Exception {
+    Context context = vertx.getOrCreateContext();
+    int numThreads = 4;
+    int num = 1000;
+    waitFor(numThreads * num);
+    int[] last = new int[numThreads];
+    AtomicBoolean running = new AtomicBoolean();
+    for (int i = 0;i < numThreads;i++) {
+      int thread = i;
+      new Thread(() -> {
+        for (int j = 0;j < num;j++) {
+          int seq = j;
+          context.executeBlocking(f -> {
+            // The ordered tasks are never executed concurrently
+            assertTrue(running.compareAndSet(false, true));
+            assertEquals(last[thread], seq);
+            last[thread] = seq + 1;
+            running.set(false);
+            f.complete();
+          }, true, onSuccess(v -> complete()));
+        }
+      }).start();
+    }
+    await();
+  }
+
   @Test
   public void testExecuteUnorderedBlocking() throws Exception {
     Context context = vertx.getOrCreateContext();
@@ -345,4 +375,38 @@ public class ContextTest extends VertxTestBase {
     });
     await();
   }
+
+  @Test
+  public void testLoadAwareEventLoopChooser() throws Exception {
+    Vertx vertx = Vertx.vertx(new VertxOptions().setEventLoopPoolSize(2).setEventLoopChooserType(EventLoopChooserType.LOAD_AWARE));
+    CountDownLatch blocked = new CountDownLatch(1);
+    try {
+      ContextInternal busy = (ContextInternal) vertx.getOrCreateContext();
+      busy.runOnContext(v -> {
+        try {
+          awaitLatch(blocked);
+        } catch (InterruptedException e) {
+          fail(e);
+        }
+      });
+      // The pending tasks of the blocked event loop make it the most loaded
+      for (int i = 0;i < 10;i++) {
+        busy.runOnContext(v -> {});
+      }
+      EventLoop busyEventLoop = busy.nettyEventLoop();
+      int num = 4;
+      CountDownLatch latch = new CountDownLatch(num);
+      for (int i = 0;i < num;i++) {
+        ContextInternal context = (ContextInternal) vertx.getOrCreateContext();
+        assertNotSame(busyEventLoop, context.nettyEventLoop());
+        context.runOnContext(v -> latch.countDown());
+      }
+      awaitLatch(latch);
+    } finally {
+      blocked.countDown();
+      CountDownLatch closed = new CountDownLatch(1);
+      vertx.close(ar -> closed.countDown());
+      awaitLatch(closed);
+    }
+  }
 }
@@ -62,6 +62,9 @@ public class DeploymentTest extends VertxTestBase {
     assertFalse(options.isMultiThreaded());
     assertEquals(options, options.setMultiThreaded(true));
     assertTrue(options.isMultiThreaded());
+    assertFalse(options.isVirtualThreads());
+    assertEquals(options, options.setVirtualThreads(true));
+    assertTrue(options.isVirtualThreads());
     assertNull(options.getIsolationGroup());
     String rand = TestUtils.randomUnicodeString(1000);
     assertEquals(options, options.setIsolationGroup(rand));
@@ -94,6 +97,7 @@ public class DeploymentTest extends VertxTestBase {
     Random rand = new Random();
     boolean worker = rand.nextBoolean();
     boolean multiThreaded = rand.nextBoolean();
+    boolean virtualThreads = rand.nextBoolean();
     String isolationGroup = TestUtils.randomAlphaString(100);
     boolean ha = rand.nextBoolean();
     List<String> cp = Arrays.asList("foo", "bar");
@@ -104,6 +108,7 @@ public class DeploymentTest extends VertxTestBase {
     options.setConfig(config);
     options.setWorker(worker);
     options.setMultiThreaded(multiThreaded);
+    options.setVirtualThreads(virtualThreads);
     options.setIsolationGroup(isolationGroup);
     options.setHa(ha);
     options.setExtraClasspath(cp);
@@ -114,6 +119,7 @@ public class DeploymentTest extends VertxTestBase {
     DeploymentOptions copy = new DeploymentOptions(options);
     assertEquals(worker, copy.isWorker());
     assertEquals(multiThreaded, copy.isMultiThreaded());
+    assertEquals(virtualThreads, copy.isVirtualThreads());
     assertEquals(isolationGroup, copy.getIsolationGroup());
     assertNotSame(config, copy.getConfig());
     assertEquals("bar", copy.getConfig().getString("foo"));
@@ -134,6 +140,7 @@ public class DeploymentTest extends VertxTestBase {
     assertEquals(def.getConfig(), json.getConfig());
     assertEquals(def.isWorker(), json.isWorker());
     assertEquals(def.isMultiThreaded(), json.isMultiThreaded());
+    assertEquals(def.isVirtualThreads(), json.isVirtualThreads());
     assertEquals(def.getIsolationGroup(), json.getIsolationGroup());
     assertEquals(def.isHa(), json.isHa());
     assertEquals(def.getExtraClasspath(), json.getExtraClasspath());
@@ -149,6 +156,7 @@ public class DeploymentTest extends VertxTestBase {
     Random rand = new Random();
     boolean worker = rand.nextBoolean();
     boolean multiThreaded = rand.nextBoolean();
+    boolean virtualThreads = rand.nextBoolean();
     String isolationGroup = TestUtils.randomAlphaString(100);
     boolean ha = rand.nextBoolean();
     List<String> cp = Arrays.asList("foo", "bar");
@@ -160,6 +168,7 @@ public class DeploymentTest extends VertxTestBase {
     json.put("config", config);
     json.put("worker", worker);
     json.put("multiThreaded", multiThreaded);
+    json.put("virtualThreads", virtualThreads);
     json.put("isolationGroup", isolationGroup);
     json.put("ha", ha);
     json.put("extraClasspath", new JsonArray(cp));
@@ -170,6 +179,7 @@ public class DeploymentTest extends VertxTestBase {
     DeploymentOptions options = new DeploymentOptions(json);
     assertEquals(worker, options.isWorker());
     assertEquals(multiThreaded, options.isMultiThreaded());
+    assertEquals(virtualThreads, options.isVirtualThreads());
     assertEquals(isolationGroup, options.getIsolationGroup());
     assertEquals("bar", options.getConfig().getString("foo"));
     assertEquals(ha, options.isHa());
@@ -187,6 +197,7 @@ public class DeploymentTest extends VertxTestBase {
     Random rand = new Random();
     boolean worker = rand.nextBoolean();
     boolean multiThreaded = rand.nextBoolean();
+    boolean virtualThreads = rand.nextBoolean();
     String isolationGroup = TestUtils.randomAlphaString(100);
     boolean ha = rand.nextBoolean();
     List<String> cp = Arrays.asList("foo", "bar");
@@ -197,6 +208,7 @@ public class DeploymentTest extends VertxTestBase {
     options.setConfig(config);
     options.setWorker(worker);
     options.setMultiThreaded(multiThreaded);
+    options.setVirtualThreads(virtualThreads);
     options.setIsolationGroup(isolationGroup);
     options.setHa(ha);
     options.setExtraClasspath(cp);
@@ -208,6 +220,7 @@ public class DeploymentTest extends VertxTestBase {
     DeploymentOptions copy = new DeploymentOptions(json);
     assertEquals(worker, copy.isWorker());
     assertEquals(multiThreaded, copy.isMultiThreaded());
+    assertEquals(virtualThreads, copy.isVirtualThreads());
     assertEquals(isolationGroup, copy.getIsolationGroup());
     assertEquals("bar", copy.getConfig().getString("foo"));
     assertEquals(ha, copy.isHa());
@@ -383,6 +396,70 @@ public class DeploymentTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testVirtualThreadWorkerRightThread() throws Exception {
+    assertFalse(Context.isOnVertxThread());
+    int num = 100;
+    Verticle verticle = new AbstractVerticle() {
+      @Override
+      public void start(Future<Void> startFuture) throws Exception {
+        assertTrue(Context.isOnVertxThread());
+        assertTrue(Context.isOnWorkerThread());
+        assertFalse(Context.isOnEventLoopThread());
+        Context ctx = Vertx.currentContext();
+        assertSame(context, ctx);
+        assertTrue(ctx.isWorkerContext());
+        AtomicInteger seq = new AtomicInteger();
+        for (int i = 0; i < num; i++) {
+          int expected = i;
+          ctx.runOnContext(v -> {
+            assertSame(ctx, Vertx.currentContext());
+            assertTrue(Context.isOnWorkerThread());
+            assertEquals(expected, seq.getAndIncrement());
+            if (expected == num - 1) {
+              vertx.executeBlocking(fut -> {
+                assertSame(ctx, Vertx.currentContext());
+                fut.complete();
+              }, false, onSuccess(v2 -> {
+                assertSame(ctx, Vertx.currentContext());
+                startFuture.complete();
+              }));
+            }
+          });
+        }
+      }
+    };
+    vertx.deployVerticle(verticle, new DeploymentOptions().setWorker(true).setVirtualThreads(true), onSuccess(res -> {
+      assertTrue(Context.isOnEventLoopThread());
+      vertx.undeploy(res, onSuccess(res2 -> testComplete()));
+    }));
+    await();
+  }
+
+  @Test
+  public void testDeployVirtualThreadsNotWorker() throws Exception {
+    MyVerticle verticle = new MyVerticle();
+    try {
+      vertx.deployVerticle(verticle, new DeploymentOptions().setWorker(false).setVirtualThreads(true), ar -> {
+      });
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+  }
+
+  @Test
+  public void testDeployVirtualThreadsWithWorkerPoolName() throws Exception {
+    MyVerticle verticle = new MyVerticle();
+    try {
+      vertx.deployVerticle(verticle, new DeploymentOptions().setWorker(true).setVirtualThreads(true).setWorkerPoolName("pool"), ar -> {
+      });
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+  }
+
   @Test
   public void testStandardRightThread() throws Exception {
     assertFalse(Context.isOnVertxThread());
@@ -1,8 +1,13 @@
 package io.vertx.test.core;
 
+import io.vertx.core.AbstractVerticle;
+import io.vertx.core.eventbus.DeliveryOptions;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.MessageConsumer;
 import io.vertx.core.eventbus.MessageProducer;
+import io.vertx.core.eventbus.ReplyException;
+import io.vertx.core.eventbus.ReplyFailure;
+import io.vertx.core.eventbus.impl.MessageProducerImpl;
 import org.junit.Test;
 
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -104,6 +109,103 @@ public class EventBusFlowControlTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testFlowControlPausedConsumerKeepsMessages() {
+
+    MessageProducer<String> prod = eb.sender("some-address");
+    int wqms = 100;
+    prod.setWriteQueueMaxSize(wqms);
+
+    MessageConsumer<String> consumer = eb.consumer("some-address");
+    consumer.setMaxBufferedMessages(10);
+    consumer.pause();
+    AtomicInteger cnt = new AtomicInteger();
+    consumer.handler(msg -> {
+      assertEquals("message-" + cnt.get(), msg.body());
+      if (cnt.incrementAndGet() == wqms) {
+        testComplete();
+      }
+    });
+
+    for (int i = 0; i < wqms; i++) {
+      prod.send("message-" + i);
+    }
+    assertTrue(prod.writeQueueFull());
+    vertx.setTimer(100, tid -> consumer.resume());
+    await();
+  }
+
+  @Test
+  public void testSetWriteQueueMaxSizeWithMessagesInFlight() {
+
+    MessageProducer<String> prod = eb.sender("some-address");
+    for (int i = 0; i < 5; i++) {
+      prod.send("message-" + i);
+    }
+    prod.setWriteQueueMaxSize(5);
+    assertTrue(prod.writeQueueFull());
+    prod.setWriteQueueMaxSize(6);
+    assertFalse(prod.writeQueueFull());
+  }
+
+  @Test
+  public void testProducersWithoutContextShareCreditConsumer() {
+    DeliveryOptions options1 = new DeliveryOptions();
+    DeliveryOptions options2 = new DeliveryOptions();
+    eb.sender("some-address", options1);
+    eb.sender("some-address", options2);
+    assertEquals(creditAddress(options1), creditAddress(options2));
+  }
+
+  @Test
+  public void testCreditConsumerUnregisteredWithLastProducer() {
+    vertx.runOnContext(v -> {
+      DeliveryOptions options1 = new DeliveryOptions();
+      DeliveryOptions options2 = new DeliveryOptions();
+      MessageProducer<String> prod1 = eb.sender("some-address", options1);
+      MessageProducer<String> prod2 = eb.sender("some-address", options2);
+      String creditAddress = creditAddress(options1);
+      assertEquals(creditAddress, creditAddress(options2));
+      prod1.close();
+      prod2.close();
+      eb.send(creditAddress, 0, onFailure(err -> {
+        assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+        // A new credit consumer is registered for the next producer
+        DeliveryOptions options3 = new DeliveryOptions();
+        eb.sender("some-address", options3);
+        assertFalse(creditAddress.equals(creditAddress(options3)));
+        testComplete();
+      }));
+    });
+    await();
+  }
+
+  @Test
+  public void testCreditConsumerUnregisteredOnUndeploy() {
+    DeliveryOptions options = new DeliveryOptions();
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        // The producer is not closed by the verticle
+        vertx.eventBus().sender("some-address", options);
+      }
+    }, onSuccess(id -> {
+      String creditAddress = creditAddress(options);
+      vertx.undeploy(id, onSuccess(v -> {
+        eb.send(creditAddress, 0, onFailure(err -> {
+          assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+          testComplete();
+        }));
+      }));
+    }));
+    await();
+  }
+
+  private static String creditAddress(DeliveryOptions options) {
+    String header = options.getHeaders().get(MessageProducerImpl.CREDIT_ADDRESS_HEADER_NAME);
+    return header.substring(0, header.lastIndexOf('/'));
+  }
+
   @Override
   public void setUp() throws Exception {
     super.setUp();
@@ -1,6 +1,7 @@
 package io.vertx.test.core;
 
 import io.vertx.core.Handler;
+import io.vertx.core.eventbus.DeliveryContext;
 import io.vertx.core.eventbus.EventBus;
 import io.vertx.core.eventbus.SendContext;
 import org.junit.Test;
@@ -168,6 +169,69 @@ public class EventBusInterceptorTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testInboundInterceptor() {
+    eb.addInboundInterceptor(dc -> {
+      assertEquals("armadillo", dc.message().body());
+      assertTrue(dc.send());
+      dc.message().headers().add("traced", "true");
+      dc.next();
+    });
+    eb.consumer("some-address", msg -> {
+      assertEquals("armadillo", msg.body());
+      assertEquals("true", msg.headers().get("traced"));
+      testComplete();
+    });
+    eb.send("some-address", "armadillo");
+    await();
+  }
+
+  @Test
+  public void testInboundInterceptorReply() {
+    AtomicInteger cnt = new AtomicInteger();
+    eb.addInboundInterceptor(dc -> {
+      cnt.incrementAndGet();
+      dc.next();
+    });
+    eb.consumer("some-address", msg -> msg.reply("echidna"));
+    eb.send("some-address", "armadillo", reply -> {
+      assertTrue(reply.succeeded());
+      assertEquals("echidna", reply.result().body());
+      assertEquals(2, cnt.get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testInboundInterceptorNoNext() {
+    eb.addInboundInterceptor(dc -> {
+      assertEquals("armadillo", dc.message().body());
+    });
+    eb.consumer("some-address", msg -> {
+      fail("Should not receive message");
+    });
+    eb.send("some-address", "armadillo");
+    vertx.setTimer(200, tid -> testComplete());
+    await();
+  }
+
+  @Test
+  public void testRemoveInboundInterceptor() {
+    AtomicInteger cnt = new AtomicInteger();
+    Handler<DeliveryContext> interceptor = dc -> {
+      cnt.incrementAndGet();
+      dc.next();
+    };
+    eb.addInboundInterceptor(interceptor).removeInboundInterceptor(interceptor);
+    eb.consumer("some-address", msg -> {
+      assertEquals(0, cnt.get());
+      testComplete();
+    });
+    eb.send("some-address", "armadillo");
+    await();
+  }
+
   @Override
   public void setUp() throws Exception {
     super.setUp();
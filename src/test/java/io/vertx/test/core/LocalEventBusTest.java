@@ -19,15 +19,21 @@ package io.vertx.test.core;
 import io.vertx.core.*;
 import io.vertx.core.eventbus.*;
 import io.vertx.core.eventbus.impl.HandlerRegistration;
+import io.vertx.core.eventbus.impl.ReplyManager;
 import io.vertx.core.http.CaseInsensitiveHeaders;
 import io.vertx.core.impl.*;
+import io.vertx.core.json.JsonObject;
+import io.vertx.core.shareddata.Shareable;
 import io.vertx.core.streams.Pump;
 import io.vertx.core.streams.ReadStream;
 import io.vertx.core.streams.WriteStream;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -206,6 +212,137 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testSendLeastPending() {
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v1 -> {
+      AtomicInteger received1 = new AtomicInteger();
+      AtomicInteger received2 = new AtomicInteger();
+      MessageConsumer<String> consumer1 = eb.consumer(ADDRESS1, msg -> {
+        assertEquals(4, received2.get());
+        if (received1.incrementAndGet() == 2) {
+          testComplete();
+        }
+      });
+      consumer1.pause();
+      MessageConsumer<String> consumer2 = eb.consumer(ADDRESS1, msg -> {
+        if (received2.incrementAndGet() == 4) {
+          assertEquals(0, received1.get());
+          consumer1.resume();
+        }
+      });
+      // Each consumer gets 2 messages, the paused consumer buffers them
+      for (int i = 0; i < 4; i++) {
+        eb.send(ADDRESS1, "foo");
+      }
+      ctx.runOnContext(v2 -> {
+        // The messages go to the consumer that has no buffered messages
+        DeliveryOptions options = new DeliveryOptions().setConsumerSelection(ConsumerSelection.LEAST_PENDING);
+        eb.send(ADDRESS1, "bar", options);
+        eb.send(ADDRESS1, "bar", options);
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testSendSameEventLoop() throws Exception {
+    Context ctx1 = vertx.getOrCreateContext();
+    Context ctx2 = vertx.getOrCreateContext();
+    assertNotSame(((ContextImpl) ctx1).nettyEventLoop(), ((ContextImpl) ctx2).nettyEventLoop());
+    int numMessages = 10;
+    AtomicInteger received = new AtomicInteger();
+    CountDownLatch registered = new CountDownLatch(2);
+    ctx1.runOnContext(v -> {
+      eb.consumer(ADDRESS1, msg -> {
+        assertSame(ctx1, Vertx.currentContext());
+        if (received.incrementAndGet() == numMessages) {
+          testComplete();
+        }
+      });
+      registered.countDown();
+    });
+    ctx2.runOnContext(v -> {
+      eb.consumer(ADDRESS1, msg -> fail("Should not receive message"));
+      registered.countDown();
+    });
+    awaitLatch(registered);
+    ctx1.runOnContext(v -> {
+      DeliveryOptions options = new DeliveryOptions().setConsumerSelection(ConsumerSelection.SAME_EVENT_LOOP);
+      for (int i = 0; i < numMessages; i++) {
+        eb.send(ADDRESS1, "foo", options);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testSendBatch() {
+    List<String> batch = Arrays.asList("foo", "bar", "juu");
+    AtomicInteger batches = new AtomicInteger();
+    MessageConsumer<String> consumer1 = eb.consumer(ADDRESS1);
+    MessageConsumer<String> consumer2 = eb.consumer(ADDRESS1);
+    for (MessageConsumer<String> consumer : Arrays.asList(consumer1, consumer2)) {
+      consumer.handler(msg -> fail("Should not receive message"));
+      consumer.batchHandler(msgs -> {
+        List<String> bodies = new ArrayList<>();
+        msgs.forEach(msg -> bodies.add(msg.body()));
+        assertEquals(batch, bodies);
+        if (batches.incrementAndGet() == 2) {
+          testComplete();
+        }
+      });
+    }
+    // Each batch is delivered to a single consumer
+    eb.sendBatch(ADDRESS1, batch);
+    eb.sendBatch(ADDRESS1, batch);
+    await();
+  }
+
+  @Test
+  public void testSendBatchWithoutBatchHandler() {
+    List<String> batch = Arrays.asList("foo", "bar", "juu");
+    List<String> received = new ArrayList<>();
+    Handler<Message<String>> handler = msg -> {
+      received.add(msg.body());
+      if (received.size() == batch.size()) {
+        assertEquals(batch, received);
+        testComplete();
+      }
+    };
+    // The batch is delivered to a single consumer
+    eb.consumer(ADDRESS1, handler);
+    eb.consumer(ADDRESS1, handler);
+    eb.sendBatch(ADDRESS1, batch);
+    await();
+  }
+
+  @Test
+  public void testSendBatchNoHandlers() {
+    eb.sendBatch(ADDRESS1, Arrays.asList("foo", "bar"));
+    eb.consumer(ADDRESS2, msg -> testComplete());
+    eb.send(ADDRESS2, "juu");
+    await();
+  }
+
+  @Test
+  public void testProducerWriteBatch() {
+    int numBatches = 10;
+    List<Integer> batch = Arrays.asList(0, 1, 2, 3, 4);
+    AtomicInteger received = new AtomicInteger();
+    eb.<Integer>consumer(ADDRESS1, msg -> {}).batchHandler(msgs -> {
+      assertEquals(batch.size(), msgs.size());
+      if (received.addAndGet(msgs.size()) == numBatches * batch.size()) {
+        testComplete();
+      }
+    });
+    MessageProducer<Integer> producer = eb.sender(ADDRESS1);
+    for (int i = 0; i < numBatches; i++) {
+      producer.writeBatch(batch);
+    }
+    await();
+  }
+
   @Test
   public void testSendRegisterSomeUnregisterOne() {
     String str = TestUtils.randomUnicodeString(100);
@@ -412,6 +549,145 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testReplyTimeoutOnRequestContext() {
+    eb.<String>consumer(ADDRESS1).handler(msg -> {
+      // Never replies
+    });
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      eb.send(ADDRESS1, "foo", new DeliveryOptions().setSendTimeout(100), ar1 -> {
+        assertSame(ctx, Vertx.currentContext());
+        assertTrue(ar1.failed());
+        assertEquals(ReplyFailure.TIMEOUT, ((ReplyException) ar1.cause()).failureType());
+        // The timed out request does not affect the next ones
+        eb.send(ADDRESS1, "bar", new DeliveryOptions().setSendTimeout(100), ar2 -> {
+          assertTrue(ar2.failed());
+          testComplete();
+        });
+      });
+    });
+    await();
+  }
+
+  @Test
+  public void testReplyAfterTimeoutIsNotDelivered() {
+    AtomicInteger calls = new AtomicInteger();
+    eb.<String>consumer(ADDRESS1).handler(msg -> {
+      vertx.setTimer(200, id -> {
+        msg.reply("late");
+        vertx.setTimer(100, id2 -> {
+          assertEquals(1, calls.get());
+          testComplete();
+        });
+      });
+    });
+    eb.send(ADDRESS1, "foo", new DeliveryOptions().setSendTimeout(50), ar -> {
+      assertEquals(1, calls.incrementAndGet());
+      assertTrue(ar.failed());
+    });
+    await();
+  }
+
+  @Test
+  public void testReplyHandlerRemovedOnUndeploy() {
+    List<Message<String>> requests = Collections.synchronizedList(new ArrayList<>());
+    List<String> deployments = Collections.synchronizedList(new ArrayList<>());
+    // The verticle is undeployed once deployed and its request received
+    AtomicInteger count = new AtomicInteger();
+    Runnable undeploy = () -> {
+      if (count.incrementAndGet() == 2) {
+        vertx.undeploy(deployments.get(0), onSuccess(v -> {
+          // The reply is not delivered to the handler of the undeployed verticle
+          requests.get(0).reply("bar", onFailure(err -> {
+            assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) err).failureType());
+            testComplete();
+          }));
+        }));
+      }
+    };
+    eb.<String>consumer(ADDRESS1).handler(msg -> {
+      requests.add(msg);
+      undeploy.run();
+    });
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        vertx.eventBus().send(ADDRESS1, "foo", ar -> fail("The reply handler should have been removed"));
+      }
+    }, onSuccess(id -> {
+      deployments.add(id);
+      undeploy.run();
+    }));
+    await();
+  }
+
+  @Test
+  public void testManyPendingRequests() {
+    int num = 1000;
+    List<Message<Integer>> requests = new ArrayList<>();
+    eb.<Integer>consumer(ADDRESS1).handler(msg -> {
+      requests.add(msg);
+      if (requests.size() == num) {
+        // Replied in reverse order
+        for (int i = num - 1; i >= 0; i--) {
+          Message<Integer> request = requests.get(i);
+          request.reply(request.body());
+        }
+      }
+    });
+    waitFor(num);
+    Set<String> replyAddresses = new HashSet<>();
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v -> {
+      for (int i = 0; i < num; i++) {
+        int val = i;
+        eb.<Integer>send(ADDRESS1, val, ar -> {
+          assertTrue(ar.succeeded());
+          assertEquals(val, (int) ar.result().body());
+          complete();
+        });
+      }
+    });
+    await();
+    for (Message<Integer> request : requests) {
+      assertTrue(replyAddresses.add(request.replyAddress()));
+    }
+  }
+
+  @Test
+  public void testReplyAddressIsReserved() {
+    eb.<String>consumer(ADDRESS1).handler(msg -> {
+      assertTrue(msg.replyAddress().startsWith(ReplyManager.REPLY_ADDRESS_PREFIX));
+      assertTrue(ReplyManager.isReplyAddress(msg.replyAddress()));
+      testComplete();
+    });
+    eb.send(ADDRESS1, "foo", ar -> {});
+    await();
+  }
+
+  @Test
+  public void testConsumerAtHexAddressWhileRequestPending() {
+    int num = 64;
+    waitFor(num + 1);
+    eb.<String>consumer(ADDRESS1).handler(msg -> {
+      // The request stays pending while the messages are sent to the addresses looking like the former reply ids
+      for (int i = 0; i < num; i++) {
+        String address = Long.toHexString(i);
+        eb.<String>consumer(address).handler(msg2 -> {
+          assertEquals(address, msg2.body());
+          complete();
+        }).completionHandler(onSuccess(v -> eb.send(address, address)));
+      }
+      vertx.setTimer(100, id -> msg.reply("bar"));
+    });
+    eb.send(ADDRESS1, "foo", onSuccess(reply -> {
+      assertEquals("bar", reply.body());
+      complete();
+    }));
+    await();
+  }
+
   @Test
   public void testSendWithTimeoutNoHandlers() {
     String str = TestUtils.randomUnicodeString(1000);
@@ -919,6 +1195,126 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testUnregisterDefaultDecoderAfterSend() throws Exception {
+    MessageCodec codec = new MyPOJOEncoder1();
+    vertx.eventBus().registerDefaultCodec(MyPOJO.class, codec);
+    vertx.eventBus().send(ADDRESS1, new MyPOJO("foo"));
+    vertx.eventBus().unregisterDefaultCodec(MyPOJO.class);
+    assertIllegalArgumentException(() -> vertx.eventBus().send(ADDRESS1, new MyPOJO("foo")));
+  }
+
+  @Test
+  public void testPublishCopiesBody() throws Exception {
+    JsonObject body = new JsonObject().put("foo", "bar");
+    testPublishBody(body, new DeliveryOptions(), false);
+  }
+
+  @Test
+  public void testPublishShareBody() throws Exception {
+    JsonObject body = new JsonObject().put("foo", "bar");
+    testPublishBody(body, new DeliveryOptions().setShareBody(true), true);
+  }
+
+  @Test
+  public void testPublishShareableBody() throws Exception {
+    JsonObject body = new ShareableJsonObject().put("foo", "bar");
+    testPublishBody(body, new DeliveryOptions(), true);
+  }
+
+  private void testPublishBody(JsonObject body, DeliveryOptions options, boolean shared) {
+    int numConsumers = 3;
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0; i < numConsumers; i++) {
+      eb.<JsonObject>consumer(ADDRESS1, msg -> {
+        assertEquals(body, msg.body());
+        if (shared) {
+          assertSame(body, msg.body());
+        } else {
+          assertNotSame(body, msg.body());
+        }
+        if (count.incrementAndGet() == numConsumers) {
+          testComplete();
+        }
+      });
+    }
+    eb.publish(ADDRESS1, body, options);
+    await();
+  }
+
+  static class ShareableJsonObject extends JsonObject implements Shareable {
+  }
+
+  @Test
+  public void testPublishToPatternConsumers() throws Exception {
+    AtomicInteger count = new AtomicInteger();
+    Handler<Message<String>> handler = msg -> {
+      assertEquals("devices.42.telemetry", msg.address());
+      if (count.incrementAndGet() == 4) {
+        vertx.setTimer(100, id -> testComplete());
+      }
+    };
+    eb.consumer("devices.42.telemetry", handler);
+    eb.consumer("devices.*.telemetry", handler);
+    eb.consumer("devices.#", handler);
+    eb.consumer("#.telemetry", handler);
+    eb.<String>consumer("devices.*", msg -> fail("Should not receive"));
+    eb.<String>consumer("devices.*.telemetry.*", msg -> fail("Should not receive"));
+    eb.publish("devices.42.telemetry", "foo");
+    await();
+  }
+
+  @Test
+  public void testSendToPatternConsumer() throws Exception {
+    MessageConsumer<String> exact = eb.consumer("devices.42.telemetry", msg -> {
+      assertEquals("first", msg.body());
+    });
+    eb.<String>consumer("devices.*.telemetry", msg -> {
+      assertEquals("second", msg.body());
+      testComplete();
+    });
+    // The consumers of the address are preferred to the pattern consumers
+    eb.send("devices.42.telemetry", "first");
+    exact.unregister(onSuccess(v -> eb.send("devices.42.telemetry", "second")));
+    await();
+  }
+
+  @Test
+  public void testSendToConsumersOfSeveralPatterns() throws Exception {
+    int num = 30;
+    String[] patterns = { "devices.*.telemetry", "devices.#", "#.telemetry" };
+    AtomicInteger[] counts = new AtomicInteger[patterns.length];
+    waitFor(num);
+    for (int i = 0; i < patterns.length; i++) {
+      AtomicInteger count = counts[i] = new AtomicInteger();
+      eb.<String>consumer(patterns[i], msg -> {
+        count.incrementAndGet();
+        complete();
+      });
+    }
+    for (int i = 0; i < num; i++) {
+      eb.send("devices.42.telemetry", "foo");
+    }
+    await();
+    // The consumers of all the patterns are chosen in turn
+    for (AtomicInteger count : counts) {
+      assertEquals(num / patterns.length, count.get());
+    }
+  }
+
+  @Test
+  public void testUnregisterPatternConsumer() throws Exception {
+    MessageConsumer<String> consumer = eb.consumer("devices.#", msg -> fail("Should not receive"));
+    consumer.unregister(onSuccess(v -> {
+      eb.send("devices.42.telemetry", "foo", ar -> {
+        assertTrue(ar.failed());
+        assertEquals(ReplyFailure.NO_HANDLERS, ((ReplyException) ar.cause()).failureType());
+        testComplete();
+      });
+    }));
+    await();
+  }
+
 
   @Override
   protected <T, R> void testSend(T val, R received, Consumer<T> consumer, DeliveryOptions options) {
@@ -1007,6 +1403,100 @@ public class LocalEventBusTest extends EventBusTestBase {
     await();
   }
 
+  @Test
+  public void testCoalescedMessages() {
+    int num = 100;
+    int max = 16;
+    AtomicBoolean taskExecuted = new AtomicBoolean();
+    vertx.runOnContext(v -> {
+      AtomicInteger count = new AtomicInteger();
+      MessageConsumer<Integer> consumer = eb.consumer(ADDRESS1);
+      consumer.setMaxCoalescedMessages(max);
+      assertEquals(max, consumer.getMaxCoalescedMessages());
+      consumer.handler(msg -> {
+        int i = count.getAndIncrement();
+        assertEquals(i, (int) msg.body());
+        if (i == 0) {
+          vertx.runOnContext(v2 -> taskExecuted.set(true));
+        }
+        // The first messages are handled by the same task, the next ones after the task scheduled above
+        assertEquals(i >= max, taskExecuted.get());
+        if (i == num - 1) {
+          testComplete();
+        }
+      });
+      for (int i = 0; i < num; i++) {
+        eb.send(ADDRESS1, i);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testLowerMaxCoalescedMessages() {
+    int num = 100;
+    vertx.runOnContext(v -> {
+      AtomicInteger count = new AtomicInteger();
+      MessageConsumer<Integer> consumer = eb.consumer(ADDRESS1);
+      consumer.setMaxCoalescedMessages(16);
+      consumer.handler(msg -> {
+        int i = count.getAndIncrement();
+        // The messages sent after the max is lowered don't overtake the coalesced messages
+        assertEquals(i, (int) msg.body());
+        if (i == num - 1) {
+          testComplete();
+        }
+      });
+      for (int i = 0; i < num / 2; i++) {
+        eb.send(ADDRESS1, i);
+      }
+      consumer.setMaxCoalescedMessages(1);
+      for (int i = num / 2; i < num; i++) {
+        eb.send(ADDRESS1, i);
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testCoalescedMessagesPauseResume() {
+    int num = 100;
+    AtomicInteger count = new AtomicInteger();
+    AtomicBoolean paused = new AtomicBoolean();
+    MessageConsumer<Integer> consumer = eb.<Integer>consumer(ADDRESS1).setMaxCoalescedMessages(8);
+    consumer.handler(msg -> {
+      // The messages coalesced with the message that paused the consumer are buffered
+      assertFalse(paused.get());
+      if (count.incrementAndGet() % 10 == 0) {
+        paused.set(true);
+        consumer.pause();
+        vertx.setTimer(1, id -> {
+          paused.set(false);
+          consumer.resume();
+        });
+      }
+      if (count.get() == num) {
+        testComplete();
+      }
+    });
+    consumer.completionHandler(onSuccess(v -> {
+      for (int i = 0; i < num; i++) {
+        eb.send(ADDRESS1, i);
+      }
+    }));
+    await();
+  }
+
+  @Test
+  public void testSetInvalidMaxCoalescedMessages() {
+    MessageConsumer<Integer> consumer = eb.consumer(ADDRESS1);
+    try {
+      consumer.setMaxCoalescedMessages(0);
+      fail();
+    } catch (IllegalArgumentException ignore) {
+    }
+  }
+
   @Test
   public void testPauseResumeMessageStream() {
     testPauseResume((consumer, handler) -> consumer.handler(message -> handler.handle(message.body())));
@@ -1303,5 +1793,56 @@ public class LocalEventBusTest extends EventBusTestBase {
     });
     await();
   }
+
+  @Test
+  public void testDirectDelivery() throws Exception {
+    closeVertx();
+    vertx = Vertx.vertx(new VertxOptions().setEventBusOptions(new EventBusOptions().setDirectDelivery(true)));
+    running = true;
+    Context ctx = vertx.getOrCreateContext();
+    ctx.runOnContext(v1 -> {
+      AtomicBoolean received = new AtomicBoolean();
+      vertx.eventBus().<String>consumer(ADDRESS1, msg -> {
+        assertSame(ctx, Vertx.currentContext());
+        assertEquals("foo", msg.body());
+        received.set(true);
+      });
+      vertx.eventBus().send(ADDRESS1, "foo");
+      assertTrue(received.get());
+      testComplete();
+    });
+    await();
+  }
+
+  @Test
+  public void testDirectDeliveryOrder() throws Exception {
+    closeVertx();
+    vertx = Vertx.vertx(new VertxOptions().setEventBusOptions(new EventBusOptions().setDirectDelivery(true)));
+    running = true;
+    Context ctx = vertx.getOrCreateContext();
+    List<Integer> received = new ArrayList<>();
+    ctx.runOnContext(v1 -> {
+      vertx.eventBus().<Integer>consumer(ADDRESS1, msg -> {
+        int n = msg.body();
+        received.add(n);
+        if (n < 19) {
+          // Nested sends, the deepest ones are queued on the context
+          vertx.eventBus().send(ADDRESS1, n + 1);
+        } else if (n == 100) {
+          List<Integer> expected = new ArrayList<>();
+          for (int i = 0; i < 20; i++) {
+            expected.add(i);
+          }
+          expected.add(100);
+          assertEquals(expected, received);
+          testComplete();
+        }
+      });
+      vertx.eventBus().send(ADDRESS1, 0);
+      // Must not overtake the queued messages
+      vertx.eventBus().send(ADDRESS1, 100);
+    });
+    await();
+  }
 }
 
@@ -26,6 +26,7 @@ import io.vertx.core.eventbus.ReplyFailure;
 import io.vertx.core.file.FileSystem;
 import io.vertx.core.http.*;
 import io.vertx.core.metrics.MetricsOptions;
+import io.vertx.core.metrics.impl.DefaultEventLoopMetrics;
 import io.vertx.core.net.NetSocket;
 import io.vertx.core.spi.metrics.PoolMetrics;
 import io.vertx.test.fakemetrics.*;
@@ -671,6 +672,33 @@ public class MetricsTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testEventLoopMetrics() {
+    FakeVertxMetrics metrics = FakeMetricsBase.getMetrics(vertx);
+    Map<String, DefaultEventLoopMetrics> all = metrics.getEventLoopMetrics();
+    assertEquals(getOptions().getEventLoopPoolSize(), all.size());
+    Context ctx = vertx.getOrCreateContext();
+    int num = 1000;
+    AtomicInteger count = new AtomicInteger();
+    for (int i = 0; i < num; i++) {
+      ctx.runOnContext(v -> {
+        if (count.incrementAndGet() == num) {
+          testComplete();
+        }
+      });
+    }
+    await();
+    // The execution time of one task in SAMPLING is measured
+    waitUntil(() -> all.values().stream().mapToLong(m -> Arrays.stream(m.getExecutionTimes()).sum()).sum() >= num / 16);
+    // Each event loop is probed periodically
+    waitUntil(() -> all.values().stream().allMatch(m -> Arrays.stream(m.getSchedulingDelays()).sum() > 0));
+    for (DefaultEventLoopMetrics eventLoopMetrics : all.values()) {
+      assertTrue(eventLoopMetrics.getPendingTasks() >= 0);
+      double ratio = eventLoopMetrics.getIoRatio();
+      assertTrue(ratio >= 0 && ratio <= 1);
+    }
+  }
+
   @Test
   public void testThreadPoolMetricsWithExecuteBlocking() {
     Map<String, PoolMetrics> all = FakeThreadPoolMetrics.getThreadPoolMetrics();
@@ -19,7 +19,10 @@ package io.vertx.test.core;
 import io.vertx.core.AbstractVerticle;
 import io.vertx.core.Context;
 import io.vertx.core.DeploymentOptions;
+import io.vertx.core.Vertx;
+import io.vertx.core.VertxOptions;
 import io.vertx.core.WorkerExecutor;
+import io.vertx.core.WorkerPoolType;
 import org.junit.Test;
 
 import java.util.Collections;
@@ -29,6 +32,7 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
@@ -99,6 +103,23 @@ public class NamedWorkerPoolTest extends VertxTestBase {
 
   @Test
   public void testUnordered() throws Exception {
+    testUnordered(vertx);
+  }
+
+  @Test
+  public void testUnorderedWorkStealing() throws Exception {
+    Vertx vertx = Vertx.vertx(new VertxOptions().setWorkerPoolType(WorkerPoolType.WORK_STEALING));
+    try {
+      // The tasks are all submitted to the queue of a single thread, the other threads steal them
+      testUnordered(vertx);
+    } finally {
+      CountDownLatch closed = new CountDownLatch(1);
+      vertx.close(ar -> closed.countDown());
+      awaitLatch(closed);
+    }
+  }
+
+  private void testUnordered(Vertx vertx) throws Exception {
     String poolName = "vert.x-" + TestUtils.randomAlphaString(10);
     int num = 5;
     waitFor(num);
@@ -204,6 +225,32 @@ public class NamedWorkerPoolTest extends VertxTestBase {
     waitUntil(() -> thread.get() != null && thread.get().getState() == Thread.State.TERMINATED);
   }
 
+  @Test
+  public void testDeployUsingWorkStealingNamedPool() throws Exception {
+    AtomicReference<Thread> thread = new AtomicReference<>();
+    String poolName = "vert.x-" + TestUtils.randomAlphaString(10);
+    int num = 100;
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() throws Exception {
+        AtomicInteger count = new AtomicInteger();
+        for (int i = 0; i < num; i++) {
+          vertx.executeBlocking(fut -> {
+            thread.set(Thread.currentThread());
+            assertTrue(Context.isOnWorkerThread());
+            assertTrue(Thread.currentThread().getName().startsWith(poolName + "-"));
+            fut.complete();
+          }, false, onSuccess(v -> {
+            if (count.incrementAndGet() == num) {
+              vertx.undeploy(context.deploymentID());
+            }
+          }));
+        }
+      }
+    }, new DeploymentOptions().setWorkerPoolName(poolName).setWorkerPoolType(WorkerPoolType.WORK_STEALING), onSuccess(v -> {}));
+    waitUntil(() -> thread.get() != null && thread.get().getState() == Thread.State.TERMINATED);
+  }
+
   @Test
   public void testDeployWorkerUsingNamedPool() throws Exception {
     AtomicReference<Thread> thread = new AtomicReference<>();
@@ -106,6 +106,22 @@ public class NetTest extends VertxTestBase {
     assertEquals(options, options.setReuseAddress(false));
     assertFalse(options.isReuseAddress());
 
+    assertFalse(options.isReusePort());
+    assertEquals(options, options.setReusePort(true));
+    assertTrue(options.isReusePort());
+
+    assertTrue(options.isEdgeTriggered());
+    assertEquals(options, options.setEdgeTriggered(false));
+    assertFalse(options.isEdgeTriggered());
+
+    assertFalse(options.isTcpFastOpen());
+    assertEquals(options, options.setTcpFastOpen(true));
+    assertTrue(options.isTcpFastOpen());
+
+    assertFalse(options.isTcpQuickAck());
+    assertEquals(options, options.setTcpQuickAck(true));
+    assertTrue(options.isTcpQuickAck());
+
     assertEquals(NetworkOptions.DEFAULT_TRAFFIC_CLASS, options.getTrafficClass());
     rand = 23;
     assertEquals(options, options.setTrafficClass(rand));
@@ -213,6 +229,22 @@ public class NetTest extends VertxTestBase {
     assertEquals(options, options.setReuseAddress(false));
     assertFalse(options.isReuseAddress());
 
+    assertFalse(options.isReusePort());
+    assertEquals(options, options.setReusePort(true));
+    assertTrue(options.isReusePort());
+
+    assertTrue(options.isEdgeTriggered());
+    assertEquals(options, options.setEdgeTriggered(false));
+    assertFalse(options.isEdgeTriggered());
+
+    assertFalse(options.isTcpFastOpen());
+    assertEquals(options, options.setTcpFastOpen(true));
+    assertTrue(options.isTcpFastOpen());
+
+    assertFalse(options.isTcpQuickAck());
+    assertEquals(options, options.setTcpQuickAck(true));
+    assertTrue(options.isTcpQuickAck());
+
     assertEquals(NetworkOptions.DEFAULT_TRAFFIC_CLASS, options.getTrafficClass());
     rand = 23;
     assertEquals(options, options.setTrafficClass(rand));
@@ -324,9 +356,13 @@ public class NetTest extends VertxTestBase {
     long reconnectInterval = TestUtils.randomPositiveInt();
     boolean useAlpn = TestUtils.randomBoolean();
     SSLEngine sslEngine = TestUtils.randomBoolean() ? SSLEngine.JDK : SSLEngine.OPENSSL;
+    boolean reusePort = rand.nextBoolean();
+    boolean tcpQuickAck = rand.nextBoolean();
     options.setSendBufferSize(sendBufferSize);
     options.setReceiveBufferSize(receiverBufferSize);
     options.setReuseAddress(reuseAddress);
+    options.setReusePort(reusePort);
+    options.setTcpQuickAck(tcpQuickAck);
     options.setTrafficClass(trafficClass);
     options.setSsl(ssl);
     options.setTcpNoDelay(tcpNoDelay);
@@ -350,6 +386,8 @@ public class NetTest extends VertxTestBase {
     assertEquals(sendBufferSize, copy.getSendBufferSize());
     assertEquals(receiverBufferSize, copy.getReceiveBufferSize());
     assertEquals(reuseAddress, copy.isReuseAddress());
+    assertEquals(reusePort, copy.isReusePort());
+    assertEquals(tcpQuickAck, copy.isTcpQuickAck());
     assertEquals(trafficClass, copy.getTrafficClass());
     assertEquals(tcpNoDelay, copy.isTcpNoDelay());
     assertEquals(tcpKeepAlive, copy.isTcpKeepAlive());
@@ -630,6 +668,10 @@ public class NetTest extends VertxTestBase {
     int acceptBacklog = TestUtils.randomPortInt();
     boolean useAlpn = TestUtils.randomBoolean();
     SSLEngine sslEngine = TestUtils.randomBoolean() ? SSLEngine.JDK : SSLEngine.OPENSSL;
+    boolean reusePort = rand.nextBoolean();
+    boolean edgeTriggered = rand.nextBoolean();
+    boolean tcpFastOpen = rand.nextBoolean();
+    boolean tcpQuickAck = rand.nextBoolean();
 
     JsonObject json = new JsonObject();
     json.put("sendBufferSize", sendBufferSize)
@@ -650,7 +692,11 @@ public class NetTest extends VertxTestBase {
       .put("host", host)
       .put("acceptBacklog", acceptBacklog)
       .put("useAlpn", useAlpn)
-      .put("sslEngine", sslEngine.name());
+      .put("sslEngine", sslEngine.name())
+      .put("reusePort", reusePort)
+      .put("edgeTriggered", edgeTriggered)
+      .put("tcpFastOpen", tcpFastOpen)
+      .put("tcpQuickAck", tcpQuickAck);
 
     NetServerOptions options = new NetServerOptions(json);
     assertEquals(sendBufferSize, options.getSendBufferSize());
@@ -678,6 +724,10 @@ public class NetTest extends VertxTestBase {
     assertEquals(acceptBacklog, options.getAcceptBacklog());
     assertEquals(useAlpn, options.isUseAlpn());
     assertEquals(sslEngine, options.getSslEngine());
+    assertEquals(reusePort, options.isReusePort());
+    assertEquals(edgeTriggered, options.isEdgeTriggered());
+    assertEquals(tcpFastOpen, options.isTcpFastOpen());
+    assertEquals(tcpQuickAck, options.isTcpQuickAck());
 
     // Test other keystore/truststore types
     json.remove("keyStoreOptions");
@@ -1424,6 +1474,63 @@ public class NetTest extends VertxTestBase {
     testSharedServersRoundRobin();
   }
 
+  @Test
+  public void testSharedServersReusePort() throws Exception {
+    // Each event loop binds its own server socket with the native transport, otherwise a single acceptor is used
+    Vertx vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(true));
+    try {
+      int numServers = 5;
+      int numConnections = numServers * 20;
+      List<NetServer> servers = new ArrayList<>();
+      Map<NetServer, AtomicInteger> connectCount = new ConcurrentHashMap<>();
+      CountDownLatch latchListen = new CountDownLatch(numServers);
+      for (int i = 0; i < numServers; i++) {
+        NetServer theServer = vertx.createNetServer(new NetServerOptions().setHost("localhost").setPort(1234).setReusePort(true));
+        servers.add(theServer);
+        connectCount.put(theServer, new AtomicInteger());
+        theServer.connectHandler(sock -> {
+          connectCount.get(theServer).incrementAndGet();
+          sock.handler(sock::write);
+        }).listen(onSuccess(s -> latchListen.countDown()));
+      }
+      awaitLatch(latchListen);
+      for (NetServer server : servers) {
+        assertEquals(1234, server.actualPort());
+      }
+      NetClient client = vertx.createNetClient();
+      CountDownLatch latchClient = new CountDownLatch(numConnections);
+      for (int i = 0; i < numConnections; i++) {
+        client.connect(1234, "localhost", onSuccess(so -> {
+          so.handler(buff -> latchClient.countDown());
+          so.write("ping");
+        }));
+      }
+      awaitLatch(latchClient);
+      int total = 0;
+      for (AtomicInteger count : connectCount.values()) {
+        assertTrue(count.get() > 0);
+        total += count.get();
+      }
+      assertEquals(numConnections, total);
+
+      // Close some servers, the remaining ones must still get all the connections
+      CountDownLatch closeLatch = new CountDownLatch(2);
+      servers.get(0).close(onSuccess(v -> closeLatch.countDown()));
+      servers.get(1).close(onSuccess(v -> closeLatch.countDown()));
+      awaitLatch(closeLatch);
+      CountDownLatch latchClient2 = new CountDownLatch(numConnections);
+      for (int i = 0; i < numConnections; i++) {
+        client.connect(1234, "localhost", onSuccess(so -> {
+          so.handler(buff -> latchClient2.countDown());
+          so.write("ping");
+        }));
+      }
+      awaitLatch(latchClient2);
+    } finally {
+      vertx.close();
+    }
+  }
+
   @Test
   // This tests using NetSocket.writeHandlerID (on the server side)
   // Send some data and make sure it is fanned out to all connections
@@ -1596,6 +1703,28 @@ public class NetTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testPreferNativeTransport() {
+    // Falls back to the JDK transport when the native transport cannot be loaded
+    Vertx vertx = Vertx.vertx(new VertxOptions().setPreferNativeTransport(true));
+    try {
+      NetServer server = vertx.createNetServer(new NetServerOptions().setPort(1234).setHost("localhost"));
+      server.connectHandler(sock -> sock.handler(sock::write));
+      server.listen(onSuccess(s -> {
+        vertx.createNetClient().connect(1234, "localhost", onSuccess(so -> {
+          so.handler(buff -> {
+            assertEquals("ping", buff.toString());
+            testComplete();
+          });
+          so.write("ping");
+        }));
+      }));
+      await();
+    } finally {
+      vertx.close();
+    }
+  }
+
   @Test
   public void testServerOptionsCopiedBeforeUse() {
     server.close();
@@ -23,9 +23,11 @@ import io.vertx.core.Vertx;
 import io.vertx.core.streams.ReadStream;
 import org.junit.Test;
 
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * @author <a href="http://tfox.org">Tim Fox</a>
@@ -60,6 +62,56 @@ public class TimerTest extends VertxTestBase {
     await();
   }
 
+  @Test
+  public void testManyTimers() throws Exception {
+    // The delays span several rounds of the timer wheel
+    int num = 2000;
+    long start = System.nanoTime();
+    AtomicInteger fired = new AtomicInteger();
+    vertx.runOnContext(v -> {
+      for (int i = 0; i < num; i++) {
+        long delay = 1 + (i * 7) % 1200;
+        boolean cancel = i % 2 == 0;
+        long id = vertx.setTimer(delay, timerID -> {
+          assertFalse(cancel);
+          assertTrue(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start) >= delay);
+          if (fired.incrementAndGet() == num / 2) {
+            setEndTimer();
+          }
+        });
+        if (cancel) {
+          assertTrue(vertx.cancelTimer(id));
+        }
+      }
+    });
+    await();
+  }
+
+  @Test
+  public void testCancelTimersOnUndeploy() throws Exception {
+    AtomicInteger fired = new AtomicInteger();
+    AtomicReference<String> deploymentID = new AtomicReference<>();
+    vertx.deployVerticle(new AbstractVerticle() {
+      @Override
+      public void start() {
+        vertx.setTimer(1000, id -> fail("Timer should be cancelled"));
+        vertx.setPeriodic(1, id -> fired.incrementAndGet());
+      }
+    }, onSuccess(deploymentID::set));
+    waitUntil(() -> deploymentID.get() != null && fired.get() > 5);
+    vertx.undeploy(deploymentID.get(), onSuccess(v -> {
+      // A period may already be queued on the context
+      vertx.setTimer(10, id1 -> {
+        int count = fired.get();
+        vertx.setTimer(1100, id2 -> {
+          assertEquals(count, fired.get());
+          testComplete();
+        });
+      });
+    }));
+    await();
+  }
+
   @Test
   public void testInVerticle() throws Exception {
     class MyVerticle extends AbstractVerticle {
@@ -16,7 +16,9 @@
 
 package io.vertx.test.core;
 
+import io.vertx.core.EventLoopChooserType;
 import io.vertx.core.VertxOptions;
+import io.vertx.core.WorkerPoolType;
 import io.vertx.core.json.JsonObject;
 import io.vertx.core.metrics.MetricsOptions;
 import io.vertx.core.spi.cluster.ClusterManager;
@@ -63,6 +65,24 @@ public class VertxOptionsTest extends VertxTestBase {
     } catch (IllegalArgumentException e) {
       // OK
     }
+    assertEquals(WorkerPoolType.FIXED, options.getWorkerPoolType());
+    assertEquals(options, options.setWorkerPoolType(WorkerPoolType.WORK_STEALING));
+    assertEquals(WorkerPoolType.WORK_STEALING, options.getWorkerPoolType());
+    try {
+      options.setWorkerPoolType(null);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
+    assertEquals(EventLoopChooserType.ROUND_ROBIN, options.getEventLoopChooserType());
+    assertEquals(options, options.setEventLoopChooserType(EventLoopChooserType.LOAD_AWARE));
+    assertEquals(EventLoopChooserType.LOAD_AWARE, options.getEventLoopChooserType());
+    try {
+      options.setEventLoopChooserType(null);
+      fail("Should throw exception");
+    } catch (IllegalArgumentException e) {
+      // OK
+    }
     assertFalse(options.isClustered());
     assertEquals(options, options.setClustered(true));
     assertTrue(options.isClustered());
@@ -198,6 +218,10 @@ public class VertxOptionsTest extends VertxTestBase {
     }
     assertEquals(options, options.setWarningExceptionTime(1000000000l));
     assertEquals(1000000000l, options.getWarningExceptionTime());
+
+    assertEquals(VertxOptions.DEFAULT_PREFER_NATIVE_TRANSPORT, options.getPreferNativeTransport());
+    assertEquals(options, options.setPreferNativeTransport(true));
+    assertTrue(options.getPreferNativeTransport());
   }
 
   @Test
@@ -222,6 +246,7 @@ public class VertxOptionsTest extends VertxTestBase {
     int quorumSize = 51214;
     String haGroup = TestUtils.randomAlphaString(100);
     long warningExceptionTime = TestUtils.randomPositiveLong();
+    boolean preferNativeTransport = rand.nextBoolean();
     options.setClusterPort(clusterPort);
     options.setClusterPublicPort(clusterPublicPort);
     options.setEventLoopPoolSize(eventLoopPoolSize);
@@ -241,6 +266,9 @@ public class VertxOptionsTest extends VertxTestBase {
         new MetricsOptions().
             setEnabled(metricsEnabled));
     options.setWarningExceptionTime(warningExceptionTime);
+    options.setPreferNativeTransport(preferNativeTransport);
+    options.setWorkerPoolType(WorkerPoolType.WORK_STEALING);
+    options.setEventLoopChooserType(EventLoopChooserType.LOAD_AWARE);
     options = new VertxOptions(options);
     assertEquals(clusterPort, options.getClusterPort());
     assertEquals(clusterPublicPort, options.getClusterPublicPort());
@@ -261,6 +289,9 @@ public class VertxOptionsTest extends VertxTestBase {
     assertNotNull(metricsOptions);
     assertEquals(metricsEnabled, metricsOptions.isEnabled());
     assertEquals(warningExceptionTime, options.getWarningExceptionTime());
+    assertEquals(preferNativeTransport, options.getPreferNativeTransport());
+    assertEquals(WorkerPoolType.WORK_STEALING, options.getWorkerPoolType());
+    assertEquals(EventLoopChooserType.LOAD_AWARE, options.getEventLoopChooserType());
   }
 
   @Test
@@ -283,6 +314,9 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(def.getQuorumSize(), json.getQuorumSize());
     assertEquals(def.getHAGroup(), json.getHAGroup());
     assertEquals(def.getWarningExceptionTime(), json.getWarningExceptionTime());
+    assertEquals(def.getPreferNativeTransport(), json.getPreferNativeTransport());
+    assertEquals(def.getWorkerPoolType(), json.getWorkerPoolType());
+    assertEquals(def.getEventLoopChooserType(), json.getEventLoopChooserType());
   }
 
   @Test
@@ -307,6 +341,7 @@ public class VertxOptionsTest extends VertxTestBase {
     assertEquals(VertxOptions.DEFAULT_HA_GROUP, options.getHAGroup());
     assertNotNull(options.getMetricsOptions());
     assertEquals(5000000000l, options.getWarningExceptionTime());
+    assertFalse(options.getPreferNativeTransport());
     int clusterPort = TestUtils.randomPortInt();
     int clusterPublicPort = TestUtils.randomPortInt();
     int eventLoopPoolSize = TestUtils.randomPositiveInt();
@@ -328,6 +363,7 @@ public class VertxOptionsTest extends VertxTestBase {
     boolean metricsEnabled = rand.nextBoolean();
     boolean jmxEnabled = rand.nextBoolean();
     String jmxDomain = TestUtils.randomAlphaString(100);
+    boolean preferNativeTransport = rand.nextBoolean();
     options = new VertxOptions(new JsonObject().
         put("clusterPort", clusterPort).
         put("clusterPublicPort", clusterPublicPort).
@@ -346,6 +382,9 @@ public class VertxOptionsTest extends VertxTestBase {
         put("quorumSize", quorumSize).
         put("haGroup", haGroup).
         put("warningExceptionTime", warningExceptionTime).
+        put("preferNativeTransport", preferNativeTransport).
+        put("workerPoolType", "WORK_STEALING").
+        put("eventLoopChooserType", "LOAD_AWARE").
         put("metricsOptions", new JsonObject().
             put("enabled", metricsEnabled).
             put("jmxEnabled", jmxEnabled).
@@ -370,5 +409,8 @@ public class VertxOptionsTest extends VertxTestBase {
     MetricsOptions metricsOptions = options.getMetricsOptions();
     assertEquals(metricsEnabled, metricsOptions.isEnabled());
     assertEquals(warningExceptionTime, options.getWarningExceptionTime());
+    assertEquals(preferNativeTransport, options.getPreferNativeTransport());
+    assertEquals(WorkerPoolType.WORK_STEALING, options.getWorkerPoolType());
+    assertEquals(EventLoopChooserType.LOAD_AWARE, options.getEventLoopChooserType());
   }
 }
@@ -25,6 +25,7 @@ import io.vertx.core.http.HttpClient;
 import io.vertx.core.http.HttpClientOptions;
 import io.vertx.core.http.HttpServer;
 import io.vertx.core.http.HttpServerOptions;
+import io.vertx.core.metrics.impl.DefaultEventLoopMetrics;
 import io.vertx.core.net.NetClient;
 import io.vertx.core.net.NetClientOptions;
 import io.vertx.core.net.NetServer;
@@ -32,6 +33,8 @@ import io.vertx.core.net.NetServerOptions;
 import io.vertx.core.net.SocketAddress;
 import io.vertx.core.spi.metrics.*;
 
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.atomic.AtomicReference;
 
@@ -42,6 +45,8 @@ public class FakeVertxMetrics extends FakeMetricsBase implements VertxMetrics {
 
   public static AtomicReference<EventBus> eventBus = new AtomicReference<>();
 
+  private final Map<String, DefaultEventLoopMetrics> eventLoopMetrics = new ConcurrentHashMap<>();
+
   public FakeVertxMetrics(Vertx vertx) {
     super(vertx);
   }
@@ -140,6 +145,17 @@ public class FakeVertxMetrics extends FakeMetricsBase implements VertxMetrics {
     return new FakeThreadPoolMetrics(poolName, maxPoolSize);
   }
 
+  @Override
+  public EventLoopMetrics createEventLoopMetrics(String name) {
+    DefaultEventLoopMetrics metrics = new DefaultEventLoopMetrics(name);
+    eventLoopMetrics.put(name, metrics);
+    return metrics;
+  }
+
+  public Map<String, DefaultEventLoopMetrics> getEventLoopMetrics() {
+    return eventLoopMetrics;
+  }
+
   public boolean isEnabled() {
     return true;
   }